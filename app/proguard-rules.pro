@@ -1,21 +1,47 @@
-# Add project specific ProGuard rules here.
-# You can control the set of applied configuration files using the
-# proguardFiles setting in build.gradle.
-#
-# For more details, see
-#   http://developer.android.com/guide/developing/tools/proguard.html
+# Project specific R8 rules. Release builds run R8 in full mode
+# (android.enableR8.fullMode in gradle.properties), which assumes nothing is
+# reached by reflection unless a rule here says so.
 
-# If your project uses WebView with JS, uncomment the following
-# and specify the fully qualified class name to the JavaScript interface
-# class:
-#-keepclassmembers class fqcn.of.javascript.interface.for.webview {
-#   public *;
-#}
+# Keep file and line numbers for crash reports; retrace them with the
+# mapping.txt from build/outputs/mapping/release/.
+-keepattributes SourceFile,LineNumberTable
+-renamesourcefileattribute SourceFile
 
-# Uncomment this to preserve the line number information for
-# debugging stack traces.
-#-keepattributes SourceFile,LineNumberTable
+# Game models exchanged with the server. NetworkService and GameWireCodec
+# read and write them field by field, so nothing here is strictly reflective,
+# but the names are kept stable so payload logs, crash reports and any future
+# JSON mapper line up with the server's ServerGameState. Their methods can
+# still be optimized.
+-keep,allowoptimization class com.gfg.NaarPazham.ServerGameState {
+    <init>();
+    <fields>;
+}
+-keep,allowoptimization class com.gfg.NaarPazham.PlayerMove {
+    <init>(...);
+    <fields>;
+}
+-keep,allowoptimization class com.gfg.NaarPazham.MoveRequest {
+    <init>(...);
+    <fields>;
+}
 
-# If you keep the line number information, uncomment this to
-# hide the original source file name.
-#-renamesourcefileattribute SourceFile
\ No newline at end of file
+# QueueStateStore saves QueueState by name() and restores it with valueOf(),
+# so the constants must keep their names across releases.
+-keepclassmembers enum com.gfg.NaarPazham.QueueState {
+    <fields>;
+}
+
+# GameLog debug and verbose calls are dropped from release builds along with
+# their arguments, and isDebugEnabled() is folded to false so the blocks it
+# guards go too. Plain android.util.Log debug calls get the same treatment.
+-assumenosideeffects class com.gfg.NaarPazham.GameLog {
+    public static void v(...);
+    public static void d(...);
+}
+-assumevalues class com.gfg.NaarPazham.GameLog {
+    public static boolean isDebugEnabled() return false;
+}
+-assumenosideeffects class android.util.Log {
+    public static int v(...);
+    public static int d(...);
+}
@@ -0,0 +1,117 @@
+package com.gfg.NaarPazham;
+
+import android.util.AtomicFile;
+import android.util.Log;
+
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Writes a small file that always holds one whole record, off the calling
+ * thread. Each write goes through AtomicFile (temp file, then rename), so a
+ * crash leaves either the old record or the new one. Records submitted while
+ * a write is in flight collapse into a single write of the latest.
+ *
+ * All writers share one background thread; records are tiny, so it never
+ * falls behind.
+ */
+public class AtomicRecordWriter {
+    private static final String TAG = "AtomicRecordWriter";
+
+    // Marks a pending delete in the write slot
+    private static final byte[] DELETE = new byte[0];
+
+    private static final ExecutorService writerThread = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "AtomicRecordWriter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicFile file;
+    private final AtomicReference<byte[]> pending = new AtomicReference<>();
+    private final AtomicBoolean writeScheduled = new AtomicBoolean(false);
+
+    public AtomicRecordWriter(AtomicFile file) {
+        if (file == null) {
+            throw new IllegalArgumentException("File cannot be null");
+        }
+        this.file = file;
+    }
+
+    /** Queue a record to replace the file's contents; returns at once. */
+    public void write(byte[] record) {
+        if (record == null || record.length == 0) {
+            throw new IllegalArgumentException("Record cannot be empty");
+        }
+        schedule(record);
+    }
+
+    /** Queue removal of the file. */
+    public void delete() {
+        schedule(DELETE);
+    }
+
+    /** Read the file's current record on the calling thread; null if there is none. */
+    public byte[] read() {
+        try {
+            return file.readFully();
+        } catch (FileNotFoundException e) {
+            return null;
+        } catch (IOException e) {
+            Log.w(TAG, "Could not read " + file.getBaseFile(), e);
+            return null;
+        }
+    }
+
+    /** Run a task on the shared writer thread, ordered with the writes. */
+    public static void runOnWriterThread(Runnable task) {
+        writerThread.execute(task);
+    }
+
+    // ===== WRITING =====
+
+    private void schedule(byte[] record) {
+        pending.set(record);
+        if (writeScheduled.compareAndSet(false, true)) {
+            writerThread.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            byte[] record = pending.getAndSet(null);
+            if (record == null) {
+                writeScheduled.set(false);
+                // A record may have landed between the getAndSet and the flag reset
+                if (pending.get() == null || !writeScheduled.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            if (record == DELETE) {
+                file.delete();
+            } else {
+                writeNow(record);
+            }
+        }
+    }
+
+    private void writeNow(byte[] record) {
+        FileOutputStream out = null;
+        try {
+            out = file.startWrite();
+            out.write(record);
+            file.finishWrite(out);
+        } catch (IOException e) {
+            Log.w(TAG, "Could not write " + file.getBaseFile(), e);
+            if (out != null) {
+                file.failWrite(out);
+            }
+        }
+    }
+}
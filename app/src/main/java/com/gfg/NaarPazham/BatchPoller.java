@@ -0,0 +1,99 @@
+package com.gfg.NaarPazham;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * One periodic tick for every poller in the app. On each tick the
+ * registered participants add whatever reads they are due for to a single
+ * {@link NetworkService.Batch}, which goes out as one request instead of one
+ * per poller. Ticks wait out any {@link Backpressure} cooldown.
+ *
+ * Participants keep their own schedule and use {@link #isDue(long, long)} to
+ * decide whether to take part in a tick. Register and unregister from the
+ * main thread.
+ */
+public class BatchPoller {
+    private static final String TAG = "BatchPoller";
+    public static final long TICK_MS = 2000;
+
+    public interface Participant {
+        /** Add this tick's reads, if any, to {@code batch}. Runs on the main thread. */
+        void contribute(NetworkService.Batch batch, long nowMs);
+    }
+
+    private final NetworkService networkService;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final List<Participant> participants = new CopyOnWriteArrayList<>();
+    private final Runnable tick = this::tick;
+
+    BatchPoller(NetworkService networkService) {
+        if (networkService == null) {
+            throw new IllegalArgumentException("NetworkService cannot be null");
+        }
+        this.networkService = networkService;
+    }
+
+    /** Start ticking for {@code participant}; the first tick runs straight away. */
+    public void register(Participant participant) {
+        if (participant == null) {
+            throw new IllegalArgumentException("Participant cannot be null");
+        }
+        if (!participants.contains(participant)) {
+            participants.add(participant);
+        }
+        handler.removeCallbacks(tick);
+        handler.post(tick);
+    }
+
+    /** Stop ticking for {@code participant}; the tick stops with the last one. */
+    public void unregister(Participant participant) {
+        participants.remove(participant);
+        if (participants.isEmpty()) {
+            handler.removeCallbacks(tick);
+        }
+    }
+
+    public int getParticipantCount() {
+        return participants.size();
+    }
+
+    /**
+     * Whether a read due at {@code dueAtMs} belongs in the tick at
+     * {@code nowMs}. Reads due within half a tick go now rather than a whole
+     * tick late.
+     */
+    public static boolean isDue(long dueAtMs, long nowMs) {
+        return dueAtMs - nowMs <= TICK_MS / 2;
+    }
+
+    public static long now() {
+        return SystemClock.uptimeMillis();
+    }
+
+    private void tick() {
+        if (participants.isEmpty()) {
+            return;
+        }
+        NetworkService.Batch batch = networkService.newBatch();
+        long nowMs = now();
+        for (Participant participant : participants) {
+            try {
+                participant.contribute(batch, nowMs);
+            } catch (RuntimeException e) {
+                GameLog.e(TAG, "Batch participant failed", e);
+            }
+        }
+        if (batch.size() > 0) {
+            GameLog.v(TAG, "Tick: {} reads", batch.size());
+            batch.send();
+        }
+        if (!participants.isEmpty()) {
+            handler.postDelayed(tick, Backpressure.global().delayFor(TICK_MS));
+        }
+    }
+}
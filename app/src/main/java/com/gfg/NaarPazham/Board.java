@@ -66,24 +66,10 @@ public class Board {
             return false;
         }
 
-        int row1 = pos1[0], col1 = pos1[1];
-        int row2 = pos2[0], col2 = pos2[1];
-        int rowDiff = Math.abs(row1 - row2);
-        int colDiff = Math.abs(col1 - col2);
-
-        // Standard horizontal/vertical adjacency
-        if ((rowDiff == 1 && colDiff == 0) || (rowDiff == 0 && colDiff == 1)) {
-            return true;
-        }
-
-        // Special diagonal rules for Nine Men's Morris
-        // Only center position (1,1) connects diagonally to corners
-        if (rowDiff == 1 && colDiff == 1) {
-            // One position must be center (1,1)
-            return (row1 == 1 && col1 == 1) || (row2 == 1 && col2 == 1);
-        }
-
-        return false;
+        // Same adjacency table the server validates against
+        return GameRules.areAdjacent(
+                GameRules.cellIndex(pos1[1], pos1[0]),
+                GameRules.cellIndex(pos2[1], pos2[0]));
     }
 
     private static boolean containEdge(int[][] array, int[] target) {
@@ -0,0 +1,88 @@
+package com.gfg.NaarPazham;
+
+import android.content.ClipData;
+import android.content.ClipboardManager;
+import android.content.Context;
+import android.graphics.Typeface;
+import android.widget.ScrollView;
+import android.widget.TextView;
+import android.widget.Toast;
+import androidx.appcompat.app.AlertDialog;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Debug screen for what the client has seen since launch: latency
+ * percentiles and status counts per endpoint, retries and circuit breaker
+ * transitions, how many game polls brought anything new, and the most recent
+ * log events. "Copy JSON" puts {@link MetricsRegistry#toJson()} on the
+ * clipboard for bug reports. Opened by long-pressing the rules button, in
+ * debuggable builds only.
+ */
+public class DebugMetricsDialog {
+    private static final int RECENT_LOG_LINES = 40;
+
+    public static void show(Context context) {
+        MetricsRegistry metrics = MetricsRegistry.global();
+
+        TextView text = new TextView(context);
+        text.setTypeface(Typeface.MONOSPACE);
+        text.setTextSize(11);
+        text.setTextIsSelectable(true);
+        int padding = (int) (16 * context.getResources().getDisplayMetrics().density);
+        text.setPadding(padding, padding, padding, padding);
+        text.setText(describe(metrics));
+
+        ScrollView scroll = new ScrollView(context);
+        scroll.addView(text);
+
+        new AlertDialog.Builder(context)
+                .setTitle("Client Metrics")
+                .setView(scroll)
+                .setPositiveButton("Close", null)
+                .setNeutralButton("Copy JSON", (dialog, which) -> {
+                    ClipboardManager clipboard = (ClipboardManager) context.getSystemService(Context.CLIPBOARD_SERVICE);
+                    if (clipboard != null) {
+                        clipboard.setPrimaryClip(ClipData.newPlainText("NaarPazham metrics", metrics.toJson()));
+                        Toast.makeText(context, "Metrics copied", Toast.LENGTH_SHORT).show();
+                    }
+                })
+                .setNegativeButton("Reset", (dialog, which) -> metrics.reset())
+                .show();
+    }
+
+    static String describe(MetricsRegistry metrics) {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format(Locale.US, "Uptime %ds%n", metrics.uptimeMillis() / 1000));
+
+        long useful = metrics.count("poll.useful");
+        long empty = metrics.count("poll.empty");
+        if (useful + empty > 0) {
+            text.append(String.format(Locale.US, "Polls %d useful / %d empty (%.0f%% useful), %d errors%n",
+                    useful, empty, 100.0 * useful / (useful + empty), metrics.count("poll.errors")));
+        }
+
+        text.append(String.format(Locale.US, "%n%-16s%8s %5s %5s %5s %5s%n", "LATENCY (ms)", "n", "p50", "p90", "p99", "max"));
+        for (Map.Entry<String, LatencyHistogram> entry : metrics.histograms().entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            text.append(entry.getKey()).append('\n');
+            text.append(String.format(Locale.US, "%24d %5d %5d %5d %5d%n", histogram.getCount(),
+                    histogram.getPercentile(50), histogram.getPercentile(90),
+                    histogram.getPercentile(99), histogram.getMax()));
+        }
+
+        text.append("\nCOUNTERS\n");
+        for (Map.Entry<String, Long> counter : metrics.counters().entrySet()) {
+            text.append(String.format(Locale.US, "%6d  %s%n", counter.getValue(), counter.getKey()));
+        }
+
+        text.append("\nRECENT LOG\n");
+        List<LogRing.Event> events = GameLog.ring().snapshot();
+        for (LogRing.Event event : events.subList(Math.max(0, events.size() - RECENT_LOG_LINES), events.size())) {
+            text.append(event).append('\n');
+        }
+        return text.toString();
+    }
+}
@@ -1,7 +1,6 @@
 package com.gfg.NaarPazham;
 
 import android.graphics.Point;
-import android.util.Log;
 
 import java.util.ArrayList;
 
@@ -47,7 +46,7 @@ public class GameLogic {
     public void validatePlacement(int x, int y, String gameId, String playerId, PlacementCallback callback) {
         // FIXED: Null callback check
         if (callback == null) {
-            Log.e(TAG, "Placement callback is null");
+            GameLog.e(TAG, "Placement callback is null");
             return;
         }
 
@@ -63,7 +62,7 @@ public class GameLogic {
                 return;
             }
 
-            if (!"local-player".equals(playerId) && !PlayerIdGenerator.isValidPlayerId(playerId)) {
+            if (!IdentityStore.isValidPlayerId(playerId)) {
                 callback.onPlacementFailure("Player ID is invalid. Please restart the game.");
                 return;
             }
@@ -85,7 +84,7 @@ public class GameLogic {
             int boardX = boardPos[1]; // Column
             int boardY = boardPos[0]; // Row
 
-            Log.d(TAG, "Attempting placement at board position (" + boardX + "," + boardY + ")");
+            GameLog.d(TAG, "Attempting placement at board position ({},{})", boardX, boardY);
 
             // FIXED: Use processMove instead of makeMove for consistency
             networkService.processMove(gameId, playerId, boardX, boardY, null, null,
@@ -98,10 +97,10 @@ public class GameLogic {
                                     return;
                                 }
 
-                                Log.d(TAG, "Placement successful");
+                                GameLog.d(TAG, "Placement successful");
                                 callback.onPlacementSuccess(serverGameState);
                             } catch (Exception e) {
-                                Log.e(TAG, "Error processing placement success", e);
+                                GameLog.e(TAG, "Error processing placement success", e);
                                 callback.onPlacementFailure("Error processing server response: " + e.getMessage());
                             }
                         }
@@ -109,18 +108,18 @@ public class GameLogic {
                         @Override
                         public void onFailure(String errorMessage) {
                             try {
-                                Log.w(TAG, "Placement failed: " + errorMessage);
+                                GameLog.w(TAG, "Placement failed: {}", errorMessage);
                                 String safeErrorMessage = errorMessage != null && !errorMessage.trim().isEmpty()
                                         ? errorMessage : "Placement failed for unknown reason";
                                 callback.onPlacementFailure(safeErrorMessage);
                             } catch (Exception e) {
-                                Log.e(TAG, "Error processing placement failure", e);
+                                GameLog.e(TAG, "Error processing placement failure", e);
                             }
                         }
                     });
 
         } catch (Exception e) {
-            Log.e(TAG, "Unexpected error in validatePlacement", e);
+            GameLog.e(TAG, "Unexpected error in validatePlacement", e);
             callback.onPlacementFailure("Unexpected error occurred: " + e.getMessage());
         }
     }
@@ -131,7 +130,7 @@ public class GameLogic {
     public void validateMovement(Point fromPos, Point toPos, String gameId, String playerId, MovementCallback callback) {
         // FIXED: Null callback check
         if (callback == null) {
-            Log.e(TAG, "Movement callback is null");
+            GameLog.e(TAG, "Movement callback is null");
             return;
         }
 
@@ -147,7 +146,7 @@ public class GameLogic {
                 return;
             }
 
-            if (!"local-player".equals(playerId) && !PlayerIdGenerator.isValidPlayerId(playerId)) {
+            if (!IdentityStore.isValidPlayerId(playerId)) {
                 callback.onMovementFailure("Player ID is invalid. Please restart the game.");
                 return;
             }
@@ -186,7 +185,7 @@ public class GameLogic {
             int toX = toBoardPos[1]; // Column
             int toY = toBoardPos[0]; // Row
 
-            Log.d(TAG, "Attempting movement from (" + fromX + "," + fromY + ") to (" + toX + "," + toY + ")");
+            GameLog.d(TAG, "Attempting movement from ({},{}) to ({},{})", fromX, fromY, toX, toY);
 
             // FIXED: Use processMove for consistency
             networkService.processMove(gameId, playerId, toX, toY, fromX, fromY,
@@ -199,10 +198,10 @@ public class GameLogic {
                                     return;
                                 }
 
-                                Log.d(TAG, "Movement successful");
+                                GameLog.d(TAG, "Movement successful");
                                 callback.onMovementSuccess(serverGameState);
                             } catch (Exception e) {
-                                Log.e(TAG, "Error processing movement success", e);
+                                GameLog.e(TAG, "Error processing movement success", e);
                                 callback.onMovementFailure("Error processing server response: " + e.getMessage());
                             }
                         }
@@ -210,36 +209,36 @@ public class GameLogic {
                         @Override
                         public void onFailure(String errorMessage) {
                             try {
-                                Log.w(TAG, "Movement failed: " + errorMessage);
+                                GameLog.w(TAG, "Movement failed: {}", errorMessage);
                                 String safeErrorMessage = errorMessage != null && !errorMessage.trim().isEmpty()
                                         ? errorMessage : "Movement failed for unknown reason";
                                 callback.onMovementFailure(safeErrorMessage);
                             } catch (Exception e) {
-                                Log.e(TAG, "Error processing movement failure", e);
+                                GameLog.e(TAG, "Error processing movement failure", e);
                             }
                         }
                     });
 
         } catch (Exception e) {
-            Log.e(TAG, "Unexpected error in validateMovement", e);
+            GameLog.e(TAG, "Unexpected error in validateMovement", e);
             callback.onMovementFailure("Unexpected error occurred: " + e.getMessage());
         }
     }
 
     // FIXED: Enhanced helper methods with null safety
     private boolean isValidGameId(String gameId) {
-        return gameId != null && (!gameId.trim().isEmpty() || gameId.equals("local-game"));
+        return gameId != null && !gameId.trim().isEmpty();
     }
 
     private Point validateBoardPosition(int x, int y) {
         try {
             Point validPos = board.findValidPos(x, y);
             if (validPos == null) {
-                Log.w(TAG, "No valid position found for coordinates (" + x + "," + y + ")");
+                GameLog.w(TAG, "No valid position found for coordinates ({},{})", x, y);
             }
             return validPos;
         } catch (Exception e) {
-            Log.e(TAG, "Error validating board position", e);
+            GameLog.e(TAG, "Error validating board position", e);
             return null;
         }
     }
@@ -256,7 +255,7 @@ public class GameLogic {
 
             return null; // No error
         } catch (Exception e) {
-            Log.e(TAG, "Error validating game state", e);
+            GameLog.e(TAG, "Error validating game state", e);
             return "Error checking game state";
         }
     }
@@ -286,7 +285,7 @@ public class GameLogic {
 
             return null; // No error
         } catch (Exception e) {
-            Log.e(TAG, "Error validating movement logic", e);
+            GameLog.e(TAG, "Error validating movement logic", e);
             return "Error validating movement";
         }
     }
@@ -330,7 +329,7 @@ public class GameLogic {
 
             return false;
         } catch (Exception e) {
-            Log.e(TAG, "Error checking occupation", e);
+            GameLog.e(TAG, "Error checking occupation", e);
             return true; // Assume occupied on error for safety
         }
     }
@@ -344,69 +343,24 @@ public class GameLogic {
                 return false;
             }
 
-            // Convert player sprite positions to board positions (center points)
-            ArrayList<Point> boardPositions = new ArrayList<>();
+            // Convert player sprite positions (top-left) to board cells
             int spriteSize = board.getHoleSize() * 2;
+            int mask = 0;
 
             for (Player p : playerMoves) {
                 if (p != null) {
-                    // Convert from sprite position (top-left) to board position (center)
-                    int boardX = p.getX() + spriteSize / 2;
-                    int boardY = p.getY() + spriteSize / 2;
-                    boardPositions.add(new Point(boardX, boardY));
-                }
-            }
-
-            if (boardPositions.size() < 3) {
-                return false;
-            }
-
-            // Check all possible combinations of 3 positions
-            for (int i = 0; i < boardPositions.size() - 2; i++) {
-                for (int j = i + 1; j < boardPositions.size() - 1; j++) {
-                    for (int k = j + 1; k < boardPositions.size(); k++) {
-                        Point p1 = boardPositions.get(i);
-                        Point p2 = boardPositions.get(j);
-                        Point p3 = boardPositions.get(k);
-
-                        if (p1 != null && p2 != null && p3 != null && areThreeInLine(p1, p2, p3)) {
-                            return true;
-                        }
+                    int[] gridPos = board.getGridPos(p.getX() + spriteSize / 2, p.getY() + spriteSize / 2);
+                    int cell = GameRules.cellIndex(gridPos[1], gridPos[0]);
+                    if (cell != GameRules.NO_CELL) {
+                        mask |= 1 << cell;
                     }
                 }
             }
 
-            return false;
-        } catch (Exception e) {
-            Log.e(TAG, "Error checking win condition", e);
-            return false;
-        }
-    }
-
-    // FIXED: Enhanced line checking with null safety
-    private boolean areThreeInLine(Point p1, Point p2, Point p3) {
-        try {
-            if (p1 == null || p2 == null || p3 == null) {
-                return false;
-            }
-
-            // Check if all three points have same X (vertical line)
-            if (p1.x == p2.x && p2.x == p3.x) {
-                return true;
-            }
-
-            // Check if all three points have same Y (horizontal line)
-            if (p1.y == p2.y && p2.y == p3.y) {
-                return true;
-            }
-
-            // Check diagonal using cross product (slope check)
-            int crossProduct = (p2.y - p1.y) * (p3.x - p1.x) - (p3.y - p1.y) * (p2.x - p1.x);
-
-            // Points are collinear AND it's actually a diagonal (not horizontal/vertical)
-            return crossProduct == 0 && p1.x != p2.x && p1.y != p2.y;
+            // Same win lines the server checks
+            return GameRules.isWinningMask(mask);
         } catch (Exception e) {
-            Log.e(TAG, "Error checking line alignment", e);
+            GameLog.e(TAG, "Error checking win condition", e);
             return false;
         }
     }
@@ -428,7 +382,7 @@ public class GameLogic {
             }
             return null;
         } catch (Exception e) {
-            Log.e(TAG, "Error checking and setting winner", e);
+            GameLog.e(TAG, "Error checking and setting winner", e);
             return null;
         }
     }
@@ -437,7 +391,7 @@ public class GameLogic {
         try {
             return gameState.getWinner();
         } catch (Exception e) {
-            Log.e(TAG, "Error getting winner", e);
+            GameLog.e(TAG, "Error getting winner", e);
             return null;
         }
     }
@@ -460,7 +414,7 @@ public class GameLogic {
             return Math.abs(player.getX() - expectedX) <= tolerance &&
                     Math.abs(player.getY() - expectedY) <= tolerance;
         } catch (Exception e) {
-            Log.e(TAG, "Error checking player position", e);
+            GameLog.e(TAG, "Error checking player position", e);
             return false;
         }
     }
@@ -496,7 +450,7 @@ public class GameLogic {
 
             return null;
         } catch (Exception e) {
-            Log.e(TAG, "Error finding player at position", e);
+            GameLog.e(TAG, "Error finding player at position", e);
             return null;
         }
     }
@@ -521,7 +475,7 @@ public class GameLogic {
             }
             return null;
         } catch (Exception e) {
-            Log.e(TAG, "Error getting piece at position", e);
+            GameLog.e(TAG, "Error getting piece at position", e);
             return null;
         }
     }
@@ -542,7 +496,7 @@ public class GameLogic {
 
             return piece.isPlayer1() == currentPlayer.isPlayer1();
         } catch (Exception e) {
-            Log.e(TAG, "Error checking piece ownership", e);
+            GameLog.e(TAG, "Error checking piece ownership", e);
             return false;
         }
     }
@@ -602,7 +556,7 @@ public class GameLogic {
             pieceToMove.setPos(newX, newY);
             return new ValidationResult(true, "Move Successful");
         } catch (Exception e) {
-            Log.e(TAG, "Error in deprecated validateMove", e);
+            GameLog.e(TAG, "Error in deprecated validateMove", e);
             return new ValidationResult(false, "Error validating move: " + e.getMessage());
         }
     }
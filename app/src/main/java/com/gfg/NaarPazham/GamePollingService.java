@@ -1,22 +1,22 @@
 package com.gfg.NaarPazham;
 
-import android.os.Handler;
-import android.os.Looper;
-import android.util.Log;
-
-public class GamePollingService {
+/**
+ * Polls one game's state on the shared {@link BatchPoller} tick, so the
+ * game read goes out in the same request as any other due poll.
+ */
+public class GamePollingService implements BatchPoller.Participant {
     private static final String TAG = "GamePollingService";
     private static final int POLLING_INTERVAL_MS = 2000; // Poll every 2 seconds
     private static final int MAX_CONSECUTIVE_FAILURES = 3;
 
     private final NetworkService networkService;
-    private final Handler handler;
     private final String gameId;
     private final String playerId;
     private final PollingCallback callback;
 
-    private Runnable pollingRunnable;
     private volatile boolean isPolling = false;
+    // When the next poll is due; Long.MAX_VALUE while one is in flight
+    private long nextPollAt = 0;
     private int consecutiveFailures = 0;
     private long lastKnownTotalMoves = -1;
 
@@ -53,48 +53,45 @@ public class GamePollingService {
         this.playerId = playerId.trim();
         this.networkService = networkService;
         this.callback = callback;
-        this.handler = new Handler(Looper.getMainLooper());
-
-        this.pollingRunnable = new Runnable() {
-            @Override
-            public void run() {
-                if (isPolling) {
-                    pollGameStatus();
-                }
-            }
-        };
     }
 
     public void startPolling() {
         if (!isPolling) {
             isPolling = true;
             consecutiveFailures = 0;
-            Log.d(TAG, "Starting polling for game: " + gameId + " (Player: " + playerId + ")");
-            handler.post(pollingRunnable);
+            nextPollAt = 0;
+            GameLog.d(TAG, "Starting polling for game: {} (Player: {})", gameId, playerId);
+            networkService.getBatchPoller().register(this);
         }
     }
 
     public void stopPolling() {
         isPolling = false;
-        if (handler != null) {
-            handler.removeCallbacks(pollingRunnable);
-        }
-        Log.d(TAG, "Stopped polling for game: " + gameId);
+        networkService.getBatchPoller().unregister(this);
+        GameLog.d(TAG, "Stopped polling for game: {}", gameId);
     }
 
     public boolean isPolling() {
         return isPolling;
     }
 
+    @Override
+    public void contribute(NetworkService.Batch batch, long nowMs) {
+        if (isPolling && BatchPoller.isDue(nextPollAt, nowMs)) {
+            nextPollAt = Long.MAX_VALUE;
+            pollGameStatus(batch);
+        }
+    }
+
     // FIXED: Use the correct NetworkService method signature
-    private void pollGameStatus() {
+    private void pollGameStatus(NetworkService.Batch batch) {
         if (!isPolling) {
             return;
         }
 
         try {
             // FIXED: Use getGameState instead of getGameStatus since NetworkService doesn't have getGameStatus(gameId, playerId, callback)
-            networkService.getGameState(gameId, playerId, new NetworkService.GameCallback() {
+            batch.getGameState(gameId, playerId, new NetworkService.GameCallback() {
                 @Override
                 public void onSuccess(ServerGameState gameState) {
                     if (isPolling) {
@@ -110,7 +107,7 @@ public class GamePollingService {
                 }
             });
         } catch (Exception e) {
-            Log.e(TAG, "Error in pollGameStatus", e);
+            GameLog.e(TAG, "Error in pollGameStatus", e);
             handlePollingError("Polling error: " + e.getMessage());
         }
     }
@@ -118,7 +115,7 @@ public class GamePollingService {
     // FIXED: New method to handle successful game state retrieval
     private void handleGameStateSuccess(ServerGameState gameState) {
         if (!isPolling) {
-            Log.d(TAG, "Ignoring game state update - not polling");
+            GameLog.d(TAG, "Ignoring game state update - not polling");
             return;
         }
 
@@ -135,6 +132,11 @@ public class GamePollingService {
         boolean winnerChanged = !((currentWinner == null && lastWinner == null) ||
                 (currentWinner != null && currentWinner.equals(lastWinner)));
 
+        // A poll is useful if it brought anything the UI acts on
+        boolean useful = statusChanged || playerChanged || winnerChanged
+                || gameState.getTotalMoves() > lastKnownTotalMoves;
+        MetricsRegistry.global().increment(useful ? "poll.useful" : "poll.empty");
+
         // Update last known state
         lastGameStatus = currentGameStatus;
         lastCurrentPlayer = currentPlayer;
@@ -158,7 +160,7 @@ public class GamePollingService {
 
             // 1. Game ended - highest priority
             if (winnerChanged && gameState.getWinner() != null) {
-                Log.d(TAG, "Game ended - Winner: " + gameState.getWinner());
+                GameLog.d(TAG, "Game ended - Winner: {}", gameState.getWinner());
                 callback.onGameEnded(gameState);
                 stopPolling(); // Stop polling when game ends
                 return;
@@ -168,14 +170,14 @@ public class GamePollingService {
             if (statusChanged && "ACTIVE".equals(gameState.getGameStatus()) &&
                     gameState.isPlayer1Assigned() && gameState.isPlayer2Assigned() &&
                     (lastGameStatus == null || !lastGameStatus.equals("ACTIVE"))) {
-                Log.d(TAG, "Second player joined the game");
+                GameLog.d(TAG, "Second player joined the game");
                 callback.onPlayerJoined();
             }
 
             // 3. Check for opponent moves
             if (gameState.getTotalMoves() > lastKnownTotalMoves) {
-                Log.d(TAG, "Move detected - Total moves: " + gameState.getTotalMoves() +
-                        " (Previous: " + lastKnownTotalMoves + ")");
+                GameLog.d(TAG, "Move detected - Total moves: {} (Previous: {})",
+                        gameState.getTotalMoves(), lastKnownTotalMoves);
                 lastKnownTotalMoves = gameState.getTotalMoves();
 
                 // Determine if this was an opponent move
@@ -184,15 +186,15 @@ public class GamePollingService {
                         (!gameState.isPlayer1Turn() && playerId.equals(gameState.getPlayer2Id()));
 
                 if (isOurTurn && playerChanged) {
-                    Log.d(TAG, "Opponent made a move - now it's our turn");
+                    GameLog.d(TAG, "Opponent made a move - now it's our turn");
                     callback.onOpponentMove(gameState);
                 } else {
                     callback.onGameStateUpdated(gameState);
                 }
             } else if (statusChanged || playerChanged) {
                 // 4. General state update (no new moves but other changes)
-                Log.d(TAG, "General game state update - Status: " + gameState.getGameStatus() +
-                        ", Current Player: " + (gameState.isPlayer1Turn() ? "1" : "2"));
+                GameLog.d(TAG, "General game state update - Status: {}, Current Player: {}",
+                        gameState.getGameStatus(), gameState.isPlayer1Turn() ? "1" : "2");
                 callback.onGameStateUpdated(gameState);
             }
 
@@ -202,25 +204,34 @@ public class GamePollingService {
             }
 
         } catch (Exception e) {
-            Log.e(TAG, "Error handling game state update", e);
+            GameLog.e(TAG, "Error handling game state update", e);
             handlePollingError("Error processing game state: " + e.getMessage());
         }
     }
 
     private void handlePollingError(String errorMessage) {
+        if (Backpressure.global().isCoolingDown()) {
+            // The server is up and asked us to back off: wait it out, it's not a failure
+            MetricsRegistry.global().increment("poll.deferred");
+            GameLog.d(TAG, "Server busy, next poll in {}ms", Backpressure.global().remainingMs());
+            scheduleNextPoll();
+            return;
+        }
+
         consecutiveFailures++;
+        MetricsRegistry.global().increment("poll.errors");
 
-        Log.w(TAG, "Polling error (" + consecutiveFailures + "/" +
-                MAX_CONSECUTIVE_FAILURES + "): " + errorMessage);
+        GameLog.w(TAG, "Polling error ({}/{}): {}",
+                consecutiveFailures, MAX_CONSECUTIVE_FAILURES, errorMessage);
 
         // Stop polling if too many consecutive failures
         if (consecutiveFailures >= MAX_CONSECUTIVE_FAILURES) {
-            Log.e(TAG, "Stopping polling due to " + MAX_CONSECUTIVE_FAILURES + " consecutive failures");
+            GameLog.e(TAG, "Stopping polling due to {} consecutive failures", MAX_CONSECUTIVE_FAILURES);
             stopPolling();
             try {
                 callback.onPollingError("Stopped polling due to repeated failures. Check your connection.");
             } catch (Exception e) {
-                Log.e(TAG, "Error in polling error callback", e);
+                GameLog.e(TAG, "Error in polling error callback", e);
             }
             return;
         }
@@ -232,7 +243,7 @@ public class GamePollingService {
                 callback.onPollingError("Connection issue: " + errorMessage + ". Retrying...");
             }
         } catch (Exception e) {
-            Log.e(TAG, "Error in polling error callback", e);
+            GameLog.e(TAG, "Error in polling error callback", e);
         }
 
         // Retry with exponential backoff
@@ -243,9 +254,10 @@ public class GamePollingService {
         scheduleNextPoll(POLLING_INTERVAL_MS);
     }
 
+    // The shared tick also holds off while the server's cooldown runs
     private void scheduleNextPoll(int delay) {
-        if (isPolling && handler != null) {
-            handler.postDelayed(pollingRunnable, delay);
+        if (isPolling) {
+            nextPollAt = BatchPoller.now() + Backpressure.global().delayFor(delay);
         }
     }
 
@@ -253,12 +265,12 @@ public class GamePollingService {
     public void setLastKnownTotalMoves(long totalMoves) {
         if (totalMoves >= 0) {
             this.lastKnownTotalMoves = totalMoves;
-            Log.d(TAG, "Updated last known total moves to: " + totalMoves);
+            GameLog.d(TAG, "Updated last known total moves to: {}", totalMoves);
         }
     }
 
     public void reset() {
-        Log.d(TAG, "Resetting polling service state");
+        GameLog.d(TAG, "Resetting polling service state");
         lastKnownTotalMoves = -1;
         lastGameStatus = null;
         lastCurrentPlayer = null;
@@ -285,11 +297,7 @@ public class GamePollingService {
 
     // FIXED: Added cleanup method
     public void cleanup() {
-        Log.d(TAG, "Cleaning up polling service");
+        GameLog.d(TAG, "Cleaning up polling service");
         stopPolling();
-        // Clear any remaining callbacks
-        if (handler != null) {
-            handler.removeCallbacksAndMessages(null);
-        }
     }
 }
\ No newline at end of file
@@ -59,6 +59,10 @@ public class GameState {
         this.counter = counter;
     }
 
+    public int getCounter() {
+        return counter;
+    }
+
     //Manage movement
     public void selectPiece(Player piece) {
         selectedPiece = piece;
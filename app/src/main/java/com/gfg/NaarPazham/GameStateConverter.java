@@ -3,6 +3,7 @@ package com.gfg.NaarPazham;
 import android.graphics.Point;
 
 public class GameStateConverter  {
+    private static final String TAG = "GameStateConverter";
 
     public static void convertAndUpdateLocalState(ServerGameState serverGameState, GameState localState,
                                                   Board board) {
@@ -45,9 +46,9 @@ public class GameStateConverter  {
         // Use the isPlayer1 value directly from the JSON data
         boolean isPlayer1 = move.isPlayer1();
 
-        System.out.println("Converting move at (" + move.getBoardX() + "," + move.getBoardY() +
-                ") with isPlayer1=" + isPlayer1 +
-                ", color will be " + (isPlayer1 ? "RED" : "BLUE"));
+        // Runs for every piece on every poll, so only at VERBOSE
+        GameLog.v(TAG, "Converting move at ({},{}) with isPlayer1={}, color will be {}",
+                move.getBoardX(), move.getBoardY(), isPlayer1, isPlayer1 ? "RED" : "BLUE");
 
         return new Player(playerX, playerY, spriteSize, isPlayer1);
     }
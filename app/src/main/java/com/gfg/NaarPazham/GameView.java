@@ -41,6 +41,10 @@ public class GameView extends View implements GamePollingService.PollingCallback
     private boolean waitingForSecondPlayer = false;
     private GamePollingService pollingService = null;
 
+    // Spectator mode: read-only, fed by a watch stream instead of polling
+    private boolean isSpectating = false;
+    private NetworkService.GameWatch spectatorWatch = null;
+
     // Local Mode support
     private boolean isLocalMode = false;
     private LocalGameManager localGameManager = null;
@@ -197,6 +201,11 @@ public class GameView extends View implements GamePollingService.PollingCallback
 
             isInitialized = true;
             Log.d(TAG, "GameView initialized with screen size: " + screenWidth + "x" + screenHeight);
+
+            // A resumed local game can only be placed once the board has positions
+            if (localGameManager != null) {
+                localGameManager.onBoardReady();
+            }
         }
 
         if (gameRenderer != null) {
@@ -226,6 +235,11 @@ public class GameView extends View implements GamePollingService.PollingCallback
             return false;
         }
 
+        if (isSpectating) {
+            showTemporaryMsg("You are watching this game");
+            return true;
+        }
+
         if (waitingForSecondPlayer) {
             showStatusMessage("Waiting for second player to join...");
             return false;
@@ -384,7 +398,7 @@ public class GameView extends View implements GamePollingService.PollingCallback
         pausePollingIfActive();
 
         // Validate player ID
-        if (!PlayerIdGenerator.isValidPlayerId(currentPlayerId)) {
+        if (!IdentityStore.isValidPlayerId(currentPlayerId)) {
             showTemporaryMsg("Invalid player authentication. Please restart the game.");
             resumePollingIfActive();
             return;
@@ -470,7 +484,7 @@ public class GameView extends View implements GamePollingService.PollingCallback
                 pausePollingIfActive();
 
                 // Validate player ID
-                if (!PlayerIdGenerator.isValidPlayerId(currentPlayerId)) {
+                if (!IdentityStore.isValidPlayerId(currentPlayerId)) {
                     showTemporaryMsg("Invalid player authentication. Please restart the game.");
                     resumePollingIfActive();
                     return;
@@ -589,6 +603,9 @@ public class GameView extends View implements GamePollingService.PollingCallback
                 String currentPlayerName = gameState.getCurrentPlayer().isPlayer1() ?
                         "Player 1 (Red)" : "Player 2 (Blue)";
                 uiListener.updateStatus(currentPlayerName + "'s turn");
+            } else if (isSpectating) {
+                String currentPlayerName = gameState.getCurrentPlayer().isPlayer1() ? "Player 1" : "Player 2";
+                uiListener.updateStatus("Watching - " + currentPlayerName + "'s turn");
             } else if (waitingForSecondPlayer) {
                 uiListener.updateStatus("Waiting for second player to join...");
             } else if (isMyTurn()) {
@@ -746,6 +763,7 @@ public class GameView extends View implements GamePollingService.PollingCallback
         if (pollingService != null && pollingService.isPolling()) {
             pollingService.stopPolling();
         }
+        stopWatching();
     }
 
     private void resumePollingIfActive() {
@@ -753,6 +771,9 @@ public class GameView extends View implements GamePollingService.PollingCallback
                 isGameReady && !isViewDestroyed && !isActivityPaused) {
             pollingService.startPolling();
         }
+        if (isSpectating && !gameState.isGameOver() && !isViewDestroyed && !isActivityPaused) {
+            startWatching();
+        }
     }
 
     // Public methods with improved error handling
@@ -783,6 +804,7 @@ public class GameView extends View implements GamePollingService.PollingCallback
 
             gameState.reset();
             isGameReady = false;
+            isSpectating = false;
             currentGameId = null;
             currentPlayerId = null;
             waitingForSecondPlayer = false;
@@ -834,6 +856,58 @@ public class GameView extends View implements GamePollingService.PollingCallback
                 Log.w(TAG, "Error stopping polling", e);
             }
         }
+        stopWatching();
+    }
+
+    /**
+     * Watch a game read-only: the board follows the server's updates and
+     * touches never move a piece. Pushed over a WebSocket transport,
+     * polled otherwise.
+     */
+    public void spectateGame(String gameId) {
+        if (isViewDestroyed) {
+            Log.d(TAG, "Ignoring spectate - view destroyed");
+            return;
+        }
+        if (gameId == null || gameId.trim().isEmpty()) {
+            showStatusMessage("No game to watch");
+            return;
+        }
+
+        resetGame();
+        currentGameId = gameId.trim();
+        isSpectating = true;
+        isGameReady = true;
+        startWatching();
+        showStatusMessage("Watching game...");
+    }
+
+    public boolean isSpectating() {
+        return isSpectating;
+    }
+
+    private void startWatching() {
+        if (spectatorWatch != null || currentGameId == null) {
+            return;
+        }
+        spectatorWatch = networkService.watchGame(currentGameId, new NetworkService.WatchCallback() {
+            @Override
+            public void onGameUpdate(ServerGameState serverGameState) {
+                updateFromServerState(serverGameState);
+            }
+
+            @Override
+            public void onFailure(String errorMessage) {
+                showTemporaryMsg("Connection error: " + errorMessage);
+            }
+        });
+    }
+
+    private void stopWatching() {
+        if (spectatorWatch != null) {
+            spectatorWatch.stop();
+            spectatorWatch = null;
+        }
     }
 
     // UPDATED: Method called when matchmaking finds a game
@@ -0,0 +1,89 @@
+package com.gfg.NaarPazham;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * The app's one OkHttpClient. Everything that talks to the server shares it,
+ * so there is one connection pool, one dispatcher and one response cache.
+ *
+ * <ul>
+ *   <li>Idle connections stay pooled for 5 minutes, well past the 2-3s
+ *       polling intervals and the gap between matchmaking and the first game
+ *       poll, so polls reuse a warm connection instead of a new TLS handshake.</li>
+ *   <li>HTTP/2 is negotiated over TLS, so concurrent requests multiplex over
+ *       one connection; the ping keeps it open through NATs during idle gaps.</li>
+ *   <li>Responses are cached on disk when the server sends cache headers.</li>
+ *   <li>gzip is requested and decoded transparently by OkHttp.</li>
+ * </ul>
+ */
+public final class HttpClientProvider {
+    private static final String TAG = "HttpClientProvider";
+
+    private static final long CACHE_SIZE_BYTES = 4 * 1024 * 1024;
+    private static final int MAX_IDLE_CONNECTIONS = 5;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+    private static final long PING_INTERVAL_SECONDS = 30;
+    private static final long CONNECT_TIMEOUT_SECONDS = 10;
+    private static final long READ_TIMEOUT_SECONDS = 30;
+
+    private static volatile OkHttpClient client;
+
+    private HttpClientProvider() {}
+
+    public static OkHttpClient get(Context context) {
+        if (client == null) {
+            synchronized (HttpClientProvider.class) {
+                if (client == null) {
+                    if (context == null) {
+                        throw new IllegalArgumentException("Context cannot be null");
+                    }
+                    client = create(context.getApplicationContext());
+                }
+            }
+        }
+        return client;
+    }
+
+    private static OkHttpClient create(Context context) {
+        return new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+                .cache(new Cache(new File(context.getCacheDir(), "http"), CACHE_SIZE_BYTES))
+                .pingInterval(PING_INTERVAL_SECONDS, TimeUnit.SECONDS)
+                .connectTimeout(CONNECT_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .readTimeout(READ_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .retryOnConnectionFailure(true)
+                .build();
+    }
+
+    /**
+     * Open a connection to the server ahead of the first real request, e.g.
+     * when the player switches to online mode. The response itself is ignored.
+     */
+    public static void warmUp(Context context, String url) {
+        Request request = new Request.Builder().url(url).head().build();
+        get(context).newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                Log.d(TAG, "Connection warm-up failed: " + e.getMessage());
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                response.close();
+            }
+        });
+    }
+}
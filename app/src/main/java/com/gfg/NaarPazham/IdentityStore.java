@@ -0,0 +1,512 @@
+package com.gfg.NaarPazham;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Build;
+import android.provider.Settings;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+import java.util.zip.CRC32;
+
+/**
+ * The player ID, device ID and device fingerprint, kept together in one
+ * versioned binary record.
+ *
+ * The record is read once, in the background, when the store is created;
+ * the device ID and fingerprint are filled in there too if they are missing.
+ * Nothing is generated before that read has run: the getOrCreate methods
+ * return null until then, and {@link #getSessionIds} waits for it on the
+ * writer thread instead of blocking its caller. A stored player or device
+ * ID always wins over one set in memory while the read was in flight.
+ * After that the identity lives in an AtomicReference: reads are a single
+ * volatile load, and changes are compare-and-set followed by a write through
+ * an {@link AtomicRecordWriter}, so no caller takes a lock or touches the disk.
+ *
+ * Player IDs keep the ANDROID_PLAYER_&lt;timestamp&gt;_&lt;device hash&gt;_&lt;random&gt;
+ * format the server expects. The timestamp is drawn from a process-wide
+ * monotonic clock that steps forward by at least 1ms per ID, so two IDs from
+ * this process never share one, and the 4-digit random part separates devices
+ * that share a hash. This replaces generating under a class lock and sleeping
+ * until 2s had passed since the previous ID.
+ *
+ * <pre>
+ *   magic "NPID", format version, playerId, playerIdIssuedAt, deviceId,
+ *   deviceFingerprint, CRC32 of everything before it
+ * </pre>
+ */
+public class IdentityStore {
+    private static final String TAG = "IdentityStore";
+    private static final String FILE_NAME = "identity.bin";
+
+    private static final int MAGIC = 0x4E504944; // "NPID"
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final String PLAYER_ID_PREFIX = "ANDROID_PLAYER_";
+    private static final long SESSION_VALIDITY_MS = 2 * 60 * 60 * 1000;
+    private static final long MAX_PLAYER_ID_AGE_MS = 24 * 60 * 60 * 1000;
+    private static final long MAX_CLOCK_SKEW_MS = 60 * 1000;
+
+    // Returned by a bug on some old devices, so not unique
+    private static final String BROKEN_ANDROID_ID = "9774d56d682e549c";
+
+    // SharedPreferences files this store replaces; migrated and removed on first load
+    private static final String LEGACY_PLAYER_PREFS = "naarpazham_player_prefs";
+    private static final String LEGACY_DEVICE_PREFS = "naarpazham_device_prefs";
+
+    private static volatile IdentityStore instance;
+
+    // Timestamp of the last player ID issued in this process
+    private static final AtomicLong lastIdTimestamp = new AtomicLong();
+
+    /** One immutable copy of the stored identity; fields are null until known. */
+    public static final class Identity {
+        public final String playerId;
+        public final long playerIdIssuedAt;
+        public final String deviceId;
+        public final String deviceFingerprint;
+
+        Identity(String playerId, long playerIdIssuedAt, String deviceId, String deviceFingerprint) {
+            this.playerId = playerId;
+            this.playerIdIssuedAt = playerIdIssuedAt;
+            this.deviceId = deviceId;
+            this.deviceFingerprint = deviceFingerprint;
+        }
+
+        Identity withPlayerId(String playerId, long issuedAt) {
+            return new Identity(playerId, issuedAt, deviceId, deviceFingerprint);
+        }
+
+        Identity withDeviceId(String deviceId) {
+            return new Identity(playerId, playerIdIssuedAt, deviceId, deviceFingerprint);
+        }
+
+        Identity withDeviceFingerprint(String deviceFingerprint) {
+            return new Identity(playerId, playerIdIssuedAt, deviceId, deviceFingerprint);
+        }
+
+        /** Whether the player ID can still be used for a new session. */
+        public boolean hasFreshPlayerId() {
+            return isValidPlayerId(playerId)
+                    && System.currentTimeMillis() - playerIdIssuedAt <= SESSION_VALIDITY_MS;
+        }
+    }
+
+    private static final Identity EMPTY = new Identity(null, 0, null, null);
+
+    /** Receives the IDs for a new session; either may be null if it could not be generated. */
+    public interface SessionCallback {
+        void onSessionIds(String playerId, String deviceId);
+    }
+
+    private final Context context;
+    private final AtomicRecordWriter writer;
+    private volatile boolean loaded;
+    private final AtomicReference<Identity> current = new AtomicReference<>(EMPTY);
+
+    public static IdentityStore getInstance(Context context) {
+        if (instance == null) {
+            synchronized (IdentityStore.class) {
+                if (instance == null) {
+                    if (context == null) {
+                        throw new IllegalArgumentException("Context cannot be null");
+                    }
+                    instance = new IdentityStore(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    private IdentityStore(Context context) {
+        this.context = context;
+        this.writer = new AtomicRecordWriter(new AtomicFile(new File(context.getFilesDir(), FILE_NAME)));
+        // Same thread as the writes, so the load always comes first
+        AtomicRecordWriter.runOnWriterThread(this::load);
+    }
+
+    // ===== READING =====
+
+    /** The identity as currently known; never waits, so fields may still be null at startup. */
+    public Identity current() {
+        return current.get();
+    }
+
+    /** The player ID if one has been issued, without creating one. */
+    public String getPlayerId() {
+        return current.get().playerId;
+    }
+
+    /** The device ID if it has been loaded, without creating one. */
+    public String getDeviceId() {
+        return current.get().deviceId;
+    }
+
+    /**
+     * The player ID and device ID for a new session, issuing either if it is
+     * missing. Called back at once if the stored identity has been read,
+     * otherwise on the writer thread right after the read.
+     */
+    public void getSessionIds(SessionCallback callback) {
+        if (callback == null) {
+            throw new IllegalArgumentException("Callback cannot be null");
+        }
+        if (loaded) {
+            callback.onSessionIds(getOrCreatePlayerId(), getOrCreateDeviceId());
+        } else {
+            AtomicRecordWriter.runOnWriterThread(
+                    () -> callback.onSessionIds(getOrCreatePlayerId(), getOrCreateDeviceId()));
+        }
+    }
+
+    /**
+     * The player ID for a new session, issuing one if there is none or it has
+     * expired; null while the stored identity is still being read.
+     */
+    public String getOrCreatePlayerId() {
+        if (!loaded) {
+            return current.get().playerId;
+        }
+        Identity identity = current.get();
+        if (identity.hasFreshPlayerId()) {
+            return identity.playerId;
+        }
+        String fingerprint = deviceFingerprint();
+        String playerId = newPlayerId(fingerprint);
+        long issuedAt = System.currentTimeMillis();
+        Identity result = update(id -> id.hasFreshPlayerId()
+                ? id
+                : id.withDeviceFingerprint(fingerprint).withPlayerId(playerId, issuedAt));
+        if (playerId.equals(result.playerId)) {
+            Log.d(TAG, "Issued player ID: " + playerId);
+        }
+        return result.playerId;
+    }
+
+    /** The device ID, generating one if there is none; null while the stored identity is still being read. */
+    public String getOrCreateDeviceId() {
+        String deviceId = current.get().deviceId;
+        if (deviceId != null || !loaded) {
+            return deviceId;
+        }
+        String generated = newDeviceId(context);
+        return update(id -> id.deviceId != null ? id : id.withDeviceId(generated)).deviceId;
+    }
+
+    /** The device fingerprint; null while the stored identity is still being read. */
+    public String getDeviceFingerprint() {
+        return loaded ? deviceFingerprint() : current.get().deviceFingerprint;
+    }
+
+    // ===== CHANGING =====
+
+    /** Adopt the player ID the server assigned; ignored if it isn't well formed. */
+    public void setPlayerId(String playerId) {
+        if (!isValidPlayerId(playerId)) {
+            Log.w(TAG, "Attempted to set invalid player ID: " + playerId);
+            return;
+        }
+        String fingerprint = current.get().deviceFingerprint;
+        if (fingerprint != null && !playerId.split("_")[3].equals(deviceHash(fingerprint))) {
+            Log.w(TAG, "Player ID doesn't match device fingerprint: " + playerId);
+        }
+        long now = System.currentTimeMillis();
+        update(id -> id.withPlayerId(playerId, now));
+    }
+
+    /** Drop the player ID so the next session gets a new one. */
+    public void clearPlayerId() {
+        update(id -> id.playerId == null ? id : id.withPlayerId(null, 0));
+    }
+
+    /** Drop the device ID so it is generated again on next use. */
+    public void clearDeviceId() {
+        update(id -> id.deviceId == null ? id : id.withDeviceId(null));
+    }
+
+    private Identity update(UnaryOperator<Identity> change) {
+        while (true) {
+            Identity before = current.get();
+            Identity after = change.apply(before);
+            if (after == before) {
+                return before;
+            }
+            if (current.compareAndSet(before, after)) {
+                persist();
+                return after;
+            }
+        }
+    }
+
+    private void persist() {
+        // A slower thread may queue an older record after ours; whoever writes
+        // last sees the newer identity here and queues it again
+        Identity written;
+        do {
+            written = current.get();
+            writer.write(encode(written));
+        } while (current.get() != written);
+    }
+
+    // ===== LOADING =====
+
+    private void load() {
+        try {
+            Identity identity = decode(writer.read());
+            if (identity == null) {
+                identity = readLegacyPrefs();
+            }
+            if (identity.deviceFingerprint == null) {
+                identity = identity.withDeviceFingerprint(newDeviceFingerprint(context));
+            }
+            if (identity.deviceId == null) {
+                identity = identity.withDeviceId(newDeviceId(context));
+            }
+            if (identity.playerId != null) {
+                lastIdTimestamp.accumulateAndGet(playerIdTimestamp(identity.playerId), Math::max);
+            }
+            Identity stored = identity;
+            Identity merged = update(id -> merge(stored, id));
+            context.deleteSharedPreferences(LEGACY_PLAYER_PREFS);
+            context.deleteSharedPreferences(LEGACY_DEVICE_PREFS);
+            Log.d(TAG, "Loaded identity, device ID " + merged.deviceId);
+        } catch (Exception e) {
+            Log.e(TAG, "Error loading identity", e);
+        } finally {
+            loaded = true;
+        }
+    }
+
+    /**
+     * The stored identity, with fields set in memory during the read filling
+     * only the ones it lacks; always a new copy.
+     */
+    private static Identity merge(Identity stored, Identity inMemory) {
+        boolean stillStored = stored.playerId != null;
+        return new Identity(
+                stillStored ? stored.playerId : inMemory.playerId,
+                stillStored ? stored.playerIdIssuedAt : inMemory.playerIdIssuedAt,
+                stored.deviceId != null ? stored.deviceId : inMemory.deviceId,
+                stored.deviceFingerprint != null ? stored.deviceFingerprint : inMemory.deviceFingerprint);
+    }
+
+    private Identity readLegacyPrefs() {
+        SharedPreferences player = context.getSharedPreferences(LEGACY_PLAYER_PREFS, Context.MODE_PRIVATE);
+        SharedPreferences device = context.getSharedPreferences(LEGACY_DEVICE_PREFS, Context.MODE_PRIVATE);
+
+        String playerId = player.getString("current_player_id", null);
+        long issuedAt = player.getLong("last_generated_time", 0);
+        if (!isValidPlayerId(playerId)) {
+            playerId = null;
+            issuedAt = 0;
+        }
+        String fingerprint = player.getString("device_fingerprint", null);
+        if (fingerprint == null || fingerprint.length() <= 5 || !fingerprint.matches("^[A-Za-z0-9_]+$")) {
+            fingerprint = null;
+        }
+        String deviceId = device.getString("device_id", null);
+        if (!isValidDeviceId(deviceId)) {
+            deviceId = null;
+        }
+        return new Identity(playerId, issuedAt, deviceId, fingerprint);
+    }
+
+    private String deviceFingerprint() {
+        String fingerprint = current.get().deviceFingerprint;
+        if (fingerprint != null) {
+            return fingerprint;
+        }
+        // Only reached if the startup load failed
+        String generated = newDeviceFingerprint(context);
+        return update(id -> id.deviceFingerprint != null ? id : id.withDeviceFingerprint(generated))
+                .deviceFingerprint;
+    }
+
+    // ===== GENERATION =====
+
+    static String newPlayerId(String deviceFingerprint) {
+        return String.format("%s%d_%s_%04d", PLAYER_ID_PREFIX,
+                nextIdTimestamp(), deviceHash(deviceFingerprint), ThreadLocalRandom.current().nextInt(10000));
+    }
+
+    /** The wall clock, moved forward if needed so every call returns a larger value than the last. */
+    static long nextIdTimestamp() {
+        while (true) {
+            long last = lastIdTimestamp.get();
+            long next = Math.max(System.currentTimeMillis(), last + 1);
+            if (lastIdTimestamp.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+
+    private static String deviceHash(String deviceFingerprint) {
+        return String.format("%08X", Math.abs(deviceFingerprint.hashCode()));
+    }
+
+    private static String newDeviceFingerprint(Context context) {
+        try {
+            String brand = sanitizedBuildField(Build.BRAND);
+            String model = sanitizedBuildField(Build.MODEL);
+            String androidId = androidId(context);
+            String suffix = androidId != null
+                    ? androidId
+                    : String.format("%08X", (brand + model + Build.VERSION.SDK_INT).hashCode());
+            return brand + "_" + model + "_" + Build.VERSION.SDK_INT + "_" + suffix;
+        } catch (Exception e) {
+            Log.e(TAG, "Error generating device fingerprint", e);
+            return "FALLBACK_DEVICE";
+        }
+    }
+
+    private static String newDeviceId(Context context) {
+        try {
+            String androidId = androidId(context);
+            String suffix = androidId != null
+                    ? androidId
+                    : UUID.randomUUID().toString().replace("-", "").substring(0, 8);
+            return "DEVICE_" + sanitizedBuildField(Build.BRAND) + "_" + sanitizedBuildField(Build.MODEL)
+                    + "_" + Build.VERSION.SDK_INT + "_" + suffix;
+        } catch (Exception e) {
+            Log.e(TAG, "Error generating device ID", e);
+            return "DEVICE_FALLBACK_" + System.currentTimeMillis();
+        }
+    }
+
+    /** First 8 characters of ANDROID_ID, or null if it is unavailable or known to be shared. */
+    private static String androidId(Context context) {
+        try {
+            String androidId = Settings.Secure.getString(context.getContentResolver(), Settings.Secure.ANDROID_ID);
+            if (androidId == null || androidId.isEmpty() || androidId.equals(BROKEN_ANDROID_ID)) {
+                return null;
+            }
+            return androidId.substring(0, Math.min(8, androidId.length()));
+        } catch (Exception e) {
+            Log.w(TAG, "Could not get Android ID", e);
+            return null;
+        }
+    }
+
+    private static String sanitizedBuildField(String value) {
+        return value != null ? value.replaceAll("[^A-Za-z0-9]", "") : "UNK";
+    }
+
+    // ===== VALIDATION =====
+
+    /**
+     * Whether a player ID is well formed and its timestamp is plausible: not
+     * more than a minute ahead of this clock and not older than a day.
+     */
+    public static boolean isValidPlayerId(String playerId) {
+        if (playerId == null) {
+            return false;
+        }
+        String trimmed = playerId.trim();
+        if (trimmed.length() < 8 || trimmed.length() > 64 || !trimmed.startsWith(PLAYER_ID_PREFIX)) {
+            return false;
+        }
+        String[] parts = trimmed.split("_");
+        if (parts.length < 4) {
+            return false;
+        }
+        try {
+            long age = System.currentTimeMillis() - Long.parseLong(parts[2]);
+            if (age < -MAX_CLOCK_SKEW_MS || age > MAX_PLAYER_ID_AGE_MS) {
+                Log.d(TAG, "Player ID timestamp out of range, age: " + age);
+                return false;
+            }
+            Integer.parseInt(parts[3], 16);
+            if (parts.length >= 5) {
+                Integer.parseInt(parts[4]);
+            }
+        } catch (NumberFormatException e) {
+            Log.d(TAG, "Player ID has a non-numeric component: " + trimmed);
+            return false;
+        }
+        return true;
+    }
+
+    static boolean isValidDeviceId(String deviceId) {
+        return deviceId != null
+                && deviceId.startsWith("DEVICE_")
+                && deviceId.length() > 10
+                && deviceId.matches("^[A-Za-z0-9_]+$");
+    }
+
+    private static long playerIdTimestamp(String playerId) {
+        try {
+            return Long.parseLong(playerId.split("_")[2]);
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+
+    // ===== ENCODING =====
+
+    static byte[] encode(Identity identity) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeByte(FORMAT_VERSION);
+            out.writeUTF(orEmpty(identity.playerId));
+            out.writeLong(identity.playerIdIssuedAt);
+            out.writeUTF(orEmpty(identity.deviceId));
+            out.writeUTF(orEmpty(identity.deviceFingerprint));
+
+            CRC32 crc = new CRC32();
+            crc.update(bytes.toByteArray());
+            out.writeInt((int) crc.getValue());
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            // Writing to memory doesn't fail
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static Identity decode(byte[] bytes) {
+        if (bytes == null || bytes.length < 9) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - 4);
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            if (in.readInt() != MAGIC || in.readByte() != FORMAT_VERSION) {
+                Log.w(TAG, "Discarding identity in an unknown format");
+                return null;
+            }
+            String playerId = orNull(in.readUTF());
+            long issuedAt = in.readLong();
+            String deviceId = orNull(in.readUTF());
+            String fingerprint = orNull(in.readUTF());
+            if (in.readInt() != (int) crc.getValue() || in.available() != 0) {
+                Log.w(TAG, "Discarding corrupt identity");
+                return null;
+            }
+            return new Identity(playerId, issuedAt, deviceId, fingerprint);
+        } catch (IOException e) {
+            Log.w(TAG, "Discarding unreadable identity", e);
+            return null;
+        }
+    }
+
+    private static String orEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static String orNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,128 @@
+package com.gfg.NaarPazham;
+
+import android.content.Context;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/**
+ * Checkpoint of the local game in progress, so a game survives the process
+ * being killed and resumes in the exact position on the next start.
+ *
+ * The whole game is one 16-byte record: the GameRules packed board (pieces,
+ * turn, winner) plus the selected cell.
+ *
+ * <pre>
+ *   0..1   magic 'NP'
+ *   2      format version
+ *   3      selected cell, 0xFF = none
+ *   4..11  packed GameRules state
+ *   12..15 CRC32 of bytes 0..11
+ * </pre>
+ *
+ * Saves return immediately and are written by an {@link AtomicRecordWriter}.
+ * The last record saved or loaded is cached, so loading again costs nothing.
+ */
+public class LocalGameCheckpoint {
+    private static final String TAG = "LocalGameCheckpoint";
+    private static final String FILE_NAME = "local_game.bin";
+
+    private static final int RECORD_SIZE = 16;
+    private static final short MAGIC = 0x4E50; // "NP"
+    private static final byte FORMAT_VERSION = 1;
+    private static final int NO_SELECTION = 0xFF;
+
+    /** A saved game position. */
+    public static class Snapshot {
+        public final long state;
+        public final int selectedCell; // GameRules.NO_CELL if nothing is selected
+
+        public Snapshot(long state, int selectedCell) {
+            this.state = state;
+            this.selectedCell = selectedCell;
+        }
+    }
+
+    private final AtomicRecordWriter writer;
+
+    private volatile Snapshot cached;
+    private volatile boolean loaded = false;
+
+    public LocalGameCheckpoint(Context context) {
+        if (context == null) {
+            throw new IllegalArgumentException("Context cannot be null");
+        }
+        this.writer = new AtomicRecordWriter(
+                new AtomicFile(new File(context.getApplicationContext().getFilesDir(), FILE_NAME)));
+    }
+
+    /** Record the current position; returns at once, the write happens in the background. */
+    public synchronized void save(long state, int selectedCell) {
+        Snapshot snapshot = new Snapshot(state, selectedCell);
+        cached = snapshot;
+        loaded = true;
+        writer.write(encode(snapshot));
+    }
+
+    /** Forget the saved game, e.g. once it is finished or reset. */
+    public synchronized void clear() {
+        cached = null;
+        loaded = true;
+        writer.delete();
+    }
+
+    /**
+     * The saved position, or null if there is none or it can't be read. The
+     * record is a single 16-byte read, so this is fine on the UI thread at
+     * startup; later calls are served from memory.
+     */
+    public synchronized Snapshot load() {
+        if (loaded) {
+            return cached;
+        }
+        Snapshot snapshot = decode(writer.read());
+        cached = snapshot;
+        loaded = true;
+        return snapshot;
+    }
+
+    /** Start reading the saved game on the writer thread, so the first load() is served from memory. */
+    public void preload() {
+        AtomicRecordWriter.runOnWriterThread(this::load);
+    }
+
+    // ===== ENCODING =====
+
+    static byte[] encode(Snapshot snapshot) {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        buffer.putShort(MAGIC);
+        buffer.put(FORMAT_VERSION);
+        buffer.put((byte) (snapshot.selectedCell == GameRules.NO_CELL ? NO_SELECTION : snapshot.selectedCell));
+        buffer.putLong(snapshot.state);
+        buffer.putInt((int) crc(buffer.array()));
+        return buffer.array();
+    }
+
+    static Snapshot decode(byte[] bytes) {
+        if (bytes == null || bytes.length != RECORD_SIZE) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.getShort(0) != MAGIC || buffer.get(2) != FORMAT_VERSION
+                || buffer.getInt(12) != (int) crc(bytes)) {
+            Log.w(TAG, "Discarding unreadable local game checkpoint");
+            return null;
+        }
+        int selected = buffer.get(3) & 0xFF;
+        return new Snapshot(buffer.getLong(4), selected == NO_SELECTION ? GameRules.NO_CELL : selected);
+    }
+
+    private static long crc(byte[] record) {
+        CRC32 crc = new CRC32();
+        crc.update(record, 0, RECORD_SIZE - 4);
+        return crc.getValue();
+    }
+}
@@ -4,20 +4,26 @@ import android.graphics.Point;
 import android.util.Log;
 
 /**
- * FIXED LocalGameManager - Enhanced to work exactly like online mode
- * Uses same coordinate system and validation logic as GameLogic
+ * Runs a two-player game on one device. Moves are checked and applied
+ * synchronously by a {@link GameEngine}, which reports a primitive result
+ * code; the sprites in GameState follow the engine. The asynchronous,
+ * callback-based GameLogic/NetworkService path is for online games only.
  */
 public class LocalGameManager {
     private static final String TAG = "LocalGameManager";
 
     private final GameState gameState;
     private final Board board;
-    private final GameLogic gameLogic;
+    private final GameEngine engine = new GameEngine();
 
     private boolean isGameActive = false;
     private Player winner = null;
     private Player selectedPiece = null; // Track selected piece for movement phase
 
+    // Checkpointing: every change is saved so the game can resume after the process dies
+    private LocalGameCheckpoint checkpoint;
+    private LocalGameCheckpoint.Snapshot pendingResume = null; // Waiting for the board to be laid out
+
     public interface LocalGameCallback {
         void onPlayerTurnChanged(boolean isPlayer1Turn);
 
@@ -40,18 +46,114 @@ public class LocalGameManager {
 
         this.gameState = gameState;
         this.board = board;
-
-        // Create a mock NetworkService for GameLogic (not used in local mode)
-        NetworkService mockNetworkService = new MockNetworkService();
-        this.gameLogic = new GameLogic(gameState, board, mockNetworkService);
-
-        Log.d(TAG, "LocalGameManager initialized with enhanced infrastructure");
     }
 
     public void setCallback(LocalGameCallback callback) {
         this.callback = callback;
     }
 
+    public void setCheckpoint(LocalGameCheckpoint checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    // ===== CHECKPOINT / RESUME =====
+
+    /**
+     * Resume the checkpointed game, if there is one still in progress.
+     * Pieces, turn and selection come straight from the saved record; if the
+     * board isn't laid out yet they are applied from {@link #onBoardReady()}.
+     */
+    public boolean resumeSavedGame() {
+        if (checkpoint == null) {
+            return false;
+        }
+        LocalGameCheckpoint.Snapshot snapshot = checkpoint.load();
+        if (snapshot == null || GameRules.isGameOver(snapshot.state)) {
+            return false;
+        }
+
+        isGameActive = true;
+        winner = null;
+        if (board.getValidPos2D() == null) {
+            pendingResume = snapshot;
+        } else {
+            applySnapshot(snapshot);
+        }
+        Log.d(TAG, "Resuming local game at move " + GameRules.moveCount(snapshot.state));
+        return true;
+    }
+
+    /** Called by GameView once the board has screen positions. */
+    public void onBoardReady() {
+        if (pendingResume != null) {
+            LocalGameCheckpoint.Snapshot snapshot = pendingResume;
+            pendingResume = null;
+            applySnapshot(snapshot);
+        }
+    }
+
+    private void applySnapshot(LocalGameCheckpoint.Snapshot snapshot) {
+        gameState.reset();
+        selectedPiece = null;
+        gameState.deselectPiece();
+
+        int spriteSize = board.getHoleSize() * 2;
+        for (int cell = 0; cell < GameRules.CELL_COUNT; cell++) {
+            boolean player1 = (GameRules.player1Mask(snapshot.state) & (1 << cell)) != 0;
+            boolean player2 = (GameRules.player2Mask(snapshot.state) & (1 << cell)) != 0;
+            if (!player1 && !player2) {
+                continue;
+            }
+            Point pos = board.getValidPos2D().get(GameRules.cellY(cell)).get(GameRules.cellX(cell));
+            Player piece = new Player(pos.x - spriteSize / 2, pos.y - spriteSize / 2, spriteSize, player1);
+            if (player1) {
+                gameState.getPlayer1Moves().add(piece);
+            } else {
+                gameState.getPlayer2Moves().add(piece);
+            }
+            if (cell == snapshot.selectedCell) {
+                selectedPiece = piece;
+                gameState.selectPiece(piece);
+            }
+        }
+        gameState.setCounter(GameRules.moveCount(snapshot.state));
+        engine.restore(snapshot.state);
+
+        if (callback != null) {
+            callback.onPlayerTurnChanged(gameState.getCurrentPlayer().isPlayer1());
+            callback.onGameStateUpdated();
+        }
+    }
+
+    /** Save the current position; a finished game leaves nothing to resume. */
+    private void saveCheckpoint() {
+        if (checkpoint == null || pendingResume != null) {
+            return;
+        }
+        if (!isGameActive || gameState.isGameOver()) {
+            checkpoint.clear();
+            return;
+        }
+
+        checkpoint.save(engine.state(), selectedPiece != null ? cellOf(selectedPiece) : GameRules.NO_CELL);
+    }
+
+    /** GameRules cell under a piece, or NO_CELL if it is off the board. */
+    private int cellOf(Player piece) {
+        Point pos = getCurrentPiecePosition(piece);
+        if (pos == null) {
+            return GameRules.NO_CELL;
+        }
+        int[] grid = board.getGridPos(pos.x, pos.y); // {row, col}
+        return grid[0] == -1 ? GameRules.NO_CELL : GameRules.cellIndex(grid[1], grid[0]);
+    }
+
+    /** GameRules cell at a board position (a hole centre), or NO_CELL. */
+    private int cellAt(Point boardPos) {
+        int[] grid = board.getGridPos(boardPos.x, boardPos.y); // {row, col}
+        return grid[0] == -1 ? GameRules.NO_CELL : GameRules.cellIndex(grid[1], grid[0]);
+    }
+
     /**
      * Start a new local game
      */
@@ -60,9 +162,12 @@ public class LocalGameManager {
 
         try {
             gameState.reset();
+            engine.reset();
             isGameActive = true;
             winner = null;
             selectedPiece = null;
+            pendingResume = null;
+            saveCheckpoint();
 
             if (callback != null) {
                 callback.onGameStarted();
@@ -78,8 +183,8 @@ public class LocalGameManager {
     }
 
     /**
-     * ADDED: Handle touch move - matches GameView's touch handling for local mode
-     * This is the missing method that GameView calls
+     * Handle a tap on the board: place a piece, or select a piece or move the
+     * selected one, depending on the phase.
      */
     public void handleTouchMove(int touchX, int touchY, Player currentSelectedPiece) {
         if (!isGameActive) {
@@ -93,158 +198,32 @@ public class LocalGameManager {
         }
 
         try {
-            Log.d(TAG, "Processing touch at screen position: (" + touchX + "," + touchY + ")");
-
             // Find valid board position from touch coordinates
             Point boardPos = board.findValidPos(touchX, touchY);
             if (boardPos == null) {
                 notifyMoveResult(false, "Invalid touch position - not on board");
-                if (gameState.isMovementPhase()) {
+                if (!engine.isPlacementPhase()) {
                     gameState.deselectPiece();
                     selectedPiece = null;
+                    saveCheckpoint();
                 }
                 return;
             }
 
-            Log.d(TAG, "Valid board position found: (" + boardPos.x + "," + boardPos.y + ")");
-
-            if (gameState.isPlacementPhase()) {
-                handlePlacement(boardPos);
-            } else if (gameState.isMovementPhase()) {
-                handleMovementTouch(boardPos);
+            if (engine.isPlacementPhase()) {
+                placePiece(boardPos);
             } else {
-                notifyMoveResult(false, "Invalid game phase");
+                selectOrMove(boardPos);
             }
-
         } catch (Exception e) {
             Log.e(TAG, "Error handling touch move", e);
             notifyMoveResult(false, "Error processing touch: " + e.getMessage());
         }
     }
 
-    /** Handle placement phase - uses same logic as online mode */
     /**
-     * Handle placement phase - uses GameLogic validation
-     */
-    private void handlePlacement(Point boardPos) {
-        try {
-            // Use GameLogic validatePlacement with mock IDs
-            gameLogic.validatePlacement(boardPos.x, boardPos.y, "local-game", "local-player",
-                    new GameLogic.PlacementCallback() {
-                        @Override
-                        public void onPlacementSuccess(ServerGameState serverGameState) {
-                            // For local mode, manually update game state
-                            int spriteSize = board.getHoleSize() * 2;
-                            Player newPiece = new Player(
-                                    boardPos.x - spriteSize / 2,
-                                    boardPos.y - spriteSize / 2,
-                                    spriteSize,
-                                    gameState.getCurrentPlayer().isPlayer1()
-                            );
-
-                            if (gameState.getCurrentPlayer().isPlayer1()) {
-                                gameState.getPlayer1Moves().add(newPiece);
-                            } else {
-                                gameState.getPlayer2Moves().add(newPiece);
-                            }
-// Check win condition
-                            Player gameWinner = gameLogic.checkAndSetWinner();
-                            if (gameWinner != null) {
-                                endGame(gameWinner);
-                                return;
-                            }
-
-                            // Switch turns - no manual phase transition needed
-                            switchTurns();
-                            notifyMoveResult(true, "Piece placed successfully");
-                        }
-
-                        @Override
-                        public void onPlacementFailure(String message) {
-                            notifyMoveResult(false, message);
-                        }});
-
-        } catch (Exception e) {
-            Log.e(TAG, "Error handling placement", e);
-            notifyMoveResult(false, "Error placing piece: " + e.getMessage());
-        }
-    }
-
-    /** Handle movement phase touch - matches online mode logic */
-    /**
-     * Handle movement phase touch - uses GameLogic validation
-     */
-    private void handleMovementTouch(Point boardPos) {
-        try {
-            Player pieceAtPosition = gameLogic.findPlayerAtPosition(boardPos);
-
-            if (pieceAtPosition != null) {
-                // Player clicked on a piece
-                if (isCurrentPlayersPiece(pieceAtPosition)) {
-                    selectedPiece = pieceAtPosition;
-                    gameState.selectPiece(pieceAtPosition);
-                    notifyMoveResult(true, "Piece selected");
-                } else {
-                    notifyMoveResult(false, "Cannot select opponent's piece");
-                }
-            } else {
-                // Player clicked on empty space
-                if (selectedPiece != null) {
-                    Point fromPos = getCurrentPiecePosition(selectedPiece);
-                    if (fromPos == null) {
-                        selectedPiece = null;
-                        gameState.deselectPiece();
-                        notifyMoveResult(false, "Cannot find selected piece position");
-                        return;
-                    }
-
-                    // Use GameLogic validateMovement
-                    gameLogic.validateMovement(fromPos, boardPos, "local-game", "local-player",
-                            new GameLogic.MovementCallback() {
-                                @Override
-                                public void onMovementSuccess(ServerGameState serverGameState) {
-                                    // For local mode, manually update piece position
-                                    int spriteSize = board.getHoleSize() * 2;
-                                    selectedPiece.setPos(
-                                            boardPos.x - spriteSize / 2,
-                                            boardPos.y - spriteSize / 2
-                                    );
-
-                                    // Clear selection
-                                    selectedPiece = null;
-                                    gameState.deselectPiece();
-
-                                    // Check win condition
-                                    Player gameWinner = gameLogic.checkAndSetWinner();
-                                    if (gameWinner != null) {
-                                        endGame(gameWinner);
-                                        return;
-                                    }
-
-                                    // Switch turns - works like online mode
-                                    switchTurns();
-                                    notifyMoveResult(true, "Piece moved successfully");
-                                }
-
-                                @Override
-                                public void onMovementFailure(String message) {
-                                    notifyMoveResult(false, message);
-                                }
-                            });
-
-                } else {
-                    notifyMoveResult(false, "No piece selected");
-                }
-            }
-
-        } catch (Exception e) {
-            Log.e(TAG, "Error handling movement touch", e);
-            notifyMoveResult(false, "Error processing movement: " + e.getMessage());
-        }
-    }
-
-    /**
-     * Handle player move in local game - KEPT for backward compatibility
+     * Handle a move given as board positions (hole centres): a placement, a
+     * move from (fromX, fromY), or without a source, the same as a tap.
      */
     public boolean handleMove(int boardX, int boardY, Integer fromX, Integer fromY) {
         if (!isGameActive) {
@@ -258,247 +237,117 @@ public class LocalGameManager {
         }
 
         try {
-            Log.d(TAG, "Processing move at board position: (" + boardX + "," + boardY + ")");
-
-            if (gameState.isPlacementPhase()) {
-                return handlePlacementDirect(boardX, boardY);
-            } else if (gameState.isMovementPhase()) {
-                return handleMovementDirect(boardX, boardY, fromX, fromY);
-            } else {
-                notifyMoveResult(false, "Invalid game phase");
-                return false;
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "Error handling move", e);
-            notifyMoveResult(false, "Error processing move: " + e.getMessage());
-            return false;
-        }
-    }
-
-    /**
-     * Handle direct placement with board coordinates
-     */
-    private boolean handlePlacementDirect(int boardX, int boardY) {
-        try {
-            Point boardPos = new Point(boardX, boardY);
-
-            // Validate position using board's validation
-            Point validPos = board.findValidPos(boardX, boardY);
-            if (validPos == null) {
+            Point toPos = board.findValidPos(boardX, boardY);
+            if (toPos == null) {
                 notifyMoveResult(false, "Invalid board position");
                 return false;
             }
-            boardPos = validPos;
 
-            // Check if position is occupied
-            Player existingPiece = gameLogic.findPlayerAtPosition(boardPos);
-            if (existingPiece != null) {
-                notifyMoveResult(false, "Position is already occupied");
-                return false;
+            if (engine.isPlacementPhase()) {
+                return placePiece(toPos);
             }
-
-            // Create new piece at the board position
-            int spriteSize = board.getHoleSize() * 2;
-            Player newPiece = new Player(
-                    boardPos.x - spriteSize / 2,
-                    boardPos.y - spriteSize / 2,
-                    spriteSize,
-                    gameState.getCurrentPlayer().isPlayer1()
-            );
-
-            // Add piece to game state
-            if (newPiece.isPlayer1()) {
-                gameState.getPlayer1Moves().add(newPiece);
-            } else {
-                gameState.getPlayer2Moves().add(newPiece);
+            if (fromX == null || fromY == null) {
+                return selectOrMove(toPos);
             }
 
-            String playerName = newPiece.isPlayer1() ? "Player 1 (Red)" : "Player 2 (Blue)";
-            Log.d(TAG, "Placed piece for " + playerName + " at position (" + boardX + "," + boardY + ")");
-
-            // Check win condition
-            Player gameWinner = gameLogic.checkAndSetWinner();
-            if (gameWinner != null) {
-                endGame(gameWinner);
-                return true;
+            Point fromPos = board.findValidPos(fromX, fromY);
+            Player piece = fromPos != null ? pieceAt(fromPos) : null;
+            if (piece == null) {
+                notifyMoveResult(false, "No piece at source position");
+                return false;
             }
-
-// Switch turns if game continues
-            switchTurns();
-            notifyMoveResult(true, "Piece placed successfully");
-            return true;
-
+            return movePiece(piece, toPos);
         } catch (Exception e) {
-            Log.e(TAG, "Error handling direct placement", e);
-            notifyMoveResult(false, "Error placing piece: " + e.getMessage());
+            Log.e(TAG, "Error handling move", e);
+            notifyMoveResult(false, "Error processing move: " + e.getMessage());
             return false;
         }
     }
 
-    /**
-     * Handle direct movement with board coordinates
-     */
-    private boolean handleMovementDirect(int boardX, int boardY, Integer fromX, Integer fromY) {
-        try {
-            Point toPos = new Point(boardX, boardY);
-
-            // Validate destination position
-            Point validToPos = board.findValidPos(boardX, boardY);
-            if (validToPos == null) {
-                notifyMoveResult(false, "Invalid destination position");
-                return false;
-            }
-            toPos = validToPos;
-
-            // If we have fromX and fromY, this is a complete move
-            if (fromX != null && fromY != null) {
-                return handleCompleteMoveDirect(fromX, fromY, toPos);
-            }
-
-            // No from position - handle piece selection or direct move
-            return handlePieceSelectionOrMoveDirect(toPos);
-
-        } catch (Exception e) {
-            Log.e(TAG, "Error handling direct movement", e);
-            notifyMoveResult(false, "Error processing movement: " + e.getMessage());
+    private boolean placePiece(Point boardPos) {
+        boolean player1 = engine.isPlayer1Turn();
+        int result = engine.place(cellAt(boardPos));
+        if (result != GameRules.OK) {
+            notifyMoveResult(false, GameRules.describe(result));
             return false;
         }
-    }
-
-    /**
-     * Handle complete move with from and to positions
-     */
-    private boolean handleCompleteMoveDirect(int fromX, int fromY, Point toPos) {
-        try {
-            Point fromPos = board.findValidPos(fromX, fromY);
-            if (fromPos == null) {
-                notifyMoveResult(false, "Invalid source position");
-                return false;
-            }
 
-            // Find piece at source position
-            Player pieceToMove = gameLogic.findPlayerAtPosition(fromPos);
-            if (pieceToMove == null) {
-                notifyMoveResult(false, "No piece at source position");
-                return false;
-            }
+        int spriteSize = board.getHoleSize() * 2;
+        Player newPiece = new Player(boardPos.x - spriteSize / 2, boardPos.y - spriteSize / 2, spriteSize, player1);
+        if (player1) {
+            gameState.getPlayer1Moves().add(newPiece);
+        } else {
+            gameState.getPlayer2Moves().add(newPiece);
+        }
+        finishMove(player1, "Piece placed successfully");
+        return true;
+    }
 
-            // Validate it's current player's piece
-            if (!isCurrentPlayersPiece(pieceToMove)) {
-                notifyMoveResult(false, "Cannot move opponent's piece");
-                return false;
-            }
+    /** Movement phase: a tap on an own piece selects it, a tap elsewhere moves the selected piece there. */
+    private boolean selectOrMove(Point boardPos) {
+        Player pieceAtPosition = pieceAt(boardPos);
 
-            // Use GameLogic to validate and execute the move
-            GameLogic.ValidationResult validation = gameLogic.validateMove(fromPos, toPos);
-            if (!validation.isValid()) {
-                notifyMoveResult(false, validation.getMessage());
+        if (pieceAtPosition != null) {
+            if (pieceAtPosition.isPlayer1() != engine.isPlayer1Turn()) {
+                notifyMoveResult(false, "Cannot select opponent's piece");
                 return false;
             }
-
-// Actually move the piece
-            int spriteSize = board.getHoleSize() * 2;
-            pieceToMove.setPos(
-                    toPos.x - spriteSize / 2,
-                    toPos.y - spriteSize / 2
-            );
-
-            Log.d(TAG, "Moved piece from (" + fromX + "," + fromY + ") to (" + toPos.x + "," + toPos.y + ")");
-
-// Clear selection
-            selectedPiece = null;
-            gameState.deselectPiece();
-
-// Check win condition
-            Player gameWinner = gameLogic.checkAndSetWinner();
-            if (gameWinner != null) {
-                endGame(gameWinner);
-                return true;
-            }
-
-// Switch turns - like online mode
-            switchTurns();
-            notifyMoveResult(true, "Piece moved successfully");
+            selectedPiece = pieceAtPosition;
+            gameState.selectPiece(pieceAtPosition);
+            saveCheckpoint();
+            notifyMoveResult(true, "Piece selected");
             return true;
-        } catch (Exception e) {
-            Log.e(TAG, "Error handling complete direct move", e);
-            notifyMoveResult(false, "Error moving piece: " + e.getMessage());
+        }
+
+        if (selectedPiece == null) {
+            notifyMoveResult(false, "No piece selected");
             return false;
         }
+        return movePiece(selectedPiece, boardPos);
     }
 
-    /**
-     * Handle piece selection or move to clicked position
-     */
-    private boolean handlePieceSelectionOrMoveDirect(Point clickPos) {
-        try {
-            // Check if there's a piece at clicked position
-            Player pieceAtPos = gameLogic.findPlayerAtPosition(clickPos);
-
-            if (pieceAtPos != null && isCurrentPlayersPiece(pieceAtPos)) {
-                // Selecting current player's piece
-                selectedPiece = pieceAtPos;
-                gameState.selectPiece(pieceAtPos);
-                notifyMoveResult(true, "Piece selected");
-                return true;
-
-            } else if (selectedPiece != null) {
-                // Have selected piece, try to move it to clicked position
-                Point fromPos = getCurrentPiecePosition(selectedPiece);
-                if (fromPos == null) {
-                    selectedPiece = null;
-                    gameState.deselectPiece();
-                    notifyMoveResult(false, "Cannot find selected piece position");
-                    return false;
-                }
-// Validate and execute move
-                GameLogic.ValidationResult validation = gameLogic.validateMove(fromPos, clickPos);
-                if (!validation.isValid()) {
-                    notifyMoveResult(false, validation.getMessage());
-                    return false;
-                }
-
-// Actually move the piece
-                int spriteSize = board.getHoleSize() * 2;
-                selectedPiece.setPos(
-                        clickPos.x - spriteSize / 2,
-                        clickPos.y - spriteSize / 2
-                );
-
-                Log.d(TAG, "Moved selected piece to (" + clickPos.x + "," + clickPos.y + ")");
-
-// Clear selection
-                selectedPiece = null;
-                gameState.deselectPiece();
-
-// Check win condition
-                Player gameWinner = gameLogic.checkAndSetWinner();
-                if (gameWinner != null) {
-                    endGame(gameWinner);
-                    return true;
-                }
+    private boolean movePiece(Player piece, Point toPos) {
+        boolean player1 = engine.isPlayer1Turn();
+        int result = engine.move(cellOf(piece), cellAt(toPos));
+        if (result != GameRules.OK) {
+            notifyMoveResult(false, GameRules.describe(result));
+            return false;
+        }
 
-// Switch turns - like online mode
-                switchTurns();
-                notifyMoveResult(true, "Piece moved successfully");
-                return true;
+        int spriteSize = board.getHoleSize() * 2;
+        piece.setPos(toPos.x - spriteSize / 2, toPos.y - spriteSize / 2);
+        selectedPiece = null;
+        gameState.deselectPiece();
+        finishMove(player1, "Piece moved successfully");
+        return true;
+    }
 
-            } else if (pieceAtPos != null) {
-                // Clicked opponent's piece
-                notifyMoveResult(false, "Cannot select opponent's piece");
-                return false;
+    /** After a move the engine accepted: end the game or hand the turn over. */
+    private void finishMove(boolean player1, String message) {
+        if (engine.isGameOver()) {
+            endGame(player1 ? gameState.getPlayer1() : gameState.getPlayer2());
+            return;
+        }
+        switchTurns();
+        notifyMoveResult(true, message);
+    }
 
-            } else {
-                // Clicked empty space with no piece selected
-                notifyMoveResult(false, "No piece selected");
-                return false;
+    /** The piece drawn on the hole at boardPos, or null if the engine says the cell is empty. */
+    private Player pieceAt(Point boardPos) {
+        int owner = engine.ownerOf(cellAt(boardPos));
+        if (owner == GameRules.WINNER_NONE) {
+            return null;
+        }
+        int spriteSize = board.getHoleSize() * 2;
+        int x = boardPos.x - spriteSize / 2;
+        int y = boardPos.y - spriteSize / 2;
+        for (Player piece : owner == GameRules.WINNER_PLAYER_1 ? gameState.getPlayer1Moves() : gameState.getPlayer2Moves()) {
+            // Small tolerance for rounding in the sprite positions
+            if (Math.abs(piece.getX() - x) <= 2 && Math.abs(piece.getY() - y) <= 2) {
+                return piece;
             }
-
-        } catch (Exception e) {
-            Log.e(TAG, "Error handling piece selection/move", e);
-            notifyMoveResult(false, "Error processing action: " + e.getMessage());
-            return false;
         }
+        return null;
     }
 
     /**
@@ -506,8 +355,10 @@ public class LocalGameManager {
      */
     private void endGame(Player gameWinner) {
         winner = gameWinner;
+        gameState.setWinner(gameWinner);
         isGameActive = false;
         selectedPiece = null;
+        saveCheckpoint();
 
         String winnerName = winner.isPlayer1() ? "Player 1 (Red)" : "Player 2 (Blue)";
         Log.d(TAG, "Game won by " + winnerName);
@@ -537,36 +388,11 @@ public class LocalGameManager {
         }
     }
 
-    /**
-     * Check if piece belongs to current player - matches online mode logic
-     */
-    private boolean isCurrentPlayersPiece(Player piece) {
-        try {
-            if (piece == null || gameState.getCurrentPlayer() == null) {
-                return false;
-            }
-
-            return piece.isPlayer1() == gameState.getCurrentPlayer().isPlayer1();
-        } catch (Exception e) {
-            Log.e(TAG, "Error checking piece ownership", e);
-            return false;
-        }
-    }
-
-    /**
-     * Switch turns and notify
-     */
     /** Switch turns and notify */
     private void switchTurns() {
         try {
-            // Log current state before switching
-            String beforePlayer = gameState.getCurrentPlayer().isPlayer1() ? "Player 1 (Red)" : "Player 2 (Blue)";
-            Log.d(TAG, "Before switch: " + beforePlayer);
-
             gameState.nextTurn();
-
-            String afterPlayer = gameState.getCurrentPlayer().isPlayer1() ? "Player 1 (Red)" : "Player 2 (Blue)";
-            Log.d(TAG, "After switch: " + afterPlayer + " (Turn switched successfully)");
+            saveCheckpoint();
 
             if (callback != null) {
                 callback.onPlayerTurnChanged(gameState.getCurrentPlayer().isPlayer1());
@@ -584,9 +410,12 @@ public class LocalGameManager {
             Log.d(TAG, "Resetting local game");
 
             gameState.reset();
+            engine.reset();
             isGameActive = false;
             winner = null;
             selectedPiece = null;
+            pendingResume = null;
+            saveCheckpoint();
 
             if (callback != null) {
                 callback.onGameReset();
@@ -634,45 +463,4 @@ public class LocalGameManager {
     public Player getSelectedPiece() {
         return selectedPiece;
     }
-
-    /**
-     * Mock NetworkService for GameLogic dependency
-     * Since local games don't need network functionality
-     */
-    private static class MockNetworkService extends NetworkService {
-        @Override
-        public void processMove(String gameId, String playerId, int x, int y,
-                                Integer fromX, Integer fromY, GameCallback callback) {
-            // For local games, always return success to let GameLogic handle validation
-            if (callback != null) {
-                // Create a minimal ServerGameState for local mode
-                ServerGameState mockState = new ServerGameState();
-                mockState.setGameId("local-game");
-                mockState.setPlayer1Id("local-player");
-                mockState.setPlayer2Id("local-player");
-                callback.onSuccess(mockState);
-            }
-        }
-
-        @Override
-        public void getGameState(String gameId, String playerId, GameCallback callback) {
-            if (callback != null) {
-                ServerGameState mockState = new ServerGameState();
-                mockState.setGameId("local-game");
-                callback.onSuccess(mockState);
-            }
-        }
-
-        @Override
-        public void leaveGame(String gameId, String playerId, GameCallback callback) {
-            if (callback != null) {
-                callback.onSuccess(null);
-            }
-        }
-
-        @Override
-        public void cleanup() {
-            // Nothing to cleanup for mock service
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,25 @@
+package com.gfg.NaarPazham;
+
+import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.util.Log;
+
+/**
+ * Sends {@link GameLog} events to logcat. Debuggable builds log from DEBUG
+ * up; release builds from INFO, and R8 has already removed their debug calls.
+ */
+public class LogcatSink implements GameLog.Sink {
+
+    public static void install(Context context) {
+        boolean debuggable = (context.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+        GameLog.install(new LogcatSink(), debuggable ? GameLog.DEBUG : GameLog.INFO);
+    }
+
+    @Override
+    public void log(int level, String tag, String message, Throwable error) {
+        if (error != null) {
+            message = message + '\n' + Log.getStackTraceString(error);
+        }
+        Log.println(level, tag, message);
+    }
+}
@@ -1,13 +1,12 @@
 package com.gfg.NaarPazham;
 
 import android.content.Context;
-import android.content.SharedPreferences;
+import android.content.pm.ApplicationInfo;
 import android.os.Build;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.HandlerThread;
 import android.os.Looper;
-import android.provider.Settings;
 import android.util.Log;
 import android.view.View;
 import android.widget.Button;
@@ -20,8 +19,6 @@ import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 
 import java.lang.ref.WeakReference;
-import java.util.Date;
-import java.util.UUID;
 
 enum QueueState {
     IDLE,           // Not in queue
@@ -92,6 +89,10 @@ public class MainActivity extends AppCompatActivity implements UIUpdateListener,
     // ===== LOCAL MODE COMPONENTS =====
     private GameMode currentGameMode = GameMode.LOCAL; // Default to local mode
     private LocalGameManager localGameManager;
+    private LocalGameCheckpoint localGameCheckpoint;
+
+    // ===== IDENTITY =====
+    private IdentityStore identityStore;
 
     // ===== MODE UI COMPONENTS =====
     private TextView currentModeText;
@@ -107,36 +108,24 @@ public class MainActivity extends AppCompatActivity implements UIUpdateListener,
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        StartupTrace startupTrace = new StartupTrace();
         super.onCreate(savedInstanceState);
-        setContentView(R.layout.activity_main);
+        LogcatSink.install(this);
 
-        // Force fresh ID generation for clean slate
-        DeviceIdGenerator.clearDeviceId();
-        PlayerIdGenerator.initialize(this);
-        DeviceIdGenerator.initialize(this);
+        // Saved state is read on the background writer thread while the layout inflates
+        startupTrace.run("start_persisted_state_load", () -> startLoadingPersistedState(startupTrace));
+        startupTrace.run("inflate_layout", () -> setContentView(R.layout.activity_main));
 
-        Log.d(TAG, "Forced fresh ID generation");
-
-        // Initialize NetworkService
-        if (networkService == null) {
-            networkService = new NetworkService();
-        }
-        networkService.initialize(this);
+        // The network stack (NetworkService, QueueManager, matchmaking thread) is
+        // created by ensureOnlineComponents() when online mode is first selected
 
         try {
-            // Initialize enhanced components in order
-            persistenceManager = new QueuePersistenceManager(this);
-            retryManager = NetworkRetryManager.forMatchmaking();
-            queueManager = new QueueManager(this, networkService, this);
-
-            initializeHandlers();
-            initializeViews();
+            startupTrace.run("init_views", this::initializeViews);
 
             gameView.post(() -> {
                 if (localGameManager == null && currentGameMode == GameMode.LOCAL) {
                     if (gameView.getGameState() != null && gameView.getBoard() != null) {
-                        localGameManager = new LocalGameManager(gameView.getGameState(), gameView.getBoard());
-                        localGameManager.setCallback(this);
+                        localGameManager = createLocalGameManager();
                         gameView.setLocalMode(true);
                         gameView.setLocalGameManager(localGameManager);
                         Log.d(TAG, "LocalGameManager initialized after GameView ready");
@@ -144,13 +133,14 @@ public class MainActivity extends AppCompatActivity implements UIUpdateListener,
                 }
             });
 
-            initializeGameMode();
-            setupEventListeners();
-            setupBackPressedCallback();
-            updateUIForNoGame();
+            startupTrace.run("init_game_mode", this::initializeGameMode);
+            startupTrace.run("init_listeners", () -> {
+                setupEventListeners();
+                setupBackPressedCallback();
+                updateUIForNoGame();
+            });
 
-            // Check for restorable queue session after UI is ready
-            checkForRestoredQueue();
+            startupTrace.reportAfterFirstFrame(getWindow().getDecorView(), this::reportFullyDrawn);
 
         } catch (Exception e) {
             Log.e(TAG, "Error initializing app", e);
@@ -158,20 +148,62 @@ public class MainActivity extends AppCompatActivity implements UIUpdateListener,
         }
     }
 
+    /**
+     * Create the stores for saved identity, queue session and local game. Each
+     * one queues its file read on the shared AtomicRecordWriter thread and
+     * returns at once; the trace is marked when the last read has finished.
+     */
+    private void startLoadingPersistedState(StartupTrace startupTrace) {
+        identityStore = IdentityStore.getInstance(this);
+        persistenceManager = new QueuePersistenceManager(this);
+        localGameCheckpoint = new LocalGameCheckpoint(this);
+        localGameCheckpoint.preload();
+        AtomicRecordWriter.runOnWriterThread(() -> startupTrace.mark("persisted_state_loaded"));
+    }
+
+    /** Create the network-facing components the first time they are needed; local play never does. */
+    private void ensureOnlineComponents() {
+        if (queueManager != null) {
+            return;
+        }
+        long start = System.nanoTime();
+
+        if (networkService == null) {
+            networkService = new NetworkService();
+        }
+        networkService.initialize(this);
+        networkService.warmUpConnection();
+        retryManager = NetworkRetryManager.forMatchmaking();
+        queueManager = new QueueManager(this, networkService, this);
+        initializeHandlers();
+
+        Log.d(TAG, "Online components created in " + (System.nanoTime() - start) / 1000 + "us");
+    }
+
     private void initializeGameMode() {
         switchToLocalMode();
         updateModeUI();
 
         // Initialize LocalGameManager after GameView is ready
         if (gameView != null && gameView.getGameState() != null && gameView.getBoard() != null) {
-            localGameManager = new LocalGameManager(gameView.getGameState(), gameView.getBoard());
-            localGameManager.setCallback(this);
+            localGameManager = createLocalGameManager();
             gameView.setLocalMode(true);
             gameView.setLocalGameManager(localGameManager);
         }
     }
 
 
+    /** A LocalGameManager for the current GameView, resuming any checkpointed game. */
+    private LocalGameManager createLocalGameManager() {
+        LocalGameManager manager = new LocalGameManager(gameView.getGameState(), gameView.getBoard());
+        manager.setCallback(this);
+        manager.setCheckpoint(localGameCheckpoint);
+        if (manager.resumeSavedGame()) {
+            Log.d(TAG, "Resumed checkpointed local game");
+        }
+        return manager;
+    }
+
     private void switchToLocalMode() {
         Log.d(TAG, "Switching to Local Mode");
 
@@ -189,8 +221,7 @@ public class MainActivity extends AppCompatActivity implements UIUpdateListener,
             // Use post() to ensure GameView is fully initialized
             gameView.post(() -> {
                 if (gameView.getGameState() != null && gameView.getBoard() != null) {
-                    localGameManager = new LocalGameManager(gameView.getGameState(), gameView.getBoard());
-                    localGameManager.setCallback(this);
+                    localGameManager = createLocalGameManager();
                     gameView.setLocalGameManager(localGameManager);
                     Log.d(TAG, "LocalGameManager initialized successfully");
                 } else {
@@ -206,6 +237,7 @@ public class MainActivity extends AppCompatActivity implements UIUpdateListener,
     private void switchToOnlineMode() {
         Log.d(TAG, "Switching to Online Mode");
 
+        ensureOnlineComponents();
         currentGameMode = GameMode.ONLINE;
 
         // Reset local game
@@ -581,14 +613,24 @@ public class MainActivity extends AppCompatActivity implements UIUpdateListener,
         queueAttempts++;
         persistenceManager.incrementQueueAttempts();
 
-        // Generate/get current IDs
-        if (currentPlayerId == null) {
-            currentPlayerId = PlayerIdGenerator.getOrCreatePlayerId();
-        }
-        if (currentDeviceId == null) {
-            currentDeviceId = DeviceIdGenerator.getOrCreateDeviceId();
+        if (currentPlayerId != null && currentDeviceId != null) {
+            joinQueueWithIds();
+            return;
         }
+        // Generate/get current IDs; may wait for the stored identity off this thread
+        identityStore.getSessionIds((playerId, deviceId) -> runOnUiThread(() -> {
+            if (isActivityDestroyed || currentGameMode != GameMode.ONLINE) return;
+            if (currentPlayerId == null) {
+                currentPlayerId = playerId;
+            }
+            if (currentDeviceId == null) {
+                currentDeviceId = deviceId;
+            }
+            joinQueueWithIds();
+        }));
+    }
 
+    private void joinQueueWithIds() {
         // Validate IDs before proceeding
         ValidationResult playerValidation = validatePlayerIdComprehensive(currentPlayerId);
         if (!playerValidation.isSuccess()) {
@@ -911,7 +953,7 @@ public class MainActivity extends AppCompatActivity implements UIUpdateListener,
         if (!playerId.equals(currentPlayerId)) {
             Log.d(TAG, "Updating player ID: " + currentPlayerId + " -> " + playerId);
             currentPlayerId = playerId;
-            PlayerIdGenerator.setPlayerId(playerId);
+            identityStore.setPlayerId(playerId);
         }
 
         currentGameId = gameState.getGameId();
@@ -978,15 +1020,15 @@ public class MainActivity extends AppCompatActivity implements UIUpdateListener,
 
                 Log.d(TAG, "Player ID error detected - will regenerate on next attempt");
                 currentPlayerId = null;
-                PlayerIdGenerator.forceRegenerateId();
+                identityStore.clearPlayerId();
             }
 
             if (lowerError.contains("validation") || lowerError.contains("invalid")) {
                 Log.d(TAG, "Validation error detected - will regenerate IDs on next attempt");
                 currentPlayerId = null;
                 currentDeviceId = null;
-                PlayerIdGenerator.forceRegenerateId();
-                DeviceIdGenerator.clearDeviceId();
+                identityStore.clearPlayerId();
+                identityStore.clearDeviceId();
             }
         }
 
@@ -1119,6 +1161,15 @@ public class MainActivity extends AppCompatActivity implements UIUpdateListener,
                     showRulesDialog();  // Only show rules dialog
                 }
             });
+            // The metrics dialog shows player and game IDs, so debug builds only
+            if ((getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0) {
+                rulesButton.setOnLongClickListener(v -> {
+                    if (!isActivityDestroyed && !isActivityFinishing) {
+                        DebugMetricsDialog.show(this);
+                    }
+                    return true;
+                });
+            }
         }
 
         if (findMatchButton != null) {
@@ -1189,8 +1240,7 @@ public class MainActivity extends AppCompatActivity implements UIUpdateListener,
 
         if (localGameManager == null && gameView != null &&
                 gameView.getGameState() != null && gameView.getBoard() != null) {
-            localGameManager = new LocalGameManager(gameView.getGameState(), gameView.getBoard());
-            localGameManager.setCallback(this);
+            localGameManager = createLocalGameManager();
         }
 
         if (localGameManager != null) {
@@ -1449,14 +1499,16 @@ public class MainActivity extends AppCompatActivity implements UIUpdateListener,
     private void performCompleteReset() {
         Log.d(TAG, "Performing complete reset");
 
-        // Save statistics before reset
-        long queueTime = queueManager.getTimeInQueue();
-        if (queueTime > 0) {
-            persistenceManager.saveQueueStatistics(queueTime, queueAttempts, false, "user_reset");
-        }
+        if (queueManager != null) {
+            // Save statistics before reset
+            long queueTime = queueManager.getTimeInQueue();
+            if (queueTime > 0) {
+                persistenceManager.saveQueueStatistics(queueTime, queueAttempts, false, "user_reset");
+            }
 
-        // Use QueueManager to leave queue cleanly
-        queueManager.leaveQueue();
+            // Use QueueManager to leave queue cleanly
+            queueManager.leaveQueue();
+        }
 
         if (gameView != null) {
             gameView.resetGame();
@@ -1472,8 +1524,8 @@ public class MainActivity extends AppCompatActivity implements UIUpdateListener,
         totalQueueTime = 0;
 
         // Force fresh ID generation
-        PlayerIdGenerator.forceRegenerateId();
-        DeviceIdGenerator.clearDeviceId();
+        identityStore.clearPlayerId();
+        identityStore.clearDeviceId();
 
         // Clear persistence
         persistenceManager.clearQueueState();
@@ -1820,503 +1872,3 @@ public class MainActivity extends AppCompatActivity implements UIUpdateListener,
         }
     }
 }
-
-// ===== ENHANCED PLAYER ID GENERATOR (Same as before, included for completeness) =====
-
-class PlayerIdGenerator {
-    private static final String TAG = "PlayerIdGenerator";
-
-    private static final String PREFS_NAME = "naarpazham_player_prefs";
-    private static final String KEY_PLAYER_ID = "current_player_id";
-    private static final String KEY_DEVICE_FINGERPRINT = "device_fingerprint";
-    private static final String KEY_LAST_GENERATED = "last_generated_time";
-
-    private static String currentPlayerId = null;
-    private static String deviceFingerprint = null;
-    private static long lastGenerationTime = 0;
-    private static Context appContext = null;
-
-    private static final long MIN_GENERATION_INTERVAL = 2000;
-    private static final long SESSION_VALIDITY_HOURS = 2;
-
-    public static synchronized void initialize(Context context) {
-        if (appContext == null) {
-            appContext = context.getApplicationContext();
-            loadPersistedData();
-            ensureDeviceFingerprint();
-            Log.d(TAG, "PlayerIdGenerator initialized");
-        }
-    }
-
-    private static void loadPersistedData() {
-        if (appContext == null) return;
-
-        try {
-            SharedPreferences prefs = appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-
-            String savedPlayerId = prefs.getString(KEY_PLAYER_ID, null);
-            String savedFingerprint = prefs.getString(KEY_DEVICE_FINGERPRINT, null);
-            long savedTime = prefs.getLong(KEY_LAST_GENERATED, 0);
-
-            if (savedPlayerId != null) {
-                Log.d(TAG, "Loaded saved player ID: " + savedPlayerId);
-                Log.d(TAG, "Saved generation time: " + savedTime + " (" + new Date(savedTime) + ")");
-            }
-
-            if (isValidAndFresh(savedPlayerId, savedTime)) {
-                currentPlayerId = savedPlayerId;
-                lastGenerationTime = savedTime;
-                Log.d(TAG, "Restored valid player ID from storage");
-            } else if (savedPlayerId != null) {
-                Log.d(TAG, "Stored player ID expired or invalid, will generate new one");
-            }
-
-            if (isValidFingerprint(savedFingerprint)) {
-                deviceFingerprint = savedFingerprint;
-            }
-
-        } catch (Exception e) {
-            Log.e(TAG, "Error loading persisted data", e);
-        }
-    }
-
-    private static void savePlayerData() {
-        if (appContext == null) return;
-
-        try {
-            SharedPreferences prefs = appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-            SharedPreferences.Editor editor = prefs.edit();
-
-            if (currentPlayerId != null) {
-                editor.putString(KEY_PLAYER_ID, currentPlayerId);
-                editor.putLong(KEY_LAST_GENERATED, lastGenerationTime);
-            }
-
-            if (deviceFingerprint != null) {
-                editor.putString(KEY_DEVICE_FINGERPRINT, deviceFingerprint);
-            }
-
-            editor.apply();
-            Log.d(TAG, "Player data saved to storage");
-
-        } catch (Exception e) {
-            Log.e(TAG, "Error saving player data", e);
-        }
-    }
-
-    private static void ensureDeviceFingerprint() {
-        if (deviceFingerprint != null) return;
-
-        try {
-            StringBuilder fingerprint = new StringBuilder();
-
-            String brand = Build.BRAND != null ? Build.BRAND.replaceAll("[^A-Za-z0-9]", "") : "UNK";
-            String model = Build.MODEL != null ? Build.MODEL.replaceAll("[^A-Za-z0-9]", "") : "UNK";
-
-            fingerprint.append(brand).append("_");
-            fingerprint.append(model).append("_");
-            fingerprint.append(Build.VERSION.SDK_INT).append("_");
-
-            String androidId = null;
-            if (appContext != null) {
-                try {
-                    androidId = Settings.Secure.getString(
-                            appContext.getContentResolver(),
-                            Settings.Secure.ANDROID_ID
-                    );
-                } catch (Exception e) {
-                    Log.w(TAG, "Could not get Android ID", e);
-                }
-            }
-
-            if (androidId != null && !androidId.equals("9774d56d682e549c")) {
-                fingerprint.append(androidId.substring(0, Math.min(8, androidId.length())));
-            } else {
-                String hardwareInfo = brand + model + Build.VERSION.SDK_INT;
-                fingerprint.append(String.format("%08X", hardwareInfo.hashCode()));
-            }
-
-            deviceFingerprint = fingerprint.toString();
-            savePlayerData();
-
-            Log.d(TAG, "Generated device fingerprint: " + deviceFingerprint);
-
-        } catch (Exception e) {
-            Log.e(TAG, "Error generating device fingerprint", e);
-            deviceFingerprint = "FALLBACK_DEVICE";
-        }
-    }
-
-    public static synchronized String generateUniqueId() {
-        if (appContext == null) {
-            throw new IllegalStateException("PlayerIdGenerator not initialized. Call initialize(context) first.");
-        }
-
-        long currentTime = System.currentTimeMillis();
-
-        Log.d(TAG, "Current system time: " + currentTime);
-        Log.d(TAG, "Current date: " + new Date(currentTime).toString());
-
-        long maxAllowedTime = System.currentTimeMillis();
-        if (currentTime > maxAllowedTime) {
-            Log.w(TAG, "System time appears to be in future, adjusting");
-            currentTime = maxAllowedTime;
-        }
-
-        if (currentTime - lastGenerationTime < MIN_GENERATION_INTERVAL) {
-            long waitTime = MIN_GENERATION_INTERVAL - (currentTime - lastGenerationTime);
-            try {
-                Thread.sleep(waitTime);
-                currentTime = System.currentTimeMillis();
-                if (currentTime > System.currentTimeMillis()) {
-                    currentTime = System.currentTimeMillis();
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }
-
-        ensureDeviceFingerprint();
-
-        try {
-            int deviceHash = Math.abs(deviceFingerprint.hashCode());
-            int sessionRandom = (int)(Math.random() * 10000);
-
-            String playerId = String.format("ANDROID_PLAYER_%d_%08X_%04d",
-                    currentTime, deviceHash, sessionRandom);
-
-            Log.d(TAG, "Generated player ID: " + playerId);
-            Log.d(TAG, "Timestamp component: " + currentTime);
-            Log.d(TAG, "Device hash component: " + String.format("%08X", deviceHash));
-
-            if (isValidPlayerIdFormat(playerId)) {
-                currentPlayerId = playerId;
-                lastGenerationTime = currentTime;
-                savePlayerData();
-
-                Log.d(TAG, "Player ID validation passed");
-                return playerId;
-
-            } else {
-                Log.e(TAG, "Generated player ID failed validation: " + playerId);
-                throw new RuntimeException("Failed to generate valid player ID");
-            }
-
-        } catch (Exception e) {
-            Log.e(TAG, "Error generating player ID", e);
-            throw new RuntimeException("Player ID generation failed", e);
-        }
-    }
-
-    public static synchronized String getOrCreatePlayerId() {
-        if (appContext == null) {
-            throw new IllegalStateException("PlayerIdGenerator not initialized. Call initialize(context) first.");
-        }
-
-        if (isValidAndFresh(currentPlayerId, lastGenerationTime)) {
-            Log.d(TAG, "Using existing valid player ID");
-            return currentPlayerId;
-        }
-
-        Log.d(TAG, "Generating new player ID (existing invalid/expired)");
-        return generateUniqueId();
-    }
-
-    public static synchronized void forceRegenerateId() {
-        Log.d(TAG, "Force regenerating player ID - clearing cache");
-        clearPlayerId();
-        currentPlayerId = null;
-        lastGenerationTime = 0;
-    }
-
-    public static synchronized void setPlayerId(String playerId) {
-        if (!isValidPlayerIdFormat(playerId)) {
-            Log.w(TAG, "Attempted to set invalid player ID: " + playerId);
-            return;
-        }
-
-        if (!isReasonableForDevice(playerId)) {
-            Log.w(TAG, "Player ID doesn't match device fingerprint: " + playerId);
-        }
-
-        currentPlayerId = playerId;
-        lastGenerationTime = System.currentTimeMillis();
-        savePlayerData();
-
-        Log.d(TAG, "Set player ID: " + playerId);
-    }
-
-    public static synchronized String getPlayerId() {
-        return currentPlayerId;
-    }
-
-    public static boolean isValidPlayerId(String playerId) {
-        return isValidPlayerIdFormat(playerId);
-    }
-
-    public static synchronized void clearPlayerId() {
-        currentPlayerId = null;
-        lastGenerationTime = 0;
-
-        if (appContext != null) {
-            SharedPreferences prefs = appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-            prefs.edit()
-                    .remove(KEY_PLAYER_ID)
-                    .remove(KEY_LAST_GENERATED)
-                    .apply();
-        }
-
-        Log.d(TAG, "Cleared player ID");
-    }
-
-    public static String getDeviceFingerprint() {
-        ensureDeviceFingerprint();
-        return deviceFingerprint;
-    }
-
-    private static boolean isValidPlayerIdFormat(String playerId) {
-        if (playerId == null || playerId.trim().isEmpty()) {
-            Log.d(TAG, "Player ID is null or empty");
-            return false;
-        }
-
-        String trimmed = playerId.trim();
-
-        if (trimmed.length() < 8 || trimmed.length() > 64) {
-            Log.d(TAG, "Player ID length invalid: " + trimmed.length());
-            return false;
-        }
-
-        if (!trimmed.startsWith("ANDROID_PLAYER_")) {
-            Log.d(TAG, "Player ID prefix invalid");
-            return false;
-        }
-
-        String[] parts = trimmed.split("_");
-        if (parts.length < 4) {
-            Log.d(TAG, "Player ID structure invalid, parts: " + parts.length);
-            return false;
-        }
-
-        try {
-            long timestamp = Long.parseLong(parts[2]);
-            long now = System.currentTimeMillis();
-            long age = now - timestamp;
-
-            Log.d(TAG, "Validating timestamp: " + timestamp + " vs current: " + now + ", age: " + age);
-
-            if (age < -60000) {
-                Log.d(TAG, "Player ID timestamp is too far in future: " + age);
-                return false;
-            }
-            if (age > 24 * 60 * 60 * 1000) {
-                Log.d(TAG, "Player ID timestamp too old: " + age);
-                return false;
-            }
-        } catch (NumberFormatException e) {
-            Log.d(TAG, "Player ID timestamp invalid: " + parts[2]);
-            return false;
-        }
-
-        try {
-            Integer.parseInt(parts[3], 16);
-        } catch (NumberFormatException e) {
-            Log.d(TAG, "Player ID device hash invalid: " + parts[3]);
-            return false;
-        }
-
-        if (parts.length >= 5) {
-            try {
-                Integer.parseInt(parts[4]);
-            } catch (NumberFormatException e) {
-                Log.d(TAG, "Player ID random component invalid: " + parts[4]);
-                return false;
-            }
-        }
-
-        return true;
-    }
-
-    private static boolean isValidAndFresh(String playerId, long generationTime) {
-        if (!isValidPlayerIdFormat(playerId)) {
-            return false;
-        }
-
-        try {
-            String[] parts = playerId.split("_");
-            long playerIdTimestamp = Long.parseLong(parts[2]);
-            long now = System.currentTimeMillis();
-
-            if (playerIdTimestamp > now + 60000) {
-                Log.w(TAG, "Player ID timestamp is in future: " + playerIdTimestamp + " vs " + now);
-                Log.w(TAG, "Future timestamp date: " + new Date(playerIdTimestamp));
-                Log.w(TAG, "Current date: " + new Date(now));
-                return false;
-            }
-        } catch (Exception e) {
-            Log.w(TAG, "Could not validate player ID timestamp", e);
-            return false;
-        }
-
-        long age = System.currentTimeMillis() - generationTime;
-        long maxAge = SESSION_VALIDITY_HOURS * 60 * 60 * 1000;
-
-        if (age > maxAge) {
-            Log.d(TAG, "Player ID expired (age: " + (age / 60000) + " minutes)");
-            return false;
-        }
-
-        return true;
-    }
-
-    private static boolean isReasonableForDevice(String playerId) {
-        if (deviceFingerprint == null) {
-            return true;
-        }
-
-        try {
-            String[] parts = playerId.split("_");
-            if (parts.length >= 4) {
-                String playerDeviceHash = parts[3];
-                String expectedDeviceHash = String.format("%08X", Math.abs(deviceFingerprint.hashCode()));
-
-                return playerDeviceHash.equals(expectedDeviceHash);
-            }
-        } catch (Exception e) {
-            Log.d(TAG, "Could not validate device consistency", e);
-        }
-
-        return true;
-    }
-
-    private static boolean isValidFingerprint(String fingerprint) {
-        return fingerprint != null &&
-                fingerprint.length() > 5 &&
-                fingerprint.matches("^[A-Za-z0-9_]+$");
-    }
-}
-
-// ===== DEVICE ID GENERATOR (Same as before, included for completeness) =====
-
-class DeviceIdGenerator {
-    private static final String TAG = "DeviceIdGenerator";
-
-    private static final String PREFS_NAME = "naarpazham_device_prefs";
-    private static final String KEY_DEVICE_ID = "device_id";
-
-    private static String currentDeviceId = null;
-    private static Context appContext = null;
-
-    public static synchronized void initialize(Context context) {
-        if (appContext == null) {
-            appContext = context.getApplicationContext();
-            loadPersistedDeviceId();
-            Log.d(TAG, "DeviceIdGenerator initialized");
-        }
-    }
-
-    private static void loadPersistedDeviceId() {
-        if (appContext == null) return;
-
-        try {
-            SharedPreferences prefs = appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-            String savedDeviceId = prefs.getString(KEY_DEVICE_ID, null);
-
-            if (isValidDeviceId(savedDeviceId)) {
-                currentDeviceId = savedDeviceId;
-                Log.d(TAG, "Restored device ID from storage: " + currentDeviceId);
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "Error loading device ID", e);
-        }
-    }
-
-    public static synchronized String getOrCreateDeviceId() {
-        if (appContext == null) {
-            throw new IllegalStateException("DeviceIdGenerator not initialized. Call initialize(context) first.");
-        }
-
-        if (currentDeviceId != null && isValidDeviceId(currentDeviceId)) {
-            return currentDeviceId;
-        }
-
-        currentDeviceId = generateDeviceId();
-        saveDeviceId();
-
-        return currentDeviceId;
-    }
-
-    private static String generateDeviceId() {
-        try {
-            StringBuilder deviceId = new StringBuilder("DEVICE_");
-
-            String brand = Build.BRAND != null ? Build.BRAND.replaceAll("[^A-Za-z0-9]", "") : "UNK";
-            String model = Build.MODEL != null ? Build.MODEL.replaceAll("[^A-Za-z0-9]", "") : "UNK";
-
-            deviceId.append(brand).append("_");
-            deviceId.append(model).append("_");
-            deviceId.append(Build.VERSION.SDK_INT).append("_");
-
-            String androidId = null;
-            if (appContext != null) {
-                try {
-                    androidId = Settings.Secure.getString(
-                            appContext.getContentResolver(),
-                            Settings.Secure.ANDROID_ID
-                    );
-                } catch (Exception e) {
-                    Log.w(TAG, "Could not get Android ID for device ID", e);
-                }
-            }
-
-            if (androidId != null && !androidId.equals("9774d56d682e549c")) {
-                deviceId.append(androidId.substring(0, Math.min(8, androidId.length())));
-            } else {
-                String fallbackId = UUID.randomUUID().toString().replace("-", "").substring(0, 8);
-                deviceId.append(fallbackId);
-            }
-
-            String result = deviceId.toString();
-            Log.d(TAG, "Generated device ID: " + result);
-            return result;
-
-        } catch (Exception e) {
-            Log.e(TAG, "Error generating device ID", e);
-            return "DEVICE_FALLBACK_" + System.currentTimeMillis();
-        }
-    }
-
-    private static void saveDeviceId() {
-        if (appContext == null || currentDeviceId == null) return;
-
-        try {
-            SharedPreferences prefs = appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-            prefs.edit().putString(KEY_DEVICE_ID, currentDeviceId).apply();
-            Log.d(TAG, "Device ID saved to storage");
-        } catch (Exception e) {
-            Log.e(TAG, "Error saving device ID", e);
-        }
-    }
-
-    private static boolean isValidDeviceId(String deviceId) {
-        return deviceId != null &&
-                deviceId.startsWith("DEVICE_") &&
-                deviceId.length() > 10 &&
-                deviceId.matches("^[A-Za-z0-9_]+$");
-    }
-
-    public static String getDeviceId() {
-        return currentDeviceId;
-    }
-
-    public static synchronized void clearDeviceId() {
-        currentDeviceId = null;
-
-        if (appContext != null) {
-            SharedPreferences prefs = appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-            prefs.edit().remove(KEY_DEVICE_ID).apply();
-        }
-
-        Log.d(TAG, "Device ID cleared");
-    }
-}
\ No newline at end of file
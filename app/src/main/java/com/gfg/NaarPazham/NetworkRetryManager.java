@@ -2,331 +2,142 @@ package com.gfg.NaarPazham;
 
 import android.os.Handler;
 import android.os.Looper;
-import android.util.Log;
+
+import java.util.Locale;
 
 /**
- * Step 8: Network Retry Manager
- * Handles network retry logic with exponential backoff and circuit breaker
+ * Retries network operations with full-jitter exponential backoff, behind a
+ * circuit breaker per endpoint. The work is done by {@link RetryExecutor};
+ * this class runs its retries on the main thread and shares one
+ * {@link CircuitBreakerRegistry} across every manager in the app, so all
+ * callers of an endpoint trip and recover the same breaker. Retries also
+ * wait out any cooldown the server asked for (see {@link Backpressure}).
+ *
+ * Operations report back on the {@link RetryExecutor.Attempt} they are
+ * given, typically from a NetworkService callback:
+ *
+ * <pre>
+ *   retryManager.executeWithRetry("matchmaking/find", attempt ->
+ *           networkService.findMatch(playerId, new MatchmakingCallback() {
+ *               public void onMatchFound(...) { attempt.succeed(); ... }
+ *               public void onFailure(String error) { attempt.fail(error); }
+ *           }), callback);
+ * </pre>
  */
 public class NetworkRetryManager {
     private static final String TAG = "NetworkRetryManager";
 
-    // Retry configuration
-    private static final int DEFAULT_MAX_RETRIES = 3;
-    private static final long DEFAULT_INITIAL_DELAY = 1000; // 1 second
-    private static final double DEFAULT_BACKOFF_MULTIPLIER = 2.0;
-    private static final long DEFAULT_MAX_DELAY = 30000; // 30 seconds
-
-    // Circuit breaker configuration
-    private static final int CIRCUIT_BREAKER_THRESHOLD = 5;
-    private static final long CIRCUIT_BREAKER_RESET_TIME = 60000; // 1 minute
+    private static final NetworkRetryManager SHARED = new NetworkRetryManager(RetryExecutor.Config.defaultConfig());
 
-    private Handler retryHandler;
-    private CircuitBreaker circuitBreaker;
-
-    public interface RetryOperation {
-        void execute(RetryContext context);
+    static {
+        CircuitBreakerRegistry.shared().setListener((endpoint, from, to) -> {
+            MetricsRegistry.global().increment("breaker." + to.name().toLowerCase(Locale.ROOT));
+            GameLog.w(TAG, "Circuit breaker for {}: {} -> {}", endpoint, from, to);
+        });
     }
 
-    public interface RetryCallback {
-        void onSuccess();
-        void onFinalFailure(String error, int totalAttempts);
-        void onRetryAttempt(int attempt, long delay);
-    }
-
-    public static class RetryConfig {
-        public final int maxRetries;
-        public final long initialDelay;
-        public final double backoffMultiplier;
-        public final long maxDelay;
-        public final boolean useCircuitBreaker;
-
-        public RetryConfig(int maxRetries, long initialDelay, double backoffMultiplier,
-                           long maxDelay, boolean useCircuitBreaker) {
-            this.maxRetries = maxRetries;
-            this.initialDelay = initialDelay;
-            this.backoffMultiplier = backoffMultiplier;
-            this.maxDelay = maxDelay;
-            this.useCircuitBreaker = useCircuitBreaker;
-        }
-
-        public static RetryConfig defaultConfig() {
-            return new RetryConfig(DEFAULT_MAX_RETRIES, DEFAULT_INITIAL_DELAY,
-                    DEFAULT_BACKOFF_MULTIPLIER, DEFAULT_MAX_DELAY, true);
-        }
-
-        public static RetryConfig quickRetry() {
-            return new RetryConfig(2, 500, 1.5, 5000, false);
-        }
-
-        public static RetryConfig aggressiveRetry() {
-            return new RetryConfig(5, 2000, 2.5, 60000, true);
-        }
-    }
-
-    public static class RetryContext {
-        private final int currentAttempt;
-        private final int maxRetries;
-        private final long currentDelay;
-        private final RetryCallback callback;
-        private final String operationId;
-
-        public RetryContext(int currentAttempt, int maxRetries, long currentDelay,
-                            RetryCallback callback, String operationId) {
-            this.currentAttempt = currentAttempt;
-            this.maxRetries = maxRetries;
-            this.currentDelay = currentDelay;
-            this.callback = callback;
-            this.operationId = operationId;
-        }
-
-        public void success() {
-            callback.onSuccess();
-        }
-
-        public void failure(String error) {
-            if (currentAttempt >= maxRetries) {
-                callback.onFinalFailure(error, currentAttempt);
-            } else {
-                // This will be handled by the retry manager
-                throw new RetryableException(error);
-            }
-        }
-
-        public int getCurrentAttempt() { return currentAttempt; }
-        public int getMaxRetries() { return maxRetries; }
-        public String getOperationId() { return operationId; }
-    }
-
-    public static class RetryableException extends RuntimeException {
-        public RetryableException(String message) {
-            super(message);
-        }
-    }
-
-    /**
-     * Simple Circuit Breaker implementation
-     */
-    private static class CircuitBreaker {
-        private enum State { CLOSED, OPEN, HALF_OPEN }
-
-        private State state = State.CLOSED;
-        private int failureCount = 0;
-        private long lastFailureTime = 0;
-        private final int threshold;
-        private final long resetTimeout;
-
-        public CircuitBreaker(int threshold, long resetTimeout) {
-            this.threshold = threshold;
-            this.resetTimeout = resetTimeout;
-        }
-
-        public boolean isOpen() {
-            if (state == State.OPEN &&
-                    System.currentTimeMillis() - lastFailureTime > resetTimeout) {
-                state = State.HALF_OPEN;
-                Log.d(TAG, "Circuit breaker moved to HALF_OPEN");
-            }
-
-            return state == State.OPEN;
-        }
-
-        public void recordSuccess() {
-            failureCount = 0;
-            state = State.CLOSED;
-        }
-
-        public void recordFailure() {
-            failureCount++;
-            lastFailureTime = System.currentTimeMillis();
-
-            if (state == State.HALF_OPEN) {
-                state = State.OPEN;
-                Log.w(TAG, "Circuit breaker opened after half-open failure");
-            } else if (failureCount >= threshold) {
-                state = State.OPEN;
-                Log.w(TAG, "Circuit breaker opened after " + failureCount + " failures");
-            }
-        }
-
-        public State getState() { return state; }
-        public int getFailureCount() { return failureCount; }
-    }
+    private final Handler retryHandler = new Handler(Looper.getMainLooper());
+    private final RetryExecutor executor;
+    private final RetryExecutor.Config defaultConfig;
 
     public NetworkRetryManager() {
-        this.retryHandler = new Handler(Looper.getMainLooper());
-        this.circuitBreaker = new CircuitBreaker(CIRCUIT_BREAKER_THRESHOLD, CIRCUIT_BREAKER_RESET_TIME);
-    }
-
-    /**
-     * Execute operation with default retry configuration
-     */
-    public void executeWithRetry(String operationId, RetryOperation operation, RetryCallback callback) {
-        executeWithRetry(operationId, operation, callback, RetryConfig.defaultConfig());
-    }
-
-    /**
-     * Execute operation with custom retry configuration
-     */
-    public void executeWithRetry(String operationId, RetryOperation operation,
-                                 RetryCallback callback, RetryConfig config) {
-        executeAttempt(operationId, operation, callback, config, 1, config.initialDelay);
+        this(RetryExecutor.Config.defaultConfig());
     }
 
-    /**
-     * Execute a single attempt of the operation
-     */
-    private void executeAttempt(String operationId, RetryOperation operation,
-                                RetryCallback callback, RetryConfig config,
-                                int attempt, long currentDelay) {
-
-        // Check circuit breaker
-        if (config.useCircuitBreaker && circuitBreaker.isOpen()) {
-            Log.w(TAG, "Circuit breaker is open, failing fast for: " + operationId);
-            callback.onFinalFailure("Service temporarily unavailable (circuit breaker open)", attempt);
-            return;
-        }
-
-        Log.d(TAG, "Executing " + operationId + " - attempt " + attempt + "/" + config.maxRetries);
-
-        try {
-            RetryContext context = new RetryContext(attempt, config.maxRetries, currentDelay,
-                    callback, operationId);
-            operation.execute(context);
-
-            // If we get here without exception, operation initiated successfully
-            // Success/failure will be reported via context.success()/context.failure()
-
-        } catch (RetryableException e) {
-            handleRetryableFailure(operationId, operation, callback, config, attempt,
-                    currentDelay, e.getMessage());
-        } catch (Exception e) {
-            // Non-retryable exception
-            Log.e(TAG, "Non-retryable error in " + operationId, e);
-            circuitBreaker.recordFailure();
-            callback.onFinalFailure("Non-retryable error: " + e.getMessage(), attempt);
+    public NetworkRetryManager(RetryExecutor.Config defaultConfig) {
+        if (defaultConfig == null) {
+            throw new IllegalArgumentException("Config cannot be null");
         }
+        this.defaultConfig = defaultConfig;
+        this.executor = new RetryExecutor(retryHandler::postDelayed, CircuitBreakerRegistry.shared(),
+                Backpressure.global());
     }
 
-    /**
-     * Handle a retryable failure
-     */
-    private void handleRetryableFailure(String operationId, RetryOperation operation,
-                                        RetryCallback callback, RetryConfig config,
-                                        int attempt, long currentDelay, String error) {
-
-        circuitBreaker.recordFailure();
-
-        if (attempt >= config.maxRetries) {
-            Log.e(TAG, "Max retries exceeded for " + operationId + ": " + error);
-            callback.onFinalFailure(error, attempt);
-            return;
-        }
-
-        // Calculate next delay with exponential backoff
-        long nextDelay = Math.min((long)(currentDelay * config.backoffMultiplier), config.maxDelay);
-
-        Log.w(TAG, "Retrying " + operationId + " in " + nextDelay + "ms (attempt " +
-                (attempt + 1) + "/" + config.maxRetries + ") - Error: " + error);
-
-        callback.onRetryAttempt(attempt + 1, nextDelay);
-
-        // Schedule retry
-        retryHandler.postDelayed(() -> {
-            executeAttempt(operationId, operation, callback, config, attempt + 1, nextDelay);
-        }, nextDelay);
+    /** Retry manager for matchmaking: patient, and stops early if the endpoint is down. */
+    public static NetworkRetryManager forMatchmaking() {
+        return new NetworkRetryManager(RetryExecutor.Config.aggressiveRetry());
     }
 
-    /**
-     * Record a successful operation (for circuit breaker)
-     */
-    public void recordSuccess() {
-        circuitBreaker.recordSuccess();
+    /** Retry manager for in-game calls, which need an answer quickly. */
+    public static NetworkRetryManager forGameOperations() {
+        return new NetworkRetryManager(RetryExecutor.Config.quickRetry());
     }
 
-    /**
-     * Check if circuit breaker is open
-     */
-    public boolean isCircuitBreakerOpen() {
-        return circuitBreaker.isOpen();
-    }
+    // ===== EXECUTION =====
 
-    /**
-     * Get circuit breaker statistics
-     */
-    public String getCircuitBreakerStatus() {
-        return "State: " + circuitBreaker.getState() +
-                ", Failures: " + circuitBreaker.getFailureCount();
+    /** Retry with this manager's default config; {@code endpoint} names the breaker. */
+    public void executeWithRetry(String endpoint, RetryExecutor.Operation operation,
+                                 RetryExecutor.Callback callback) {
+        executeWithRetry(endpoint, operation, callback, defaultConfig);
     }
 
-    /**
-     * Cancel all pending retry operations
-     */
-    public void cancelAllRetries() {
-        retryHandler.removeCallbacksAndMessages(null);
-        Log.d(TAG, "All retry operations cancelled");
+    public void executeWithRetry(String endpoint, RetryExecutor.Operation operation,
+                                 RetryExecutor.Callback callback, RetryExecutor.Config config) {
+        GameLog.d(TAG, "Executing {} (up to {} attempts)", endpoint, config.maxAttempts);
+        executor.execute(endpoint, operation, callback, config);
     }
 
     /**
-     * Convenience method for simple retry with exponential backoff
+     * Run a synchronous operation until it stops throwing, on the shared
+     * manager. Runs on the main thread from the first retry on.
      */
-    public static void retryWithBackoff(String operationId, Runnable operation,
-                                        int maxRetries, Runnable onFinalFailure) {
-        NetworkRetryManager manager = new NetworkRetryManager();
-
-        manager.executeWithRetry(operationId,
-                context -> {
+    public static void retryWithBackoff(String endpoint, Runnable operation,
+                                        int maxAttempts, Runnable onFinalFailure) {
+        SHARED.executeWithRetry(endpoint,
+                attempt -> {
                     try {
                         operation.run();
-                        context.success();
                     } catch (Exception e) {
-                        context.failure(e.getMessage());
+                        attempt.fail(e.getMessage());
+                        return;
                     }
+                    attempt.succeed();
                 },
-                new RetryCallback() {
+                new RetryExecutor.Callback() {
                     @Override
                     public void onSuccess() {
-                        Log.d(TAG, operationId + " succeeded");
+                        GameLog.d(TAG, "{} succeeded", endpoint);
                     }
 
                     @Override
                     public void onFinalFailure(String error, int totalAttempts) {
-                        Log.e(TAG, operationId + " failed after " + totalAttempts + " attempts: " + error);
+                        GameLog.e(TAG, "{} failed after {} attempts: {}", endpoint, totalAttempts, error);
                         onFinalFailure.run();
                     }
 
                     @Override
-                    public void onRetryAttempt(int attempt, long delay) {
-                        Log.d(TAG, operationId + " retrying attempt " + attempt + " in " + delay + "ms");
+                    public void onRetryAttempt(int attempt, long delayMs) {
+                        GameLog.d(TAG, "{} retrying attempt {} in {}ms", endpoint, attempt, delayMs);
                     }
                 },
-                new RetryConfig(maxRetries, 2000, 2.0, 30000, false)
-        );
+                new RetryExecutor.Config(maxAttempts, 2000, 2.0, 30000, false));
     }
 
-    /**
-     * Create a pre-configured retry manager for matchmaking operations
-     */
-    public static NetworkRetryManager forMatchmaking() {
-        NetworkRetryManager manager = new NetworkRetryManager();
-        // Matchmaking operations can be more patient with retries
-        return manager;
+    // ===== CIRCUIT BREAKERS =====
+
+    public boolean isCircuitBreakerOpen(String endpoint) {
+        return CircuitBreakerRegistry.shared().get(endpoint).isOpen();
     }
 
-    /**
-     * Create a pre-configured retry manager for game operations
-     */
-    public static NetworkRetryManager forGameOperations() {
-        NetworkRetryManager manager = new NetworkRetryManager();
-        // Game operations need faster response times
-        return manager;
+    /** One line per endpoint that has a breaker. */
+    public String getCircuitBreakerStatus() {
+        StringBuilder status = new StringBuilder();
+        for (CircuitBreaker breaker : CircuitBreakerRegistry.shared().breakers().values()) {
+            status.append(breaker).append('\n');
+        }
+        return status.toString();
+    }
+
+    // ===== LIFECYCLE =====
+
+    /** Drop this manager's scheduled retries. Other managers are unaffected. */
+    public void cancelAllRetries() {
+        executor.cancelAll();
+        retryHandler.removeCallbacksAndMessages(null);
+        GameLog.d(TAG, "All retry operations cancelled");
     }
 
-    /**
-     * Cleanup resources
-     */
     public void cleanup() {
         cancelAllRetries();
-        Log.d(TAG, "NetworkRetryManager cleaned up");
     }
-}
\ No newline at end of file
+}
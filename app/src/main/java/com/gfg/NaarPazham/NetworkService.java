@@ -3,39 +3,51 @@ package com.gfg.NaarPazham;
 import android.content.Context;
 import android.os.Handler;
 import android.os.Looper;
-import android.util.Log;
-
-import com.android.volley.DefaultRetryPolicy;
-import com.android.volley.NetworkResponse;
-import com.android.volley.Request;
-import com.android.volley.RequestQueue;
-import com.android.volley.Response;
-import com.android.volley.VolleyError;
-import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.Volley;
 
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class NetworkService {
     private static final String TAG = "NetworkService";
     private static final String BASE_URL = URL;
-    private RequestQueue requestQueue;
+    private GameTransport transport;
     private static NetworkService instance;
     private Context context;
+    private IdentityStore identityStore;
     private final AtomicInteger pendingRequests = new AtomicInteger(0);
     private String lastRequestId = null;
 
     private static final int REQUEST_TIMEOUT_MS = 30000; // 30 seconds
     private static final int MAX_RETRIES = 2;
     private static final float BACKOFF_MULTIPLIER = 2.0f;
+    private static final int HEARTBEAT_TIMEOUT_MS = 5000;
+    // Moves carry an idempotency key, so a resend after a lost response is
+    // safe: short timeouts and a few quick retries beat one long wait on a
+    // flaky link (3s, 4.5s, 6.75s, 10.1s)
+    private static final int MOVE_TIMEOUT_MS = 3000;
+    private static final int MOVE_MAX_RETRIES = 3;
+    private static final float MOVE_BACKOFF_MULTIPLIER = 0.5f;
+
+    // Status passed to error listeners when the call got no response at all
+    private static final int NO_RESPONSE = 0;
+
+    // Binary wire format: advertised via Accept, used for request bodies only
+    // once the server has answered in binary at least once
+    private volatile boolean binaryProtocolEnabled = true;
+    private volatile boolean serverSupportsBinary = false;
+    // Cleared the first time the server answers a batch with 404
+    private volatile boolean serverSupportsBatch = true;
+    private BatchPoller batchPoller;
 
     private Handler matchmakingHandler;
     private Runnable matchmakingPoller;
@@ -44,6 +56,41 @@ public class NetworkService {
     private static final int MAX_POLLING_ATTEMPTS = 60; // 3 minutes total
     private int currentPollingAttempts = 0;
 
+    // Move count of the latest state seen per game, sent with moves so the
+    // server can refuse one made against an out-of-date board
+    private final Map<String, Integer> knownMoveCounts = new ConcurrentHashMap<>();
+
+    // How long watches poll after the watch stream couldn't be reached
+    private static final long WATCH_STREAM_RETRY_MS = 30000;
+    // Games being watched, by gameId; touched on the main thread only
+    private final Map<String, GameWatch> watches = new ConcurrentHashMap<>();
+    // Whether the current transport pushes updates for watched games
+    private volatile boolean transportPushes = false;
+    // Push connection for watches while the transport itself can't push; main thread only.
+    // Off until a URL is set: the stand-in server serves WebSocket on its own port
+    private String watchStreamUrl = null;
+    private WebSocketTransport watchStream;
+    // Watches poll until then after the push connection couldn't be reached
+    private long watchStreamRetryAt = 0;
+    private final GameTransport.EventListener gameEvents = new GameTransport.EventListener() {
+        @Override
+        public void onGameEvent(ServerGameState game) {
+            GameWatch watch = watches.get(game.getGameId());
+            if (watch != null) {
+                MetricsRegistry.global().increment("watch.events");
+                watch.deliver(game);
+            }
+        }
+
+        @Override
+        public void onEventsLost(IOException error) {
+            GameLog.w(TAG, "Pushed game updates stopped: {}", error.getMessage());
+            for (GameWatch watch : watches.values()) {
+                watch.fallBackToPolling();
+            }
+        }
+    };
+
 
     // Singleton pattern
     public static synchronized NetworkService getInstance(Context context) {
@@ -60,22 +107,30 @@ public class NetworkService {
 
     private NetworkService(Context context) {
         this.context = context;
-        this.requestQueue = Volley.newRequestQueue(context);
+        this.identityStore = IdentityStore.getInstance(context);
     }
 
-    private void logNetworkDebug(String operation, String details) {
-        Log.d(TAG, "NETWORK_DEBUG: " + operation + " - " + details + " [Pending: " + pendingRequests.get() + "]");
+    private String currentDeviceId() {
+        return identityStore != null ? identityStore.getDeviceId() : null;
     }
 
     private String getRequestId() {
         return "REQ_" + System.currentTimeMillis() + "_" + (int)(Math.random() * 1000);
     }
 
+    /** Enable or disable negotiating the binary game format (JSON is always accepted). */
+    public void setBinaryProtocolEnabled(boolean enabled) {
+        this.binaryProtocolEnabled = enabled;
+        if (!enabled) {
+            serverSupportsBinary = false;
+        }
+    }
+
     // Initialize if not using singleton
     public void initialize(Context context) {
         if (this.context == null) {
             this.context = context.getApplicationContext();
-            this.requestQueue = Volley.newRequestQueue(this.context);
+            this.identityStore = IdentityStore.getInstance(this.context);
         }
     }
 
@@ -88,13 +143,13 @@ public class NetworkService {
         String requestId = getRequestId();
 
         if (playerId == null || playerId.trim().isEmpty()) {
-            Log.e(TAG, "MATCHMAKING_ERROR [" + requestId + "]: Player ID is null/empty");
+            GameLog.e(TAG, "MATCHMAKING_ERROR [{}]: Player ID is null/empty", requestId);
             callback.onFailure("Player ID is required");
             return;
         }
 
         if (deviceId == null || deviceId.trim().isEmpty()) {
-            Log.e(TAG, "MATCHMAKING_ERROR [" + requestId + "]: Device ID is null/empty for player " + playerId);
+            GameLog.e(TAG, "MATCHMAKING_ERROR [{}]: Device ID is null/empty for player {}", requestId, playerId);
             callback.onFailure("Device ID is required");
             return;
         }
@@ -102,77 +157,57 @@ public class NetworkService {
         String cleanPlayerId = playerId.trim();
         String cleanDeviceId = deviceId.trim();
 
-        logNetworkDebug("FIND_MATCH_START [" + requestId + "]",
-                "Player: " + cleanPlayerId + ", Device: " + cleanDeviceId);
+        // The counter itself is passed, so nothing is formatted or boxed unless debug logging is on
+        GameLog.d(TAG, "NETWORK_DEBUG: FIND_MATCH_START [{}] - Player: {}, Device: {} [Pending: {}]",
+                requestId, cleanPlayerId, cleanDeviceId, pendingRequests);
 
-        String url = BASE_URL + "/api/games/matchmaking/find";
+        String path = "/api/games/matchmaking/find";
 
         JSONObject requestBody = new JSONObject();
         try {
             requestBody.put("playerId", cleanPlayerId);
-            Log.d(TAG, "MATCHMAKING_REQUEST [" + requestId + "]: URL: " + url + ", Body: " + requestBody.toString());
+            GameLog.d(TAG, "MATCHMAKING_REQUEST [{}]: Path: {}, Body: {}", requestId, path, requestBody);
         } catch (JSONException e) {
-            Log.e(TAG, "MATCHMAKING_ERROR [" + requestId + "]: Failed to create request body", e);
+            GameLog.e(TAG, "MATCHMAKING_ERROR [{}]: Failed to create request body", requestId, e);
             callback.onFailure("Failed to create request");
             return;
         }
 
+        TransportRequest request = TransportRequest.post(path)
+                .json(requestBody.toString())
+                .header("X-Device-ID", cleanDeviceId)
+                .header("X-Request-ID", requestId)
+                .retryPolicy(REQUEST_TIMEOUT_MS, MAX_RETRIES, BACKOFF_MULTIPLIER);
+        GameLog.d(TAG, "MATCHMAKING_HEADERS [{}]: {}", requestId, request.getHeaders());
+
         pendingRequests.incrementAndGet();
-        JsonObjectRequest request = new JsonObjectRequest(
-                Request.Method.POST,
-                url,
-                requestBody,
+        send(request, jsonCallback(
                 response -> {
                     pendingRequests.decrementAndGet();
-                    Log.d(TAG, "MATCHMAKING_RESPONSE [" + requestId + "]: " + response.toString());
-                    logNetworkDebug("FIND_MATCH_SUCCESS [" + requestId + "]", "Processing response");
+                    GameLog.d(TAG, "MATCHMAKING_RESPONSE [{}]: {}", requestId, response);
+                    GameLog.d(TAG, "NETWORK_DEBUG: FIND_MATCH_SUCCESS [{}] - Processing response [Pending: {}]",
+                            requestId, pendingRequests);
                     handleMatchmakingResponse(response, callback, requestId);
                 },
-                error -> {
+                (status, body) -> {
                     pendingRequests.decrementAndGet();
-                    Log.e(TAG, "MATCHMAKING_FAILED [" + requestId + "]: Error details: " + error.toString());
-                    if (error.networkResponse != null) {
-                        Log.e(TAG, "MATCHMAKING_FAILED [" + requestId + "]: Status: " +
-                                error.networkResponse.statusCode + ", Data: " +
-                                new String(error.networkResponse.data));
+                    GameLog.e(TAG, "MATCHMAKING_FAILED [{}]: Status: {}, Data: {}", requestId, status, body);
+                    if (GameLog.isDebugEnabled()) {
+                        GameLog.d(TAG, "NETWORK_DEBUG: FIND_MATCH_FAILED [{}] - Status: {} [Pending: {}]",
+                                requestId, status, pendingRequests);
                     }
-                    logNetworkDebug("FIND_MATCH_FAILED [" + requestId + "]", "Error: " + error.getMessage());
-                    handleMatchmakingError(error, callback);
-                }
-        ) {
-            @Override
-            public Map<String, String> getHeaders() {
-                Map<String, String> headers = new HashMap<>();
-                headers.put("Content-Type", "application/json");
-                headers.put("X-Device-ID", cleanDeviceId);
-                headers.put("X-Request-ID", requestId);
-                Log.d(TAG, "MATCHMAKING_HEADERS [" + requestId + "]: " + headers.toString());
-                return headers;
-            }
-            @Override
-            protected Response<JSONObject> parseNetworkResponse(NetworkResponse response) {
-                return super.parseNetworkResponse(response);
-            }
-        };
-
-        request.setRetryPolicy(new DefaultRetryPolicy(
-                REQUEST_TIMEOUT_MS,
-                MAX_RETRIES,
-                BACKOFF_MULTIPLIER
-        ));
+                    handleMatchmakingError(status, body, callback);
+                }));
 
-        addToRequestQueue(request);
-        logNetworkDebug("FIND_MATCH_QUEUED [" + requestId + "]", "Request queued for execution");
+        GameLog.d(TAG, "NETWORK_DEBUG: FIND_MATCH_QUEUED [{}] - Request queued for execution [Pending: {}]",
+                requestId, pendingRequests);
     }
 
     /**
      * Backward compatibility method
      */
     public void findMatch(String playerId, MatchmakingCallback callback) {
-        String deviceId = DeviceIdGenerator.getDeviceId();
-        if (deviceId == null) {
-            deviceId = DeviceIdGenerator.getOrCreateDeviceId();
-        }
+        String deviceId = identityStore.getOrCreateDeviceId();
         findMatchWithDeviceId(playerId, deviceId, callback);
     }
 
@@ -186,8 +221,6 @@ public class NetworkService {
         }
 
         String cleanPlayerId = playerId.trim();
-        String url = BASE_URL + "/api/games/matchmaking/cancel";
-
         JSONObject requestBody = new JSONObject();
         try {
             requestBody.put("playerId", cleanPlayerId);
@@ -196,12 +229,13 @@ public class NetworkService {
             return;
         }
 
-        JsonObjectRequest request = new JsonObjectRequest(
-                Request.Method.POST,
-                url,
-                requestBody,
+        TransportRequest request = TransportRequest.post("/api/games/matchmaking/cancel")
+                .json(requestBody.toString())
+                .header("X-Device-ID", currentDeviceId());
+
+        send(request, jsonCallback(
                 response -> {
-                    Log.d(TAG, "Cancel response: " + response.toString());
+                    GameLog.d(TAG, "Cancel response: {}", response);
                     String status = response.optString("status", "unknown");
                     if ("success".equals(status)) {
                         callback.onSuccess(null);
@@ -210,73 +244,48 @@ public class NetworkService {
                         callback.onFailure(message);
                     }
                 },
-                error -> {
-                    Log.w(TAG, "Cancel failed", error);
+                (status, body) -> {
+                    GameLog.w(TAG, "Cancel failed with status {}", status);
                     // 404 is expected if player wasn't in queue - treat as success
-                    if (error.networkResponse != null && error.networkResponse.statusCode == 404) {
+                    if (status == 404) {
                         callback.onSuccess(null);
                     } else {
-                        callback.onFailure(parseVolleyError(error));
+                        callback.onFailure(describeError(status));
                     }
-                }
-        ) {
-            @Override
-            public Map<String, String> getHeaders() {
-                Map<String, String> headers = new HashMap<>();
-                headers.put("Content-Type", "application/json");
-                String deviceId = DeviceIdGenerator.getDeviceId();
-                if (deviceId != null) {
-                    headers.put("X-Device-ID", deviceId);
-                }
-                return headers;
-            }
-        };
-
-        addToRequestQueue(request);
+                }));
     }
 
     /**
      * Get matchmaking status - matches GameController's /matchmaking/status/{playerId} endpoint
      */
     public void getMatchmakingStatus(String playerId, MatchmakingCallback callback) {
+        getMatchmakingStatus(playerId, callback, this::send);
+    }
+
+    private void getMatchmakingStatus(String playerId, MatchmakingCallback callback, Sender sender) {
         if (playerId == null || playerId.trim().isEmpty()) {
             callback.onFailure("Player ID is required");
             return;
         }
 
         String cleanPlayerId = playerId.trim();
-        String url = BASE_URL + "/api/games/matchmaking/status/" + cleanPlayerId;
+        TransportRequest request = TransportRequest.get("/api/games/matchmaking/status/" + cleanPlayerId)
+                .header("X-Device-ID", currentDeviceId());
 
-        JsonObjectRequest request = new JsonObjectRequest(
-                Request.Method.GET,
-                url,
-                null,
+        sender.send(request, jsonCallback(
                 response -> {
-                    Log.d(TAG, "Status response: " + response.toString());
+                    GameLog.d(TAG, "Status response: {}", response);
                     handleMatchmakingResponse(response, callback, "STATUS_CHECK");
                 },
-                error -> {
-                    Log.d(TAG, "Status check failed", error);
-                    if (error.networkResponse != null && error.networkResponse.statusCode == 404) {
+                (status, body) -> {
+                    GameLog.d(TAG, "Status check failed with status {}", status);
+                    if (status == 404) {
                         // Player not in queue - check if they have an active game
                         checkForActiveGame(cleanPlayerId, callback);
                     } else {
-                        callback.onFailure(parseVolleyError(error));
+                        callback.onFailure(describeError(status));
                     }
-                }
-        ) {
-            @Override
-            public Map<String, String> getHeaders() {
-                Map<String, String> headers = new HashMap<>();
-                String deviceId = DeviceIdGenerator.getDeviceId();
-                if (deviceId != null) {
-                    headers.put("X-Device-ID", deviceId);
-                }
-                return headers;
-            }
-        };
-
-        addToRequestQueue(request);
+                }));
     }
 
     // === RESPONSE HANDLING ===
@@ -288,38 +297,40 @@ public class NetworkService {
             String gameId = response.optString("gameId");
             String playerId = response.optString("playerId");
 
-            Log.d(TAG, "RESPONSE_HANDLER [" + requestId + "]: Status: " + status +
-                    ", GameId: " + gameId + ", PlayerId: " + playerId + ", Message: " + message);
+            if (GameLog.isDebugEnabled()) {
+                GameLog.d(TAG, "RESPONSE_HANDLER [" + requestId + "]: Status: " + status +
+                        ", GameId: " + gameId + ", PlayerId: " + playerId + ", Message: " + message);
+            }
 
             switch (status) {
                 case "match_found":
-                    Log.i(TAG, "MATCH_FOUND [" + requestId + "]: GameId: " + gameId + ", PlayerId: " + playerId);
+                    GameLog.i(TAG, "MATCH_FOUND [{}]: GameId: {}, PlayerId: {}", requestId, gameId, playerId);
                     handleMatchFound(response, callback, requestId);
                     break;
 
                 case "waiting":
-                    Log.d(TAG, "WAITING [" + requestId + "]: PlayerId: " + playerId + ", GameId: " + gameId);
+                    GameLog.d(TAG, "WAITING [{}]: PlayerId: {}, GameId: {}", requestId, playerId, gameId);
                     callback.onWaitingForMatch(playerId);
                     break;
 
                 case "not_found":
-                    Log.d(TAG, "NOT_FOUND [" + requestId + "]: PlayerId: " + playerId);
+                    GameLog.d(TAG, "NOT_FOUND [{}]: PlayerId: {}", requestId, playerId);
                     callback.onWaitingForMatch(playerId);
                     break;
 
                 case "error":
-                    Log.e(TAG, "SERVER_ERROR [" + requestId + "]: " + message);
+                    GameLog.e(TAG, "SERVER_ERROR [{}]: {}", requestId, message);
                     callback.onFailure(message);
                     break;
 
                 default:
-                    Log.w(TAG, "UNKNOWN_STATUS [" + requestId + "]: " + status + " with message: " + message);
+                    GameLog.w(TAG, "UNKNOWN_STATUS [{}]: {} with message: {}", requestId, status, message);
                     callback.onFailure("Unknown response: " + status);
                     break;
             }
 
         } catch (Exception e) {
-            Log.e(TAG, "RESPONSE_HANDLER_ERROR [" + requestId + "]: Failed to process server response", e);
+            GameLog.e(TAG, "RESPONSE_HANDLER_ERROR [{}]: Failed to process server response", requestId, e);
             callback.onFailure("Failed to process server response");
         }
     }
@@ -331,18 +342,18 @@ public class NetworkService {
             Integer playerNumber = response.has("playerNumber") ? response.getInt("playerNumber") : null;
             JSONObject gameStateJson = response.optJSONObject("gameState");
 
-            Log.d(TAG, "Match found [" + requestId + "] - GameID: " + gameId + ", PlayerNum: " + playerNumber);
+            GameLog.d(TAG, "Match found [{}] - GameID: {}, PlayerNum: {}", requestId, gameId, playerNumber);
 
             if (gameId == null || gameId.isEmpty() || playerId == null || playerId.isEmpty() || playerNumber == null) {
-                Log.e(TAG, "Incomplete match data [" + requestId + "]: gameId=" + gameId +
-                        ", playerId=" + playerId + ", playerNumber=" + playerNumber);
+                GameLog.e(TAG, "Incomplete match data [{}]: gameId={}, playerId={}, playerNumber={}",
+                        requestId, gameId, playerId, playerNumber);
                 callback.onFailure("Incomplete match data");
                 return;
             }
 
             // Try to use embedded game state first
             if (gameStateJson != null) {
-                Log.d(TAG, "Using embedded game state [" + requestId + "]");
+                GameLog.d(TAG, "Using embedded game state [{}]", requestId);
                 ServerGameState gameState = parseServerGameState(gameStateJson);
                 if (gameState != null && !gameState.isFinished()) {
                     boolean isPlayer1 = (playerNumber == 1);
@@ -352,66 +363,63 @@ public class NetworkService {
             }
 
             // Fallback: fetch fresh game state
-            Log.d(TAG, "Fetching fresh game state [" + requestId + "] for: " + gameId);
+            GameLog.d(TAG, "Fetching fresh game state [{}] for: {}", requestId, gameId);
             getGameState(gameId, playerId, new GameCallback() {
                 @Override
                 public void onSuccess(ServerGameState gameState) {
                     if (gameState != null && !gameState.isFinished()) {
                         boolean isPlayer1 = (playerNumber == 1);
-                        Log.d(TAG, "Fresh game state retrieved [" + requestId + "]");
+                        GameLog.d(TAG, "Fresh game state retrieved [{}]", requestId);
                         callback.onMatchFound(gameState, isPlayer1, playerId);
                     } else {
-                        Log.e(TAG, "Game not available [" + requestId + "]: gameState=" + gameState);
+                        GameLog.e(TAG, "Game not available [{}]: gameState={}", requestId, gameState);
                         callback.onFailure("Game not available");
                     }
                 }
 
                 @Override
                 public void onFailure(String errorMessage) {
-                    Log.e(TAG, "Failed to retrieve game [" + requestId + "]: " + errorMessage);
+                    GameLog.e(TAG, "Failed to retrieve game [{}]: {}", requestId, errorMessage);
                     callback.onFailure("Could not retrieve game: " + errorMessage);
                 }
             });
 
         } catch (Exception e) {
-            Log.e(TAG, "Error processing match found [" + requestId + "]", e);
+            GameLog.e(TAG, "Error processing match found [{}]", requestId, e);
             callback.onFailure("Failed to process match");
         }
     }
 
-    private void handleMatchmakingError(VolleyError error, MatchmakingCallback callback) {
-        if (error.networkResponse != null) {
-            int statusCode = error.networkResponse.statusCode;
-            String responseData = new String(error.networkResponse.data);
-
-            Log.e(TAG, "Matchmaking error - Status: " + statusCode + ", Response: " + responseData);
+    private void handleMatchmakingError(int statusCode, String responseData, MatchmakingCallback callback) {
+        if (statusCode != NO_RESPONSE) {
+            GameLog.e(TAG, "Matchmaking error - Status: {}, Response: {}", statusCode, responseData);
 
             switch (statusCode) {
                 case 409:
                     // Conflict - player already in queue or game
-                    Log.d(TAG, "409 conflict - player already in queue or game");
+                    GameLog.d(TAG, "409 conflict - player already in queue or game");
                     callback.onAlreadyInQueue();
                     break;
 
                 case 404:
                     // Not found - treat as general failure
-                    Log.e(TAG, "404 - Matchmaking service not found");
+                    GameLog.e(TAG, "404 - Matchmaking service not found");
                     callback.onFailure("Matchmaking service not available");
                     break;
 
                 default:
-                    Log.e(TAG, "Unexpected error status: " + statusCode);
-                    callback.onFailure(parseVolleyError(error));
+                    GameLog.e(TAG, "Unexpected error status: {}", statusCode);
+                    callback.onFailure(describeError(statusCode));
                     break;
             }
         } else {
-            Log.e(TAG, "Network connection failed - no response");
+            GameLog.e(TAG, "Network connection failed - no response");
             callback.onFailure("Network connection failed");
         }
     }
 
     private void checkForActiveGame(String playerId, MatchmakingCallback callback) {
-        Log.d(TAG, "Checking for active game for player: " + playerId);
+        GameLog.d(TAG, "Checking for active game for player: {}", playerId);
 
         // First try getting game state directly
         getGameStateForPlayer(playerId, new GameCallback() {
@@ -419,17 +427,17 @@ public class NetworkService {
             public void onSuccess(ServerGameState gameState) {
                 if (gameState != null && !gameState.isFinished()) {
                     boolean isPlayer1 = playerId.equals(gameState.getPlayer1Id());
-                    Log.d(TAG, "Found active game: " + gameState.getGameId());
+                    GameLog.d(TAG, "Found active game: {}", gameState.getGameId());
                     callback.onMatchFound(gameState, isPlayer1, playerId);
                 } else {
-                    Log.d(TAG, "No active game found");
+                    GameLog.d(TAG, "No active game found");
                     callback.onWaitingForMatch(playerId);
                 }
             }
 
             @Override
             public void onFailure(String errorMessage) {
-                Log.d(TAG, "Active game check failed: " + errorMessage);
+                GameLog.d(TAG, "Active game check failed: {}", errorMessage);
                 callback.onWaitingForMatch(playerId);
             }
         });
@@ -447,6 +455,10 @@ public class NetworkService {
      * Get game state - matches GameController's /{gameId} endpoint
      */
     public void getGameState(String gameId, String playerId, GameCallback callback) {
+        getGameState(gameId, playerId, callback, this::send);
+    }
+
+    private void getGameState(String gameId, String playerId, GameCallback callback, Sender sender) {
         if (gameId == null || gameId.trim().isEmpty()) {
             callback.onFailure("Game ID is required");
             return;
@@ -459,40 +471,21 @@ public class NetworkService {
 
         String cleanGameId = gameId.trim();
         String cleanPlayerId = playerId.trim();
-        String url = BASE_URL + "/api/games/" + cleanGameId + "?playerId=" + cleanPlayerId;
+        String path = "/api/games/" + cleanGameId + "?playerId=" + cleanPlayerId;
 
-        Log.d(TAG, "Fetching game state from: " + url);
+        GameLog.d(TAG, "Fetching game state from: {}", path);
 
-        JsonObjectRequest request = new JsonObjectRequest(
-                Request.Method.GET,
-                url,
-                null,
-                response -> {
-                    Log.d(TAG, "Game state response: " + response.toString());
-                    handleGameResponse(response, callback);
-                },
-                error -> {
-                    Log.e(TAG, "Get game failed", error);
-                    callback.onFailure(parseVolleyError(error));
-                }
-        ) {
-            @Override
-            public Map<String, String> getHeaders() {
-                Map<String, String> headers = new HashMap<>();
-                headers.put("Content-Type", "application/json");
-                String deviceId = DeviceIdGenerator.getDeviceId();
-                if (deviceId != null) {
-                    headers.put("X-Device-ID", deviceId);
-                }
-                return headers;
-            }
-        };
-
-        addToRequestQueue(request);
+        sender.send(withGameHeaders(TransportRequest.get(path)), gameCallback(callback, "Get game"));
     }
 
     /**
-     * Process move - matches GameController's /{gameId}/moves endpoint
+     * Process move - matches GameController's /{gameId}/moves endpoint.
+     *
+     * Each call gets its own Idempotency-Key, kept across the transport's
+     * resends, so a move whose response was lost is never applied twice. It
+     * also sends the move count of the last state seen for the game as
+     * X-Move-Sequence; if the board has moved on, the server refuses the
+     * move with a 409 instead of applying it to a board the player never saw.
      */
     public void processMove(String gameId, String playerId, int boardX, int boardY,
                             Integer fromX, Integer fromY, GameCallback callback) {
@@ -508,48 +501,38 @@ public class NetworkService {
 
         String cleanGameId = gameId.trim();
         String cleanPlayerId = playerId.trim();
-        String url = BASE_URL + "/api/games/" + cleanGameId + "/moves";
-
-        JSONObject requestBody = new JSONObject();
+        Integer knownMoves = knownMoveCounts.get(cleanGameId);
+        TransportRequest request = withGameHeaders(TransportRequest.post("/api/games/" + cleanGameId + "/moves"))
+                .header("Idempotency-Key", UUID.randomUUID().toString())
+                .header("X-Move-Sequence", knownMoves != null ? knownMoves.toString() : null)
+                .retryPolicy(MOVE_TIMEOUT_MS, MOVE_MAX_RETRIES, MOVE_BACKOFF_MULTIPLIER);
         try {
-            requestBody.put("playerId", cleanPlayerId);
-            requestBody.put("boardX", boardX);
-            requestBody.put("boardY", boardY);
+            if (binaryProtocolEnabled && serverSupportsBinary) {
+                request.binary(GameWireCodec.encodeMove(cleanPlayerId, boardX, boardY, fromX, fromY));
+            } else {
+                JSONObject requestBody = new JSONObject();
+                requestBody.put("playerId", cleanPlayerId);
+                requestBody.put("boardX", boardX);
+                requestBody.put("boardY", boardY);
 
-            if (fromX != null) requestBody.put("fromX", fromX);
-            if (fromY != null) requestBody.put("fromY", fromY);
+                if (fromX != null) requestBody.put("fromX", fromX);
+                if (fromY != null) requestBody.put("fromY", fromY);
 
-            Log.d(TAG, "Move request - GameID: " + cleanGameId + ", Player: " + cleanPlayerId +
-                    ", Move: (" + boardX + "," + boardY + "), From: (" + fromX + "," + fromY + ")");
+                request.json(requestBody.toString());
+            }
 
-        } catch (JSONException e) {
+            if (GameLog.isDebugEnabled()) {
+                GameLog.d(TAG, "Move request - GameID: " + cleanGameId + ", Player: " + cleanPlayerId +
+                        ", Move: (" + boardX + "," + boardY + "), From: (" + fromX + "," + fromY + ")" +
+                        ", Format: " + request.getContentType());
+            }
+
+        } catch (JSONException | IllegalArgumentException e) {
             callback.onFailure("Failed to create request");
             return;
         }
 
-        JsonObjectRequest request = new JsonObjectRequest(
-                Request.Method.POST,
-                url,
-                requestBody,
-                response -> handleGameResponse(response, callback),
-                error -> {
-                    Log.e(TAG, "Move request failed", error);
-                    callback.onFailure(parseVolleyError(error));
-                }
-        ) {
-            @Override
-            public Map<String, String> getHeaders() {
-                Map<String, String> headers = new HashMap<>();
-                headers.put("Content-Type", "application/json");
-                String deviceId = DeviceIdGenerator.getDeviceId();
-                if (deviceId != null) {
-                    headers.put("X-Device-ID", deviceId);
-                }
-                return headers;
-            }
-        };
-
-        addToRequestQueue(request);
+        send(request, gameCallback(callback, "Move request"));
     }
 
     /**
@@ -568,12 +551,12 @@ public class NetworkService {
 
         String cleanGameId = gameId.trim();
         String cleanPlayerId = playerId.trim();
-        String url = BASE_URL + "/api/games/" + cleanGameId + "/leave?playerId=" + cleanPlayerId;
+        knownMoveCounts.remove(cleanGameId);
+        TransportRequest request = TransportRequest.post(
+                "/api/games/" + cleanGameId + "/leave?playerId=" + cleanPlayerId)
+                .header("X-Device-ID", currentDeviceId());
 
-        JsonObjectRequest request = new JsonObjectRequest(
-                Request.Method.POST,
-                url,
-                null,
+        send(request, jsonCallback(
                 response -> {
                     String status = response.optString("status", "unknown");
                     if ("success".equals(status) || "info".equals(status)) {
@@ -583,23 +566,92 @@ public class NetworkService {
                         callback.onFailure(message);
                     }
                 },
-                error -> {
-                    Log.e(TAG, "Leave game failed", error);
-                    callback.onFailure(parseVolleyError(error));
+                (status, body) -> {
+                    GameLog.e(TAG, "Leave game failed with status {}", status);
+                    callback.onFailure(describeError(status));
+                }));
+    }
+
+    /**
+     * Headers for endpoints that return a game state. Advertises the binary
+     * format; servers that don't know it keep answering with JSON.
+     */
+    private TransportRequest withGameHeaders(TransportRequest request) {
+        return request
+                .header("Accept", binaryProtocolEnabled ? GameWireCodec.ACCEPT_HEADER : "application/json")
+                .header("X-Device-ID", currentDeviceId());
+    }
+
+    /**
+     * For endpoints that return a game state, in either JSON or the binary
+     * format depending on the response's Content-Type. The state's move count
+     * is remembered for the next move in that game.
+     */
+    private GameTransport.Callback gameCallback(GameCallback target, String operation) {
+        GameCallback callback = new GameCallback() {
+            @Override
+            public void onSuccess(ServerGameState gameState) {
+                if (gameState != null && gameState.getGameId() != null) {
+                    knownMoveCounts.merge(gameState.getGameId(), gameState.getTotalMoves(), Math::max);
                 }
-        ) {
+                target.onSuccess(gameState);
+            }
+
             @Override
-            public Map<String, String> getHeaders() {
-                Map<String, String> headers = new HashMap<>();
-                String deviceId = DeviceIdGenerator.getDeviceId();
-                if (deviceId != null) {
-                    headers.put("X-Device-ID", deviceId);
+            public void onFailure(String errorMessage) {
+                target.onFailure(errorMessage);
+            }
+        };
+        return new GameTransport.Callback() {
+            @Override
+            public void onResponse(TransportResponse response) {
+                if (!response.isSuccessful()) {
+                    GameLog.e(TAG, "{} failed with status {}", operation, response.getStatus());
+                    callback.onFailure(response.getStatus() == 409
+                            ? "Board changed - move not applied"
+                            : describeError(response.getStatus()));
+                } else if (response.isBinary()) {
+                    handleBinaryGameResponse(response.getBody(), callback);
+                } else {
+                    JSONObject json;
+                    try {
+                        json = new JSONObject(response.bodyAsString());
+                    } catch (JSONException e) {
+                        GameLog.e(TAG, "{} returned malformed JSON", operation, e);
+                        callback.onFailure("Failed to process server response");
+                        return;
+                    }
+                    GameLog.d(TAG, "Game state response: {}", json);
+                    handleGameResponse(json, callback);
                 }
-                return headers;
+            }
+
+            @Override
+            public void onFailure(IOException error) {
+                GameLog.e(TAG, "{} failed", operation, error);
+                callback.onFailure(describeError(NO_RESPONSE));
             }
         };
+    }
+
+    private void handleBinaryGameResponse(byte[] frame, GameCallback callback) {
+        // The server answered in binary, so it will also accept binary move bodies
+        serverSupportsBinary = true;
 
-        addToRequestQueue(request);
+        try {
+            if (GameWireCodec.frameType(frame) == GameWireCodec.TYPE_ERROR) {
+                String message = GameWireCodec.decodeError(frame);
+                callback.onFailure(message != null ? message : "Request failed");
+                return;
+            }
+            ServerGameState gameState = GameWireCodec.decodeGameState(frame);
+            GameLog.d(TAG, "Binary game state - ID: {}, Status: {}, Moves: {}",
+                    gameState.getGameId(), gameState.getGameStatus(), gameState.getTotalMoves());
+            callback.onSuccess(gameState);
+        } catch (GameWireCodec.WireFormatException e) {
+            GameLog.e(TAG, "Malformed binary game response", e);
+            callback.onFailure("Failed to process server response");
+        }
     }
 
     private void handleGameResponse(JSONObject response, GameCallback callback) {
@@ -628,7 +680,7 @@ public class NetworkService {
             }
 
         } catch (Exception e) {
-            Log.e(TAG, "Error handling game response", e);
+            GameLog.e(TAG, "Error handling game response", e);
             callback.onFailure("Failed to process server response");
         }
     }
@@ -672,60 +724,48 @@ public class NetworkService {
             // Parse player moves
             parsePlayerMoves(gameState, gameStateJson);
 
-            Log.d(TAG, "Parsed game state - ID: " + gameState.getGameId() +
-                    ", Status: " + gameState.getGameStatus() +
-                    ", Players: " + gameState.getPlayer1Id() + " vs " + gameState.getPlayer2Id());
+            GameLog.d(TAG, "Parsed game state - ID: {}, Status: {}, Players: {} vs {}",
+                    gameState.getGameId(), gameState.getGameStatus(), gameState.getPlayer1Id(), gameState.getPlayer2Id());
 
             return gameState;
 
         } catch (Exception e) {
-            Log.e(TAG, "Error parsing server game state", e);
+            GameLog.e(TAG, "Error parsing server game state", e);
             return null;
         }
     }
 
     public void getQueueStatus(MatchmakingStatusCallback callback) {
-        String url = BASE_URL + "/api/games/matchmaking/queue-status";
+        getQueueStatus(callback, this::send);
+    }
 
-        Log.d(TAG, "Requesting queue status from: " + url);
+    private void getQueueStatus(MatchmakingStatusCallback callback, Sender sender) {
+        String path = "/api/games/matchmaking/queue-status";
 
-        JsonObjectRequest request = new JsonObjectRequest(
-                Request.Method.GET,
-                url,
-                null,
+        GameLog.d(TAG, "Requesting queue status from: {}", path);
+
+        TransportRequest request = TransportRequest.get(path).header("X-Device-ID", currentDeviceId());
+        sender.send(request, jsonCallback(
                 response -> {
                     try {
                         String status = response.optString("status", "unknown");
                         if ("success".equals(status)) {
                             int queueSize = response.optInt("queueSize", 0);
-                            Log.d(TAG, "Queue status - Size: " + queueSize);
+                            GameLog.d(TAG, "Queue status - Size: {}", queueSize);
                             callback.onStatusUpdate(queueSize);
                         } else {
-                            Log.w(TAG, "Queue status failed: " + status);
+                            GameLog.w(TAG, "Queue status failed: {}", status);
                             callback.onFailure("Failed to get queue status");
                         }
                     } catch (Exception e) {
-                        Log.e(TAG, "Error parsing queue status", e);
+                        GameLog.e(TAG, "Error parsing queue status", e);
                         callback.onFailure("Error parsing queue status");
                     }
                 },
-                error -> {
-                    Log.e(TAG, "Queue status request failed", error);
-                    callback.onFailure(parseVolleyError(error));
-                }
-        ) {
-            @Override
-            public Map<String, String> getHeaders() {
-                Map<String, String> headers = new HashMap<>();
-                String deviceId = DeviceIdGenerator.getDeviceId();
-                if (deviceId != null) {
-                    headers.put("X-Device-ID", deviceId);
-                }
-                return headers;
-            }
-        };
-
-        addToRequestQueue(request);
+                (status, body) -> {
+                    GameLog.e(TAG, "Queue status request failed with status {}", status);
+                    callback.onFailure(describeError(status));
+                }));
     }
 
     private void parsePlayerMoves(ServerGameState gameState, JSONObject gameStateJson) {
@@ -760,10 +800,10 @@ public class NetworkService {
             gameState.setPlayer1Moves(player1Moves);
             gameState.setPlayer2Moves(player2Moves);
 
-            Log.d(TAG, "Parsed moves - Player1: " + player1Moves.size() + ", Player2: " + player2Moves.size());
+            GameLog.d(TAG, "Parsed moves - Player1: {}, Player2: {}", player1Moves.size(), player2Moves.size());
 
         } catch (JSONException e) {
-            Log.e(TAG, "Error parsing player moves", e);
+            GameLog.e(TAG, "Error parsing player moves", e);
             gameState.setPlayer1Moves(new ArrayList<>());
             gameState.setPlayer2Moves(new ArrayList<>());
         }
@@ -777,7 +817,7 @@ public class NetworkService {
                     ? moveJson.getInt("boardY") : null;
 
             if (boardX == null || boardY == null) {
-                Log.w(TAG, "Invalid move coordinates: boardX=" + boardX + ", boardY=" + boardY);
+                GameLog.w(TAG, "Invalid move coordinates: boardX={}, boardY={}", boardX, boardY);
                 return null;
             }
 
@@ -787,30 +827,66 @@ public class NetworkService {
             return new PlayerMove(boardX, boardY, player1Flag);
 
         } catch (JSONException e) {
-            Log.e(TAG, "Error parsing player move", e);
+            GameLog.e(TAG, "Error parsing player move", e);
             return null;
         }
     }
 
     // === UTILITY METHODS ===
 
-    private String parseVolleyError(VolleyError error) {
-        if (error.networkResponse != null) {
-            int statusCode = error.networkResponse.statusCode;
+    private String describeError(int statusCode) {
+        switch (statusCode) {
+            case NO_RESPONSE: return "Network connection failed";
+            case 400: return "Invalid request";
+            case 401: return "Authentication required";
+            case 403: return "Access denied";
+            case 404: return "Not found";
+            case 409: return "Conflict - already in game or queue";
+            case 429: return "Server busy - please wait";
+            case 500: return "Server error";
+            case 503: return "Service unavailable";
+            default: return "Network error (Code: " + statusCode + ")";
+        }
+    }
 
-            switch (statusCode) {
-                case 400: return "Invalid request";
-                case 401: return "Authentication required";
-                case 403: return "Access denied";
-                case 404: return "Not found";
-                case 409: return "Conflict - already in game or queue";
-                case 500: return "Server error";
-                case 503: return "Service unavailable";
-                default: return "Network error (Code: " + statusCode + ")";
+    private interface JsonListener {
+        void onJson(JSONObject response);
+    }
+
+    private interface ErrorListener {
+        /** status is the HTTP status, or NO_RESPONSE; body is the raw error body, if any. */
+        void onError(int status, String body);
+    }
+
+    /**
+     * For the JSON endpoints: a 2xx body is parsed and handed to the
+     * listener; anything else, including a body that isn't JSON, is an error.
+     */
+    private GameTransport.Callback jsonCallback(JsonListener listener, ErrorListener errorListener) {
+        return new GameTransport.Callback() {
+            @Override
+            public void onResponse(TransportResponse response) {
+                if (!response.isSuccessful()) {
+                    errorListener.onError(response.getStatus(), response.bodyAsString());
+                    return;
+                }
+                JSONObject json;
+                try {
+                    json = new JSONObject(response.bodyAsString());
+                } catch (JSONException e) {
+                    GameLog.e(TAG, "Malformed JSON response", e);
+                    errorListener.onError(NO_RESPONSE, response.bodyAsString());
+                    return;
+                }
+                listener.onJson(json);
             }
-        } else {
-            return "Network connection failed";
-        }
+
+            @Override
+            public void onFailure(IOException error) {
+                GameLog.d(TAG, "No response: {}", error.getMessage());
+                errorListener.onError(NO_RESPONSE, null);
+            }
+        };
     }
 
     /**
@@ -822,7 +898,7 @@ public class NetworkService {
         }
 
         String requestId = getRequestId();
-        Log.i(TAG, "ENHANCED_POLLING: Starting matchmaking for player: " + playerId);
+        GameLog.i(TAG, "ENHANCED_POLLING: Starting matchmaking for player: {}", playerId);
 
         // Stop any existing polling
         stopPolling();
@@ -835,26 +911,26 @@ public class NetworkService {
         findMatchWithDeviceId(playerId, deviceId, new MatchmakingCallback() {
             @Override
             public void onMatchFound(ServerGameState gameState, boolean isPlayer1, String playerId) {
-                Log.i(TAG, "ENHANCED_POLLING: Immediate match found!");
+                GameLog.i(TAG, "ENHANCED_POLLING: Immediate match found!");
                 stopPolling();
                 callback.onMatchFound(gameState, isPlayer1, playerId);
             }
 
             @Override
             public void onWaitingForMatch(String playerId) {
-                Log.d(TAG, "ENHANCED_POLLING: Added to queue/waiting room, starting status polling...");
+                GameLog.d(TAG, "ENHANCED_POLLING: Added to queue/waiting room, starting status polling...");
                 startEnhancedStatusPolling(playerId, callback);
             }
 
             @Override
             public void onAlreadyInQueue() {
-                Log.d(TAG, "ENHANCED_POLLING: Already in queue, starting status polling...");
+                GameLog.d(TAG, "ENHANCED_POLLING: Already in queue, starting status polling...");
                 startEnhancedStatusPolling(playerId, callback);
             }
 
             @Override
             public void onFailure(String errorMessage) {
-                Log.e(TAG, "ENHANCED_POLLING: Initial request failed: " + errorMessage);
+                GameLog.e(TAG, "ENHANCED_POLLING: Initial request failed: {}", errorMessage);
                 stopPolling();
                 callback.onFailure(errorMessage);
             }
@@ -881,12 +957,12 @@ public class NetworkService {
                 currentPollingAttempts++;
                 long elapsedTime = System.currentTimeMillis() - pollingStartTime;
 
-                Log.d(TAG, "ENHANCED_POLLING: Status check " + currentPollingAttempts +
-                        " (" + (elapsedTime / 1000) + "s elapsed)");
+                GameLog.d(TAG, "ENHANCED_POLLING: Status check {} ({}s elapsed)",
+                        currentPollingAttempts, elapsedTime / 1000);
 
                 // Timeout after 5 minutes
                 if (elapsedTime >= 5 * 60 * 1000) {
-                    Log.w(TAG, "ENHANCED_POLLING: Timeout after 5 minutes");
+                    GameLog.w(TAG, "ENHANCED_POLLING: Timeout after 5 minutes");
                     stopPolling();
                     callback.onFailure("Matchmaking timeout - please try again");
                     return;
@@ -896,7 +972,7 @@ public class NetworkService {
                 getMatchmakingStatus(playerId, new MatchmakingCallback() {
                     @Override
                     public void onMatchFound(ServerGameState gameState, boolean isPlayer1, String playerId) {
-                        Log.i(TAG, "ENHANCED_POLLING: Match found during status check after " + (elapsedTime / 1000) + "s!");
+                        GameLog.i(TAG, "ENHANCED_POLLING: Match found during status check after {}s!", elapsedTime / 1000);
                         stopPolling();
                         callback.onMatchFound(gameState, isPlayer1, playerId);
                     }
@@ -907,10 +983,10 @@ public class NetworkService {
 
                         // Continue polling with adaptive interval
                         int interval = calculatePollingInterval(elapsedTime);
-                        Log.d(TAG, "ENHANCED_POLLING: Still waiting, next check in " + (interval / 1000) + "s");
+                        GameLog.d(TAG, "ENHANCED_POLLING: Still waiting, next check in {}s", interval / 1000);
 
                         if (matchmakingHandler != null) {
-                            matchmakingHandler.postDelayed(matchmakingPoller, interval);
+                            matchmakingHandler.postDelayed(matchmakingPoller, pollDelay(interval));
                         }
                     }
 
@@ -920,10 +996,10 @@ public class NetworkService {
 
                         // Continue polling
                         int interval = calculatePollingInterval(elapsedTime);
-                        Log.d(TAG, "ENHANCED_POLLING: In queue, next check in " + (interval / 1000) + "s");
+                        GameLog.d(TAG, "ENHANCED_POLLING: In queue, next check in {}s", interval / 1000);
 
                         if (matchmakingHandler != null) {
-                            matchmakingHandler.postDelayed(matchmakingPoller, interval);
+                            matchmakingHandler.postDelayed(matchmakingPoller, pollDelay(interval));
                         }
                     }
 
@@ -933,14 +1009,14 @@ public class NetworkService {
                         // Continue polling unless it's a serious error
                         if (errorMessage.contains("Network connection") ||
                                 errorMessage.contains("Server error")) {
-                            Log.e(TAG, "ENHANCED_POLLING: Serious error during status check: " + errorMessage);
+                            GameLog.e(TAG, "ENHANCED_POLLING: Serious error during status check: {}", errorMessage);
                             stopPolling();
                             callback.onFailure("Network error during matchmaking");
                         } else {
-                            Log.d(TAG, "ENHANCED_POLLING: Minor status error (continuing): " + errorMessage);
+                            GameLog.d(TAG, "ENHANCED_POLLING: Minor status error (continuing): {}", errorMessage);
                             if (isPollingActive && matchmakingHandler != null) {
                                 int interval = calculatePollingInterval(elapsedTime);
-                                matchmakingHandler.postDelayed(matchmakingPoller, interval);
+                                matchmakingHandler.postDelayed(matchmakingPoller, pollDelay(interval));
                             }
                         }
                     }
@@ -949,8 +1025,13 @@ public class NetworkService {
         };
 
         // Start polling with initial delay
-        matchmakingHandler.postDelayed(matchmakingPoller, 2000); // 2 seconds initial delay
+        matchmakingHandler.postDelayed(matchmakingPoller, pollDelay(2000)); // 2 seconds initial delay
+    }
+    /** A poller's planned delay, stretched to outlast any server-requested cooldown. */
+    private static long pollDelay(long plannedMs) {
+        return Backpressure.global().delayFor(plannedMs);
     }
+
     /**
      * Calculate adaptive polling interval based on elapsed time
      */
@@ -1017,50 +1098,37 @@ public class NetworkService {
     private void sendQueueHeartbeat(String playerId) {
         if (!isPollingActive) return;
 
-        String url = BASE_URL + "/api/games/matchmaking/heartbeat";
-
         JSONObject requestBody = new JSONObject();
         try {
             requestBody.put("playerId", playerId);
         } catch (JSONException e) {
-            Log.e(TAG, "Failed to create heartbeat request", e);
+            GameLog.e(TAG, "Failed to create heartbeat request", e);
             return;
         }
 
-        JsonObjectRequest request = new JsonObjectRequest(
-                Request.Method.POST,
-                url,
-                requestBody,
-                response -> Log.d(TAG, "HEARTBEAT: Sent for player " + playerId),
-                error -> Log.d(TAG, "HEARTBEAT: Failed for player " + playerId)
-        ) {
-            @Override
-            public Map<String, String> getHeaders() {
-                Map<String, String> headers = new HashMap<>();
-                headers.put("Content-Type", "application/json");
-                String deviceId = DeviceIdGenerator.getDeviceId();
-                if (deviceId != null) {
-                    headers.put("X-Device-ID", deviceId);
-                }
-                return headers;
-            }
-        };
-
         // Short timeout for heartbeat
-        request.setRetryPolicy(new DefaultRetryPolicy(5000, 1, 1.0f));
-        addToRequestQueue(request);
+        TransportRequest request = TransportRequest.post("/api/games/matchmaking/heartbeat")
+                .json(requestBody.toString())
+                .header("X-Device-ID", currentDeviceId())
+                .retryPolicy(HEARTBEAT_TIMEOUT_MS, 1, 1.0f);
+
+        send(request, jsonCallback(
+                response -> GameLog.d(TAG, "HEARTBEAT: Sent for player {}", playerId),
+                (status, body) -> GameLog.d(TAG, "HEARTBEAT: Failed for player {}", playerId)));
     }
 
     /**
      * Get detailed queue status (optional)
      */
     public void getDetailedQueueStatus(String playerId, DetailedQueueCallback callback) {
-        String url = BASE_URL + "/api/games/matchmaking/player-status/" + playerId;
+        getDetailedQueueStatus(playerId, callback, this::send);
+    }
 
-        JsonObjectRequest request = new JsonObjectRequest(
-                Request.Method.GET,
-                url,
-                null,
+    private void getDetailedQueueStatus(String playerId, DetailedQueueCallback callback, Sender sender) {
+        TransportRequest request = TransportRequest.get("/api/games/matchmaking/player-status/" + playerId)
+                .header("X-Device-ID", currentDeviceId());
+
+        sender.send(request, jsonCallback(
                 response -> {
                     try {
                         String status = response.optString("status", "unknown");
@@ -1068,33 +1136,22 @@ public class NetworkService {
                             long queueTime = response.optLong("queueTimeMs", 0);
                             int estimatedWait = response.optInt("estimatedWaitSeconds", 0);
                             int position = response.optInt("queuePosition", 0);
-                            callback.onQueueStatus(status, queueTime, estimatedWait, position);
+                            int queueSize = response.optInt("queueSize", 0);
+                            callback.onQueueStatus(status, queueTime, estimatedWait, position, queueSize);
                         } else {
-                            callback.onQueueStatus(status, 0, 0, 0);
+                            callback.onQueueStatus(status, 0, 0, 0, 0);
                         }
                     } catch (Exception e) {
-                        Log.e(TAG, "Error parsing detailed queue status", e);
+                        GameLog.e(TAG, "Error parsing detailed queue status", e);
                         callback.onFailure("Failed to parse queue status");
                     }
                 },
-                error -> callback.onFailure(parseVolleyError(error))
-        ) {
-            @Override
-            public Map<String, String> getHeaders() {
-                Map<String, String> headers = new HashMap<>();
-                String deviceId = DeviceIdGenerator.getDeviceId();
-                if (deviceId != null) {
-                    headers.put("X-Device-ID", deviceId);
-                }
-                return headers;
-            }
-        };
-
-        addToRequestQueue(request);
+                (status, body) -> callback.onFailure(describeError(status))));
     }
 
     public interface DetailedQueueCallback {
-        void onQueueStatus(String status, long queueTimeMs, int estimatedWaitSeconds, int position);
+        /** estimatedWaitSeconds comes from measured match waits; 0 if the server has none. */
+        void onQueueStatus(String status, long queueTimeMs, int estimatedWaitSeconds, int position, int queueSize);
         void onFailure(String errorMessage);
     }
 
@@ -1102,29 +1159,16 @@ public class NetworkService {
      * Force refresh queue status (for testing)
      */
     public void forceQueueProcessing(String adminKey, SimpleCallback callback) {
-        String url = BASE_URL + "/api/games/admin/process-queue";
+        TransportRequest request = TransportRequest.post("/api/games/admin/process-queue")
+                .header("X-Admin-Key", adminKey);
 
-        JsonObjectRequest request = new JsonObjectRequest(
-                Request.Method.POST,
-                url,
-                null,
+        send(request, jsonCallback(
                 response -> {
                     String status = response.optString("status", "unknown");
                     String message = response.optString("message", "");
                     callback.onResult("success".equals(status), message);
                 },
-                error -> callback.onResult(false, parseVolleyError(error))
-        ) {
-            @Override
-            public Map<String, String> getHeaders() {
-                Map<String, String> headers = new HashMap<>();
-                headers.put("Content-Type", "application/json");
-                headers.put("X-Admin-Key", adminKey);
-                return headers;
-            }
-        };
-
-        addToRequestQueue(request);
+                (status, body) -> callback.onResult(false, describeError(status))));
     }
 
     public interface SimpleCallback {
@@ -1138,13 +1182,464 @@ public class NetworkService {
 
 
 
-    private void addToRequestQueue(JsonObjectRequest request) {
-        if (requestQueue == null) {
-            Log.e(TAG, "Request queue not initialized");
+    // === SPECTATING ===
+
+    /**
+     * Follow a game as a spectator, who needn't be one of its players. The
+     * callback gets the current state, then every change, oldest first and
+     * never one older than the last; on the main thread.
+     *
+     * The server pushes each change as it happens: over the transport if it
+     * can push (WebSocketTransport), or else over a WebSocket opened for
+     * watching alone (see {@link #setWatchStreamUrl}). Only while that
+     * connection is down is the game polled on the shared
+     * {@link BatchPoller} tick, and each poll sent over it also renews the
+     * subscription.
+     */
+    public GameWatch watchGame(String gameId, WatchCallback callback) {
+        if (gameId == null || gameId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Game ID cannot be null or empty");
+        }
+        if (callback == null) {
+            throw new IllegalArgumentException("WatchCallback cannot be null");
+        }
+        GameWatch watch = new GameWatch(gameId.trim(), callback);
+        GameWatch previous = watches.put(watch.gameId, watch);
+        if (previous != null) {
+            previous.stop();
+        }
+        getBatchPoller().register(watch);
+        return watch;
+    }
+
+    /** One game being watched; {@link #stop()} ends it. Main thread only. */
+    public final class GameWatch implements BatchPoller.Participant {
+        private final String gameId;
+        private final WatchCallback callback;
+        private int lastSequence = -1;
+        private int consecutiveFailures = 0;
+        // When the next poll is due; Long.MAX_VALUE while one is in flight
+        private long nextPollAt = 0;
+        // The server pushes this game's changes, so it needn't be polled
+        private boolean pushed = false;
+        private boolean stopped = false;
+
+        private GameWatch(String gameId, WatchCallback callback) {
+            this.gameId = gameId;
+            this.callback = callback;
+        }
+
+        public String getGameId() {
+            return gameId;
+        }
+
+        public boolean isPushed() {
+            return pushed;
+        }
+
+        public void stop() {
+            if (stopped) {
+                return;
+            }
+            stopped = true;
+            watches.remove(gameId, this);
+            getBatchPoller().unregister(this);
+            if (pushed) {
+                sendVia(pushTransport(), TransportRequest.delete("/api/games/" + gameId + "/watch")
+                        .header("X-Device-ID", currentDeviceId()), new GameTransport.Callback() {
+                    @Override
+                    public void onResponse(TransportResponse response) {
+                        GameLog.d(TAG, "Stopped watching {}: {}", gameId, response.getStatus());
+                    }
+
+                    @Override
+                    public void onFailure(IOException error) {
+                        // The server drops the subscription with the connection anyway
+                    }
+                });
+            }
+        }
+
+        @Override
+        public void contribute(Batch batch, long nowMs) {
+            if (stopped || pushed || !BatchPoller.isDue(nextPollAt, nowMs)) {
+                return;
+            }
+            nextPollAt = Long.MAX_VALUE;
+            MetricsRegistry.global().increment("watch.polls");
+            // Over a push connection the poll must go out alone: it is also the subscription
+            GameTransport push = nowMs >= watchStreamRetryAt ? pushTransport() : null;
+            Sender sender = push != null ? (request, callback) -> sendVia(push, request, new GameTransport.Callback() {
+                @Override
+                public void onResponse(TransportResponse response) {
+                    callback.onResponse(response);
+                }
+
+                @Override
+                public void onFailure(IOException error) {
+                    // No push connection: poll over the transport until it's worth trying again
+                    GameLog.w(TAG, "Watch stream unavailable, polling: {}", error.getMessage());
+                    watchStreamRetryAt = BatchPoller.now() + WATCH_STREAM_RETRY_MS;
+                    send(request, callback);
+                }
+            }) : batch::add;
+            getWatchedGame(gameId, new GameCallback() {
+                @Override
+                public void onSuccess(ServerGameState gameState) {
+                    if (stopped) {
+                        return;
+                    }
+                    consecutiveFailures = 0;
+                    if (push != null && push == pushTransport() && BatchPoller.now() >= watchStreamRetryAt) {
+                        pushed = true;
+                        getBatchPoller().unregister(GameWatch.this);
+                    } else {
+                        nextPollAt = BatchPoller.now() + BatchPoller.TICK_MS;
+                    }
+                    deliver(gameState);
+                }
+
+                @Override
+                public void onFailure(String errorMessage) {
+                    if (stopped) {
+                        return;
+                    }
+                    consecutiveFailures++;
+                    nextPollAt = BatchPoller.now() + Math.min(BatchPoller.TICK_MS * (1 + consecutiveFailures), 15000);
+                    if (consecutiveFailures == 1) {
+                        callback.onFailure(errorMessage);
+                    }
+                }
+            }, sender);
+        }
+
+        void deliver(ServerGameState gameState) {
+            int sequence = TransportEnvelope.eventSequence(gameState);
+            if (stopped || sequence <= lastSequence) {
+                return;
+            }
+            lastSequence = sequence;
+            callback.onGameUpdate(gameState);
+        }
+
+        /** The push stream broke: poll, which renews it once the connection is back. */
+        void fallBackToPolling() {
+            if (stopped || !pushed) {
+                return;
+            }
+            pushed = false;
+            nextPollAt = BatchPoller.now() + BatchPoller.TICK_MS;
+            getBatchPoller().register(this);
+        }
+    }
+
+    private void getWatchedGame(String gameId, GameCallback callback, Sender sender) {
+        sender.send(withGameHeaders(TransportRequest.get("/api/games/" + gameId + "/watch")),
+                gameCallback(callback, "Watch game"));
+    }
+
+    // === BATCHING ===
+
+    /** Sends a call now, or collects it into a {@link Batch}. */
+    private interface Sender {
+        void send(TransportRequest request, GameTransport.Callback callback);
+    }
+
+    /**
+     * Read-only calls collected to go out as one POST /api/games/batch. Each
+     * call's callback behaves exactly as if it had been sent on its own.
+     *
+     * <pre>
+     *   networkService.newBatch()
+     *           .getGameState(gameId, playerId, gameCallback)
+     *           .getMatchmakingStatus(playerId, matchmakingCallback)
+     *           .send();
+     * </pre>
+     */
+    public final class Batch {
+        private final List<TransportRequest> requests = new ArrayList<>();
+        private final List<GameTransport.Callback> callbacks = new ArrayList<>();
+
+        private Batch() {
+        }
+
+        public Batch getGameState(String gameId, String playerId, GameCallback callback) {
+            NetworkService.this.getGameState(gameId, playerId, callback, this::add);
+            return this;
+        }
+
+        public Batch getMatchmakingStatus(String playerId, MatchmakingCallback callback) {
+            NetworkService.this.getMatchmakingStatus(playerId, callback, this::add);
+            return this;
+        }
+
+        public Batch getDetailedQueueStatus(String playerId, DetailedQueueCallback callback) {
+            NetworkService.this.getDetailedQueueStatus(playerId, callback, this::add);
+            return this;
+        }
+
+        public Batch getQueueStatus(MatchmakingStatusCallback callback) {
+            NetworkService.this.getQueueStatus(callback, this::add);
+            return this;
+        }
+
+        public int size() {
+            return requests.size();
+        }
+
+        /** Send what was collected; a single call goes out unbatched. */
+        public void send() {
+            sendBatch(new ArrayList<>(requests), new ArrayList<>(callbacks));
+            requests.clear();
+            callbacks.clear();
+        }
+
+        private void add(TransportRequest request, GameTransport.Callback callback) {
+            requests.add(request);
+            callbacks.add(callback);
+        }
+    }
+
+    public Batch newBatch() {
+        return new Batch();
+    }
+
+    /** The tick QueueManager and GamePollingService share. */
+    public synchronized BatchPoller getBatchPoller() {
+        if (batchPoller == null) {
+            batchPoller = new BatchPoller(this);
+        }
+        return batchPoller;
+    }
+
+    private void sendBatch(List<TransportRequest> requests, List<GameTransport.Callback> callbacks) {
+        if (requests.isEmpty()) {
             return;
         }
-        request.setTag(TAG);
-        requestQueue.add(request);
+        if (requests.size() == 1 || !serverSupportsBatch) {
+            for (int i = 0; i < requests.size(); i++) {
+                send(requests.get(i), callbacks.get(i));
+            }
+            return;
+        }
+
+        JSONArray queries = new JSONArray();
+        try {
+            for (int i = 0; i < requests.size(); i++) {
+                queries.put(new JSONObject()
+                        .put("id", i)
+                        .put("method", requests.get(i).getMethod())
+                        .put("path", requests.get(i).getPath()));
+            }
+        } catch (JSONException e) {
+            GameLog.e(TAG, "Failed to create batch request", e);
+            return;
+        }
+        MetricsRegistry.global().increment("batch.sent");
+        MetricsRegistry.global().add("batch.calls", requests.size());
+
+        TransportRequest batch = TransportRequest.post("/api/games/batch")
+                .json("{\"requests\":" + queries + "}")
+                .header("X-Device-ID", currentDeviceId());
+        send(batch, new GameTransport.Callback() {
+            @Override
+            public void onResponse(TransportResponse response) {
+                if (response.getStatus() == 404) {
+                    // Server predates batching: stop trying, and send these one by one
+                    GameLog.i(TAG, "Server has no batch endpoint, sending calls separately");
+                    serverSupportsBatch = false;
+                    sendBatch(requests, callbacks);
+                } else if (!response.isSuccessful()) {
+                    // Shed or failed as a whole: every call sees the same response
+                    for (GameTransport.Callback callback : callbacks) {
+                        callback.onResponse(response);
+                    }
+                } else {
+                    deliverBatch(response, callbacks);
+                }
+            }
+
+            @Override
+            public void onFailure(IOException error) {
+                for (GameTransport.Callback callback : callbacks) {
+                    callback.onFailure(error);
+                }
+            }
+        });
+    }
+
+    /** Hand each call its own part of a batch response, as a response of its own. */
+    private static void deliverBatch(TransportResponse response, List<GameTransport.Callback> callbacks) {
+        TransportResponse[] parts = new TransportResponse[callbacks.size()];
+        try {
+            JSONArray responses = new JSONObject(response.bodyAsString()).getJSONArray("responses");
+            for (int i = 0; i < responses.length(); i++) {
+                JSONObject part = responses.getJSONObject(i);
+                int id = part.optInt("id", -1);
+                if (id < 0 || id >= parts.length) {
+                    continue;
+                }
+                Object body = part.opt("body");
+                parts[id] = new TransportResponse(part.getInt("status"), TransportRequest.JSON_CONTENT_TYPE, null,
+                        body != null ? body.toString().getBytes(StandardCharsets.UTF_8) : null);
+            }
+        } catch (JSONException e) {
+            GameLog.e(TAG, "Malformed batch response", e);
+        }
+        for (int i = 0; i < parts.length; i++) {
+            if (parts[i] != null) {
+                callbacks.get(i).onResponse(parts[i]);
+            } else {
+                callbacks.get(i).onFailure(new IOException("No response in batch"));
+            }
+        }
+    }
+
+    private void send(TransportRequest request, GameTransport.Callback callback) {
+        sendVia(getTransport(), request, callback);
+    }
+
+    private void sendVia(GameTransport current, TransportRequest request, GameTransport.Callback callback) {
+        if (current == null) {
+            GameLog.e(TAG, "Transport not initialized");
+            callback.onFailure(new IOException("Network service not initialized"));
+            return;
+        }
+        current.send(request, measured(request, callback));
+    }
+
+    /**
+     * Records the call in {@link MetricsRegistry#global()}: latency of every
+     * response under {@code net.<endpoint>.ms} and a count per status under
+     * {@code net.<endpoint>.<status>}, where calls that got no response count
+     * as {@code no_response}. A 429 or 503 starts the app-wide
+     * {@link Backpressure} cooldown, recorded under {@code backpressure.*}.
+     */
+    private static GameTransport.Callback measured(TransportRequest request, GameTransport.Callback callback) {
+        String endpoint = "net." + endpointName(request);
+        long startNanos = System.nanoTime();
+        return new GameTransport.Callback() {
+            @Override
+            public void onResponse(TransportResponse response) {
+                MetricsRegistry metrics = MetricsRegistry.global();
+                metrics.record(endpoint + ".ms", (System.nanoTime() - startNanos) / 1_000_000);
+                metrics.increment(endpoint + "." + response.getStatus());
+                long cooldownMs = Backpressure.global().onResponse(response.getStatus(), response.header("Retry-After"));
+                if (cooldownMs > 0) {
+                    metrics.increment("backpressure." + response.getStatus());
+                    metrics.record("backpressure.cooldown_ms", cooldownMs);
+                    GameLog.w(TAG, "Server shed {} ({}), pollers back off for {}ms",
+                            endpoint, response.getStatus(), cooldownMs);
+                }
+                callback.onResponse(response);
+            }
+
+            @Override
+            public void onFailure(IOException error) {
+                MetricsRegistry.global().increment(endpoint + ".no_response");
+                callback.onFailure(error);
+            }
+        };
+    }
+
+    /**
+     * Method and path with the query dropped and ids folded, e.g.
+     * "GET /api/games/{id}", so each endpoint gets one set of metrics. Any
+     * path segment with a digit in it is taken to be an id.
+     */
+    static String endpointName(TransportRequest request) {
+        String path = request.getPath();
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        StringBuilder name = new StringBuilder(request.getMethod()).append(' ');
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            boolean isId = false;
+            for (int i = 0; i < segment.length() && !isId; i++) {
+                isId = Character.isDigit(segment.charAt(i));
+            }
+            name.append('/').append(isId ? "{id}" : segment);
+        }
+        return name.toString();
+    }
+
+    private synchronized GameTransport getTransport() {
+        if (transport == null && context != null) {
+            transport = new VolleyTransport(context, BASE_URL);
+        }
+        return transport;
+    }
+
+    /** Where watches get pushed updates: the transport if it pushes, else the watch stream. */
+    private GameTransport pushTransport() {
+        if (transportPushes) {
+            return getTransport();
+        }
+        if (watchStream == null && context != null && watchStreamUrl != null) {
+            watchStream = new WebSocketTransport(HttpClientProvider.get(context), watchStreamUrl);
+            watchStream.setEventListener(gameEvents);
+        }
+        return watchStream;
+    }
+
+    /**
+     * Push watched games over a WebSocket to {@code url}, e.g. the stand-in
+     * server's -Dnaarpazham.wsPort; null, the default, leaves watches
+     * polling. Not used while the transport pushes itself. Main thread only.
+     */
+    public void setWatchStreamUrl(String url) {
+        watchStreamUrl = url;
+        watchStreamRetryAt = 0;
+        closeWatchStream();
+    }
+
+    /** Watches on the stream fall back to polling, and resubscribe wherever pushes now come from. */
+    private void closeWatchStream() {
+        if (watchStream != null) {
+            watchStream.close();
+            watchStream = null;
+        }
+    }
+
+    /**
+     * Send all calls through {@code transport} instead of the default
+     * {@link VolleyTransport}, e.g. an OkHttpTransport or WebSocketTransport,
+     * or a loopback to an in-process server for tests and benchmarks. Calls
+     * in flight on the previous transport are cancelled.
+     */
+    public void setTransport(GameTransport transport) {
+        if (transport == null) {
+            throw new IllegalArgumentException("Transport cannot be null");
+        }
+        GameTransport previous;
+        synchronized (this) {
+            previous = this.transport;
+            this.transport = transport;
+        }
+        if (previous != null && previous != transport) {
+            previous.setEventListener(null);
+            previous.cancelAll();
+        }
+        transportPushes = transport.setEventListener(gameEvents);
+        if (transportPushes && watchStream != null) {
+            // Pushes come over the transport now
+            new Handler(Looper.getMainLooper()).post(this::closeWatchStream);
+        }
+        if (previous != null && previous != transport && !watches.isEmpty()) {
+            // Subscriptions stay behind with the old transport
+            new Handler(Looper.getMainLooper()).post(() -> gameEvents.onEventsLost(new IOException("Transport replaced")));
+        }
+    }
+
+    /** Connect to the server ahead of the first request, so it doesn't pay for the handshake. */
+    public void warmUpConnection() {
+        if (context != null) {
+            HttpClientProvider.warmUp(context, BASE_URL + "/api/games/matchmaking/queue-status");
+        }
     }
 
 
@@ -1161,10 +1656,10 @@ public class NetworkService {
                 }
 
                 currentPollingAttempts++;
-                Log.d(TAG, "Polling attempt " + currentPollingAttempts + "/" + MAX_POLLING_ATTEMPTS);
+                GameLog.d(TAG, "Polling attempt {}/{}", currentPollingAttempts, MAX_POLLING_ATTEMPTS);
 
                 if (currentPollingAttempts >= MAX_POLLING_ATTEMPTS) {
-                    Log.w(TAG, "Matchmaking polling timed out after " + currentPollingAttempts + " attempts");
+                    GameLog.w(TAG, "Matchmaking polling timed out after {} attempts", currentPollingAttempts);
                     stopPolling();
                     callback.onFailure("Matchmaking timeout - no opponent found");
                     return;
@@ -1174,36 +1669,36 @@ public class NetworkService {
                 getMatchmakingStatus(playerId, new MatchmakingCallback() {
                     @Override
                     public void onMatchFound(ServerGameState gameState, boolean isPlayer1, String playerId) {
-                        Log.i(TAG, "Match found during polling!");
+                        GameLog.i(TAG, "Match found during polling!");
                         stopPolling();
                         callback.onMatchFound(gameState, isPlayer1, playerId);
                     }
 
                     @Override
                     public void onWaitingForMatch(String playerId) {
-                        Log.d(TAG, "Still waiting... polling continues");
+                        GameLog.d(TAG, "Still waiting... polling continues");
                         if (isPollingActive && matchmakingHandler != null) {
                             matchmakingHandler.postDelayed(new Runnable() {
                                 @Override
                                 public void run() {
                                     onWaitingForMatch(playerId); // re-invoke after delay
                                 }
-                            }, POLLING_INTERVAL_MS);
+                            }, pollDelay(POLLING_INTERVAL_MS));
                         }
                     }
 
                     @Override
                     public void onAlreadyInQueue() {
-                        Log.d(TAG, "Player in queue, continue polling");
+                        GameLog.d(TAG, "Player in queue, continue polling");
                         // Continue polling
                         if (isPollingActive && matchmakingHandler != null) {
-                            matchmakingHandler.postDelayed(matchmakingPoller, POLLING_INTERVAL_MS);
+                            matchmakingHandler.postDelayed(matchmakingPoller, pollDelay(POLLING_INTERVAL_MS));
                         }
                     }
 
                     @Override
                     public void onFailure(String errorMessage) {
-                        Log.e(TAG, "Polling failed: " + errorMessage);
+                        GameLog.e(TAG, "Polling failed: {}", errorMessage);
                         stopPolling();
                         callback.onFailure("Matchmaking failed: " + errorMessage);
                     }
@@ -1212,7 +1707,7 @@ public class NetworkService {
         };
 
         // Start polling
-        matchmakingHandler.postDelayed(matchmakingPoller, POLLING_INTERVAL_MS);
+        matchmakingHandler.postDelayed(matchmakingPoller, pollDelay(POLLING_INTERVAL_MS));
     }
 
     private void startStatusPolling(String playerId, MatchmakingCallback callback) {
@@ -1228,10 +1723,10 @@ public class NetworkService {
                 }
 
                 currentPollingAttempts++;
-                Log.d(TAG, "Status polling attempt " + currentPollingAttempts + "/" + MAX_POLLING_ATTEMPTS);
+                GameLog.d(TAG, "Status polling attempt {}/{}", currentPollingAttempts, MAX_POLLING_ATTEMPTS);
 
                 if (currentPollingAttempts >= MAX_POLLING_ATTEMPTS) {
-                    Log.w(TAG, "Status polling timed out");
+                    GameLog.w(TAG, "Status polling timed out");
                     stopPolling();
                     callback.onFailure("Matchmaking timeout");
                     return;
@@ -1240,49 +1735,49 @@ public class NetworkService {
                 getMatchmakingStatus(playerId, new MatchmakingCallback() {
                     @Override
                     public void onMatchFound(ServerGameState gameState, boolean isPlayer1, String playerId) {
-                        Log.i(TAG, "Match found during status polling!");
+                        GameLog.i(TAG, "Match found during status polling!");
                         stopPolling();
                         callback.onMatchFound(gameState, isPlayer1, playerId);
                     }
 
                     @Override
                     public void onWaitingForMatch(String playerId) {
-                        Log.d(TAG, "Still waiting in status polling");
+                        GameLog.d(TAG, "Still waiting in status polling");
                         if (isPollingActive && matchmakingHandler != null) {
                             matchmakingHandler.postDelayed(new Runnable() {
                                 @Override
                                 public void run() {
                                     onWaitingForMatch(playerId); // call again after delay
                                 }
-                            }, POLLING_INTERVAL_MS);
+                            }, pollDelay(POLLING_INTERVAL_MS));
                         }
                     }
 
                     @Override
                     public void onAlreadyInQueue() {
-                        Log.d(TAG, "Still in queue during status polling");
+                        GameLog.d(TAG, "Still in queue during status polling");
                         if (isPollingActive && matchmakingHandler != null) {
-                            matchmakingHandler.postDelayed(matchmakingPoller, POLLING_INTERVAL_MS);
+                            matchmakingHandler.postDelayed(matchmakingPoller, pollDelay(POLLING_INTERVAL_MS));
                         }
                     }
 
                     @Override
                     public void onFailure(String errorMessage) {
-                        Log.d(TAG, "Status polling failed (might be normal): " + errorMessage);
+                        GameLog.d(TAG, "Status polling failed (might be normal): {}", errorMessage);
                         // For status polling failures, continue polling as player might not be in queue yet
                         if (isPollingActive && matchmakingHandler != null) {
-                            matchmakingHandler.postDelayed(matchmakingPoller, POLLING_INTERVAL_MS);
+                            matchmakingHandler.postDelayed(matchmakingPoller, pollDelay(POLLING_INTERVAL_MS));
                         }
                     }
                 });
             }
         };
 
-        matchmakingHandler.postDelayed(matchmakingPoller, POLLING_INTERVAL_MS);
+        matchmakingHandler.postDelayed(matchmakingPoller, pollDelay(POLLING_INTERVAL_MS));
     }
 
     public void stopPolling() {
-        Log.d(TAG, "Stopping matchmaking polling");
+        GameLog.d(TAG, "Stopping matchmaking polling");
         isPollingActive = false;
         currentPollingAttempts = 0;
 
@@ -1294,7 +1789,7 @@ public class NetworkService {
 
     // Enhanced cancel with polling stop
     public void cancelMatchmakingWithPolling(String playerId, GameCallback callback) {
-        Log.i(TAG, "Cancelling matchmaking with polling for player: " + playerId);
+        GameLog.i(TAG, "Cancelling matchmaking with polling for player: {}", playerId);
 
         // Stop polling first
         stopPolling();
@@ -1303,13 +1798,13 @@ public class NetworkService {
         cancelMatchmaking(playerId, new GameCallback() {
             @Override
             public void onSuccess(ServerGameState gameState) {
-                Log.i(TAG, "Matchmaking successfully cancelled");
+                GameLog.i(TAG, "Matchmaking successfully cancelled");
                 callback.onSuccess(gameState);
             }
 
             @Override
             public void onFailure(String errorMessage) {
-                Log.w(TAG, "Matchmaking cancel failed (might be normal): " + errorMessage);
+                GameLog.w(TAG, "Matchmaking cancel failed (might be normal): {}", errorMessage);
                 // Even if cancel fails, we stopped polling, so call success
                 callback.onSuccess(null);
             }
@@ -1319,13 +1814,29 @@ public class NetworkService {
 
     public void cleanup() {
         stopPolling();
-        if (requestQueue != null) {
-            requestQueue.cancelAll(TAG);
+        knownMoveCounts.clear();
+        for (GameWatch watch : watches.values()) {
+            watch.stop();
+        }
+        closeWatchStream();
+        GameTransport current;
+        synchronized (this) {
+            current = transport;
+        }
+        if (current != null) {
+            current.cancelAll();
         }
     }
 
     // === CALLBACK INTERFACES ===
 
+    public interface WatchCallback {
+        void onGameUpdate(ServerGameState gameState);
+
+        /** A poll failed; watching carries on and retries. */
+        void onFailure(String errorMessage);
+    }
+
     public interface MatchmakingCallback {
         void onMatchFound(ServerGameState gameState, boolean isPlayer1, String playerId);
         void onWaitingForMatch(String playerId);
@@ -0,0 +1,122 @@
+package com.gfg.NaarPazham;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.Header;
+import com.android.volley.Request;
+import com.android.volley.toolbox.BaseHttpStack;
+import com.android.volley.toolbox.HttpResponse;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Volley transport that sends requests through the shared OkHttpClient
+ * instead of HttpURLConnection, so Volley requests get its connection pool,
+ * HTTP/2, cache and gzip. Each request's Volley timeout becomes the call
+ * timeout.
+ */
+class OkHttpStack extends BaseHttpStack {
+    private final OkHttpClient client;
+
+    OkHttpStack(OkHttpClient client) {
+        if (client == null) {
+            throw new IllegalArgumentException("Client cannot be null");
+        }
+        this.client = client;
+    }
+
+    @Override
+    public HttpResponse executeRequest(Request<?> request, Map<String, String> additionalHeaders)
+            throws IOException, AuthFailureError {
+        okhttp3.Request.Builder builder = new okhttp3.Request.Builder().url(request.getUrl());
+
+        Map<String, String> headers = new HashMap<>(request.getHeaders());
+        headers.putAll(additionalHeaders);
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            builder.header(header.getKey(), header.getValue());
+        }
+        setMethodAndBody(builder, request);
+
+        Call call = client.newCall(builder.build());
+        call.timeout().timeout(request.getTimeoutMs(), TimeUnit.MILLISECONDS);
+        Response response = call.execute();
+
+        List<Header> responseHeaders = new ArrayList<>(response.headers().size());
+        for (int i = 0; i < response.headers().size(); i++) {
+            responseHeaders.add(new Header(response.headers().name(i), response.headers().value(i)));
+        }
+
+        ResponseBody body = response.body();
+        if (body == null || !hasBody(request.getMethod(), response.code())) {
+            // Volley won't read the body, so release the connection now
+            response.close();
+            return new HttpResponse(response.code(), responseHeaders);
+        }
+        // Volley closes the stream once it has read it, which returns the connection to the pool
+        return new HttpResponse(response.code(), responseHeaders, (int) body.contentLength(), body.byteStream());
+    }
+
+    private static void setMethodAndBody(okhttp3.Request.Builder builder, Request<?> request)
+            throws AuthFailureError {
+        switch (request.getMethod()) {
+            case Request.Method.DEPRECATED_GET_OR_POST:
+                byte[] legacyBody = request.getBody();
+                if (legacyBody != null) {
+                    builder.post(body(request, legacyBody));
+                } else {
+                    builder.get();
+                }
+                break;
+            case Request.Method.GET:
+                builder.get();
+                break;
+            case Request.Method.DELETE:
+                builder.delete();
+                break;
+            case Request.Method.POST:
+                builder.post(body(request, request.getBody()));
+                break;
+            case Request.Method.PUT:
+                builder.put(body(request, request.getBody()));
+                break;
+            case Request.Method.PATCH:
+                builder.patch(body(request, request.getBody()));
+                break;
+            case Request.Method.HEAD:
+                builder.head();
+                break;
+            case Request.Method.OPTIONS:
+                builder.method("OPTIONS", null);
+                break;
+            case Request.Method.TRACE:
+                builder.method("TRACE", null);
+                break;
+            default:
+                throw new IllegalStateException("Unknown request method " + request.getMethod());
+        }
+    }
+
+    private static RequestBody body(Request<?> request, byte[] body) {
+        MediaType type = MediaType.parse(request.getBodyContentType());
+        return RequestBody.create(body != null ? body : new byte[0], type);
+    }
+
+    private static boolean hasBody(int method, int status) {
+        return method != Request.Method.HEAD
+                && !(100 <= status && status < 200)
+                && status != HttpURLConnection.HTTP_NO_CONTENT
+                && status != HttpURLConnection.HTTP_NOT_MODIFIED;
+    }
+}
@@ -0,0 +1,123 @@
+package com.gfg.NaarPazham;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * {@link GameTransport} straight on OkHttp's async API, without Volley's
+ * queue and dispatcher threads in between. Retries follow the request's
+ * retry policy, with the call timeout growing per attempt as Volley's does.
+ * Callbacks run on the main thread.
+ */
+public class OkHttpTransport implements GameTransport {
+    private final OkHttpClient client;
+    private final String baseUrl;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Set<Call> inFlight = ConcurrentHashMap.newKeySet();
+    // Bumped by cancelAll(); results of calls sent under an older generation are dropped
+    private final AtomicLong generation = new AtomicLong();
+
+    public OkHttpTransport(OkHttpClient client, String baseUrl) {
+        if (client == null || baseUrl == null) {
+            throw new IllegalArgumentException("Client and base URL cannot be null");
+        }
+        this.client = client;
+        this.baseUrl = baseUrl;
+    }
+
+    @Override
+    public void send(TransportRequest request, Callback callback) {
+        enqueue(toOkHttpRequest(request), request, callback, 0, generation.get());
+    }
+
+    @Override
+    public void cancelAll() {
+        generation.incrementAndGet();
+        for (Call call : inFlight) {
+            call.cancel();
+        }
+        inFlight.clear();
+    }
+
+    private void enqueue(okhttp3.Request httpRequest, TransportRequest request, Callback callback,
+                         int attempt, long sentIn) {
+        Call call = client.newCall(httpRequest);
+        call.timeout().timeout(request.timeoutForAttempt(attempt), TimeUnit.MILLISECONDS);
+        inFlight.add(call);
+        call.enqueue(new okhttp3.Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                inFlight.remove(call);
+                if (call.isCanceled() || generation.get() != sentIn) {
+                    return;
+                }
+                if (attempt < request.getMaxRetries()) {
+                    enqueue(httpRequest, request, callback, attempt + 1, sentIn);
+                    return;
+                }
+                deliver(sentIn, () -> callback.onFailure(e));
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                inFlight.remove(call);
+                TransportResponse result;
+                try (Response closing = response) {
+                    ResponseBody body = closing.body();
+                    Map<String, String> headers = new HashMap<>();
+                    for (int i = 0; i < closing.headers().size(); i++) {
+                        headers.put(closing.headers().name(i), closing.headers().value(i));
+                    }
+                    result = new TransportResponse(closing.code(), closing.header("Content-Type"),
+                            headers, body != null ? body.bytes() : null);
+                } catch (IOException e) {
+                    onFailure(call, e);
+                    return;
+                }
+                deliver(sentIn, () -> callback.onResponse(result));
+            }
+        });
+    }
+
+    private void deliver(long sentIn, Runnable delivery) {
+        mainHandler.post(() -> {
+            if (generation.get() == sentIn) {
+                delivery.run();
+            }
+        });
+    }
+
+    private okhttp3.Request toOkHttpRequest(TransportRequest request) {
+        okhttp3.Request.Builder builder = new okhttp3.Request.Builder().url(baseUrl + request.getPath());
+        for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+            builder.header(header.getKey(), header.getValue());
+        }
+
+        RequestBody body = null;
+        if (request.hasBody()) {
+            body = RequestBody.create(request.getBody(), MediaType.parse(request.getContentType()));
+        } else if (requiresBody(request.getMethod())) {
+            body = RequestBody.create(new byte[0], null);
+        }
+        return builder.method(request.getMethod(), body).build();
+    }
+
+    private static boolean requiresBody(String method) {
+        return "POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method);
+    }
+}
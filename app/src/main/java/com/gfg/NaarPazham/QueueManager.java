@@ -4,7 +4,6 @@ import android.os.Handler;
 import android.os.Looper;
 import android.util.Log;
 import android.content.Context;
-import android.content.SharedPreferences;
 
 /**
  * Step 7: Complete QueueManager Class
@@ -16,19 +15,13 @@ public class QueueManager {
     private static final int MAX_QUEUE_TIME = 300000; // 5 minutes
     private static final int QUEUE_STATUS_CHECK_INTERVAL = 3000; // 3 seconds
 
-    // Persistence keys
-    private static final String PREFS_NAME = "queue_manager_prefs";
-    private static final String KEY_QUEUE_STATE = "queue_state";
-    private static final String KEY_PLAYER_ID = "queue_player_id";
-    private static final String KEY_DEVICE_ID = "queue_device_id";
-    private static final String KEY_QUEUE_START_TIME = "queue_start_time";
-
     private QueueState currentState = QueueState.IDLE;
     private Handler queueHandler;
     private Handler uiUpdateHandler;
     private Runnable queueUpdateTask;
     private Runnable uiUpdateTask;
-    private Runnable statusCheckTask;
+    private BatchPoller.Participant statusCheck;
+    private long nextStatusCheckAt;
     private QueueCallback callback;
     private NetworkService networkService;
     private Context context;
@@ -186,13 +179,12 @@ public class QueueManager {
         if (!isPersistenceEnabled) return false;
 
         try {
-            SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-            String savedState = prefs.getString(KEY_QUEUE_STATE, QueueState.IDLE.name());
-            String savedPlayerId = prefs.getString(KEY_PLAYER_ID, null);
-            String savedDeviceId = prefs.getString(KEY_DEVICE_ID, null);
-            long savedStartTime = prefs.getLong(KEY_QUEUE_START_TIME, 0);
+            QueueStateStore.Record saved = QueueStateStore.getInstance(context).snapshot();
+            String savedPlayerId = saved.playerId;
+            String savedDeviceId = saved.deviceId;
+            long savedStartTime = saved.queueStartTime;
 
-            if (QueueState.valueOf(savedState) == QueueState.IN_QUEUE &&
+            if (saved.state == QueueState.IN_QUEUE &&
                     savedPlayerId != null && savedDeviceId != null && savedStartTime > 0) {
 
                 // Check if saved queue is still recent (within 10 minutes)
@@ -232,50 +224,60 @@ public class QueueManager {
     }
 
     /**
-     * Start periodic queue status checking
+     * Start periodic queue status checking, on the app's shared batch tick
      */
     private void startQueueStatusChecking() {
-        if (statusCheckTask != null) {
-            queueHandler.removeCallbacks(statusCheckTask);
+        if (statusCheck != null) {
+            networkService.getBatchPoller().unregister(statusCheck);
         }
 
-        statusCheckTask = new Runnable() {
-            @Override
-            public void run() {
-                if (currentState == QueueState.IN_QUEUE && playerId != null) {
-                    checkQueueStatus();
-
-                    if (currentState == QueueState.IN_QUEUE) {
-                        // Schedule next check with progressive backoff on failures
-                        long delay = Math.min(QUEUE_STATUS_CHECK_INTERVAL * (1 + consecutiveFailures), 15000);
-                        queueHandler.postDelayed(this, delay);
-                    }
-                }
+        nextStatusCheckAt = 0;
+        statusCheck = (batch, nowMs) -> {
+            if (currentState == QueueState.IN_QUEUE && playerId != null
+                    && BatchPoller.isDue(nextStatusCheckAt, nowMs)) {
+                checkQueueStatus(batch);
+
+                // Next check with progressive backoff on failures; the tick
+                // itself holds off while the server's cooldown runs
+                nextStatusCheckAt = nowMs + Math.min(QUEUE_STATUS_CHECK_INTERVAL * (1 + consecutiveFailures), 15000);
             }
         };
 
-        queueHandler.post(statusCheckTask);
+        networkService.getBatchPoller().register(statusCheck);
     }
 
     /**
-     * Check queue status with server
+     * Check queue status with server; both reads go out in the tick's batch
      */
-    private void checkQueueStatus() {
-        // Check queue size
-        networkService.getQueueStatus(new NetworkService.MatchmakingStatusCallback() {
+    private void checkQueueStatus(NetworkService.Batch batch) {
+        // Check position and the server's measured wait estimate
+        batch.getDetailedQueueStatus(playerId, new NetworkService.DetailedQueueCallback() {
             @Override
-            public void onStatusUpdate(int queueSize) {
-                currentQueueSize = queueSize;
-                estimatedWaitTime = calculateEstimatedWait(queueSize);
+            public void onQueueStatus(String status, long queueTimeMs, int estimatedWaitSeconds,
+                                      int position, int queueSize) {
                 consecutiveFailures = 0; // Reset on success
+                if (!"in_queue".equals(status)) {
+                    return; // Match status check below handles matches and drops
+                }
 
-                callback.onQueuePositionUpdated(queueSize, estimatedWaitTime);
+                currentQueueSize = queueSize;
+                estimatedWaitTime = estimatedWaitSeconds > 0
+                        ? estimatedWaitSeconds
+                        : calculateEstimatedWait(queueSize);
+
+                callback.onQueuePositionUpdated(position, estimatedWaitTime);
 
-                Log.d(TAG, "Queue status - Size: " + queueSize + ", Estimated wait: " + estimatedWaitTime);
+                Log.d(TAG, "Queue status - Position: " + position + "/" + queueSize +
+                        ", Estimated wait: " + estimatedWaitTime);
             }
 
             @Override
             public void onFailure(String errorMessage) {
+                if (Backpressure.global().isCoolingDown()) {
+                    // Shed by a busy server, not disconnected
+                    Log.d(TAG, "Queue status check deferred: " + errorMessage);
+                    return;
+                }
                 consecutiveFailures++;
                 Log.w(TAG, "Queue status check failed (attempt " + consecutiveFailures + "): " + errorMessage);
 
@@ -288,7 +290,7 @@ public class QueueManager {
         });
 
         // Check for match
-        networkService.getMatchmakingStatus(playerId, new NetworkService.MatchmakingCallback() {
+        batch.getMatchmakingStatus(playerId, new NetworkService.MatchmakingCallback() {
             @Override
             public void onMatchFound(ServerGameState gameState, boolean isPlayer1, String playerId) {
                 Log.i(TAG, "Match found during status check!");
@@ -379,7 +381,8 @@ public class QueueManager {
     }
 
     /**
-     * Calculate estimated wait time based on queue size
+     * Calculate estimated wait time based on queue size; only used until the
+     * server has measured wait times to report
      */
     private int calculateEstimatedWait(int queueSize) {
         if (queueSize <= 1) return 30; // 30 seconds if alone or first
@@ -434,9 +437,9 @@ public class QueueManager {
      * Stop all background tasks
      */
     private void stopAllTasks() {
-        if (statusCheckTask != null) {
-            queueHandler.removeCallbacks(statusCheckTask);
-            statusCheckTask = null;
+        if (statusCheck != null) {
+            networkService.getBatchPoller().unregister(statusCheck);
+            statusCheck = null;
         }
 
         if (uiUpdateTask != null) {
@@ -461,15 +464,17 @@ public class QueueManager {
         if (!isPersistenceEnabled || context == null) return;
 
         try {
-            SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-            SharedPreferences.Editor editor = prefs.edit();
-
-            editor.putString(KEY_QUEUE_STATE, currentState.name());
-            if (playerId != null) editor.putString(KEY_PLAYER_ID, playerId);
-            if (deviceId != null) editor.putString(KEY_DEVICE_ID, deviceId);
-            if (queueStartTime > 0) editor.putLong(KEY_QUEUE_START_TIME, queueStartTime);
-
-            editor.apply();
+            QueueState state = currentState;
+            String savedPlayerId = playerId;
+            String savedDeviceId = deviceId;
+            long savedStartTime = queueStartTime;
+            QueueStateStore.getInstance(context).update(record -> {
+                record.state = state;
+                if (savedPlayerId != null) record.playerId = savedPlayerId;
+                if (savedDeviceId != null) record.deviceId = savedDeviceId;
+                if (savedStartTime > 0) record.queueStartTime = savedStartTime;
+                record.lastSaveTime = System.currentTimeMillis();
+            });
 
             Log.d(TAG, "Queue state saved: " + currentState);
         } catch (Exception e) {
@@ -484,8 +489,7 @@ public class QueueManager {
         if (!isPersistenceEnabled || context == null) return;
 
         try {
-            SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-            prefs.edit().clear().apply();
+            QueueStateStore.getInstance(context).clearQueueSession();
 
             Log.d(TAG, "Queue state cleared");
         } catch (Exception e) {
@@ -1,38 +1,21 @@
 package com.gfg.NaarPazham;
 
 import android.content.Context;
-import android.content.SharedPreferences;
 import android.util.Log;
 import org.json.JSONObject;
-import org.json.JSONException;
 
 /**
  * Step 9: Queue Persistence Manager
- * Handles saving and restoring queue state across app restarts
+ * Handles saving and restoring queue state across app restarts.
+ * Storage is the shared binary {@link QueueStateStore}; nothing here blocks on disk.
  */
 public class QueuePersistenceManager {
     private static final String TAG = "QueuePersistenceManager";
-    private static final String PREFS_NAME = "multiplayer_queue_persistence";
-
-    // Persistence keys
-    private static final String KEY_QUEUE_STATE = "queue_state";
-    private static final String KEY_PLAYER_ID = "player_id";
-    private static final String KEY_DEVICE_ID = "device_id";
-    private static final String KEY_QUEUE_START_TIME = "queue_start_time";
-    private static final String KEY_QUEUE_SESSION_ID = "queue_session_id";
-    private static final String KEY_LAST_SAVE_TIME = "last_save_time";
-    private static final String KEY_TOTAL_QUEUE_TIME = "total_queue_time";
-    private static final String KEY_QUEUE_ATTEMPTS = "queue_attempts";
-    private static final String KEY_LAST_KNOWN_POSITION = "last_known_position";
-    private static final String KEY_APP_VERSION = "app_version";
-
     // Configuration
     private static final long MAX_PERSISTENCE_AGE = 600000; // 10 minutes
     private static final long MIN_QUEUE_TIME_TO_PERSIST = 5000; // 5 seconds
-    private static final String CURRENT_VERSION = "1.0"; // Update when queue format changes
 
-    private Context context;
-    private SharedPreferences prefs;
+    private final QueueStateStore store;
     private String currentSessionId;
 
     public static class PersistedQueueData {
@@ -78,8 +61,7 @@ public class QueuePersistenceManager {
     }
 
     public QueuePersistenceManager(Context context) {
-        this.context = context.getApplicationContext();
-        this.prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        this.store = QueueStateStore.getInstance(context);
         this.currentSessionId = generateSessionId();
 
         Log.d(TAG, "QueuePersistenceManager initialized with session: " + currentSessionId);
@@ -102,23 +84,20 @@ public class QueuePersistenceManager {
         }
 
         try {
-            SharedPreferences.Editor editor = prefs.edit();
-
-            // Core queue data
-            editor.putString(KEY_QUEUE_STATE, state.name());
-            if (playerId != null) editor.putString(KEY_PLAYER_ID, playerId);
-            if (deviceId != null) editor.putString(KEY_DEVICE_ID, deviceId);
-            editor.putLong(KEY_QUEUE_START_TIME, queueStartTime);
-            editor.putLong(KEY_TOTAL_QUEUE_TIME, totalQueueTime);
-            editor.putInt(KEY_QUEUE_ATTEMPTS, queueAttempts);
-            editor.putInt(KEY_LAST_KNOWN_POSITION, lastKnownPosition);
-
-            // Session and metadata
-            editor.putString(KEY_QUEUE_SESSION_ID, currentSessionId);
-            editor.putLong(KEY_LAST_SAVE_TIME, System.currentTimeMillis());
-            editor.putString(KEY_APP_VERSION, CURRENT_VERSION);
-
-            editor.apply();
+            store.update(record -> {
+                // Core queue data
+                record.state = state;
+                if (playerId != null) record.playerId = playerId;
+                if (deviceId != null) record.deviceId = deviceId;
+                record.queueStartTime = queueStartTime;
+                record.totalQueueTime = totalQueueTime;
+                record.queueAttempts = queueAttempts;
+                record.lastKnownPosition = lastKnownPosition;
+
+                // Session and metadata
+                record.sessionId = currentSessionId;
+                record.lastSaveTime = System.currentTimeMillis();
+            });
 
             Log.d(TAG, "Queue state saved - State: " + state +
                     ", Player: " + (playerId != null ? playerId.substring(Math.max(0, playerId.length() - 8)) : "null") +
@@ -134,36 +113,22 @@ public class QueuePersistenceManager {
      */
     public PersistedQueueData loadQueueState() {
         try {
-            // Check if we have saved data
-            if (!prefs.contains(KEY_QUEUE_STATE)) {
+            // Check if we have saved data (records in an older format are dropped on load)
+            QueueStateStore.Record record = store.snapshot();
+            if (!record.hasQueueSession()) {
                 return PersistedQueueData.invalid("No saved queue state");
             }
 
             // Load basic data
-            String stateStr = prefs.getString(KEY_QUEUE_STATE, QueueState.IDLE.name());
-            String playerId = prefs.getString(KEY_PLAYER_ID, null);
-            String deviceId = prefs.getString(KEY_DEVICE_ID, null);
-            long queueStartTime = prefs.getLong(KEY_QUEUE_START_TIME, 0);
-            long totalQueueTime = prefs.getLong(KEY_TOTAL_QUEUE_TIME, 0);
-            int queueAttempts = prefs.getInt(KEY_QUEUE_ATTEMPTS, 0);
-            int lastKnownPosition = prefs.getInt(KEY_LAST_KNOWN_POSITION, -1);
-            String sessionId = prefs.getString(KEY_QUEUE_SESSION_ID, null);
-            long lastSaveTime = prefs.getLong(KEY_LAST_SAVE_TIME, 0);
-            String savedVersion = prefs.getString(KEY_APP_VERSION, "0.0");
-
-            // Parse state
-            QueueState state;
-            try {
-                state = QueueState.valueOf(stateStr);
-            } catch (IllegalArgumentException e) {
-                return PersistedQueueData.invalid("Invalid queue state: " + stateStr);
-            }
-
-            // Validation checks
-            if (!CURRENT_VERSION.equals(savedVersion)) {
-                Log.w(TAG, "Queue data from different app version: " + savedVersion + " vs " + CURRENT_VERSION);
-                return PersistedQueueData.invalid("App version mismatch");
-            }
+            QueueState state = record.state;
+            String playerId = record.playerId;
+            String deviceId = record.deviceId;
+            long queueStartTime = record.queueStartTime;
+            long totalQueueTime = record.totalQueueTime;
+            int queueAttempts = record.queueAttempts;
+            int lastKnownPosition = record.lastKnownPosition;
+            String sessionId = record.sessionId;
+            long lastSaveTime = record.lastSaveTime;
 
             if (playerId == null || deviceId == null) {
                 return PersistedQueueData.invalid("Missing player or device ID");
@@ -207,7 +172,7 @@ public class QueuePersistenceManager {
      */
     public void clearQueueState() {
         try {
-            prefs.edit().clear().apply();
+            store.clearQueueSession();
             Log.d(TAG, "Queue state cleared");
         } catch (Exception e) {
             Log.e(TAG, "Error clearing queue state", e);
@@ -220,29 +185,20 @@ public class QueuePersistenceManager {
     public void saveQueueStatistics(long totalWaitTime, int totalAttempts,
                                     boolean matchFound, String endReason) {
         try {
-            // Save to separate statistics storage for analytics
-            SharedPreferences statsPrefs = context.getSharedPreferences(
-                    PREFS_NAME + "_stats", Context.MODE_PRIVATE);
-
-            JSONObject statsJson = new JSONObject();
-            statsJson.put("timestamp", System.currentTimeMillis());
-            statsJson.put("totalWaitTime", totalWaitTime);
-            statsJson.put("totalAttempts", totalAttempts);
-            statsJson.put("matchFound", matchFound);
-            statsJson.put("endReason", endReason);
-            statsJson.put("sessionId", currentSessionId);
-
-            // Store latest stats
-            statsPrefs.edit()
-                    .putString("latest_session", statsJson.toString())
-                    .putLong("last_queue_time", totalWaitTime)
-                    .putBoolean("last_match_found", matchFound)
-                    .apply();
+            // Latest stats, kept alongside the queue session
+            store.update(record -> {
+                record.statsTimestamp = System.currentTimeMillis();
+                record.statsTotalWaitTime = totalWaitTime;
+                record.statsTotalAttempts = totalAttempts;
+                record.statsMatchFound = matchFound;
+                record.statsEndReason = endReason;
+                record.statsSessionId = currentSessionId;
+            });
 
             Log.d(TAG, "Queue statistics saved - Wait: " + totalWaitTime +
                     "ms, Attempts: " + totalAttempts + ", Found: " + matchFound);
 
-        } catch (JSONException e) {
+        } catch (Exception e) {
             Log.e(TAG, "Error saving queue statistics", e);
         }
     }
@@ -252,12 +208,16 @@ public class QueuePersistenceManager {
      */
     public JSONObject getQueueStatistics() {
         try {
-            SharedPreferences statsPrefs = context.getSharedPreferences(
-                    PREFS_NAME + "_stats", Context.MODE_PRIVATE);
-
-            String latestStats = statsPrefs.getString("latest_session", null);
-            if (latestStats != null) {
-                return new JSONObject(latestStats);
+            QueueStateStore.Record record = store.snapshot();
+            if (record.hasStatistics()) {
+                JSONObject statsJson = new JSONObject();
+                statsJson.put("timestamp", record.statsTimestamp);
+                statsJson.put("totalWaitTime", record.statsTotalWaitTime);
+                statsJson.put("totalAttempts", record.statsTotalAttempts);
+                statsJson.put("matchFound", record.statsMatchFound);
+                statsJson.put("endReason", record.statsEndReason);
+                statsJson.put("sessionId", record.statsSessionId);
+                return statsJson;
             }
         } catch (Exception e) {
             Log.e(TAG, "Error loading queue statistics", e);
@@ -286,13 +246,13 @@ public class QueuePersistenceManager {
      * Update persistence with current queue position
      */
     public void updateQueuePosition(int position, int estimatedWait) {
-        if (!prefs.contains(KEY_QUEUE_STATE)) return;
+        if (!store.snapshot().hasQueueSession()) return;
 
         try {
-            prefs.edit()
-                    .putInt(KEY_LAST_KNOWN_POSITION, position)
-                    .putLong(KEY_LAST_SAVE_TIME, System.currentTimeMillis())
-                    .apply();
+            store.update(record -> {
+                record.lastKnownPosition = position;
+                record.lastSaveTime = System.currentTimeMillis();
+            });
 
             Log.d(TAG, "Queue position updated: " + position + " (estimated wait: " + estimatedWait + "s)");
         } catch (Exception e) {
@@ -305,13 +265,12 @@ public class QueuePersistenceManager {
      */
     public void incrementQueueAttempts() {
         try {
-            int attempts = prefs.getInt(KEY_QUEUE_ATTEMPTS, 0) + 1;
-            prefs.edit()
-                    .putInt(KEY_QUEUE_ATTEMPTS, attempts)
-                    .putLong(KEY_LAST_SAVE_TIME, System.currentTimeMillis())
-                    .apply();
+            store.update(record -> {
+                record.queueAttempts++;
+                record.lastSaveTime = System.currentTimeMillis();
+            });
 
-            Log.d(TAG, "Queue attempts incremented to: " + attempts);
+            Log.d(TAG, "Queue attempts incremented");
         } catch (Exception e) {
             Log.e(TAG, "Error incrementing queue attempts", e);
         }
@@ -357,12 +316,12 @@ public class QueuePersistenceManager {
             StringBuilder debug = new StringBuilder();
             debug.append("Persistence Debug Info:\n");
             debug.append("Session ID: ").append(currentSessionId).append("\n");
-            debug.append("Has saved data: ").append(prefs.contains(KEY_QUEUE_STATE)).append("\n");
+            QueueStateStore.Record record = store.snapshot();
+            debug.append("Has saved data: ").append(record.hasQueueSession()).append("\n");
 
-            if (prefs.contains(KEY_QUEUE_STATE)) {
-                debug.append("State: ").append(prefs.getString(KEY_QUEUE_STATE, "null")).append("\n");
-                debug.append("Last save: ").append(prefs.getLong(KEY_LAST_SAVE_TIME, 0)).append("\n");
-                debug.append("Version: ").append(prefs.getString(KEY_APP_VERSION, "null")).append("\n");
+            if (record.hasQueueSession()) {
+                debug.append("State: ").append(record.state).append("\n");
+                debug.append("Last save: ").append(record.lastSaveTime).append("\n");
             }
 
             return debug.toString();
@@ -0,0 +1,369 @@
+package com.gfg.NaarPazham;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * The saved matchmaking queue session and the latest queue statistics, as a
+ * single versioned binary record shared by QueuePersistenceManager and
+ * QueueManager.
+ *
+ * The file is read once, in the background, when the store is first used.
+ * Updates change the in-memory record and hand it to an
+ * {@link AtomicRecordWriter}, so callers never wait or touch the disk, and
+ * bursts of updates cost one write. Updates made before a slow read
+ * finishes are applied again on top of what it read, so they aren't lost.
+ *
+ * This replaces three SharedPreferences files whose pending apply() calls
+ * were flushed on the UI thread in onPause. If there is no record yet, the
+ * first load imports their session and statistics before deleting them.
+ *
+ * <pre>
+ *   magic "NPQS", format version, fields (see encode), CRC32 of everything before it
+ * </pre>
+ */
+public class QueueStateStore {
+    private static final String TAG = "QueueStateStore";
+    private static final String FILE_NAME = "queue_state.bin";
+
+    private static final int MAGIC = 0x4E505153; // "NPQS"
+    private static final byte FORMAT_VERSION = 1;
+    private static final long LOAD_TIMEOUT_MS = 500;
+
+    // SharedPreferences files this store replaces; imported and removed on first load
+    private static final String LEGACY_SESSION_PREFS = "multiplayer_queue_persistence";
+    private static final String LEGACY_STATS_PREFS = "multiplayer_queue_persistence_stats";
+    private static final String LEGACY_MANAGER_PREFS = "queue_manager_prefs";
+
+    private static volatile QueueStateStore instance;
+
+    /**
+     * One copy of the stored state. Callers get their own copy from
+     * {@link #snapshot()}, and change the stored one through {@link #update}.
+     */
+    public static class Record {
+        // Queue session; state is null when no session is saved
+        public QueueState state;
+        public String playerId;
+        public String deviceId;
+        public long queueStartTime;
+        public long totalQueueTime;
+        public int queueAttempts;
+        public int lastKnownPosition = -1;
+        public String sessionId;
+        public long lastSaveTime;
+
+        // Statistics for the last finished queue session; statsTimestamp is 0 if none
+        public long statsTimestamp;
+        public long statsTotalWaitTime;
+        public int statsTotalAttempts;
+        public boolean statsMatchFound;
+        public String statsEndReason;
+        public String statsSessionId;
+
+        public boolean hasQueueSession() {
+            return state != null;
+        }
+
+        public boolean hasStatistics() {
+            return statsTimestamp > 0;
+        }
+
+        void clearQueueSession() {
+            state = null;
+            playerId = null;
+            deviceId = null;
+            queueStartTime = 0;
+            totalQueueTime = 0;
+            queueAttempts = 0;
+            lastKnownPosition = -1;
+            sessionId = null;
+            lastSaveTime = 0;
+        }
+
+        Record copy() {
+            Record copy = new Record();
+            copy.state = state;
+            copy.playerId = playerId;
+            copy.deviceId = deviceId;
+            copy.queueStartTime = queueStartTime;
+            copy.totalQueueTime = totalQueueTime;
+            copy.queueAttempts = queueAttempts;
+            copy.lastKnownPosition = lastKnownPosition;
+            copy.sessionId = sessionId;
+            copy.lastSaveTime = lastSaveTime;
+            copy.statsTimestamp = statsTimestamp;
+            copy.statsTotalWaitTime = statsTotalWaitTime;
+            copy.statsTotalAttempts = statsTotalAttempts;
+            copy.statsMatchFound = statsMatchFound;
+            copy.statsEndReason = statsEndReason;
+            copy.statsSessionId = statsSessionId;
+            return copy;
+        }
+    }
+
+    private final Context context;
+    private final AtomicRecordWriter writer;
+    private final CountDownLatch loaded = new CountDownLatch(1);
+    private volatile Record current = new Record();
+    // Guarded by this: updates made before the read finished, replayed onto it
+    private final List<Consumer<Record>> updatesBeforeLoad = new ArrayList<>();
+    private boolean merged;
+
+    public static QueueStateStore getInstance(Context context) {
+        if (instance == null) {
+            synchronized (QueueStateStore.class) {
+                if (instance == null) {
+                    if (context == null) {
+                        throw new IllegalArgumentException("Context cannot be null");
+                    }
+                    instance = new QueueStateStore(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    private QueueStateStore(Context context) {
+        this.context = context;
+        this.writer = new AtomicRecordWriter(new AtomicFile(new File(context.getFilesDir(), FILE_NAME)));
+        // Same thread as the writes, so the load always comes first
+        AtomicRecordWriter.runOnWriterThread(this::load);
+    }
+
+    /** A copy of the stored record. Waits briefly for the startup read if it hasn't finished. */
+    public Record snapshot() {
+        awaitLoad();
+        return current.copy();
+    }
+
+    /**
+     * Apply a change to the stored record and schedule it to be written;
+     * returns at once, even before the startup read has finished.
+     */
+    public void update(Consumer<Record> change) {
+        synchronized (this) {
+            if (!merged) {
+                updatesBeforeLoad.add(change);
+            }
+            Record next = current.copy();
+            change.accept(next);
+            current = next;
+            writer.write(encode(next));
+        }
+    }
+
+    /** Drop the saved queue session, keeping the statistics. */
+    public void clearQueueSession() {
+        update(Record::clearQueueSession);
+    }
+
+    // ===== LOADING =====
+
+    private void load() {
+        try {
+            Record record = decode(writer.read());
+            boolean imported = false;
+            if (record == null) {
+                record = readLegacyPrefs();
+                imported = record != null;
+            }
+            synchronized (this) {
+                if (record != null) {
+                    for (Consumer<Record> change : updatesBeforeLoad) {
+                        change.accept(record);
+                    }
+                    current = record;
+                    if (imported || !updatesBeforeLoad.isEmpty()) {
+                        writer.write(encode(record));
+                    }
+                }
+            }
+            context.deleteSharedPreferences(LEGACY_SESSION_PREFS);
+            context.deleteSharedPreferences(LEGACY_STATS_PREFS);
+            context.deleteSharedPreferences(LEGACY_MANAGER_PREFS);
+        } catch (Exception e) {
+            Log.e(TAG, "Error loading queue state", e);
+        } finally {
+            synchronized (this) {
+                merged = true;
+                updatesBeforeLoad.clear();
+            }
+            loaded.countDown();
+        }
+    }
+
+    /**
+     * The session QueuePersistenceManager kept (or failing that, the one
+     * QueueManager kept) and the last statistics, as one record; null if
+     * none of the old files has anything.
+     */
+    private Record readLegacyPrefs() {
+        SharedPreferences session = context.getSharedPreferences(LEGACY_SESSION_PREFS, Context.MODE_PRIVATE);
+        SharedPreferences manager = context.getSharedPreferences(LEGACY_MANAGER_PREFS, Context.MODE_PRIVATE);
+        SharedPreferences stats = context.getSharedPreferences(LEGACY_STATS_PREFS, Context.MODE_PRIVATE);
+        Record record = new Record();
+        boolean found = false;
+
+        if (session.contains("queue_state")) {
+            record.state = legacyState(session.getString("queue_state", null));
+            record.playerId = session.getString("player_id", null);
+            record.deviceId = session.getString("device_id", null);
+            record.queueStartTime = session.getLong("queue_start_time", 0);
+            record.totalQueueTime = session.getLong("total_queue_time", 0);
+            record.queueAttempts = session.getInt("queue_attempts", 0);
+            record.lastKnownPosition = session.getInt("last_known_position", -1);
+            record.sessionId = session.getString("queue_session_id", null);
+            record.lastSaveTime = session.getLong("last_save_time", 0);
+            found = true;
+        } else if (manager.contains("queue_state")) {
+            record.state = legacyState(manager.getString("queue_state", null));
+            record.playerId = manager.getString("queue_player_id", null);
+            record.deviceId = manager.getString("queue_device_id", null);
+            record.queueStartTime = manager.getLong("queue_start_time", 0);
+            found = true;
+        }
+
+        String latest = stats.getString("latest_session", null);
+        if (latest != null) {
+            try {
+                JSONObject json = new JSONObject(latest);
+                record.statsTimestamp = json.getLong("timestamp");
+                record.statsTotalWaitTime = json.optLong("totalWaitTime");
+                record.statsTotalAttempts = json.optInt("totalAttempts");
+                record.statsMatchFound = json.optBoolean("matchFound");
+                record.statsEndReason = json.optString("endReason", null);
+                record.statsSessionId = json.optString("sessionId", null);
+                found = true;
+            } catch (JSONException e) {
+                Log.w(TAG, "Skipping unreadable legacy queue statistics", e);
+            }
+        }
+        if (found) {
+            Log.d(TAG, "Imported legacy queue state, session " + record.hasQueueSession());
+        }
+        return found ? record : null;
+    }
+
+    private static QueueState legacyState(String name) {
+        try {
+            return name != null ? QueueState.valueOf(name) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private void awaitLoad() {
+        try {
+            if (!loaded.await(LOAD_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                Log.w(TAG, "Queue state not loaded after " + LOAD_TIMEOUT_MS + "ms, continuing without it");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ===== ENCODING =====
+
+    static byte[] encode(Record record) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeByte(FORMAT_VERSION);
+
+            out.writeUTF(record.state != null ? record.state.name() : "");
+            out.writeUTF(orEmpty(record.playerId));
+            out.writeUTF(orEmpty(record.deviceId));
+            out.writeLong(record.queueStartTime);
+            out.writeLong(record.totalQueueTime);
+            out.writeInt(record.queueAttempts);
+            out.writeInt(record.lastKnownPosition);
+            out.writeUTF(orEmpty(record.sessionId));
+            out.writeLong(record.lastSaveTime);
+
+            out.writeLong(record.statsTimestamp);
+            out.writeLong(record.statsTotalWaitTime);
+            out.writeInt(record.statsTotalAttempts);
+            out.writeBoolean(record.statsMatchFound);
+            out.writeUTF(orEmpty(record.statsEndReason));
+            out.writeUTF(orEmpty(record.statsSessionId));
+
+            CRC32 crc = new CRC32();
+            crc.update(bytes.toByteArray());
+            out.writeInt((int) crc.getValue());
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            // Writing to memory doesn't fail
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static Record decode(byte[] bytes) {
+        if (bytes == null || bytes.length < 9) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - 4);
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            if (in.readInt() != MAGIC || in.readByte() != FORMAT_VERSION) {
+                Log.w(TAG, "Discarding queue state in an unknown format");
+                return null;
+            }
+            Record record = new Record();
+            String state = in.readUTF();
+            record.state = state.isEmpty() ? null : QueueState.valueOf(state);
+            record.playerId = orNull(in.readUTF());
+            record.deviceId = orNull(in.readUTF());
+            record.queueStartTime = in.readLong();
+            record.totalQueueTime = in.readLong();
+            record.queueAttempts = in.readInt();
+            record.lastKnownPosition = in.readInt();
+            record.sessionId = orNull(in.readUTF());
+            record.lastSaveTime = in.readLong();
+
+            record.statsTimestamp = in.readLong();
+            record.statsTotalWaitTime = in.readLong();
+            record.statsTotalAttempts = in.readInt();
+            record.statsMatchFound = in.readBoolean();
+            record.statsEndReason = orNull(in.readUTF());
+            record.statsSessionId = orNull(in.readUTF());
+
+            if (in.readInt() != (int) crc.getValue() || in.available() != 0) {
+                Log.w(TAG, "Discarding corrupt queue state");
+                return null;
+            }
+            return record;
+        } catch (IOException | IllegalArgumentException e) {
+            Log.w(TAG, "Discarding unreadable queue state", e);
+            return null;
+        }
+    }
+
+    private static String orEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static String orNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,129 @@
+package com.gfg.NaarPazham;
+
+import android.os.Process;
+import android.os.SystemClock;
+import android.os.Trace;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Per-stage timings for one activity start, logged as a single line once the
+ * first frame has been drawn:
+ *
+ * <pre>
+ *   Startup 212ms to first frame (process start +140ms): inflate_layout 38.2ms @0.4 [main] | ...
+ * </pre>
+ *
+ * Each stage is also an android.os.Trace section, so the same names show up
+ * in Perfetto captures. Stages may run on any thread; background work is
+ * recorded with {@link #mark} when it completes.
+ */
+public class StartupTrace {
+    private static final String TAG = "StartupTrace";
+
+    private static class Stage {
+        final String name;
+        final String thread;
+        final long startNanos;   // relative to the trace start
+        final long durationNanos; // 0 for marks
+
+        Stage(String name, String thread, long startNanos, long durationNanos) {
+            this.name = name;
+            this.thread = thread;
+            this.startNanos = startNanos;
+            this.durationNanos = durationNanos;
+        }
+    }
+
+    private final long startNanos = System.nanoTime();
+    private final long sinceProcessStartMs = SystemClock.uptimeMillis() - Process.getStartUptimeMillis();
+    private final ConcurrentLinkedQueue<Stage> stages = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean reported = new AtomicBoolean(false);
+    private volatile long firstFrameNanos = -1;
+
+    /** Run one stage on the calling thread and record how long it took. */
+    public void run(String name, Runnable stage) {
+        long start = System.nanoTime();
+        Trace.beginSection(name);
+        try {
+            stage.run();
+        } finally {
+            Trace.endSection();
+            stages.add(new Stage(name, Thread.currentThread().getName(),
+                    start - startNanos, System.nanoTime() - start));
+        }
+    }
+
+    /** Record that something finished now, e.g. work handed to another thread. */
+    public void mark(String name) {
+        stages.add(new Stage(name, Thread.currentThread().getName(), System.nanoTime() - startNanos, 0));
+    }
+
+    /**
+     * Log the trace after the first frame of {@code root} is drawn. The
+     * pre-draw callback fires just before that frame; posting from it lands
+     * right after the frame is handed off.
+     */
+    public void reportAfterFirstFrame(View root, Runnable onFirstFrame) {
+        ViewTreeObserver observer = root.getViewTreeObserver();
+        observer.addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                if (root.getViewTreeObserver().isAlive()) {
+                    root.getViewTreeObserver().removeOnPreDrawListener(this);
+                }
+                root.post(() -> {
+                    firstFrameNanos = System.nanoTime() - startNanos;
+                    if (onFirstFrame != null) {
+                        onFirstFrame.run();
+                    }
+                    report();
+                });
+                return true;
+            }
+        });
+    }
+
+    /** Log the stages recorded so far; only the first call logs. */
+    public void report() {
+        if (!reported.compareAndSet(false, true)) {
+            return;
+        }
+        Log.i(TAG, summary());
+    }
+
+    String summary() {
+        List<Stage> sorted = new ArrayList<>(stages);
+        sorted.sort((a, b) -> Long.compare(a.startNanos + a.durationNanos, b.startNanos + b.durationNanos));
+
+        StringBuilder line = new StringBuilder("Startup ");
+        if (firstFrameNanos >= 0) {
+            line.append(TimeUnit.NANOSECONDS.toMillis(firstFrameNanos)).append("ms to first frame ");
+        }
+        line.append("(process start +").append(sinceProcessStartMs).append("ms):");
+
+        for (int i = 0; i < sorted.size(); i++) {
+            Stage stage = sorted.get(i);
+            line.append(i == 0 ? " " : " | ").append(stage.name);
+            if (stage.durationNanos > 0) {
+                line.append(' ').append(millis(stage.durationNanos)).append("ms @").append(millis(stage.startNanos));
+            } else {
+                line.append(" done @").append(millis(stage.startNanos));
+            }
+            line.append(" [").append(stage.thread).append(']');
+        }
+        return line.toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.US, "%.1f", nanos / 1_000_000.0);
+    }
+}
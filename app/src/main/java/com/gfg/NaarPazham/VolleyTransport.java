@@ -0,0 +1,141 @@
+package com.gfg.NaarPazham;
+
+import android.content.Context;
+
+import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.NetworkResponse;
+import com.android.volley.Request;
+import com.android.volley.RequestQueue;
+import com.android.volley.Response;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.BasicNetwork;
+import com.android.volley.toolbox.HttpHeaderParser;
+import com.android.volley.toolbox.NoCache;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@link GameTransport} on a Volley RequestQueue, sent through the shared
+ * OkHttpClient. The default transport: it keeps Volley's retry policy and
+ * request prioritisation. Callbacks run on the main thread.
+ */
+public class VolleyTransport implements GameTransport {
+    private static final String TAG = "VolleyTransport";
+
+    private final Context context;
+    private final String baseUrl;
+    private RequestQueue requestQueue;
+
+    public VolleyTransport(Context context, String baseUrl) {
+        if (context == null || baseUrl == null) {
+            throw new IllegalArgumentException("Context and base URL cannot be null");
+        }
+        this.context = context.getApplicationContext();
+        this.baseUrl = baseUrl;
+    }
+
+    @Override
+    public void send(TransportRequest request, Callback callback) {
+        TransportVolleyRequest volleyRequest = new TransportVolleyRequest(baseUrl, request, callback);
+        volleyRequest.setRetryPolicy(new DefaultRetryPolicy(
+                request.getTimeoutMs(), request.getMaxRetries(), request.getBackoffMultiplier()));
+        volleyRequest.setTag(TAG);
+        getRequestQueue().add(volleyRequest);
+    }
+
+    @Override
+    public void cancelAll() {
+        RequestQueue queue;
+        synchronized (this) {
+            queue = requestQueue;
+        }
+        if (queue != null) {
+            queue.cancelAll(TAG);
+        }
+    }
+
+    // Volley starts its cache and network threads when the queue is created,
+    // so that waits for the first request rather than happening at startup.
+    // Requests go out through the shared OkHttpClient; its HTTP cache replaces
+    // Volley's disk cache.
+    private synchronized RequestQueue getRequestQueue() {
+        if (requestQueue == null) {
+            requestQueue = new RequestQueue(new NoCache(),
+                    new BasicNetwork(new OkHttpStack(HttpClientProvider.get(context))));
+            requestQueue.start();
+        }
+        return requestQueue;
+    }
+
+    private static int volleyMethod(String method) {
+        switch (method) {
+            case "GET": return Request.Method.GET;
+            case "POST": return Request.Method.POST;
+            case "PUT": return Request.Method.PUT;
+            case "DELETE": return Request.Method.DELETE;
+            case "PATCH": return Request.Method.PATCH;
+            case "HEAD": return Request.Method.HEAD;
+            default: throw new IllegalArgumentException("Unsupported method: " + method);
+        }
+    }
+
+    static TransportResponse toTransportResponse(NetworkResponse response) {
+        Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (response.headers != null) {
+            headers.putAll(response.headers);
+        }
+        return new TransportResponse(response.statusCode, headers.get("Content-Type"), headers, response.data);
+    }
+
+    /**
+     * Carries the body bytes both ways untouched. Volley reports non-2xx
+     * statuses as errors; they are handed back as responses, since the
+     * transport contract only fails calls that got no response.
+     */
+    private static class TransportVolleyRequest extends Request<TransportResponse> {
+        private final TransportRequest request;
+        private final Callback callback;
+
+        TransportVolleyRequest(String baseUrl, TransportRequest request, Callback callback) {
+            super(volleyMethod(request.getMethod()), baseUrl + request.getPath(), null);
+            this.request = request;
+            this.callback = callback;
+        }
+
+        @Override
+        public Map<String, String> getHeaders() {
+            return request.getHeaders();
+        }
+
+        @Override
+        public byte[] getBody() {
+            return request.getBody();
+        }
+
+        @Override
+        public String getBodyContentType() {
+            return request.hasBody() ? request.getContentType() : super.getBodyContentType();
+        }
+
+        @Override
+        protected Response<TransportResponse> parseNetworkResponse(NetworkResponse response) {
+            return Response.success(toTransportResponse(response), HttpHeaderParser.parseCacheHeaders(response));
+        }
+
+        @Override
+        protected void deliverResponse(TransportResponse response) {
+            callback.onResponse(response);
+        }
+
+        @Override
+        public void deliverError(VolleyError error) {
+            if (error.networkResponse != null) {
+                callback.onResponse(toTransportResponse(error.networkResponse));
+            } else {
+                callback.onFailure(new IOException(error.toString(), error));
+            }
+        }
+    }
+}
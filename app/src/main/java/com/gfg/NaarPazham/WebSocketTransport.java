@@ -0,0 +1,200 @@
+package com.gfg.NaarPazham;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okio.ByteString;
+
+/**
+ * {@link GameTransport} over one long-lived WebSocket, one
+ * {@link TransportEnvelope} per binary message; responses are matched to
+ * calls by envelope id, so any number of calls share the socket. Saves the
+ * per-request HTTP headers and keeps one warm connection through polling.
+ *
+ * The socket opens on the first call and reopens on the next call after it
+ * drops. Calls in flight when it drops fail rather than being resent: the
+ * server may already have applied them. Each call fails on its own after
+ * the request's total timeout. Callbacks run on the main thread.
+ *
+ * Games watched over the socket push their updates as event messages,
+ * delivered to the {@link EventListener} on the main thread; when the socket
+ * drops, the listener hears that they stopped.
+ *
+ * Needs a server speaking the envelope protocol, e.g. the stand-in server
+ * with -Dnaarpazham.wsPort.
+ */
+public class WebSocketTransport implements GameTransport {
+    private static final String TAG = "WebSocketTransport";
+    private static final int CLOSE_NORMAL = 1000;
+
+    private static class Pending {
+        final Callback callback;
+        final Runnable timeout;
+
+        Pending(Callback callback, Runnable timeout) {
+            this.callback = callback;
+            this.timeout = timeout;
+        }
+    }
+
+    private final OkHttpClient client;
+    private final String url;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Map<Integer, Pending> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+    private volatile EventListener eventListener;
+    private WebSocket socket;
+
+    public WebSocketTransport(OkHttpClient client, String url) {
+        if (client == null || url == null) {
+            throw new IllegalArgumentException("Client and URL cannot be null");
+        }
+        this.client = client;
+        this.url = url;
+    }
+
+    @Override
+    public void send(TransportRequest request, Callback callback) {
+        int id = nextId.incrementAndGet();
+        Runnable timeout = () -> fail(id, new SocketTimeoutException(
+                "No response to " + request + " after " + request.totalTimeoutMs() + "ms"));
+        pending.put(id, new Pending(callback, timeout));
+        mainHandler.postDelayed(timeout, request.totalTimeoutMs());
+
+        if (!getSocket().send(ByteString.of(TransportEnvelope.encodeRequest(id, request)))) {
+            // Closing or over OkHttp's outgoing buffer limit
+            fail(id, new IOException("WebSocket is not accepting messages"));
+        }
+    }
+
+    @Override
+    public boolean setEventListener(EventListener listener) {
+        eventListener = listener;
+        return true;
+    }
+
+    @Override
+    public void cancelAll() {
+        for (Integer id : pending.keySet()) {
+            Pending call = pending.remove(id);
+            if (call != null) {
+                mainHandler.removeCallbacks(call.timeout);
+            }
+        }
+    }
+
+    /** Close the socket; calls in flight fail. */
+    public synchronized void close() {
+        if (socket != null) {
+            socket.close(CLOSE_NORMAL, null);
+            socket = null;
+        }
+        IOException closed = new IOException("WebSocket closed");
+        failAll(closed);
+        eventsLost(closed);
+    }
+
+    private synchronized WebSocket getSocket() {
+        if (socket == null) {
+            socket = client.newWebSocket(new Request.Builder().url(url).build(), new Listener());
+        }
+        return socket;
+    }
+
+    private synchronized void forget(WebSocket closed) {
+        if (socket == closed) {
+            socket = null;
+        }
+    }
+
+    private void complete(int id, TransportResponse response) {
+        Pending call = pending.remove(id);
+        if (call != null) {
+            mainHandler.removeCallbacks(call.timeout);
+            mainHandler.post(() -> call.callback.onResponse(response));
+        }
+    }
+
+    private void fail(int id, IOException error) {
+        Pending call = pending.remove(id);
+        if (call != null) {
+            mainHandler.removeCallbacks(call.timeout);
+            mainHandler.post(() -> call.callback.onFailure(error));
+        }
+    }
+
+    private void failAll(IOException error) {
+        for (Integer id : pending.keySet()) {
+            fail(id, error);
+        }
+    }
+
+    private void onEvent(byte[] message) throws GameWireCodec.WireFormatException {
+        ServerGameState game = TransportEnvelope.decodeEvent(message);
+        mainHandler.post(() -> {
+            EventListener listener = eventListener;
+            if (listener != null) {
+                listener.onGameEvent(game);
+            }
+        });
+    }
+
+    private void eventsLost(IOException error) {
+        mainHandler.post(() -> {
+            EventListener listener = eventListener;
+            if (listener != null) {
+                listener.onEventsLost(error);
+            }
+        });
+    }
+
+    private class Listener extends WebSocketListener {
+        @Override
+        public void onMessage(WebSocket webSocket, ByteString bytes) {
+            byte[] message = bytes.toByteArray();
+            try {
+                if (TransportEnvelope.kind(message) == TransportEnvelope.KIND_EVENT) {
+                    onEvent(message);
+                } else {
+                    complete(TransportEnvelope.id(message), TransportEnvelope.decodeResponse(message));
+                }
+            } catch (GameWireCodec.WireFormatException e) {
+                GameLog.e(TAG, "Malformed envelope: {}", e.getMessage());
+            }
+        }
+
+        @Override
+        public void onMessage(WebSocket webSocket, String text) {
+            GameLog.w(TAG, "Ignoring text message from server");
+        }
+
+        @Override
+        public void onClosing(WebSocket webSocket, int code, String reason) {
+            forget(webSocket);
+            webSocket.close(CLOSE_NORMAL, null);
+            IOException closed = new IOException("WebSocket closed by server: " + code + " " + reason);
+            failAll(closed);
+            eventsLost(closed);
+        }
+
+        @Override
+        public void onFailure(WebSocket webSocket, Throwable t, Response response) {
+            GameLog.w(TAG, "WebSocket failed: {}", t.getMessage());
+            forget(webSocket);
+            IOException error = t instanceof IOException ? (IOException) t : new IOException(t);
+            failAll(error);
+            eventsLost(error);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.gfg.NaarPazham.benchmark;
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import kotlin.Unit;
+
+/**
+ * Collects a baseline profile from the startup and gameplay journeys, so the
+ * code they run (GameView.onTouchEvent, GameRenderer.render,
+ * LocalGameManager.handleTouchMove and the startup path) is compiled ahead of
+ * time at install.
+ *
+ * <pre>
+ *   ./gradlew :benchmark:pixel6Api34BenchmarkAndroidTest \
+ *       -Pandroid.testInstrumentationRunnerArguments.androidx.benchmark.enabledRules=BaselineProfile
+ * </pre>
+ *
+ * then copy the generated BaselineProfileGenerator_generate-baseline-prof.txt
+ * from benchmark/build/outputs/managed_device_android_test_additional_output/
+ * over app/src/main/baseline-prof.txt.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BaselineProfileGenerator {
+    private static final int MAX_ITERATIONS = 15;
+    private static final int STABLE_ITERATIONS = 3;
+
+    @Rule
+    public BaselineProfileRule baselineProfileRule = new BaselineProfileRule();
+
+    @Test
+    public void generate() {
+        baselineProfileRule.collect(
+                Journeys.TARGET_PACKAGE,
+                MAX_ITERATIONS,
+                STABLE_ITERATIONS,
+                null,   // outputFilePrefix
+                true,   // includeInStartupProfile
+                false,  // strictStability
+                className -> true,
+                scope -> {
+                    scope.pressHome();
+                    scope.startActivityAndWait();
+                    Journeys.startLocalGame(scope);
+                    Journeys.playScriptedGame(scope);
+                    Journeys.switchModes(scope);
+                    return Unit.INSTANCE;
+                });
+    }
+}
@@ -0,0 +1,65 @@
+package com.gfg.NaarPazham.benchmark;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.MacrobenchmarkScope;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+import java.util.function.Consumer;
+
+import kotlin.Unit;
+
+/**
+ * Frame timings for the in-app journeys: entering a local game, playing the
+ * scripted local game through GameView touches, and switching modes. Each
+ * iteration starts from a freshly launched activity so the journeys don't
+ * depend on each other.
+ */
+@RunWith(AndroidJUnit4.class)
+public class GameplayBenchmark {
+    private static final int ITERATIONS = 5;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @Test
+    public void enterLocalMode() {
+        measure(scope -> {}, Journeys::startLocalGame);
+    }
+
+    @Test
+    public void playLocalGame() {
+        measure(Journeys::startLocalGame, Journeys::playScriptedGame);
+    }
+
+    @Test
+    public void switchModes() {
+        measure(scope -> {}, Journeys::switchModes);
+    }
+
+    private void measure(Consumer<MacrobenchmarkScope> setup, Consumer<MacrobenchmarkScope> journey) {
+        benchmarkRule.measureRepeated(
+                Journeys.TARGET_PACKAGE,
+                Collections.singletonList(new FrameTimingMetric()),
+                new CompilationMode.Partial(BaselineProfileMode.Require, 0),
+                null,   // the journeys run inside an already started activity
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    scope.startActivityAndWait();
+                    setup.accept(scope);
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    journey.accept(scope);
+                    return Unit.INSTANCE;
+                });
+    }
+}
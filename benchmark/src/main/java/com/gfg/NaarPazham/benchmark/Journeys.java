@@ -0,0 +1,81 @@
+package com.gfg.NaarPazham.benchmark;
+
+import android.graphics.Rect;
+
+import androidx.benchmark.macro.MacrobenchmarkScope;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+
+/**
+ * User journeys shared by the macrobenchmarks and the baseline profile
+ * generator, driven through UiAutomator against the installed app.
+ */
+final class Journeys {
+    static final String TARGET_PACKAGE = "com.gfg.NaarPazham";
+
+    private static final long WAIT_MS = 5000;
+
+    /**
+     * A complete local game as {col, row} taps: six placements, then Player 1
+     * moves (2,2) to (2,1) and Player 2 wins by moving (1,0) to (2,0), which
+     * completes the (0,2)-(1,1)-(2,0) diagonal.
+     */
+    private static final int[][] SCRIPTED_GAME = {
+            {0, 0}, {1, 1}, {2, 2}, {1, 0}, {1, 2}, {0, 2},
+            {2, 2}, {2, 1},
+            {1, 0}, {2, 0},
+    };
+
+    private Journeys() {}
+
+    /** Press "Start Local Game" and wait for the board to be interactive. */
+    static void startLocalGame(MacrobenchmarkScope scope) {
+        UiDevice device = scope.getDevice();
+        findById(device, "start_local_game_button").click();
+        device.waitForIdle();
+    }
+
+    /** Play {@link #SCRIPTED_GAME} by tapping the board, then dismiss the game-over dialog. */
+    static void playScriptedGame(MacrobenchmarkScope scope) {
+        UiDevice device = scope.getDevice();
+        Rect bounds = findById(device, "game_view").getVisibleBounds();
+
+        // Mirrors Board.initialize: cells are min(width, height) / 3 apart around the centre
+        int cellSize = Math.min(bounds.width(), bounds.height()) / 3;
+        for (int[] cell : SCRIPTED_GAME) {
+            device.click(bounds.centerX() + (cell[0] - 1) * cellSize,
+                    bounds.centerY() + (cell[1] - 1) * cellSize);
+            device.waitForIdle();
+        }
+
+        UiObject2 ok = device.wait(Until.findObject(By.res("android", "button1")), WAIT_MS);
+        if (ok != null) {
+            ok.click();
+            device.waitForIdle();
+        }
+    }
+
+    /** Switch Local to Online and back again, confirming both dialogs. */
+    static void switchModes(MacrobenchmarkScope scope) {
+        UiDevice device = scope.getDevice();
+        for (int i = 0; i < 2; i++) {
+            findById(device, "switch_mode_button").click();
+            UiObject2 confirm = device.wait(Until.findObject(By.res("android", "button1")), WAIT_MS);
+            if (confirm == null) {
+                throw new IllegalStateException("Switch mode dialog did not appear");
+            }
+            confirm.click();
+            device.waitForIdle();
+        }
+    }
+
+    private static UiObject2 findById(UiDevice device, String id) {
+        UiObject2 view = device.wait(Until.findObject(By.res(TARGET_PACKAGE, id)), WAIT_MS);
+        if (view == null) {
+            throw new IllegalStateException("View not found: " + id);
+        }
+        return view;
+    }
+}
@@ -0,0 +1,55 @@
+package com.gfg.NaarPazham.benchmark;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import kotlin.Unit;
+
+/**
+ * Cold start to first frame (timeToInitialDisplay) and to reportFullyDrawn
+ * (timeToFullDisplay), with and without the baseline profile, so the
+ * profile's effect shows up as the difference between the two.
+ *
+ * Run with: ./gradlew :benchmark:pixel6Api34BenchmarkAndroidTest
+ */
+@RunWith(AndroidJUnit4.class)
+public class StartupBenchmark {
+    private static final int ITERATIONS = 10;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @Test
+    public void coldStartNoCompilation() {
+        coldStart(new CompilationMode.None());
+    }
+
+    @Test
+    public void coldStartBaselineProfile() {
+        coldStart(new CompilationMode.Partial(BaselineProfileMode.Require, 0));
+    }
+
+    private void coldStart(CompilationMode compilationMode) {
+        benchmarkRule.measureRepeated(
+                Journeys.TARGET_PACKAGE,
+                Collections.singletonList(new StartupTimingMetric()),
+                compilationMode,
+                StartupMode.COLD,
+                ITERATIONS,
+                scope -> Unit.INSTANCE,
+                scope -> {
+                    scope.startActivityAndWait();
+                    return Unit.INSTANCE;
+                });
+    }
+}
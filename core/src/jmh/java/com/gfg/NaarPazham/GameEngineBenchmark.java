@@ -0,0 +1,51 @@
+package com.gfg.NaarPazham;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the synchronous local move path: a complete game (six placements,
+ * then one move each, Player 2 wins) and a single rejected move. Run with
+ * -prof gc to confirm neither allocates.
+ *
+ * Run with: ./gradlew :core:jmh -Pjmh.includes=GameEngineBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GameEngineBenchmark {
+
+    // {fromCell, toCell}; the same game the macrobenchmark taps out
+    private static final int[][] SCRIPT = {
+            {GameRules.NO_CELL, 0}, {GameRules.NO_CELL, 4}, {GameRules.NO_CELL, 8},
+            {GameRules.NO_CELL, 1}, {GameRules.NO_CELL, 7}, {GameRules.NO_CELL, 6},
+            {8, 5}, {1, 2}};
+
+    private final GameEngine engine = new GameEngine();
+
+    @Benchmark
+    public int scriptedGame() {
+        engine.reset();
+        int result = GameRules.OK;
+        for (int[] move : SCRIPT) {
+            result |= engine.play(move[0], move[1]);
+        }
+        if (result != GameRules.OK || engine.winner() != GameRules.WINNER_PLAYER_2) {
+            throw new IllegalStateException("Script no longer plays out");
+        }
+        return engine.moveCount();
+    }
+
+    @Benchmark
+    public int rejectedPlacement() {
+        engine.reset();
+        engine.place(4);
+        return engine.place(4);
+    }
+}
@@ -0,0 +1,85 @@
+package com.gfg.NaarPazham;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What a debug log line costs on the request path, with debug logging off
+ * (release level) and on (events formatted into the ring, no sink). The
+ * message is NetworkService's matchmaking headers line.
+ *
+ * With debug off, template and guarded should match noLogging and allocate
+ * nothing (check with -prof gc); concatenated is the string building every
+ * request paid before GameLog. Release builds strip the call entirely, which
+ * is cheaper still.
+ *
+ * Run with: ./gradlew :core:jmh -Pjmh.includes=GameLogBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GameLogBenchmark {
+    private static final String TAG = "NetworkService";
+
+    @Param({"off", "on"})
+    public String debug;
+
+    private String requestId;
+    private Map<String, String> headers;
+    private int previousLevel;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        requestId = "req_" + System.nanoTime();
+        headers = new LinkedHashMap<>();
+        headers.put("X-Device-ID", "3f2a9c1e-5b7d-4e8f-a6c2-91d0b4e7f813");
+        headers.put("X-Player-ID", "player_8c41d2");
+        headers.put("Accept", GameWireCodec.VERSIONED_CONTENT_TYPE);
+
+        previousLevel = GameLog.getLevel();
+        GameLog.install(null, "on".equals(debug) ? GameLog.DEBUG : GameLog.INFO);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        GameLog.setLevel(previousLevel);
+        GameLog.ring().clear();
+    }
+
+    @Benchmark
+    public Object noLogging() {
+        return headers;
+    }
+
+    @Benchmark
+    public Object template() {
+        GameLog.d(TAG, "MATCHMAKING_HEADERS [{}]: {}", requestId, headers);
+        return headers;
+    }
+
+    @Benchmark
+    public Object guarded() {
+        if (GameLog.isDebugEnabled()) {
+            GameLog.d(TAG, "MATCHMAKING_HEADERS [" + requestId + "]: " + headers);
+        }
+        return headers;
+    }
+
+    @Benchmark
+    public Object concatenated() {
+        GameLog.d(TAG, "MATCHMAKING_HEADERS [" + requestId + "]: " + headers);
+        return headers;
+    }
+}
@@ -0,0 +1,206 @@
+package com.gfg.NaarPazham;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binary wire format vs the JSON the client exchanges today.
+ *
+ * The JSON side mirrors the server's game object and NetworkService's
+ * parseServerGameState, so both paths produce the same ServerGameState.
+ * Payload sizes are printed once per trial.
+ *
+ * Run with: ./gradlew :core:jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GameWireCodecBenchmark {
+
+    /** placement = 3 pieces on the board, movement = all 6 pieces and a winner. */
+    @Param({"placement", "movement"})
+    public String phase;
+
+    private ServerGameState state;
+    private byte[] binaryState;
+    private byte[] jsonState;
+    private byte[] binaryMove;
+    private byte[] jsonMove;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JSONException {
+        state = sampleState("movement".equals(phase));
+        binaryState = GameWireCodec.encodeGameState(state);
+        jsonState = encodeJson(state);
+        binaryMove = GameWireCodec.encodeMove(state.getPlayer1Id(), 1, 1, 0, 0);
+        jsonMove = encodeJsonMove(state.getPlayer1Id(), 1, 1, 0, 0);
+
+        System.out.printf("%n[%s] game state: json=%d bytes, binary=%d bytes; move: json=%d bytes, binary=%d bytes%n",
+                phase, jsonState.length, binaryState.length, jsonMove.length, binaryMove.length);
+    }
+
+    @Benchmark
+    public byte[] encodeStateJson() throws JSONException {
+        return encodeJson(state);
+    }
+
+    @Benchmark
+    public byte[] encodeStateBinary() {
+        return GameWireCodec.encodeGameState(state);
+    }
+
+    @Benchmark
+    public ServerGameState decodeStateJson() throws JSONException {
+        return decodeJson(jsonState);
+    }
+
+    @Benchmark
+    public ServerGameState decodeStateBinary() throws GameWireCodec.WireFormatException {
+        return GameWireCodec.decodeGameState(binaryState);
+    }
+
+    @Benchmark
+    public byte[] encodeMoveJson() throws JSONException {
+        return encodeJsonMove(state.getPlayer1Id(), 1, 1, 0, 0);
+    }
+
+    @Benchmark
+    public byte[] encodeMoveBinary() {
+        return GameWireCodec.encodeMove(state.getPlayer1Id(), 1, 1, 0, 0);
+    }
+
+    @Benchmark
+    public MoveRequest decodeMoveBinary() throws GameWireCodec.WireFormatException {
+        return GameWireCodec.decodeMove(binaryMove);
+    }
+
+    // ===== FIXTURES =====
+
+    private static ServerGameState sampleState(boolean movementPhase) {
+        ServerGameState state = new ServerGameState("GAME_1718000000000_4821");
+        state.setPlayer1Id("ANDROID_PLAYER_1718000000000_1A2B3C4D_0042");
+        state.setPlayer2Id("ANDROID_PLAYER_1718000000123_5E6F7A8B_0917");
+        state.setPlayer1Assigned(true);
+        state.setPlayer2Assigned(true);
+        state.setGameStarted(true);
+        state.setGameStatus("ACTIVE");
+        state.setLastActivity(1718000004567L);
+
+        List<PlayerMove> p1 = new ArrayList<>();
+        List<PlayerMove> p2 = new ArrayList<>();
+        p1.add(new PlayerMove(0, 0, true));
+        p2.add(new PlayerMove(1, 1, false));
+        p1.add(new PlayerMove(2, 0, true));
+        if (movementPhase) {
+            p2.add(new PlayerMove(1, 0, false));
+            p1.add(new PlayerMove(0, 2, true));
+            p2.add(new PlayerMove(1, 2, false));
+            state.setPlacementPhase(false);
+            state.setTotalMoves(11);
+            state.setPlayer1Turn(false);
+            state.setWinner("PLAYER 2");
+            state.setGameStatus("FINISHED");
+        } else {
+            state.setTotalMoves(3);
+            state.setPlayer1Turn(false);
+        }
+        state.setPlayer1Moves(p1);
+        state.setPlayer2Moves(p2);
+        return state;
+    }
+
+    // ===== JSON REFERENCE (same shape as the server's game object) =====
+
+    private static byte[] encodeJson(ServerGameState state) throws JSONException {
+        JSONObject json = new JSONObject();
+        json.put("gameId", state.getGameId());
+        json.put("player1Id", state.getPlayer1Id());
+        json.put("player2Id", state.getPlayer2Id());
+        json.put("gameStatus", state.getGameStatus());
+        json.put("player1Turn", state.isPlayer1Turn());
+        json.put("placementPhase", state.isPlacementPhase());
+        json.put("winner", state.getWinner() != null ? state.getWinner() : JSONObject.NULL);
+        json.put("gameStarted", state.isGameStarted());
+        json.put("player1Assigned", state.isPlayer1Assigned());
+        json.put("player2Assigned", state.isPlayer2Assigned());
+        json.put("totalMoves", state.getTotalMoves());
+        json.put("lastActivity", state.getLastActivity());
+        json.put("player1Moves", encodeJsonMoves(state.getPlayer1Moves()));
+        json.put("player2Moves", encodeJsonMoves(state.getPlayer2Moves()));
+
+        JSONObject response = new JSONObject();
+        response.put("status", "success");
+        response.put("game", json);
+        return response.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static JSONArray encodeJsonMoves(List<PlayerMove> moves) throws JSONException {
+        JSONArray array = new JSONArray();
+        for (PlayerMove move : moves) {
+            JSONObject moveJson = new JSONObject();
+            moveJson.put("boardX", move.getBoardX());
+            moveJson.put("boardY", move.getBoardY());
+            moveJson.put("player1", move.isPlayer1());
+            array.put(moveJson);
+        }
+        return array;
+    }
+
+    private static byte[] encodeJsonMove(String playerId, int boardX, int boardY,
+                                         Integer fromX, Integer fromY) throws JSONException {
+        JSONObject requestBody = new JSONObject();
+        requestBody.put("playerId", playerId);
+        requestBody.put("boardX", boardX);
+        requestBody.put("boardY", boardY);
+        if (fromX != null) requestBody.put("fromX", fromX);
+        if (fromY != null) requestBody.put("fromY", fromY);
+        return requestBody.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static ServerGameState decodeJson(byte[] body) throws JSONException {
+        JSONObject response = new JSONObject(new String(body, StandardCharsets.UTF_8));
+        JSONObject json = response.getJSONObject("game");
+
+        ServerGameState state = new ServerGameState();
+        state.setGameId(json.optString("gameId", null));
+        state.setPlayer1Id(json.optString("player1Id", null));
+        state.setPlayer2Id(json.optString("player2Id", null));
+        state.setGameStatus(json.optString("gameStatus", "WAITING_FOR_PLAYERS"));
+        state.setPlayer1Turn(json.optBoolean("player1Turn", true));
+        state.setPlacementPhase(json.optBoolean("placementPhase", true));
+        state.setWinner(json.isNull("winner") ? null : json.optString("winner"));
+        state.setGameStarted(json.optBoolean("gameStarted", false));
+        state.setPlayer1Assigned(json.optBoolean("player1Assigned", false));
+        state.setPlayer2Assigned(json.optBoolean("player2Assigned", false));
+        state.setTotalMoves(json.optInt("totalMoves", 0));
+        state.setLastActivity(json.getLong("lastActivity"));
+        state.setPlayer1Moves(decodeJsonMoves(json.getJSONArray("player1Moves"), true));
+        state.setPlayer2Moves(decodeJsonMoves(json.getJSONArray("player2Moves"), false));
+        return state;
+    }
+
+    private static List<PlayerMove> decodeJsonMoves(JSONArray array, boolean isPlayer1) throws JSONException {
+        List<PlayerMove> moves = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject moveJson = array.getJSONObject(i);
+            moves.add(new PlayerMove(moveJson.getInt("boardX"), moveJson.getInt("boardY"),
+                    moveJson.optBoolean("player1", isPlayer1)));
+        }
+        return moves;
+    }
+}
@@ -0,0 +1,192 @@
+package com.gfg.NaarPazham;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency stress for the breakers and the retry executor, with 8 threads
+ * hammering a handful of endpoints. Besides the throughput, every iteration
+ * checks invariants and fails the run if one breaks:
+ *
+ * <ul>
+ *   <li>breakerTraffic: per breaker, each state has been entered as often as
+ *       it was left (plus one for the current state), so no transition was
+ *       lost or applied twice, and failure counts never go negative.</li>
+ *   <li>retriedCall: operations report from pool threads, sometimes twice,
+ *       and retries are scheduled with real delays; every call still gets
+ *       exactly one final callback.</li>
+ * </ul>
+ *
+ * Run with: ./gradlew :core:jmh -Pjmh.includes=RetryConcurrencyBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(8)
+public class RetryConcurrencyBenchmark {
+    private static final String[] ENDPOINTS = {"find", "status", "moves", "leave"};
+
+    // breakerTraffic: logical clock, advanced by every call, so breakers cycle constantly
+    private final AtomicLong ticks = new AtomicLong();
+    private final Map<String, CircuitBreaker> breakers = new HashMap<>();
+    private final Map<String, Map<CircuitBreaker.State, AtomicLong>> entered = new HashMap<>();
+    private final Map<String, Map<CircuitBreaker.State, AtomicLong>> left = new HashMap<>();
+
+    // retriedCall
+    private ScheduledExecutorService scheduler;
+    private ExecutorService network;
+    private RetryExecutor executor;
+    private final AtomicLong callsStarted = new AtomicLong();
+    private final AtomicLong finalCallbacks = new AtomicLong();
+    private final AtomicLong duplicateFinals = new AtomicLong();
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        breakers.clear();
+        entered.clear();
+        left.clear();
+        for (String endpoint : ENDPOINTS) {
+            entered.put(endpoint, counters());
+            left.put(endpoint, counters());
+            entered.get(endpoint).get(CircuitBreaker.State.CLOSED).incrementAndGet();
+            // 1ms reset timeout on a clock that moves 1us each time it is read
+            breakers.put(endpoint, new CircuitBreaker(endpoint, 5, 1, this::onTransition,
+                    () -> ticks.incrementAndGet() * 1000));
+        }
+
+        scheduler = Executors.newScheduledThreadPool(2);
+        network = Executors.newFixedThreadPool(4);
+        executor = new RetryExecutor((task, delayMs) -> scheduler.schedule(task, delayMs, TimeUnit.MILLISECONDS),
+                new CircuitBreakerRegistry(3, 2));
+        callsStarted.set(0);
+        finalCallbacks.set(0);
+        duplicateFinals.set(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void checkInvariants() throws InterruptedException {
+        for (String endpoint : ENDPOINTS) {
+            CircuitBreaker breaker = breakers.get(endpoint);
+            if (breaker.getFailureCount() < 0) {
+                throw new IllegalStateException(endpoint + ": negative failure count");
+            }
+            for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+                long balance = entered.get(endpoint).get(state).get() - left.get(endpoint).get(state).get();
+                long expected = breaker.getState() == state ? 1 : 0;
+                if (balance != expected) {
+                    throw new IllegalStateException(endpoint + ": " + state + " entered - left = " + balance
+                            + " but breaker is " + breaker.getState());
+                }
+            }
+        }
+
+        scheduler.shutdown();
+        network.shutdown();
+        scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        network.awaitTermination(10, TimeUnit.SECONDS);
+        if (duplicateFinals.get() != 0 || finalCallbacks.get() != callsStarted.get()) {
+            throw new IllegalStateException("Calls " + callsStarted.get() + ", final callbacks "
+                    + finalCallbacks.get() + ", duplicates " + duplicateFinals.get());
+        }
+    }
+
+    @Benchmark
+    public int breakerTraffic() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        CircuitBreaker breaker = breakers.get(ENDPOINTS[random.nextInt(ENDPOINTS.length)]);
+        int permit = breaker.acquire();
+        if (permit != CircuitBreaker.REJECTED) {
+            if (random.nextInt(100) < 60) {
+                breaker.recordFailure();
+            } else {
+                breaker.recordSuccess();
+            }
+        }
+        return permit;
+    }
+
+    @Benchmark
+    public void retriedCall() throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicInteger finals = new AtomicInteger();
+        callsStarted.incrementAndGet();
+
+        RetryExecutor.Callback callback = new RetryExecutor.Callback() {
+            @Override
+            public void onSuccess() {
+                finish();
+            }
+
+            @Override
+            public void onFinalFailure(String error, int totalAttempts) {
+                finish();
+            }
+
+            @Override
+            public void onRetryAttempt(int attempt, long delayMs) {
+            }
+
+            private void finish() {
+                finalCallbacks.incrementAndGet();
+                if (finals.incrementAndGet() > 1) {
+                    duplicateFinals.incrementAndGet();
+                }
+                done.countDown();
+            }
+        };
+
+        executor.execute(ENDPOINTS[random.nextInt(ENDPOINTS.length)], attempt -> network.execute(() -> {
+            int roll = ThreadLocalRandom.current().nextInt(100);
+            if (roll < 50) {
+                attempt.fail("timeout");
+            } else if (roll < 60) {
+                attempt.failPermanently("400");
+            } else {
+                attempt.succeed();
+            }
+            // Late duplicate reports must be ignored
+            if (roll % 7 == 0) {
+                attempt.succeed();
+                attempt.fail("late");
+            }
+        }), callback, new RetryExecutor.Config(3, 1, 2.0, 4, true));
+
+        if (!done.await(10, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Call never completed");
+        }
+    }
+
+    private void onTransition(String name, CircuitBreaker.State from, CircuitBreaker.State to) {
+        left.get(name).get(from).incrementAndGet();
+        entered.get(name).get(to).incrementAndGet();
+    }
+
+    private static Map<CircuitBreaker.State, AtomicLong> counters() {
+        Map<CircuitBreaker.State, AtomicLong> counters = new EnumMap<>(CircuitBreaker.State.class);
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            counters.put(state, new AtomicLong());
+        }
+        return counters;
+    }
+}
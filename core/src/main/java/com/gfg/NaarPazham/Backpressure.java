@@ -0,0 +1,132 @@
+package com.gfg.NaarPazham;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Cooldown requested by an overloaded server. A 429 or 503 response, with
+ * or without a Retry-After header, pushes back the time before which
+ * pollers should not call again; every poller asks {@link #delayFor(long)}
+ * before scheduling its next tick, so one shed request slows down the whole
+ * app rather than just the caller that saw it.
+ *
+ * Retry-After is honoured as delta-seconds or an HTTP-date. The cooldown is
+ * stretched by up to a quarter at random, so clients shed together don't all
+ * come back on the same second. It only ever grows until it runs out; a
+ * later, shorter signal doesn't cut it short. Lock-free.
+ */
+public class Backpressure {
+    public static final int TOO_MANY_REQUESTS = 429;
+    public static final int SERVICE_UNAVAILABLE = 503;
+
+    /** Cooldown for a 429/503 without a usable Retry-After. */
+    public static final long DEFAULT_COOLDOWN_MS = 5000;
+    /** Cap on any one cooldown, whatever the server asks for. */
+    public static final long MAX_COOLDOWN_MS = 120000;
+
+    private static final Backpressure GLOBAL = new Backpressure();
+
+    private final LongSupplier clock;
+    // clock value before which pollers should hold off; in the past when idle
+    private final AtomicLong resumeAtNanos;
+
+    public Backpressure() {
+        this(System::nanoTime);
+    }
+
+    Backpressure(LongSupplier clock) {
+        this.clock = clock;
+        this.resumeAtNanos = new AtomicLong(clock.getAsLong());
+    }
+
+    /** The cooldown every poller in the app respects. */
+    public static Backpressure global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Look at a response for a load-shedding signal. Returns the cooldown it
+     * started, in milliseconds, or 0 if the response wasn't a 429 or 503.
+     */
+    public long onResponse(int status, String retryAfter) {
+        if (status != TOO_MANY_REQUESTS && status != SERVICE_UNAVAILABLE) {
+            return 0;
+        }
+        long cooldownMs = parseRetryAfterMs(retryAfter, System.currentTimeMillis());
+        if (cooldownMs <= 0) {
+            cooldownMs = DEFAULT_COOLDOWN_MS;
+        }
+        cooldownMs = Math.min(cooldownMs, MAX_COOLDOWN_MS);
+        cooldownMs += ThreadLocalRandom.current().nextLong(cooldownMs / 4 + 1);
+        extendTo(clock.getAsLong() + TimeUnit.MILLISECONDS.toNanos(cooldownMs));
+        return cooldownMs;
+    }
+
+    /** Time left before the server wants to hear from pollers again, 0 if none. */
+    public long remainingMs() {
+        long remaining = resumeAtNanos.get() - clock.getAsLong();
+        return remaining > 0 ? TimeUnit.NANOSECONDS.toMillis(remaining) + 1 : 0;
+    }
+
+    public boolean isCoolingDown() {
+        return resumeAtNanos.get() - clock.getAsLong() > 0;
+    }
+
+    /** The delay a poller should actually wait, given the one it planned. */
+    public long delayFor(long plannedDelayMs) {
+        return Math.max(plannedDelayMs, remainingMs());
+    }
+
+    /** End any cooldown now. */
+    public void reset() {
+        resumeAtNanos.set(clock.getAsLong());
+    }
+
+    private void extendTo(long deadline) {
+        while (true) {
+            long current = resumeAtNanos.get();
+            if (deadline - current <= 0 || resumeAtNanos.compareAndSet(current, deadline)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Milliseconds a Retry-After value asks for: delta-seconds ("120") or an
+     * HTTP-date, taken relative to {@code nowMillis}. -1 if absent or
+     * malformed; a date in the past is 0.
+     */
+    public static long parseRetryAfterMs(String value, long nowMillis) {
+        if (value == null) {
+            return -1;
+        }
+        String trimmed = value.trim();
+        if (trimmed.isEmpty()) {
+            return -1;
+        }
+        if (isDigits(trimmed)) {
+            // Anything too long to parse is far beyond MAX_COOLDOWN_MS anyway
+            return trimmed.length() > 9 ? Long.MAX_VALUE : Long.parseLong(trimmed) * 1000;
+        }
+        try {
+            long at = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return Math.max(0, at - nowMillis);
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    private static boolean isDigits(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
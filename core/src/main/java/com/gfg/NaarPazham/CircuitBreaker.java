@@ -0,0 +1,167 @@
+package com.gfg.NaarPazham;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker for one endpoint, safe to share between threads without
+ * locks. All of its state lives in one immutable snapshot that every update
+ * replaces with a compare-and-set, so a count and the state it leads to can
+ * never be seen half-applied.
+ *
+ * <ul>
+ *   <li>CLOSED: calls go through; {@code threshold} failures in a row open it.</li>
+ *   <li>OPEN: calls are rejected until {@code resetTimeout} has passed.</li>
+ *   <li>HALF_OPEN: exactly one trial call is let through. Its success closes
+ *       the breaker, its failure opens it again. A trial that never reports
+ *       back is replaced by a new one after another {@code resetTimeout}.</li>
+ * </ul>
+ *
+ * Outcomes of calls admitted before the breaker opened are ignored while it
+ * is open, so stragglers can't close it early.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /** Told about every state change, on the thread that caused it. */
+    public interface Listener {
+        void onTransition(String name, State from, State to);
+    }
+
+    // acquire() results
+    public static final int REJECTED = 0;
+    public static final int ALLOWED = 1;
+    /** Allowed as the half-open trial; report its outcome. */
+    public static final int TRIAL = 2;
+
+    private static final class Snapshot {
+        final State state;
+        final int failures;
+        // When the breaker opened, or when the current trial started
+        final long sinceNanos;
+
+        Snapshot(State state, int failures, long sinceNanos) {
+            this.state = state;
+            this.failures = failures;
+            this.sinceNanos = sinceNanos;
+        }
+    }
+
+    private static final Snapshot CLOSED_CLEAN = new Snapshot(State.CLOSED, 0, 0);
+
+    private final String name;
+    private final int threshold;
+    private final long resetTimeoutNanos;
+    private final LongSupplier clock;
+    private final Listener listener;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(CLOSED_CLEAN);
+
+    public CircuitBreaker(String name, int threshold, long resetTimeoutMs, Listener listener) {
+        this(name, threshold, resetTimeoutMs, listener, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int threshold, long resetTimeoutMs, Listener listener, LongSupplier clock) {
+        if (threshold <= 0 || resetTimeoutMs < 0) {
+            throw new IllegalArgumentException("Invalid breaker settings");
+        }
+        this.name = name;
+        this.threshold = threshold;
+        this.resetTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(resetTimeoutMs);
+        this.listener = listener;
+        this.clock = clock;
+    }
+
+    /** Whether a call may go ahead now: {@link #REJECTED}, {@link #ALLOWED} or {@link #TRIAL}. */
+    public int acquire() {
+        while (true) {
+            Snapshot current = snapshot.get();
+            if (current.state == State.CLOSED) {
+                return ALLOWED;
+            }
+            long now = clock.getAsLong();
+            if (now - current.sinceNanos < resetTimeoutNanos) {
+                // Still cooling down, or a trial is already out
+                return REJECTED;
+            }
+            if (snapshot.compareAndSet(current, new Snapshot(State.HALF_OPEN, current.failures, now))) {
+                if (current.state == State.OPEN) {
+                    notifyTransition(State.OPEN, State.HALF_OPEN);
+                }
+                return TRIAL;
+            }
+        }
+    }
+
+    public boolean allowRequest() {
+        return acquire() != REJECTED;
+    }
+
+    public void recordSuccess() {
+        while (true) {
+            Snapshot current = snapshot.get();
+            if (current == CLOSED_CLEAN || current.state == State.OPEN) {
+                return;
+            }
+            if (snapshot.compareAndSet(current, CLOSED_CLEAN)) {
+                if (current.state == State.HALF_OPEN) {
+                    notifyTransition(State.HALF_OPEN, State.CLOSED);
+                }
+                return;
+            }
+        }
+    }
+
+    public void recordFailure() {
+        while (true) {
+            Snapshot current = snapshot.get();
+            if (current.state == State.OPEN) {
+                return;
+            }
+            int failures = current.failures + 1;
+            boolean opens = current.state == State.HALF_OPEN || failures >= threshold;
+            Snapshot next = opens
+                    ? new Snapshot(State.OPEN, failures, clock.getAsLong())
+                    : new Snapshot(State.CLOSED, failures, 0);
+            if (snapshot.compareAndSet(current, next)) {
+                if (opens) {
+                    notifyTransition(current.state, State.OPEN);
+                }
+                return;
+            }
+        }
+    }
+
+    // ===== STATE =====
+
+    public String getName() {
+        return name;
+    }
+
+    /** The state as of the last call; an expired OPEN only turns HALF_OPEN on the next acquire(). */
+    public State getState() {
+        return snapshot.get().state;
+    }
+
+    public boolean isOpen() {
+        return getState() == State.OPEN;
+    }
+
+    /** Failures since the breaker last closed. */
+    public int getFailureCount() {
+        return snapshot.get().failures;
+    }
+
+    @Override
+    public String toString() {
+        Snapshot current = snapshot.get();
+        return name + ": " + current.state + ", failures " + current.failures;
+    }
+
+    private void notifyTransition(State from, State to) {
+        if (listener != null) {
+            listener.onTransition(name, from, to);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.gfg.NaarPazham;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link CircuitBreaker} per endpoint, created on first use and shared by
+ * every caller, so all retries against a failing endpoint see the same
+ * breaker. Lookups are lock-free.
+ */
+public class CircuitBreakerRegistry {
+    public static final int DEFAULT_THRESHOLD = 5;
+    public static final long DEFAULT_RESET_TIMEOUT_MS = 60000;
+
+    private static final CircuitBreakerRegistry SHARED =
+            new CircuitBreakerRegistry(DEFAULT_THRESHOLD, DEFAULT_RESET_TIMEOUT_MS);
+
+    private final int threshold;
+    private final long resetTimeoutMs;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private volatile CircuitBreaker.Listener listener;
+
+    public CircuitBreakerRegistry(int threshold, long resetTimeoutMs) {
+        this.threshold = threshold;
+        this.resetTimeoutMs = resetTimeoutMs;
+    }
+
+    /** The registry the client's retries share. */
+    public static CircuitBreakerRegistry shared() {
+        return SHARED;
+    }
+
+    public CircuitBreaker get(String endpoint) {
+        CircuitBreaker breaker = breakers.get(endpoint);
+        return breaker != null ? breaker : breakers.computeIfAbsent(endpoint,
+                name -> new CircuitBreaker(name, threshold, resetTimeoutMs, this::onTransition));
+    }
+
+    /** Listen to state changes of every breaker in the registry, current and future. */
+    public void setListener(CircuitBreaker.Listener listener) {
+        this.listener = listener;
+    }
+
+    /** Every breaker, sorted by endpoint. */
+    public Map<String, CircuitBreaker> breakers() {
+        return new TreeMap<>(breakers);
+    }
+
+    private void onTransition(String name, CircuitBreaker.State from, CircuitBreaker.State to) {
+        CircuitBreaker.Listener current = listener;
+        if (current != null) {
+            current.onTransition(name, from, to);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.gfg.NaarPazham;
+
+/**
+ * One game played directly on {@link GameRules}, for local and AI play.
+ *
+ * Every call is synchronous, allocation-free and answers with a primitive
+ * result code: {@link GameRules#OK}, or one of the GameRules.ERROR_* codes
+ * ({@link GameRules#describe} turns it into a message). A rejected move
+ * leaves the game unchanged. The side to move is always the engine's, so
+ * callers never pass a player. Online games don't use this; the server
+ * checks their moves.
+ *
+ * Not thread-safe: one engine belongs to one game and its UI thread. AI
+ * search can copy the position with {@link #state()} and work on the static
+ * GameRules methods instead.
+ */
+public final class GameEngine {
+    private long state = GameRules.NEW_GAME;
+
+    /** Place a piece for the side to move. */
+    public int place(int cell) {
+        return commit(GameRules.place(state, isPlayer1Turn(), cell));
+    }
+
+    /** Move one of the side to move's pieces to an adjacent cell. */
+    public int move(int fromCell, int toCell) {
+        return commit(GameRules.move(state, isPlayer1Turn(), fromCell, toCell));
+    }
+
+    /** Place (fromCell == NO_CELL) or move, whichever the phase calls for. */
+    public int play(int fromCell, int toCell) {
+        return commit(GameRules.apply(state, isPlayer1Turn(), fromCell, toCell));
+    }
+
+    /** The result {@link #play} would give, without playing it. */
+    public int check(int fromCell, int toCell) {
+        return GameRules.errorCode(GameRules.apply(state, isPlayer1Turn(), fromCell, toCell));
+    }
+
+    private int commit(long result) {
+        if (GameRules.isError(result)) {
+            return GameRules.errorCode(result);
+        }
+        state = result;
+        return GameRules.OK;
+    }
+
+    // ===== POSITION =====
+
+    public void reset() {
+        state = GameRules.NEW_GAME;
+    }
+
+    /** Continue from a packed state, e.g. a checkpoint. */
+    public void restore(long state) {
+        this.state = state;
+    }
+
+    /** The packed position; see {@link GameRules}. */
+    public long state() {
+        return state;
+    }
+
+    public boolean isPlayer1Turn() {
+        return GameRules.isPlayer1Turn(state);
+    }
+
+    public boolean isPlacementPhase() {
+        return GameRules.isPlacementPhase(state);
+    }
+
+    public boolean isGameOver() {
+        return GameRules.isGameOver(state);
+    }
+
+    /** GameRules.WINNER_NONE, WINNER_PLAYER_1 or WINNER_PLAYER_2. */
+    public int winner() {
+        return GameRules.winner(state);
+    }
+
+    public int moveCount() {
+        return GameRules.moveCount(state);
+    }
+
+    /** WINNER_PLAYER_1 or WINNER_PLAYER_2 for the owner of the cell, WINNER_NONE if it is empty. */
+    public int ownerOf(int cell) {
+        if (cell < 0 || cell >= GameRules.CELL_COUNT) {
+            return GameRules.WINNER_NONE;
+        }
+        int bit = 1 << cell;
+        if ((GameRules.player1Mask(state) & bit) != 0) {
+            return GameRules.WINNER_PLAYER_1;
+        }
+        return (GameRules.player2Mask(state) & bit) != 0 ? GameRules.WINNER_PLAYER_2 : GameRules.WINNER_NONE;
+    }
+}
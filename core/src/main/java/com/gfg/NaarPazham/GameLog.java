@@ -0,0 +1,286 @@
+package com.gfg.NaarPazham;
+
+/**
+ * Logging facade for the client. Calls below the current level cost one field
+ * read and a compare: messages are templates with {} placeholders and the
+ * arguments are only turned into strings once the level check has passed, so
+ *
+ * <pre>
+ *   GameLog.d(TAG, "MATCHMAKING_HEADERS [{}]: {}", requestId, request.getHeaders());
+ * </pre>
+ *
+ * never builds the header string unless debug logging is on. Work that has
+ * to be done just to produce an argument goes inside
+ * {@code if (GameLog.isDebugEnabled())}.
+ *
+ * Release builds go further: the app's R8 rules treat v() and d() as having
+ * no side effects and isDebugEnabled() as always false, so those calls and
+ * the guarded blocks are removed from the dex altogether.
+ *
+ * Every event that passes the level check is kept in a bounded
+ * {@link LogRing} and handed to the installed {@link Sink} (logcat on
+ * Android). A trailing Throwable argument with no placeholder left for it is
+ * logged as the event's error.
+ */
+public final class GameLog {
+
+    // Same values as android.util.Log, so a sink can pass them straight through
+    public static final int VERBOSE = 2;
+    public static final int DEBUG = 3;
+    public static final int INFO = 4;
+    public static final int WARN = 5;
+    public static final int ERROR = 6;
+    public static final int OFF = Integer.MAX_VALUE;
+
+    public static final int DEFAULT_RING_CAPACITY = 512;
+
+    /** Where events go besides the ring. */
+    public interface Sink {
+        void log(int level, String tag, String message, Throwable error);
+    }
+
+    private static final LogRing ring = new LogRing(DEFAULT_RING_CAPACITY);
+    private static volatile int minLevel = INFO;
+    private static volatile Sink sink;
+
+    private GameLog() {}
+
+    // ===== CONFIGURATION =====
+
+    /** Route events at or above {@code level} to the ring and {@code sink} (may be null). */
+    public static void install(Sink sink, int level) {
+        GameLog.sink = sink;
+        GameLog.minLevel = level;
+    }
+
+    public static void setLevel(int level) {
+        minLevel = level;
+    }
+
+    public static int getLevel() {
+        return minLevel;
+    }
+
+    public static boolean isLoggable(int level) {
+        return level >= minLevel;
+    }
+
+    public static boolean isDebugEnabled() {
+        return DEBUG >= minLevel;
+    }
+
+    public static LogRing ring() {
+        return ring;
+    }
+
+    // ===== VERBOSE =====
+
+    public static void v(String tag, String message) {
+        if (VERBOSE >= minLevel) {
+            emit(VERBOSE, tag, message, null, null, null, null, 0);
+        }
+    }
+
+    public static void v(String tag, String template, Object a) {
+        if (VERBOSE >= minLevel) {
+            emit(VERBOSE, tag, template, a, null, null, null, 1);
+        }
+    }
+
+    public static void v(String tag, String template, Object a, Object b) {
+        if (VERBOSE >= minLevel) {
+            emit(VERBOSE, tag, template, a, b, null, null, 2);
+        }
+    }
+
+    public static void v(String tag, String template, Object a, Object b, Object c) {
+        if (VERBOSE >= minLevel) {
+            emit(VERBOSE, tag, template, a, b, c, null, 3);
+        }
+    }
+
+    public static void v(String tag, String template, Object a, Object b, Object c, Object d) {
+        if (VERBOSE >= minLevel) {
+            emit(VERBOSE, tag, template, a, b, c, d, 4);
+        }
+    }
+
+    // ===== DEBUG =====
+
+    public static void d(String tag, String message) {
+        if (DEBUG >= minLevel) {
+            emit(DEBUG, tag, message, null, null, null, null, 0);
+        }
+    }
+
+    public static void d(String tag, String template, Object a) {
+        if (DEBUG >= minLevel) {
+            emit(DEBUG, tag, template, a, null, null, null, 1);
+        }
+    }
+
+    public static void d(String tag, String template, Object a, Object b) {
+        if (DEBUG >= minLevel) {
+            emit(DEBUG, tag, template, a, b, null, null, 2);
+        }
+    }
+
+    public static void d(String tag, String template, Object a, Object b, Object c) {
+        if (DEBUG >= minLevel) {
+            emit(DEBUG, tag, template, a, b, c, null, 3);
+        }
+    }
+
+    public static void d(String tag, String template, Object a, Object b, Object c, Object d) {
+        if (DEBUG >= minLevel) {
+            emit(DEBUG, tag, template, a, b, c, d, 4);
+        }
+    }
+
+    // ===== INFO =====
+
+    public static void i(String tag, String message) {
+        if (INFO >= minLevel) {
+            emit(INFO, tag, message, null, null, null, null, 0);
+        }
+    }
+
+    public static void i(String tag, String template, Object a) {
+        if (INFO >= minLevel) {
+            emit(INFO, tag, template, a, null, null, null, 1);
+        }
+    }
+
+    public static void i(String tag, String template, Object a, Object b) {
+        if (INFO >= minLevel) {
+            emit(INFO, tag, template, a, b, null, null, 2);
+        }
+    }
+
+    public static void i(String tag, String template, Object a, Object b, Object c) {
+        if (INFO >= minLevel) {
+            emit(INFO, tag, template, a, b, c, null, 3);
+        }
+    }
+
+    public static void i(String tag, String template, Object a, Object b, Object c, Object d) {
+        if (INFO >= minLevel) {
+            emit(INFO, tag, template, a, b, c, d, 4);
+        }
+    }
+
+    // ===== WARN =====
+
+    public static void w(String tag, String message) {
+        if (WARN >= minLevel) {
+            emit(WARN, tag, message, null, null, null, null, 0);
+        }
+    }
+
+    public static void w(String tag, String template, Object a) {
+        if (WARN >= minLevel) {
+            emit(WARN, tag, template, a, null, null, null, 1);
+        }
+    }
+
+    public static void w(String tag, String template, Object a, Object b) {
+        if (WARN >= minLevel) {
+            emit(WARN, tag, template, a, b, null, null, 2);
+        }
+    }
+
+    public static void w(String tag, String template, Object a, Object b, Object c) {
+        if (WARN >= minLevel) {
+            emit(WARN, tag, template, a, b, c, null, 3);
+        }
+    }
+
+    public static void w(String tag, String template, Object a, Object b, Object c, Object d) {
+        if (WARN >= minLevel) {
+            emit(WARN, tag, template, a, b, c, d, 4);
+        }
+    }
+
+    // ===== ERROR =====
+
+    public static void e(String tag, String message) {
+        if (ERROR >= minLevel) {
+            emit(ERROR, tag, message, null, null, null, null, 0);
+        }
+    }
+
+    public static void e(String tag, String template, Object a) {
+        if (ERROR >= minLevel) {
+            emit(ERROR, tag, template, a, null, null, null, 1);
+        }
+    }
+
+    public static void e(String tag, String template, Object a, Object b) {
+        if (ERROR >= minLevel) {
+            emit(ERROR, tag, template, a, b, null, null, 2);
+        }
+    }
+
+    public static void e(String tag, String template, Object a, Object b, Object c) {
+        if (ERROR >= minLevel) {
+            emit(ERROR, tag, template, a, b, c, null, 3);
+        }
+    }
+
+    public static void e(String tag, String template, Object a, Object b, Object c, Object d) {
+        if (ERROR >= minLevel) {
+            emit(ERROR, tag, template, a, b, c, d, 4);
+        }
+    }
+
+    // ===== FORMATTING =====
+
+    static String levelName(int level) {
+        switch (level) {
+            case VERBOSE: return "V";
+            case DEBUG: return "D";
+            case INFO: return "I";
+            case WARN: return "W";
+            case ERROR: return "E";
+            default: return "?";
+        }
+    }
+
+    // Kept out of the level methods so they stay small enough to inline
+    private static void emit(int level, String tag, String template,
+                             Object a, Object b, Object c, Object d, int argCount) {
+        StringBuilder message = new StringBuilder(template.length() + 32);
+        int used = 0;
+        int from = 0;
+        int at;
+        while (used < argCount && (at = template.indexOf("{}", from)) >= 0) {
+            message.append(template, from, at).append(arg(used++, a, b, c, d));
+            from = at + 2;
+        }
+        message.append(template, from, template.length());
+
+        Throwable error = null;
+        if (used < argCount) {
+            Object last = arg(argCount - 1, a, b, c, d);
+            if (last instanceof Throwable) {
+                error = (Throwable) last;
+            }
+        }
+
+        String text = message.toString();
+        ring.add(level, tag, text, error);
+        Sink current = sink;
+        if (current != null) {
+            current.log(level, tag, text, error);
+        }
+    }
+
+    private static Object arg(int index, Object a, Object b, Object c, Object d) {
+        switch (index) {
+            case 0: return a;
+            case 1: return b;
+            case 2: return c;
+            default: return d;
+        }
+    }
+}
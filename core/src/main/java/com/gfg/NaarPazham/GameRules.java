@@ -0,0 +1,296 @@
+package com.gfg.NaarPazham;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rules engine shared by the client and the stand-in server.
+ *
+ * A whole game is packed into one long:
+ * <pre>
+ *   bits 0-8    player 1 occupancy mask
+ *   bits 9-17   player 2 occupancy mask
+ *   bits 18-19  winner (WINNER_*)
+ *   bits 32-62  move count
+ * </pre>
+ * Cells are numbered row * 3 + col (boardY * 3 + boardX). Player 1 moves
+ * when the move count is even. Placement lasts until both players have
+ * three pieces on the board; after that pieces move to adjacent cells.
+ *
+ * Move methods return the new state, or a negative value whose magnitude is
+ * one of the ERROR_* codes (see {@link #isError} / {@link #errorCode}).
+ */
+public final class GameRules {
+
+    public static final int BOARD_SIZE = 3;
+    public static final int CELL_COUNT = BOARD_SIZE * BOARD_SIZE;
+    public static final int PIECES_PER_PLAYER = 3;
+    public static final int NO_CELL = -1;
+    public static final int CENTER_CELL = 4;
+
+    public static final int WINNER_NONE = 0;
+    public static final int WINNER_PLAYER_1 = 1;
+    public static final int WINNER_PLAYER_2 = 2;
+
+    public static final long NEW_GAME = 0L;
+
+    // Result codes
+    public static final int OK = 0;
+    public static final int ERROR_GAME_OVER = 1;
+    public static final int ERROR_NOT_YOUR_TURN = 2;
+    public static final int ERROR_INVALID_POSITION = 3;
+    public static final int ERROR_OCCUPIED = 4;
+    public static final int ERROR_NOT_PLACEMENT_PHASE = 5;
+    public static final int ERROR_NOT_MOVEMENT_PHASE = 6;
+    public static final int ERROR_NO_PIECE = 7;
+    public static final int ERROR_NOT_ADJACENT = 8;
+    public static final int ERROR_NOT_YOUR_PIECE = 9;
+
+    private static final int CELL_MASK = (1 << CELL_COUNT) - 1;
+    private static final int PLAYER_2_SHIFT = 9;
+    private static final int WINNER_SHIFT = 18;
+    private static final int MOVE_COUNT_SHIFT = 32;
+    private static final long MOVE_COUNT_MASK = 0x7FFFFFFFL;
+
+    /** Rows, columns and both diagonals. */
+    private static final int[] WIN_LINES = {
+            0b000_000_111, 0b000_111_000, 0b111_000_000,
+            0b001_001_001, 0b010_010_010, 0b100_100_100,
+            0b100_010_001, 0b001_010_100
+    };
+
+    /** ADJACENT[cell] = mask of cells a piece on that cell may move to. */
+    private static final int[] ADJACENT = new int[CELL_COUNT];
+
+    static {
+        for (int from = 0; from < CELL_COUNT; from++) {
+            int mask = 0;
+            for (int to = 0; to < CELL_COUNT; to++) {
+                int rowDiff = Math.abs(from / BOARD_SIZE - to / BOARD_SIZE);
+                int colDiff = Math.abs(from % BOARD_SIZE - to % BOARD_SIZE);
+                boolean orthogonal = rowDiff + colDiff == 1;
+                // Diagonal steps only exist to and from the centre
+                boolean diagonal = rowDiff == 1 && colDiff == 1 && (from == CENTER_CELL || to == CENTER_CELL);
+                if (orthogonal || diagonal) {
+                    mask |= 1 << to;
+                }
+            }
+            ADJACENT[from] = mask;
+        }
+    }
+
+    private GameRules() {}
+
+    // ===== CELLS =====
+
+    /** Cell index for a board position, or NO_CELL if it is off the board. */
+    public static int cellIndex(int boardX, int boardY) {
+        if (boardX < 0 || boardX >= BOARD_SIZE || boardY < 0 || boardY >= BOARD_SIZE) {
+            return NO_CELL;
+        }
+        return boardY * BOARD_SIZE + boardX;
+    }
+
+    public static int cellX(int cell) {
+        return cell % BOARD_SIZE;
+    }
+
+    public static int cellY(int cell) {
+        return cell / BOARD_SIZE;
+    }
+
+    public static boolean areAdjacent(int fromCell, int toCell) {
+        return isCell(fromCell) && isCell(toCell) && (ADJACENT[fromCell] & (1 << toCell)) != 0;
+    }
+
+    public static boolean isWinningMask(int mask) {
+        for (int line : WIN_LINES) {
+            if ((mask & line) == line) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ===== PACKED STATE =====
+
+    public static long pack(int player1Mask, int player2Mask, int winner, int moveCount) {
+        return (player1Mask & CELL_MASK)
+                | ((long) (player2Mask & CELL_MASK) << PLAYER_2_SHIFT)
+                | ((long) (winner & 0x3) << WINNER_SHIFT)
+                | ((moveCount & MOVE_COUNT_MASK) << MOVE_COUNT_SHIFT);
+    }
+
+    public static int player1Mask(long state) {
+        return (int) (state & CELL_MASK);
+    }
+
+    public static int player2Mask(long state) {
+        return (int) ((state >>> PLAYER_2_SHIFT) & CELL_MASK);
+    }
+
+    public static int playerMask(long state, boolean player1) {
+        return player1 ? player1Mask(state) : player2Mask(state);
+    }
+
+    public static int winner(long state) {
+        return (int) ((state >>> WINNER_SHIFT) & 0x3);
+    }
+
+    public static int moveCount(long state) {
+        return (int) ((state >>> MOVE_COUNT_SHIFT) & MOVE_COUNT_MASK);
+    }
+
+    public static boolean isPlayer1Turn(long state) {
+        return (moveCount(state) & 1) == 0;
+    }
+
+    public static boolean isPlacementPhase(long state) {
+        return Integer.bitCount(player1Mask(state)) < PIECES_PER_PLAYER
+                || Integer.bitCount(player2Mask(state)) < PIECES_PER_PLAYER;
+    }
+
+    public static boolean isGameOver(long state) {
+        return winner(state) != WINNER_NONE;
+    }
+
+    /** Declare a winner without a move, e.g. when the opponent leaves. */
+    public static long withWinner(long state, int winner) {
+        return (state & ~(0x3L << WINNER_SHIFT)) | ((long) (winner & 0x3) << WINNER_SHIFT);
+    }
+
+    // ===== MOVES =====
+
+    /** Place (fromCell == NO_CELL) or move a piece, whichever the phase calls for. */
+    public static long apply(long state, boolean player1, int fromCell, int toCell) {
+        return fromCell == NO_CELL ? place(state, player1, toCell) : move(state, player1, fromCell, toCell);
+    }
+
+    public static long place(long state, boolean player1, int cell) {
+        int error = checkTurn(state, player1);
+        if (error != OK) return -error;
+        if (!isPlacementPhase(state)) return -ERROR_NOT_PLACEMENT_PHASE;
+        if (!isCell(cell)) return -ERROR_INVALID_POSITION;
+
+        int bit = 1 << cell;
+        if (((player1Mask(state) | player2Mask(state)) & bit) != 0) return -ERROR_OCCUPIED;
+        if (Integer.bitCount(playerMask(state, player1)) >= PIECES_PER_PLAYER) return -ERROR_NOT_PLACEMENT_PHASE;
+
+        return finishMove(state, player1, playerMask(state, player1) | bit);
+    }
+
+    public static long move(long state, boolean player1, int fromCell, int toCell) {
+        int error = checkTurn(state, player1);
+        if (error != OK) return -error;
+        if (isPlacementPhase(state)) return -ERROR_NOT_MOVEMENT_PHASE;
+        if (!isCell(fromCell) || !isCell(toCell)) return -ERROR_INVALID_POSITION;
+
+        int own = playerMask(state, player1);
+        int other = playerMask(state, !player1);
+        if ((own & (1 << fromCell)) == 0) {
+            return (other & (1 << fromCell)) != 0 ? -ERROR_NOT_YOUR_PIECE : -ERROR_NO_PIECE;
+        }
+        if (!areAdjacent(fromCell, toCell)) return -ERROR_NOT_ADJACENT;
+        if (((own | other) & (1 << toCell)) != 0) return -ERROR_OCCUPIED;
+
+        return finishMove(state, player1, (own & ~(1 << fromCell)) | (1 << toCell));
+    }
+
+    public static boolean isError(long result) {
+        return result < 0;
+    }
+
+    public static int errorCode(long result) {
+        return result < 0 ? (int) -result : OK;
+    }
+
+    /** User-facing message for a result code, worded like the client's own checks. */
+    public static String describe(int code) {
+        switch (code) {
+            case OK: return "OK";
+            case ERROR_GAME_OVER: return "Game is over";
+            case ERROR_NOT_YOUR_TURN: return "Not your turn";
+            case ERROR_INVALID_POSITION: return "Invalid position on board";
+            case ERROR_OCCUPIED: return "Position is already occupied";
+            case ERROR_NOT_PLACEMENT_PHASE: return "Not in placement phase";
+            case ERROR_NOT_MOVEMENT_PHASE: return "Not in movement phase";
+            case ERROR_NO_PIECE: return "No piece at selected position";
+            case ERROR_NOT_ADJACENT: return "Can only move to adjacent positions";
+            case ERROR_NOT_YOUR_PIECE: return "Can't move other player's piece";
+            default: return "Unknown error (" + code + ")";
+        }
+    }
+
+    // ===== SERVER GAME STATE CONVERSION =====
+
+    public static int toMask(List<PlayerMove> moves) {
+        int mask = 0;
+        if (moves == null) {
+            return mask;
+        }
+        for (PlayerMove move : moves) {
+            if (move == null || move.getBoardX() == null || move.getBoardY() == null) {
+                throw new IllegalArgumentException("Move has no board position: " + move);
+            }
+            int cell = cellIndex(move.getBoardX(), move.getBoardY());
+            if (cell == NO_CELL) {
+                throw new IllegalArgumentException("Board position out of range: " + move);
+            }
+            mask |= 1 << cell;
+        }
+        return mask;
+    }
+
+    /** Moves for each set cell, in cell order. */
+    public static List<PlayerMove> toMoves(int mask, boolean isPlayer1) {
+        List<PlayerMove> moves = new ArrayList<>(Integer.bitCount(mask));
+        for (int cell = 0; cell < CELL_COUNT; cell++) {
+            if ((mask & (1 << cell)) != 0) {
+                moves.add(new PlayerMove(cellX(cell), cellY(cell), isPlayer1));
+            }
+        }
+        return moves;
+    }
+
+    /** Packed board of a server game state; the move count comes from totalMoves. */
+    public static long fromServerState(ServerGameState gameState) {
+        int winner = WINNER_NONE;
+        if ("PLAYER 1".equals(gameState.getWinner())) {
+            winner = WINNER_PLAYER_1;
+        } else if ("PLAYER 2".equals(gameState.getWinner())) {
+            winner = WINNER_PLAYER_2;
+        }
+        return pack(toMask(gameState.getPlayer1Moves()), toMask(gameState.getPlayer2Moves()),
+                winner, gameState.getTotalMoves());
+    }
+
+    /** Copy the board, turn, phase, winner and move count into a server game state. */
+    public static void writeToServerState(long state, ServerGameState gameState) {
+        gameState.setPlayer1Moves(toMoves(player1Mask(state), true));
+        gameState.setPlayer2Moves(toMoves(player2Mask(state), false));
+        gameState.setPlayer1Turn(isPlayer1Turn(state));
+        gameState.setPlacementPhase(isPlacementPhase(state));
+        gameState.setTotalMoves(moveCount(state));
+        int winner = winner(state);
+        gameState.setWinner(winner == WINNER_PLAYER_1 ? "PLAYER 1" : winner == WINNER_PLAYER_2 ? "PLAYER 2" : null);
+    }
+
+    // ===== HELPERS =====
+
+    private static boolean isCell(int cell) {
+        return cell >= 0 && cell < CELL_COUNT;
+    }
+
+    private static int checkTurn(long state, boolean player1) {
+        if (isGameOver(state)) return ERROR_GAME_OVER;
+        if (isPlayer1Turn(state) != player1) return ERROR_NOT_YOUR_TURN;
+        return OK;
+    }
+
+    private static long finishMove(long state, boolean player1, int newOwnMask) {
+        int p1 = player1 ? newOwnMask : player1Mask(state);
+        int p2 = player1 ? player2Mask(state) : newOwnMask;
+        int winner = isWinningMask(newOwnMask) ? (player1 ? WINNER_PLAYER_1 : WINNER_PLAYER_2) : WINNER_NONE;
+        return pack(p1, p2, winner, moveCount(state) + 1);
+    }
+}
@@ -0,0 +1,47 @@
+package com.gfg.NaarPazham;
+
+import java.io.IOException;
+
+/**
+ * How API calls reach the game server: one request in, one response (or
+ * failure) out, asynchronously. NetworkService builds every call as a
+ * {@link TransportRequest} and never sees the wire, so the same client code
+ * runs over Volley, OkHttp, a WebSocket or an in-process loopback.
+ *
+ * <ul>
+ *   <li>Every HTTP status is a response, including 4xx and 5xx; only calls
+ *       that got no response at all (connection failure, timeout) fail.</li>
+ *   <li>Each call gets exactly one callback, on the thread the
+ *       implementation documents (the main thread for the app's transports),
+ *       unless it is cancelled first.</li>
+ * </ul>
+ */
+public interface GameTransport {
+
+    interface Callback {
+        void onResponse(TransportResponse response);
+        void onFailure(IOException error);
+    }
+
+    /** Game updates the server pushes without being asked, to spectators. */
+    interface EventListener {
+        void onGameEvent(ServerGameState game);
+
+        /** Pushed updates stopped, e.g. the connection dropped; every watch must be renewed. */
+        void onEventsLost(IOException error);
+    }
+
+    void send(TransportRequest request, Callback callback);
+
+    /**
+     * Where to deliver updates for the games this transport's calls watch;
+     * null stops delivery. Returns false if the transport can't receive
+     * pushed updates at all, as request/response transports can't.
+     */
+    default boolean setEventListener(EventListener listener) {
+        return false;
+    }
+
+    /** Drop all calls in flight; their callbacks are not invoked. */
+    void cancelAll();
+}
@@ -0,0 +1,380 @@
+package com.gfg.NaarPazham;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Compact binary encoding for game states and moves.
+ *
+ * The board is only nine cells, so a whole game fits in a handful of bytes:
+ * one 9-bit occupancy mask per player plus a few flags, instead of the JSON
+ * arrays of move objects. Both sides negotiate the format through the
+ * Accept/Content-Type headers and fall back to JSON when either side does not
+ * understand it.
+ *
+ * Schema v1, every frame:
+ * <pre>
+ *   u8      schema version (1)
+ *   u8      frame type (1 = game state, 2 = move, 3 = error)
+ * </pre>
+ * Game state body:
+ * <pre>
+ *   u32     bits 0-8 player 1 mask, 9-17 player 2 mask, 18 player 1 turn,
+ *           19 placement phase, 20-21 winner (0 none, 1 P1, 2 P2),
+ *           22 game started, 23 player 1 assigned, 24 player 2 assigned,
+ *           25-27 status (see STATUS_*)
+ *   varint  total moves
+ *   varint  last activity (epoch millis)
+ *   string  gameId, player1Id, player2Id
+ *   string  raw game status, only when status == STATUS_OTHER
+ * </pre>
+ * Move body:
+ * <pre>
+ *   u8      low nibble target cell, high nibble source cell (0xF = placement)
+ *   string  playerId
+ * </pre>
+ * Error body:
+ * <pre>
+ *   string  message
+ * </pre>
+ * Strings are a varint of (UTF-8 length + 1) followed by the bytes; 0 means null.
+ * Cells are numbered row * 3 + col, i.e. boardY * 3 + boardX.
+ *
+ * Masks do not keep the order pieces were placed in, so decoded move lists are
+ * in cell order. Nothing on the client depends on that order.
+ */
+public final class GameWireCodec {
+
+    public static final int SCHEMA_VERSION = 1;
+
+    public static final String CONTENT_TYPE = "application/x-naarpazham";
+    public static final String VERSIONED_CONTENT_TYPE = CONTENT_TYPE + ";v=" + SCHEMA_VERSION;
+    /** Accept header value: binary preferred, JSON still acceptable. */
+    public static final String ACCEPT_HEADER = VERSIONED_CONTENT_TYPE + ", application/json;q=0.5";
+
+    public static final int TYPE_GAME_STATE = 1;
+    public static final int TYPE_MOVE = 2;
+    public static final int TYPE_ERROR = 3;
+
+    public static final int STATUS_WAITING_FOR_PLAYERS = 0;
+    public static final int STATUS_ACTIVE = 1;
+    public static final int STATUS_FINISHED = 2;
+    public static final int STATUS_ABANDONED = 3;
+    public static final int STATUS_OTHER = 7;
+
+    private static final String[] STATUS_NAMES = {
+            "WAITING_FOR_PLAYERS", "ACTIVE", "FINISHED", "ABANDONED"
+    };
+
+    private static final int CELL_COUNT = GameRules.CELL_COUNT;
+    private static final int CELL_MASK = (1 << CELL_COUNT) - 1;
+    private static final int NO_CELL = 0xF;
+
+    private static final String WINNER_PLAYER_1 = "PLAYER 1";
+    private static final String WINNER_PLAYER_2 = "PLAYER 2";
+
+    private GameWireCodec() {}
+
+    /** Thrown when a frame is truncated, has an unknown version or is otherwise malformed. */
+    public static class WireFormatException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        public WireFormatException(String message) {
+            super(message);
+        }
+    }
+
+    // ===== CONTENT NEGOTIATION =====
+
+    /** True if a Content-Type (or Accept) header value names the binary format. */
+    public static boolean isWireContentType(String headerValue) {
+        return headerValue != null && headerValue.toLowerCase(Locale.ROOT).contains(CONTENT_TYPE);
+    }
+
+    // ===== GAME STATE =====
+
+    public static byte[] encodeGameState(ServerGameState state) {
+        if (state == null) {
+            throw new IllegalArgumentException("Game state cannot be null");
+        }
+
+        int p1Mask = GameRules.toMask(state.getPlayer1Moves());
+        int p2Mask = GameRules.toMask(state.getPlayer2Moves());
+        int status = statusCode(state.getGameStatus());
+
+        int bits = p1Mask
+                | (p2Mask << 9)
+                | (state.isPlayer1Turn() ? 1 << 18 : 0)
+                | (state.isPlacementPhase() ? 1 << 19 : 0)
+                | (winnerCode(state.getWinner()) << 20)
+                | (state.isGameStarted() ? 1 << 22 : 0)
+                | (state.isPlayer1Assigned() ? 1 << 23 : 0)
+                | (state.isPlayer2Assigned() ? 1 << 24 : 0)
+                | (status << 25);
+
+        Writer out = new Writer(64);
+        out.writeByte(SCHEMA_VERSION);
+        out.writeByte(TYPE_GAME_STATE);
+        out.writeInt(bits);
+        out.writeVarLong(Math.max(0, state.getTotalMoves()));
+        out.writeVarLong(Math.max(0L, state.getLastActivity()));
+        out.writeString(state.getGameId());
+        out.writeString(state.getPlayer1Id());
+        out.writeString(state.getPlayer2Id());
+        if (status == STATUS_OTHER) {
+            out.writeString(state.getGameStatus());
+        }
+        return out.toByteArray();
+    }
+
+    public static ServerGameState decodeGameState(byte[] frame) throws WireFormatException {
+        Reader in = openFrame(frame, TYPE_GAME_STATE);
+
+        int bits = in.readInt();
+        ServerGameState state = new ServerGameState();
+        state.setPlayer1Moves(GameRules.toMoves(bits & CELL_MASK, true));
+        state.setPlayer2Moves(GameRules.toMoves((bits >>> 9) & CELL_MASK, false));
+        state.setPlayer1Turn((bits & (1 << 18)) != 0);
+        state.setPlacementPhase((bits & (1 << 19)) != 0);
+        state.setWinner(winnerName((bits >>> 20) & 0x3));
+        state.setGameStarted((bits & (1 << 22)) != 0);
+        state.setPlayer1Assigned((bits & (1 << 23)) != 0);
+        state.setPlayer2Assigned((bits & (1 << 24)) != 0);
+        int status = (bits >>> 25) & 0x7;
+
+        state.setTotalMoves((int) in.readVarLong());
+        state.setLastActivity(in.readVarLong());
+        state.setGameId(in.readString());
+        state.setPlayer1Id(in.readString());
+        state.setPlayer2Id(in.readString());
+
+        if (status == STATUS_OTHER) {
+            state.setGameStatus(in.readString());
+        } else if (status < STATUS_NAMES.length) {
+            state.setGameStatus(STATUS_NAMES[status]);
+        } else {
+            throw new WireFormatException("Unknown game status code: " + status);
+        }
+        return state;
+    }
+
+    // ===== MOVES =====
+
+    /**
+     * Encode a move. fromX/fromY are null for placements, matching
+     * NetworkService.processMove.
+     */
+    public static byte[] encodeMove(String playerId, int boardX, int boardY, Integer fromX, Integer fromY) {
+        int to = cellIndex(boardX, boardY);
+        int from = (fromX != null && fromY != null) ? cellIndex(fromX, fromY) : NO_CELL;
+
+        Writer out = new Writer(8 + (playerId != null ? playerId.length() : 0));
+        out.writeByte(SCHEMA_VERSION);
+        out.writeByte(TYPE_MOVE);
+        out.writeByte((from << 4) | to);
+        out.writeString(playerId);
+        return out.toByteArray();
+    }
+
+    /** Decode a move frame into the same shape the JSON move body carries. */
+    public static MoveRequest decodeMove(byte[] frame) throws WireFormatException {
+        Reader in = openFrame(frame, TYPE_MOVE);
+
+        int cells = in.readByte();
+        int to = cells & 0xF;
+        int from = (cells >>> 4) & 0xF;
+        if (to >= CELL_COUNT || (from != NO_CELL && from >= CELL_COUNT)) {
+            throw new WireFormatException("Invalid cell in move: " + cells);
+        }
+
+        MoveRequest move = from == NO_CELL
+                ? new MoveRequest(GameRules.cellX(to), GameRules.cellY(to))
+                : new MoveRequest(GameRules.cellX(from), GameRules.cellY(from), GameRules.cellX(to), GameRules.cellY(to));
+        move.setPlayerId(in.readString());
+        return move;
+    }
+
+    // ===== ERRORS =====
+
+    public static byte[] encodeError(String message) {
+        Writer out = new Writer(16 + (message != null ? message.length() : 0));
+        out.writeByte(SCHEMA_VERSION);
+        out.writeByte(TYPE_ERROR);
+        out.writeString(message);
+        return out.toByteArray();
+    }
+
+    public static String decodeError(byte[] frame) throws WireFormatException {
+        return openFrame(frame, TYPE_ERROR).readString();
+    }
+
+    /** Frame type of an encoded frame, after checking the schema version. */
+    public static int frameType(byte[] frame) throws WireFormatException {
+        if (frame == null || frame.length < 2) {
+            throw new WireFormatException("Frame too short");
+        }
+        if ((frame[0] & 0xFF) != SCHEMA_VERSION) {
+            throw new WireFormatException("Unsupported schema version: " + (frame[0] & 0xFF));
+        }
+        return frame[1] & 0xFF;
+    }
+
+    // ===== HELPERS =====
+
+    private static Reader openFrame(byte[] frame, int expectedType) throws WireFormatException {
+        int type = frameType(frame);
+        if (type != expectedType) {
+            throw new WireFormatException("Expected frame type " + expectedType + " but got " + type);
+        }
+        Reader reader = new Reader(frame);
+        reader.position = 2;
+        return reader;
+    }
+
+    private static int cellIndex(int boardX, int boardY) {
+        int cell = GameRules.cellIndex(boardX, boardY);
+        if (cell == GameRules.NO_CELL) {
+            throw new IllegalArgumentException("Board position out of range: (" + boardX + "," + boardY + ")");
+        }
+        return cell;
+    }
+
+    private static int statusCode(String status) {
+        for (int i = 0; i < STATUS_NAMES.length; i++) {
+            if (STATUS_NAMES[i].equals(status)) {
+                return i;
+            }
+        }
+        return STATUS_OTHER;
+    }
+
+    private static int winnerCode(String winner) {
+        if (winner == null) return 0;
+        if (WINNER_PLAYER_1.equals(winner)) return 1;
+        if (WINNER_PLAYER_2.equals(winner)) return 2;
+        throw new IllegalArgumentException("Unknown winner: " + winner);
+    }
+
+    private static String winnerName(int code) throws WireFormatException {
+        switch (code) {
+            case 0: return null;
+            case 1: return WINNER_PLAYER_1;
+            case 2: return WINNER_PLAYER_2;
+            default: throw new WireFormatException("Unknown winner code: " + code);
+        }
+    }
+
+    /** Growable byte buffer; cheaper than a stream stack for frames this small. */
+    private static final class Writer {
+        private byte[] buffer;
+        private int size;
+
+        Writer(int initialCapacity) {
+            buffer = new byte[initialCapacity];
+        }
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) value;
+        }
+
+        void writeInt(int value) {
+            ensureCapacity(4);
+            buffer[size++] = (byte) (value >>> 24);
+            buffer[size++] = (byte) (value >>> 16);
+            buffer[size++] = (byte) (value >>> 8);
+            buffer[size++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length + 1L);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            byte[] result = new byte[size];
+            System.arraycopy(buffer, 0, result, 0, size);
+            return result;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > buffer.length) {
+                byte[] grown = new byte[Math.max(buffer.length * 2, size + extra)];
+                System.arraycopy(buffer, 0, grown, 0, size);
+                buffer = grown;
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] buffer;
+        private int position;
+
+        Reader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        int readByte() throws WireFormatException {
+            require(1);
+            return buffer[position++] & 0xFF;
+        }
+
+        int readInt() throws WireFormatException {
+            require(4);
+            int value = ((buffer[position] & 0xFF) << 24)
+                    | ((buffer[position + 1] & 0xFF) << 16)
+                    | ((buffer[position + 2] & 0xFF) << 8)
+                    | (buffer[position + 3] & 0xFF);
+            position += 4;
+            return value;
+        }
+
+        long readVarLong() throws WireFormatException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new WireFormatException("Varint too long");
+        }
+
+        String readString() throws WireFormatException {
+            long encodedLength = readVarLong();
+            if (encodedLength == 0) {
+                return null;
+            }
+            long length = encodedLength - 1;
+            if (length > buffer.length - position) {
+                throw new WireFormatException("String length " + length + " exceeds frame");
+            }
+            String value = new String(buffer, position, (int) length, StandardCharsets.UTF_8);
+            position += (int) length;
+            return value;
+        }
+
+        private void require(int count) throws WireFormatException {
+            if (position + count > buffer.length) {
+                throw new WireFormatException("Frame truncated at byte " + position);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.gfg.NaarPazham;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The most recent log events, kept in memory so they can be read back after
+ * the fact (a debug screen, a bug report) without access to logcat.
+ *
+ * Fixed capacity: once full, each new event overwrites the oldest. Adding is
+ * one atomic increment and one array store, safe from any number of threads;
+ * a snapshot taken while writers are active skips slots that are mid-update
+ * rather than blocking them.
+ */
+public class LogRing {
+
+    /** One log call, already formatted. */
+    public static final class Event {
+        public final long sequence;
+        public final long timeMillis;
+        public final int level;
+        public final String tag;
+        public final String thread;
+        public final String message;
+        public final Throwable error;
+
+        Event(long sequence, long timeMillis, int level, String tag, String thread,
+              String message, Throwable error) {
+            this.sequence = sequence;
+            this.timeMillis = timeMillis;
+            this.level = level;
+            this.tag = tag;
+            this.thread = thread;
+            this.message = message;
+            this.error = error;
+        }
+
+        @Override
+        public String toString() {
+            String line = new SimpleDateFormat("HH:mm:ss.SSS", Locale.US).format(new Date(timeMillis))
+                    + " " + GameLog.levelName(level) + "/" + tag + " [" + thread + "]: " + message;
+            return error != null ? line + " (" + error + ")" : line;
+        }
+    }
+
+    private final AtomicReferenceArray<Event> slots;
+    private final int mask;
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    /** Capacity is rounded up to a power of two. */
+    public LogRing(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 20)) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public void add(int level, String tag, String message, Throwable error) {
+        long sequence = nextSequence.getAndIncrement();
+        slots.set((int) (sequence & mask), new Event(sequence, System.currentTimeMillis(), level, tag,
+                Thread.currentThread().getName(), message, error));
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /** Events ever added, including those since overwritten. */
+    public long totalAdded() {
+        return nextSequence.get();
+    }
+
+    /** The events still held, oldest first. */
+    public List<Event> snapshot() {
+        long end = nextSequence.get();
+        long start = Math.max(0, end - capacity());
+        List<Event> events = new ArrayList<>((int) (end - start));
+        for (long sequence = start; sequence < end; sequence++) {
+            Event event = slots.get((int) (sequence & mask));
+            // Not written yet, or already overwritten by a newer event
+            if (event != null && event.sequence == sequence) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    /** The snapshot as text, one event per line. */
+    public String dump() {
+        StringBuilder text = new StringBuilder();
+        for (Event event : snapshot()) {
+            text.append(event).append('\n');
+        }
+        return text.toString();
+    }
+
+    public void clear() {
+        for (int i = 0; i <= mask; i++) {
+            slots.set(i, null);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.gfg.NaarPazham;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Named counters and {@link LatencyHistogram}s, created on first use.
+ *
+ * Lock-free: looking up an existing metric is a ConcurrentHashMap read and
+ * updating it is one atomic add, so recording from network callbacks, the
+ * main thread and pollers at once never blocks. Snapshots are taken while
+ * writers carry on and may be a few updates behind.
+ *
+ * Names are dotted paths, e.g. {@code net.GET /api/games/{id}.200} or
+ * {@code poll.empty}. {@link #toJson()} exports everything as one compact
+ * object:
+ *
+ * <pre>
+ *   {"uptimeMs":61234,
+ *    "counters":{"poll.empty":41,"poll.useful":6},
+ *    "histograms":{"net.GET /api/games/{id}.ms":{"n":47,"mean":38.2,"p50":31,"p90":63,"p99":127,"max":140}}}
+ * </pre>
+ */
+public class MetricsRegistry {
+
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private volatile long startMillis = System.currentTimeMillis();
+
+    /** The registry the client records into. */
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    // ===== RECORDING =====
+
+    public void increment(String name) {
+        counter(name).incrementAndGet();
+    }
+
+    public void add(String name, long delta) {
+        counter(name).addAndGet(delta);
+    }
+
+    /** Record one value, typically a latency in milliseconds, into the named histogram. */
+    public void record(String name, long value) {
+        histogram(name).record(value);
+    }
+
+    public AtomicLong counter(String name) {
+        AtomicLong counter = counters.get(name);
+        return counter != null ? counter : counters.computeIfAbsent(name, key -> new AtomicLong());
+    }
+
+    public LatencyHistogram histogram(String name) {
+        LatencyHistogram histogram = histograms.get(name);
+        return histogram != null ? histogram : histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    // ===== READING =====
+
+    /** Current value of a counter; 0 if it was never touched. */
+    public long count(String name) {
+        AtomicLong counter = counters.get(name);
+        return counter != null ? counter.get() : 0;
+    }
+
+    /** Every counter, sorted by name. */
+    public Map<String, Long> counters() {
+        Map<String, Long> values = new TreeMap<>();
+        for (Map.Entry<String, AtomicLong> counter : counters.entrySet()) {
+            values.put(counter.getKey(), counter.getValue().get());
+        }
+        return values;
+    }
+
+    /** Every histogram, sorted by name. The histograms are live, not copies. */
+    public Map<String, LatencyHistogram> histograms() {
+        return new TreeMap<>(histograms);
+    }
+
+    public long uptimeMillis() {
+        return System.currentTimeMillis() - startMillis;
+    }
+
+    /** Drop every metric and restart the uptime clock. */
+    public void reset() {
+        counters.clear();
+        histograms.clear();
+        startMillis = System.currentTimeMillis();
+    }
+
+    // ===== EXPORT =====
+
+    public String toJson() {
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"uptimeMs\":").append(uptimeMillis());
+
+        json.append(",\"counters\":{");
+        boolean first = true;
+        for (Map.Entry<String, Long> counter : counters().entrySet()) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            appendString(json, counter.getKey());
+            json.append(':').append(counter.getValue());
+        }
+
+        json.append("},\"histograms\":{");
+        first = true;
+        for (Map.Entry<String, LatencyHistogram> entry : histograms().entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            appendString(json, entry.getKey());
+            json.append(":{\"n\":").append(histogram.getCount())
+                    .append(",\"mean\":").append(String.format(Locale.US, "%.1f", histogram.getMean()))
+                    .append(",\"p50\":").append(histogram.getPercentile(50))
+                    .append(",\"p90\":").append(histogram.getPercentile(90))
+                    .append(",\"p99\":").append(histogram.getPercentile(99))
+                    .append(",\"max\":").append(histogram.getMax())
+                    .append('}');
+        }
+        return json.append("}}").toString();
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format(Locale.US, "\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+}
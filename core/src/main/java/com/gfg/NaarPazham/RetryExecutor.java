@@ -0,0 +1,250 @@
+package com.gfg.NaarPazham;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Retries asynchronous operations with full-jitter exponential backoff,
+ * behind the per-endpoint breakers of a {@link CircuitBreakerRegistry}.
+ *
+ * An operation gets an {@link Attempt} and reports back on it, from any
+ * thread and at any later time: succeed(), fail() to try again, or
+ * failPermanently() to stop. Only the first report of an attempt counts.
+ * The delay before retry n is drawn uniformly from
+ * {@code [0, min(maxDelay, initialDelay * multiplier^(n-1))]}, so clients
+ * that failed together don't all come back together.
+ *
+ * Retries run on the {@link Scheduler} (the main thread on Android); the
+ * first attempt runs on the calling thread. No retry goes out while the
+ * {@link Backpressure} cooldown is running. Safe to use from any thread.
+ * Attempts, retries and give-ups are counted in {@link MetricsRegistry#global()}
+ * under {@code retry.*}.
+ */
+public class RetryExecutor {
+
+    /** Runs a task after a delay; the Android client posts to a Handler. */
+    public interface Scheduler {
+        void schedule(Runnable task, long delayMs);
+    }
+
+    public interface Operation {
+        void execute(Attempt attempt);
+    }
+
+    public interface Callback {
+        void onSuccess();
+
+        void onFinalFailure(String error, int totalAttempts);
+
+        /** A retry has been scheduled; attempt is the number of the upcoming try. */
+        void onRetryAttempt(int attempt, long delayMs);
+    }
+
+    public static class Config {
+        /** Attempts in total, including the first. */
+        public final int maxAttempts;
+        public final long initialDelayMs;
+        public final double backoffMultiplier;
+        public final long maxDelayMs;
+        public final boolean useCircuitBreaker;
+
+        public Config(int maxAttempts, long initialDelayMs, double backoffMultiplier,
+                      long maxDelayMs, boolean useCircuitBreaker) {
+            if (maxAttempts <= 0 || initialDelayMs < 0 || backoffMultiplier < 1.0 || maxDelayMs < 0) {
+                throw new IllegalArgumentException("Invalid retry config");
+            }
+            this.maxAttempts = maxAttempts;
+            this.initialDelayMs = initialDelayMs;
+            this.backoffMultiplier = backoffMultiplier;
+            this.maxDelayMs = maxDelayMs;
+            this.useCircuitBreaker = useCircuitBreaker;
+        }
+
+        public static Config defaultConfig() {
+            return new Config(3, 1000, 2.0, 30000, true);
+        }
+
+        public static Config quickRetry() {
+            return new Config(2, 500, 1.5, 5000, false);
+        }
+
+        public static Config aggressiveRetry() {
+            return new Config(5, 2000, 2.5, 60000, true);
+        }
+
+        /** Upper bound of the delay before the given retry (1 = first retry). */
+        public long backoffCeilingMs(int retry) {
+            double ceiling = initialDelayMs * Math.pow(backoffMultiplier, Math.max(0, retry - 1));
+            return (long) Math.min(ceiling, maxDelayMs);
+        }
+
+        /** Full jitter: uniform in [0, backoffCeilingMs(retry)]. */
+        public long jitteredDelayMs(int retry) {
+            long ceiling = backoffCeilingMs(retry);
+            return ceiling > 0 ? ThreadLocalRandom.current().nextLong(ceiling + 1) : 0;
+        }
+    }
+
+    /** One try of an operation. Report its outcome exactly once. */
+    public final class Attempt {
+        private final Run run;
+        private final int number;
+        private final CircuitBreaker breaker;
+        private final AtomicBoolean reported = new AtomicBoolean();
+
+        Attempt(Run run, int number, CircuitBreaker breaker) {
+            this.run = run;
+            this.number = number;
+            this.breaker = breaker;
+        }
+
+        /** 1 for the first try. */
+        public int getNumber() {
+            return number;
+        }
+
+        public int getMaxAttempts() {
+            return run.config.maxAttempts;
+        }
+
+        public String getEndpoint() {
+            return run.endpoint;
+        }
+
+        public void succeed() {
+            if (reported.compareAndSet(false, true)) {
+                if (breaker != null) {
+                    breaker.recordSuccess();
+                }
+                run.callback.onSuccess();
+            }
+        }
+
+        /** A failure worth retrying: no response, a timeout, a 5xx. */
+        public void fail(String error) {
+            if (reported.compareAndSet(false, true)) {
+                if (breaker != null) {
+                    breaker.recordFailure();
+                }
+                retryOrGiveUp(run, number, error);
+            }
+        }
+
+        /**
+         * A failure retrying won't fix, e.g. a 4xx. The server did answer,
+         * so the breaker counts it as a success.
+         */
+        public void failPermanently(String error) {
+            if (reported.compareAndSet(false, true)) {
+                if (breaker != null) {
+                    breaker.recordSuccess();
+                }
+                MetricsRegistry.global().increment("retry.non_retryable");
+                run.callback.onFinalFailure(error, number);
+            }
+        }
+
+        /** The operation threw: give up without telling the breaker either way. */
+        void abandon(RuntimeException e) {
+            if (reported.compareAndSet(false, true)) {
+                MetricsRegistry.global().increment("retry.non_retryable");
+                run.callback.onFinalFailure("Non-retryable error: " + e.getMessage(), number);
+            }
+        }
+    }
+
+    private static final class Run {
+        final String endpoint;
+        final Operation operation;
+        final Callback callback;
+        final Config config;
+        final long generation;
+
+        Run(String endpoint, Operation operation, Callback callback, Config config, long generation) {
+            this.endpoint = endpoint;
+            this.operation = operation;
+            this.callback = callback;
+            this.config = config;
+            this.generation = generation;
+        }
+    }
+
+    private final Scheduler scheduler;
+    private final CircuitBreakerRegistry breakers;
+    private final Backpressure backpressure;
+    // Bumped by cancelAll(); retries scheduled under an older generation are dropped
+    private final AtomicLong generation = new AtomicLong();
+
+    public RetryExecutor(Scheduler scheduler, CircuitBreakerRegistry breakers) {
+        this(scheduler, breakers, new Backpressure());
+    }
+
+    public RetryExecutor(Scheduler scheduler, CircuitBreakerRegistry breakers, Backpressure backpressure) {
+        if (scheduler == null || breakers == null || backpressure == null) {
+            throw new IllegalArgumentException("Scheduler, breakers and backpressure cannot be null");
+        }
+        this.scheduler = scheduler;
+        this.breakers = breakers;
+        this.backpressure = backpressure;
+    }
+
+    /**
+     * Run {@code operation} until it succeeds, fails permanently, runs out of
+     * attempts or is stopped by the endpoint's open breaker. Exactly one of
+     * the callback's final methods is called, unless cancelAll() gets there
+     * first.
+     */
+    public void execute(String endpoint, Operation operation, Callback callback, Config config) {
+        if (endpoint == null || operation == null || callback == null || config == null) {
+            throw new IllegalArgumentException("Retry arguments cannot be null");
+        }
+        attempt(new Run(endpoint, operation, callback, config, generation.get()), 1);
+    }
+
+    /** Drop every scheduled retry. Attempts already running can still report. */
+    public void cancelAll() {
+        generation.incrementAndGet();
+    }
+
+    public CircuitBreakerRegistry getBreakers() {
+        return breakers;
+    }
+
+    private void attempt(Run run, int number) {
+        if (run.generation != generation.get()) {
+            return;
+        }
+        CircuitBreaker breaker = null;
+        if (run.config.useCircuitBreaker) {
+            breaker = breakers.get(run.endpoint);
+            if (breaker.acquire() == CircuitBreaker.REJECTED) {
+                MetricsRegistry.global().increment("retry.rejected_open_breaker");
+                run.callback.onFinalFailure("Service temporarily unavailable (circuit breaker open)", number);
+                return;
+            }
+        }
+
+        MetricsRegistry.global().increment("retry.attempts");
+        Attempt attempt = new Attempt(run, number, breaker);
+        try {
+            run.operation.execute(attempt);
+        } catch (RuntimeException e) {
+            // A bug in the operation, not a network failure: don't retry it.
+            // A trial left unreported is replaced once the reset timeout passes.
+            attempt.abandon(e);
+        }
+    }
+
+    private void retryOrGiveUp(Run run, int number, String error) {
+        if (number >= run.config.maxAttempts) {
+            MetricsRegistry.global().increment("retry.exhausted");
+            run.callback.onFinalFailure(error, number);
+            return;
+        }
+        long delay = backpressure.delayFor(run.config.jitteredDelayMs(number));
+        MetricsRegistry.global().increment("retry.scheduled");
+        run.callback.onRetryAttempt(number + 1, delay);
+        scheduler.schedule(() -> attempt(run, number + 1), delay);
+    }
+}
@@ -0,0 +1,208 @@
+package com.gfg.NaarPazham;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * API calls as binary WebSocket messages. A socket carries many calls at
+ * once, so each message starts with an id chosen by the client and echoed in
+ * the response.
+ *
+ * <pre>
+ *   u8      kind (1 = request, 2 = response)
+ *   i32     id
+ *   request:  utf method, utf path, utf content type ("" = no body)
+ *   response: u16 status, utf content type
+ *   u8      header count, then utf name, utf value for each
+ *   i32     body length, then the body
+ * </pre>
+ * Strings are DataOutputStream's modified UTF-8.
+ *
+ * The server also pushes game updates to spectators, unasked:
+ * <pre>
+ *   u8      kind (3 = event)
+ *   i32     sequence, see {@link #eventSequence(ServerGameState)}
+ *   ...     a GameWireCodec game state frame, to the end of the message
+ * </pre>
+ * An event has nothing specific to its receiver, so the same bytes go to
+ * every spectator of a game.
+ */
+public final class TransportEnvelope {
+    public static final int KIND_REQUEST = 1;
+    public static final int KIND_RESPONSE = 2;
+    public static final int KIND_EVENT = 3;
+
+    private static final int MAX_HEADERS = 255;
+
+    private TransportEnvelope() {}
+
+    public static byte[] encodeRequest(int id, TransportRequest request) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + bodyLength(request.getBody()));
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(KIND_REQUEST);
+            out.writeInt(id);
+            out.writeUTF(request.getMethod());
+            out.writeUTF(request.getPath());
+            out.writeUTF(request.hasBody() ? request.getContentType() : "");
+            writeHeaders(out, request.getHeaders());
+            writeBody(out, request.getBody());
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            // Writing to memory doesn't fail
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static byte[] encodeResponse(int id, TransportResponse response) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + response.getBody().length);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(KIND_RESPONSE);
+            out.writeInt(id);
+            out.writeShort(response.getStatus());
+            out.writeUTF(response.getContentType() != null ? response.getContentType() : "");
+            writeHeaders(out, response.getHeaders());
+            writeBody(out, response.getBody());
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static byte[] encodeEvent(ServerGameState state) {
+        byte[] frame = GameWireCodec.encodeGameState(state);
+        byte[] message = new byte[5 + frame.length];
+        int sequence = eventSequence(state);
+        message[0] = KIND_EVENT;
+        message[1] = (byte) (sequence >>> 24);
+        message[2] = (byte) (sequence >>> 16);
+        message[3] = (byte) (sequence >>> 8);
+        message[4] = (byte) sequence;
+        System.arraycopy(frame, 0, message, 5, frame.length);
+        return message;
+    }
+
+    /** The game an event carries; its sequence is {@link #id(byte[])}. */
+    public static ServerGameState decodeEvent(byte[] message) throws GameWireCodec.WireFormatException {
+        int kind = kind(message);
+        if (kind != KIND_EVENT) {
+            throw new GameWireCodec.WireFormatException("Expected envelope kind " + KIND_EVENT + " but got " + kind);
+        }
+        byte[] frame = new byte[message.length - 5];
+        System.arraycopy(message, 5, frame, 0, frame.length);
+        return GameWireCodec.decodeGameState(frame);
+    }
+
+    /**
+     * Orders the states of one game: every move adds a move, and the only
+     * other change, the game ending without one, moves it out of ACTIVE. A
+     * receiver can drop any state whose sequence isn't above the last it saw.
+     */
+    public static int eventSequence(ServerGameState state) {
+        return state.getTotalMoves() * 2 + ("ACTIVE".equals(state.getGameStatus()) ? 0 : 1);
+    }
+
+    /** The kind byte of a message, without decoding the rest. */
+    public static int kind(byte[] message) throws GameWireCodec.WireFormatException {
+        if (message == null || message.length < 5) {
+            throw new GameWireCodec.WireFormatException("Envelope too short");
+        }
+        return message[0] & 0xFF;
+    }
+
+    /** The id of a message, without decoding the rest. */
+    public static int id(byte[] message) throws GameWireCodec.WireFormatException {
+        kind(message);
+        return ((message[1] & 0xFF) << 24) | ((message[2] & 0xFF) << 16)
+                | ((message[3] & 0xFF) << 8) | (message[4] & 0xFF);
+    }
+
+    public static TransportRequest decodeRequest(byte[] message) throws GameWireCodec.WireFormatException {
+        DataInputStream in = open(message, KIND_REQUEST);
+        try {
+            TransportRequest request = new TransportRequest(in.readUTF(), in.readUTF());
+            String contentType = in.readUTF();
+            for (Map.Entry<String, String> header : readHeaders(in).entrySet()) {
+                request.header(header.getKey(), header.getValue());
+            }
+            byte[] body = readBody(in);
+            if (!contentType.isEmpty()) {
+                request.body(body, contentType);
+            }
+            return request;
+        } catch (IOException e) {
+            throw new GameWireCodec.WireFormatException("Truncated request envelope");
+        }
+    }
+
+    public static TransportResponse decodeResponse(byte[] message) throws GameWireCodec.WireFormatException {
+        DataInputStream in = open(message, KIND_RESPONSE);
+        try {
+            int status = in.readUnsignedShort();
+            String contentType = in.readUTF();
+            Map<String, String> headers = readHeaders(in);
+            byte[] body = readBody(in);
+            return new TransportResponse(status, contentType.isEmpty() ? null : contentType, headers, body);
+        } catch (IOException e) {
+            throw new GameWireCodec.WireFormatException("Truncated response envelope");
+        }
+    }
+
+    // ===== HELPERS =====
+
+    private static DataInputStream open(byte[] message, int expectedKind) throws GameWireCodec.WireFormatException {
+        int kind = kind(message);
+        if (kind != expectedKind) {
+            throw new GameWireCodec.WireFormatException("Expected envelope kind " + expectedKind + " but got " + kind);
+        }
+        // Skip kind and id
+        return new DataInputStream(new ByteArrayInputStream(message, 5, message.length - 5));
+    }
+
+    private static void writeHeaders(DataOutputStream out, Map<String, String> headers) throws IOException {
+        if (headers.size() > MAX_HEADERS) {
+            throw new IllegalArgumentException("Too many headers: " + headers.size());
+        }
+        out.writeByte(headers.size());
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            out.writeUTF(header.getKey());
+            out.writeUTF(header.getValue());
+        }
+    }
+
+    private static Map<String, String> readHeaders(DataInputStream in) throws IOException {
+        int count = in.readUnsignedByte();
+        Map<String, String> headers = new LinkedHashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            headers.put(in.readUTF(), in.readUTF());
+        }
+        return headers;
+    }
+
+    private static void writeBody(DataOutputStream out, byte[] body) throws IOException {
+        out.writeInt(bodyLength(body));
+        if (body != null) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] readBody(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > in.available()) {
+            throw new IOException("Invalid body length " + length);
+        }
+        byte[] body = new byte[length];
+        in.readFully(body);
+        return body;
+    }
+
+    private static int bodyLength(byte[] body) {
+        return body != null ? body.length : 0;
+    }
+}
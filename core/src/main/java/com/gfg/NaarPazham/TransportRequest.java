@@ -0,0 +1,162 @@
+package com.gfg.NaarPazham;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * One API call for a {@link GameTransport}: method, path relative to the
+ * server root (with any query string), headers and an optional typed body.
+ *
+ * <pre>
+ *   TransportRequest.post("/api/games/matchmaking/find")
+ *           .json(body.toString())
+ *           .header("X-Device-ID", deviceId)
+ *           .retryPolicy(30000, 2, 2.0f);
+ * </pre>
+ */
+public class TransportRequest {
+    public static final String JSON_CONTENT_TYPE = "application/json; charset=utf-8";
+
+    // Volley's DefaultRetryPolicy, which every request used before transports were pluggable
+    public static final int DEFAULT_TIMEOUT_MS = 2500;
+    public static final int DEFAULT_MAX_RETRIES = 1;
+    public static final float DEFAULT_BACKOFF_MULTIPLIER = 1.0f;
+
+    private final String method;
+    private final String path;
+    private final Map<String, String> headers = new LinkedHashMap<>();
+    private byte[] body;
+    private String contentType;
+    private int timeoutMs = DEFAULT_TIMEOUT_MS;
+    private int maxRetries = DEFAULT_MAX_RETRIES;
+    private float backoffMultiplier = DEFAULT_BACKOFF_MULTIPLIER;
+
+    public TransportRequest(String method, String path) {
+        if (method == null || path == null) {
+            throw new IllegalArgumentException("Method and path cannot be null");
+        }
+        this.method = method.toUpperCase(Locale.ROOT);
+        this.path = path;
+    }
+
+    public static TransportRequest get(String path) {
+        return new TransportRequest("GET", path);
+    }
+
+    public static TransportRequest post(String path) {
+        return new TransportRequest("POST", path);
+    }
+
+    public static TransportRequest delete(String path) {
+        return new TransportRequest("DELETE", path);
+    }
+
+    // ===== BUILDING =====
+
+    public TransportRequest header(String name, String value) {
+        if (value != null) {
+            headers.put(name, value);
+        }
+        return this;
+    }
+
+    /** A JSON body, already serialized (core has no JSON library). */
+    public TransportRequest json(String json) {
+        return body(json.getBytes(StandardCharsets.UTF_8), JSON_CONTENT_TYPE);
+    }
+
+    /** A frame in the binary game format. */
+    public TransportRequest binary(byte[] frame) {
+        return body(frame, GameWireCodec.VERSIONED_CONTENT_TYPE);
+    }
+
+    public TransportRequest body(byte[] body, String contentType) {
+        if (body == null || contentType == null) {
+            throw new IllegalArgumentException("Body and content type cannot be null");
+        }
+        this.body = body;
+        this.contentType = contentType;
+        return this;
+    }
+
+    /**
+     * Per-attempt timeout and retries, with the same meaning as Volley's
+     * DefaultRetryPolicy: each retry waits {@code backoffMultiplier} times
+     * longer than the last.
+     */
+    public TransportRequest retryPolicy(int timeoutMs, int maxRetries, float backoffMultiplier) {
+        if (timeoutMs <= 0 || maxRetries < 0) {
+            throw new IllegalArgumentException("Invalid retry policy");
+        }
+        this.timeoutMs = timeoutMs;
+        this.maxRetries = maxRetries;
+        this.backoffMultiplier = backoffMultiplier;
+        return this;
+    }
+
+    // ===== ACCESSORS =====
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public Map<String, String> getHeaders() {
+        return Collections.unmodifiableMap(headers);
+    }
+
+    /** The body, or null if the request has none. */
+    public byte[] getBody() {
+        return body;
+    }
+
+    /** Content type of the body, or null if the request has none. */
+    public String getContentType() {
+        return contentType;
+    }
+
+    public boolean hasBody() {
+        return body != null;
+    }
+
+    public int getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public float getBackoffMultiplier() {
+        return backoffMultiplier;
+    }
+
+    /** Timeout of the given attempt (0 = first try), as Volley grows it. */
+    public int timeoutForAttempt(int attempt) {
+        long timeout = timeoutMs;
+        for (int i = 0; i < attempt; i++) {
+            timeout += (long) (timeout * backoffMultiplier);
+        }
+        return (int) Math.min(timeout, Integer.MAX_VALUE);
+    }
+
+    /** Upper bound on how long the call can take, across all attempts. */
+    public long totalTimeoutMs() {
+        long total = 0;
+        for (int attempt = 0; attempt <= maxRetries; attempt++) {
+            total += timeoutForAttempt(attempt);
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + path;
+    }
+}
@@ -0,0 +1,62 @@
+package com.gfg.NaarPazham;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Status, headers and body of an API call, as delivered by a
+ * {@link GameTransport}. The body is either JSON or a binary game frame;
+ * {@link #isBinary()} tells which.
+ */
+public class TransportResponse {
+    private final int status;
+    private final String contentType;
+    private final Map<String, String> headers;
+    private final byte[] body;
+
+    public TransportResponse(int status, String contentType, Map<String, String> headers, byte[] body) {
+        this.status = status;
+        this.contentType = contentType;
+
+        Map<String, String> caseInsensitive = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (headers != null) {
+            caseInsensitive.putAll(headers);
+        }
+        this.headers = Collections.unmodifiableMap(caseInsensitive);
+        this.body = body != null ? body : new byte[0];
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public boolean isSuccessful() {
+        return status >= 200 && status < 300;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public String header(String name) {
+        return headers.get(name);
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public boolean isBinary() {
+        return GameWireCodec.isWireContentType(contentType);
+    }
+
+    public String bodyAsString() {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,194 @@
+package com.gfg.NaarPazham;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Frames decode to what was encoded, and anything that isn't a whole v1
+ * frame of the expected type is a WireFormatException rather than a
+ * half-filled object or a runtime exception.
+ */
+public class GameWireCodecTest {
+
+    @Test
+    public void gameStateRoundTrips() throws Exception {
+        for (ServerGameState state : Arrays.asList(midGame(), finished(), waiting(), unknownStatus())) {
+            assertSameGame(state, GameWireCodec.decodeGameState(GameWireCodec.encodeGameState(state)));
+        }
+    }
+
+    @Test
+    public void movesRoundTrip() throws Exception {
+        MoveRequest placement = GameWireCodec.decodeMove(GameWireCodec.encodeMove("PLAYER_A", 2, 1, null, null));
+        assertEquals("PLAYER_A", placement.getPlayerId());
+        assertEquals(Integer.valueOf(2), placement.getBoardX());
+        assertEquals(Integer.valueOf(1), placement.getBoardY());
+        assertNull(placement.getFromX());
+
+        MoveRequest move = GameWireCodec.decodeMove(GameWireCodec.encodeMove("PLAYER_B", 1, 1, 0, 2));
+        assertEquals("PLAYER_B", move.getPlayerId());
+        assertNull(move.getBoardX());
+        assertEquals(Integer.valueOf(0), move.getFromX());
+        assertEquals(Integer.valueOf(2), move.getFromY());
+        assertEquals(Integer.valueOf(1), move.getToX());
+        assertEquals(Integer.valueOf(1), move.getToY());
+    }
+
+    @Test
+    public void errorRoundTrips() throws Exception {
+        assertEquals("Not your turn", GameWireCodec.decodeError(GameWireCodec.encodeError("Not your turn")));
+        assertNull(GameWireCodec.decodeError(GameWireCodec.encodeError(null)));
+    }
+
+    @Test
+    public void truncatedFramesAreRejected() {
+        byte[][] frames = {
+                GameWireCodec.encodeGameState(midGame()),
+                GameWireCodec.encodeGameState(unknownStatus()),
+                GameWireCodec.encodeMove("PLAYER_A", 2, 1, null, null),
+                GameWireCodec.encodeError("Not your turn")
+        };
+        for (byte[] frame : frames) {
+            for (int length = 0; length < frame.length; length++) {
+                assertRejected(Arrays.copyOf(frame, length));
+            }
+        }
+        assertRejected(null);
+    }
+
+    @Test
+    public void unknownVersionIsRejected() {
+        byte[] frame = GameWireCodec.encodeGameState(midGame());
+        frame[0] = (byte) (GameWireCodec.SCHEMA_VERSION + 1);
+        assertRejected(frame);
+        try {
+            GameWireCodec.frameType(frame);
+            fail("Accepted schema version " + frame[0]);
+        } catch (GameWireCodec.WireFormatException expected) {
+            assertTrue(expected.getMessage().contains("version"));
+        }
+    }
+
+    @Test
+    public void wrongFrameTypeIsRejected() throws Exception {
+        byte[] move = GameWireCodec.encodeMove("PLAYER_A", 0, 0, null, null);
+        assertEquals(GameWireCodec.TYPE_MOVE, GameWireCodec.frameType(move));
+        try {
+            GameWireCodec.decodeGameState(move);
+            fail("Decoded a move frame as a game state");
+        } catch (GameWireCodec.WireFormatException expected) {
+            // Refused by type
+        }
+    }
+
+    @Test
+    public void invalidCellIsRejected() {
+        byte[] frame = GameWireCodec.encodeMove("PLAYER_A", 0, 0, null, null);
+        frame[2] = (byte) 0xF9; // Placement on cell 9, off the board
+        try {
+            GameWireCodec.decodeMove(frame);
+            fail("Decoded a move to cell 9");
+        } catch (GameWireCodec.WireFormatException expected) {
+            // Refused
+        }
+    }
+
+    // ===== HELPERS =====
+
+    /** Decoding must fail on every decoder, whichever frame type the bytes claim to be. */
+    private static void assertRejected(byte[] frame) {
+        String name = frame == null ? "null" : frame.length + " bytes";
+        try {
+            GameWireCodec.decodeGameState(frame);
+            fail("Decoded a game state from " + name);
+        } catch (GameWireCodec.WireFormatException expected) {
+            // Refused
+        }
+        try {
+            GameWireCodec.decodeMove(frame);
+            fail("Decoded a move from " + name);
+        } catch (GameWireCodec.WireFormatException expected) {
+            // Refused
+        }
+        try {
+            GameWireCodec.decodeError(frame);
+            fail("Decoded an error from " + name);
+        } catch (GameWireCodec.WireFormatException expected) {
+            // Refused
+        }
+    }
+
+    private static ServerGameState midGame() {
+        ServerGameState state = new ServerGameState("GAME_1700000000000_42");
+        state.setPlayer1Id("PLAYER_A");
+        state.setPlayer2Id("PLAYER_B");
+        state.setPlayer1Assigned(true);
+        state.setPlayer2Assigned(true);
+        state.setGameStarted(true);
+        state.setGameStatus("ACTIVE");
+        state.setPlayer1Moves(Arrays.asList(new PlayerMove(0, 0, true), new PlayerMove(1, 1, true)));
+        state.setPlayer2Moves(Arrays.asList(new PlayerMove(2, 0, false), new PlayerMove(0, 2, false)));
+        state.setPlayer1Turn(true);
+        state.setPlacementPhase(true);
+        state.setTotalMoves(4);
+        state.setLastActivity(1700000012345L);
+        return state;
+    }
+
+    private static ServerGameState finished() {
+        ServerGameState state = midGame();
+        state.setGameStatus("FINISHED");
+        state.setPlayer1Moves(Arrays.asList(new PlayerMove(0, 0, true), new PlayerMove(1, 1, true),
+                new PlayerMove(2, 2, true)));
+        state.setPlayer2Moves(Arrays.asList(new PlayerMove(2, 0, false), new PlayerMove(0, 2, false),
+                new PlayerMove(1, 0, false)));
+        state.setPlacementPhase(false);
+        state.setWinner("PLAYER 1");
+        state.setTotalMoves(11);
+        return state;
+    }
+
+    private static ServerGameState waiting() {
+        ServerGameState state = new ServerGameState("GAME_WAITING");
+        state.setPlayer1Id("PLAYER_A");
+        state.setPlayer1Assigned(true);
+        state.setGameStatus("WAITING_FOR_PLAYERS");
+        state.setPlayer1Moves(Collections.emptyList());
+        state.setPlayer2Moves(Collections.emptyList());
+        return state;
+    }
+
+    /** A status name the codec has no code for travels as a string. */
+    private static ServerGameState unknownStatus() {
+        ServerGameState state = midGame();
+        state.setGameStatus("PAUSED_FOR_REVIEW");
+        state.setPlayer1Turn(false);
+        return state;
+    }
+
+    private static void assertSameGame(ServerGameState expected, ServerGameState actual) {
+        assertEquals(expected.getGameId(), actual.getGameId());
+        assertEquals(expected.getPlayer1Id(), actual.getPlayer1Id());
+        assertEquals(expected.getPlayer2Id(), actual.getPlayer2Id());
+        assertEquals(expected.getGameStatus(), actual.getGameStatus());
+        assertEquals(expected.isPlayer1Turn(), actual.isPlayer1Turn());
+        assertEquals(expected.isPlacementPhase(), actual.isPlacementPhase());
+        assertEquals(expected.getWinner(), actual.getWinner());
+        assertEquals(expected.isGameStarted(), actual.isGameStarted());
+        assertEquals(expected.isPlayer1Assigned(), actual.isPlayer1Assigned());
+        assertEquals(expected.isPlayer2Assigned(), actual.isPlayer2Assigned());
+        assertEquals(expected.getTotalMoves(), actual.getTotalMoves());
+        assertEquals(expected.getLastActivity(), actual.getLastActivity());
+        // Masks don't keep placement order
+        assertEquals(new HashSet<>(expected.getPlayer1Moves()), new HashSet<>(actual.getPlayer1Moves()));
+        assertEquals(new HashSet<>(expected.getPlayer2Moves()), new HashSet<>(actual.getPlayer2Moves()));
+    }
+}
@@ -0,0 +1,203 @@
+package com.gfg.NaarPazham;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The invariants RetryConcurrencyBenchmark checks, as a test: several
+ * threads drive the breakers and the retry executor at once, and no
+ * breaker transition may be lost or doubled, nor any call finish twice or
+ * not at all.
+ */
+public class RetryConcurrencyTest {
+    private static final String[] ENDPOINTS = {"find", "status", "moves", "leave"};
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 20000;
+    private static final int CALLS_PER_THREAD = 250;
+
+    private ExecutorService workers;
+    private ScheduledExecutorService scheduler;
+    private ExecutorService network;
+
+    @Before
+    public void setUp() {
+        workers = Executors.newFixedThreadPool(THREADS);
+        scheduler = Executors.newScheduledThreadPool(2);
+        network = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        workers.shutdownNow();
+        scheduler.shutdownNow();
+        network.shutdownNow();
+    }
+
+    @Test
+    public void breakerTransitionsBalance() throws Exception {
+        AtomicLong ticks = new AtomicLong();
+        Map<String, Map<CircuitBreaker.State, AtomicLong>> entered = new ConcurrentHashMap<>();
+        Map<String, Map<CircuitBreaker.State, AtomicLong>> left = new ConcurrentHashMap<>();
+        Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+        for (String endpoint : ENDPOINTS) {
+            entered.put(endpoint, counters());
+            left.put(endpoint, counters());
+            entered.get(endpoint).get(CircuitBreaker.State.CLOSED).incrementAndGet();
+            // 1ms reset timeout on a clock that moves 1us each time it is read, so breakers cycle constantly
+            breakers.put(endpoint, new CircuitBreaker(endpoint, 5, 1, (name, from, to) -> {
+                left.get(name).get(from).incrementAndGet();
+                entered.get(name).get(to).incrementAndGet();
+            }, () -> ticks.incrementAndGet() * 1000));
+        }
+
+        runOnAllThreads(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                CircuitBreaker breaker = breakers.get(ENDPOINTS[random.nextInt(ENDPOINTS.length)]);
+                if (breaker.acquire() == CircuitBreaker.REJECTED) {
+                    continue;
+                }
+                if (random.nextInt(100) < 60) {
+                    breaker.recordFailure();
+                } else {
+                    breaker.recordSuccess();
+                }
+            }
+            return null;
+        });
+
+        long transitions = 0;
+        for (String endpoint : ENDPOINTS) {
+            CircuitBreaker breaker = breakers.get(endpoint);
+            assertTrue(endpoint + ": negative failure count", breaker.getFailureCount() >= 0);
+            for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+                long balance = entered.get(endpoint).get(state).get() - left.get(endpoint).get(state).get();
+                assertEquals(endpoint + ": " + state + " entered - left with the breaker " + breaker.getState(),
+                        breaker.getState() == state ? 1 : 0, balance);
+                transitions += left.get(endpoint).get(state).get();
+            }
+        }
+        assertTrue("Breakers never changed state", transitions > 0);
+    }
+
+    @Test
+    public void everyCallGetsExactlyOneFinalCallback() throws Exception {
+        RetryExecutor executor = new RetryExecutor(
+                (task, delayMs) -> scheduler.schedule(task, delayMs, TimeUnit.MILLISECONDS),
+                new CircuitBreakerRegistry(3, 2));
+        RetryExecutor.Config config = new RetryExecutor.Config(3, 1, 2.0, 4, true);
+        AtomicLong started = new AtomicLong();
+        AtomicLong finals = new AtomicLong();
+        AtomicLong duplicates = new AtomicLong();
+
+        runOnAllThreads(() -> {
+            List<CountDownLatch> calls = new ArrayList<>(CALLS_PER_THREAD);
+            for (int i = 0; i < CALLS_PER_THREAD; i++) {
+                CountDownLatch done = new CountDownLatch(1);
+                AtomicInteger callFinals = new AtomicInteger();
+                calls.add(done);
+                started.incrementAndGet();
+                executor.execute(ENDPOINTS[ThreadLocalRandom.current().nextInt(ENDPOINTS.length)],
+                        attempt -> network.execute(() -> report(attempt)),
+                        new RetryExecutor.Callback() {
+                            @Override
+                            public void onSuccess() {
+                                finish();
+                            }
+
+                            @Override
+                            public void onFinalFailure(String error, int totalAttempts) {
+                                finish();
+                            }
+
+                            @Override
+                            public void onRetryAttempt(int attempt, long delayMs) {
+                            }
+
+                            private void finish() {
+                                finals.incrementAndGet();
+                                if (callFinals.incrementAndGet() > 1) {
+                                    duplicates.incrementAndGet();
+                                }
+                                done.countDown();
+                            }
+                        }, config);
+            }
+            for (CountDownLatch done : calls) {
+                assertTrue("Call never completed", done.await(10, TimeUnit.SECONDS));
+            }
+            return null;
+        });
+
+        // Late reports may still be arriving; none of them may count
+        network.shutdown();
+        scheduler.shutdown();
+        assertTrue(network.awaitTermination(10, TimeUnit.SECONDS));
+        assertTrue(scheduler.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(THREADS * CALLS_PER_THREAD, started.get());
+        assertEquals(0, duplicates.get());
+        assertEquals(started.get(), finals.get());
+    }
+
+    // ===== HELPERS =====
+
+    /** Succeeds, fails or fails for good at random, sometimes reporting again afterwards. */
+    private static void report(RetryExecutor.Attempt attempt) {
+        int roll = ThreadLocalRandom.current().nextInt(100);
+        if (roll < 50) {
+            attempt.fail("timeout");
+        } else if (roll < 60) {
+            attempt.failPermanently("400");
+        } else {
+            attempt.succeed();
+        }
+        if (roll % 7 == 0) {
+            attempt.succeed();
+            attempt.fail("late");
+        }
+    }
+
+    /** Run the task on every worker at once and rethrow the first failure. */
+    private void runOnAllThreads(Callable<Void> task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Void>> results = new ArrayList<>(THREADS);
+        for (int i = 0; i < THREADS; i++) {
+            results.add(workers.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        for (Future<Void> result : results) {
+            result.get(60, TimeUnit.SECONDS);
+        }
+    }
+
+    private static Map<CircuitBreaker.State, AtomicLong> counters() {
+        Map<CircuitBreaker.State, AtomicLong> counters = new EnumMap<>(CircuitBreaker.State.class);
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            counters.put(state, new AtomicLong());
+        }
+        return counters;
+    }
+}
@@ -0,0 +1,88 @@
+package com.gfg.NaarPazham.loadgen;
+
+import com.gfg.NaarPazham.server.GameController;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Non-blocking HTTP client shared by every virtual player. Each request is
+ * timed from send to full body and recorded against its endpoint in the
+ * current stats window.
+ */
+class LoadClient {
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final Duration requestTimeout;
+
+    private volatile LoadStats stats = new LoadStats();
+
+    LoadClient(String baseUrl, long requestTimeoutMs, Executor executor) {
+        if (baseUrl == null) {
+            throw new IllegalArgumentException("Base URL cannot be null");
+        }
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(requestTimeout)
+                .executor(executor)
+                .build();
+    }
+
+    LoadStats stats() {
+        return stats;
+    }
+
+    /** Start a fresh measurement window and return the one that just ended. */
+    LoadStats resetStats() {
+        LoadStats previous = stats;
+        stats = new LoadStats();
+        return previous;
+    }
+
+    CompletableFuture<HttpResponse<byte[]>> get(String pathAndQuery, String... headers) {
+        return send("GET", pathAndQuery, null, null, headers);
+    }
+
+    CompletableFuture<HttpResponse<byte[]>> post(String pathAndQuery, byte[] body, String contentType,
+                                                 String... headers) {
+        return send("POST", pathAndQuery, body, contentType, headers);
+    }
+
+    private CompletableFuture<HttpResponse<byte[]>> send(String method, String pathAndQuery, byte[] body,
+                                                         String contentType, String... headers) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + pathAndQuery))
+                .timeout(requestTimeout)
+                .method(method, body != null
+                        ? HttpRequest.BodyPublishers.ofByteArray(body)
+                        : HttpRequest.BodyPublishers.noBody());
+        if (contentType != null) {
+            builder.header("Content-Type", contentType);
+        }
+        for (int i = 0; i + 1 < headers.length; i += 2) {
+            builder.header(headers[i], headers[i + 1]);
+        }
+
+        int queryStart = pathAndQuery.indexOf('?');
+        String endpoint = GameController.endpointName(method,
+                queryStart >= 0 ? pathAndQuery.substring(0, queryStart) : pathAndQuery);
+        LoadStats window = stats;
+        long start = System.nanoTime();
+
+        return http.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((response, error) -> {
+                    if (response != null) {
+                        window.recordResponse(endpoint, System.nanoTime() - start, response.statusCode());
+                    } else {
+                        window.recordFailure(endpoint);
+                    }
+                });
+    }
+}
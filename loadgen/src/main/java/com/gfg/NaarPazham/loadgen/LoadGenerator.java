@@ -0,0 +1,329 @@
+package com.gfg.NaarPazham.loadgen;
+
+import com.gfg.NaarPazham.server.GameServer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Staged load test for the /api/games backend. Each stage runs N virtual
+ * players (see {@link VirtualPlayer}) for a warm-up and a measured window,
+ * then reports p50/p99/p999 latency per endpoint. Throughput at saturation
+ * is the best stage; the first stage that stops scaling (or misses the p99
+ * target) is where the server saturated.
+ *
+ * <pre>
+ *   ./gradlew :loadgen:run --args="--players=100,500,1000,2000 --stage-seconds=30"
+ *   ./gradlew :loadgen:run --args="--target=http://localhost:8080 --think-ms=500-3000"
+ * </pre>
+ *
+ * Without --target an in-process stand-in server is started on a free port.
+ */
+public class LoadGenerator {
+
+    /** A stage whose throughput grows by less than this share of its added players is saturated. */
+    private static final double SCALING_THRESHOLD = 0.9;
+    private static final long STOP_TIMEOUT_MS = 30000;
+
+    private final LoadConfig config;
+    private final LoadClient client;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService httpExecutor;
+
+    public static class LoadConfig {
+        public final String targetUrl;
+        public final int[] playerStages;
+        public final int warmupSeconds;
+        public final int stageSeconds;
+        public final long thinkTimeMinMs;
+        public final long thinkTimeMaxMs;
+        public final long gamePollIntervalMs;
+        public final long statusInitialDelayMs;
+        public final long queueStatusIntervalMs;
+        public final long queueTimeoutMs;
+        public final long rejoinDelayMs;
+        public final int maxMovesPerGame;
+        public final boolean binaryProtocol;
+        public final long requestTimeoutMs;
+        public final long p99TargetMs;
+        public final int threads;
+
+        public LoadConfig(String targetUrl, int[] playerStages, int warmupSeconds, int stageSeconds,
+                          long thinkTimeMinMs, long thinkTimeMaxMs, long gamePollIntervalMs,
+                          long statusInitialDelayMs, long queueStatusIntervalMs, long queueTimeoutMs,
+                          long rejoinDelayMs, int maxMovesPerGame, boolean binaryProtocol,
+                          long requestTimeoutMs, long p99TargetMs, int threads) {
+            if (playerStages == null || playerStages.length == 0) {
+                throw new IllegalArgumentException("At least one player stage is required");
+            }
+            this.targetUrl = targetUrl;
+            this.playerStages = playerStages;
+            this.warmupSeconds = warmupSeconds;
+            this.stageSeconds = stageSeconds;
+            this.thinkTimeMinMs = thinkTimeMinMs;
+            this.thinkTimeMaxMs = thinkTimeMaxMs;
+            this.gamePollIntervalMs = gamePollIntervalMs;
+            this.statusInitialDelayMs = statusInitialDelayMs;
+            this.queueStatusIntervalMs = queueStatusIntervalMs;
+            this.queueTimeoutMs = queueTimeoutMs;
+            this.rejoinDelayMs = rejoinDelayMs;
+            this.maxMovesPerGame = maxMovesPerGame;
+            this.binaryProtocol = binaryProtocol;
+            this.requestTimeoutMs = requestTimeoutMs;
+            this.p99TargetMs = p99TargetMs;
+            this.threads = threads;
+        }
+
+        /** The app's own timings: 2s game polling, 3s queue checks, 30s request timeout. */
+        public static LoadConfig defaultConfig() {
+            return new LoadConfig(null, new int[] {50, 100, 250, 500, 1000}, 10, 30,
+                    500, 2000, 2000, 2000, 3000, 300000, 1000, 100, true, 30000, 500,
+                    Runtime.getRuntime().availableProcessors());
+        }
+
+        /** --name=value overrides on top of {@link #defaultConfig()}. */
+        public static LoadConfig fromArgs(String[] args) {
+            LoadConfig d = defaultConfig();
+            String target = d.targetUrl;
+            int[] stages = d.playerStages;
+            int warmup = d.warmupSeconds;
+            int stage = d.stageSeconds;
+            long thinkMin = d.thinkTimeMinMs;
+            long thinkMax = d.thinkTimeMaxMs;
+            long gamePoll = d.gamePollIntervalMs;
+            long statusDelay = d.statusInitialDelayMs;
+            long queueStatus = d.queueStatusIntervalMs;
+            long queueTimeout = d.queueTimeoutMs;
+            long rejoin = d.rejoinDelayMs;
+            int maxMoves = d.maxMovesPerGame;
+            boolean binary = d.binaryProtocol;
+            long timeout = d.requestTimeoutMs;
+            long p99Target = d.p99TargetMs;
+            int threads = d.threads;
+
+            for (String arg : args) {
+                int eq = arg.indexOf('=');
+                if (!arg.startsWith("--") || eq < 0) {
+                    throw new IllegalArgumentException("Expected --name=value, got " + arg);
+                }
+                String name = arg.substring(2, eq);
+                String value = arg.substring(eq + 1);
+                switch (name) {
+                    case "target": target = value; break;
+                    case "players": stages = parseStages(value); break;
+                    case "warmup-seconds": warmup = Integer.parseInt(value); break;
+                    case "stage-seconds": stage = Integer.parseInt(value); break;
+                    case "think-ms": {
+                        int dash = value.indexOf('-');
+                        thinkMin = Long.parseLong(dash < 0 ? value : value.substring(0, dash));
+                        thinkMax = dash < 0 ? thinkMin : Long.parseLong(value.substring(dash + 1));
+                        break;
+                    }
+                    case "game-poll-ms": gamePoll = Long.parseLong(value); break;
+                    case "status-delay-ms": statusDelay = Long.parseLong(value); break;
+                    case "queue-status-ms": queueStatus = Long.parseLong(value); break;
+                    case "queue-timeout-ms": queueTimeout = Long.parseLong(value); break;
+                    case "rejoin-ms": rejoin = Long.parseLong(value); break;
+                    case "max-moves": maxMoves = Integer.parseInt(value); break;
+                    case "binary": binary = Boolean.parseBoolean(value); break;
+                    case "timeout-ms": timeout = Long.parseLong(value); break;
+                    case "p99-target-ms": p99Target = Long.parseLong(value); break;
+                    case "threads": threads = Integer.parseInt(value); break;
+                    default: throw new IllegalArgumentException("Unknown option --" + name);
+                }
+            }
+            return new LoadConfig(target, stages, warmup, stage, thinkMin, thinkMax, gamePoll, statusDelay,
+                    queueStatus, queueTimeout, rejoin, maxMoves, binary, timeout, p99Target, threads);
+        }
+
+        private static int[] parseStages(String value) {
+            String[] parts = value.split(",");
+            int[] stages = new int[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                stages[i] = Integer.parseInt(parts[i].trim());
+            }
+            return stages;
+        }
+    }
+
+    /** What one stage measured, kept for the saturation summary. */
+    public static class StageResult {
+        public final int players;
+        public final double requestsPerSecond;
+        public final long p99Micros;
+        public final long errors;
+
+        StageResult(int players, double requestsPerSecond, long p99Micros, long errors) {
+            this.players = players;
+            this.requestsPerSecond = requestsPerSecond;
+            this.p99Micros = p99Micros;
+            this.errors = errors;
+        }
+    }
+
+    public LoadGenerator(LoadConfig config, String baseUrl) {
+        if (config == null) {
+            throw new IllegalArgumentException("LoadConfig cannot be null");
+        }
+        this.config = config;
+        this.httpExecutor = Executors.newFixedThreadPool(config.threads, daemon("LoadHttp"));
+        ScheduledThreadPoolExecutor pool = new ScheduledThreadPoolExecutor(config.threads, daemon("LoadPlayer"));
+        pool.setRemoveOnCancelPolicy(true);
+        this.scheduler = pool;
+        this.client = new LoadClient(baseUrl, config.requestTimeoutMs, httpExecutor);
+    }
+
+    public List<StageResult> run() throws InterruptedException {
+        List<StageResult> results = new ArrayList<>();
+        for (int stage = 0; stage < config.playerStages.length; stage++) {
+            results.add(runStage(stage, config.playerStages[stage]));
+        }
+        printSummary(results);
+        return results;
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+        httpExecutor.shutdownNow();
+    }
+
+    // ===== STAGES =====
+
+    private StageResult runStage(int stage, int playerCount) throws InterruptedException {
+        System.out.printf("%nStage %d: %d players (%ds warm-up, %ds measured)%n",
+                stage + 1, playerCount, config.warmupSeconds, config.stageSeconds);
+
+        CountDownLatch stopped = new CountDownLatch(playerCount);
+        List<VirtualPlayer> players = new ArrayList<>(playerCount);
+        // Spread arrivals over the first half of the warm-up so the queue isn't hit all at once
+        long rampMs = config.warmupSeconds * 1000L / 2;
+        for (int i = 0; i < playerCount; i++) {
+            String suffix = (stage + 1) + "_" + i;
+            VirtualPlayer player = new VirtualPlayer("LOAD_PLAYER_" + suffix, "LOAD_DEVICE_" + suffix,
+                    config, client, scheduler, stopped);
+            players.add(player);
+            player.start(playerCount > 1 ? rampMs * i / (playerCount - 1) : 0);
+        }
+
+        Thread.sleep(config.warmupSeconds * 1000L);
+        client.resetStats();
+        Thread.sleep(config.stageSeconds * 1000L);
+        LoadStats stats = client.resetStats();
+        double seconds = stats.elapsedSeconds();
+
+        for (VirtualPlayer player : players) {
+            player.stop();
+        }
+        if (!stopped.await(STOP_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            System.out.println("  " + stopped.getCount() + " players did not leave cleanly");
+        }
+
+        return report(playerCount, stats, seconds);
+    }
+
+    // ===== REPORTING =====
+
+    private StageResult report(int playerCount, LoadStats stats, double seconds) {
+        System.out.printf("  %-26s %8s %9s %9s %9s %9s %9s %6s %6s %6s %6s%n",
+                "endpoint", "count", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "4xx", "5xx", "shed", "fail");
+        for (Map.Entry<String, LoadStats.EndpointStats> entry : stats.endpoints().entrySet()) {
+            printRow(entry.getKey(), entry.getValue(), seconds);
+        }
+        LoadStats.EndpointStats total = stats.total();
+        printRow("TOTAL", total, seconds);
+
+        System.out.printf("  matches %d, games %d (%.1f/s), moves %d (%.1f/s), match wait p50 %.1fs p99 %.1fs%n",
+                stats.matchesFound.get(), stats.gamesPlayed.get(), stats.gamesPlayed.get() / seconds,
+                stats.movesMade.get(), stats.movesMade.get() / seconds,
+                stats.matchWaitMillis.getPercentile(50) / 1000.0, stats.matchWaitMillis.getPercentile(99) / 1000.0);
+
+        return new StageResult(playerCount, total.requests() / seconds, total.latencyMicros.getPercentile(99),
+                total.serverErrors.get() + total.shed.get() + total.failures.get());
+    }
+
+    private static void printRow(String name, LoadStats.EndpointStats stats, double seconds) {
+        System.out.printf("  %-26s %8d %9.1f %9.2f %9.2f %9.2f %9.2f %6d %6d %6d %6d%n",
+                name, stats.requests(), stats.requests() / seconds,
+                millis(stats.latencyMicros.getPercentile(50)),
+                millis(stats.latencyMicros.getPercentile(99)),
+                millis(stats.latencyMicros.getPercentile(99.9)),
+                millis(stats.latencyMicros.getMax()),
+                stats.clientErrors.get(), stats.serverErrors.get(), stats.shed.get(), stats.failures.get());
+    }
+
+    private void printSummary(List<StageResult> results) {
+        System.out.printf("%nSummary%n  %8s %10s %10s %8s  %s%n", "players", "req/s", "p99 ms", "errors", "");
+
+        StageResult best = null;
+        StageResult saturatedAt = null;
+        StageResult previous = null;
+        for (StageResult result : results) {
+            String note = "";
+            boolean missedTarget = millis(result.p99Micros) > config.p99TargetMs || result.errors > 0;
+            boolean stoppedScaling = previous != null && result.players > previous.players
+                    && result.requestsPerSecond - previous.requestsPerSecond
+                    < SCALING_THRESHOLD * previous.requestsPerSecond * (result.players - previous.players) / previous.players;
+            if (saturatedAt == null && (missedTarget || stoppedScaling)) {
+                saturatedAt = result;
+                note = missedTarget ? "<- saturated (p99 target / errors)" : "<- saturated (stopped scaling)";
+            }
+            if (best == null || result.requestsPerSecond > best.requestsPerSecond) {
+                best = result;
+            }
+            System.out.printf("  %8d %10.1f %10.2f %8d  %s%n",
+                    result.players, result.requestsPerSecond, millis(result.p99Micros), result.errors, note);
+            previous = result;
+        }
+
+        if (saturatedAt != null) {
+            System.out.printf("%nSaturated at %d players; throughput at saturation %.1f req/s (peak at %d players)%n",
+                    saturatedAt.players, best.requestsPerSecond, best.players);
+        } else {
+            System.out.printf("%nNo stage saturated the server (peak %.1f req/s at %d players); add larger --players stages%n",
+                    best.requestsPerSecond, best.players);
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.fromArgs(args);
+
+        GameServer embedded = null;
+        String baseUrl = config.targetUrl;
+        if (baseUrl == null) {
+            GameServer.ServerConfig serverConfig = GameServer.ServerConfig.onPort(0);
+            embedded = GameServer.start(serverConfig);
+            baseUrl = "http://localhost:" + embedded.getPort();
+            System.out.println("Started in-process server on " + baseUrl);
+        }
+
+        LoadGenerator generator = new LoadGenerator(config, baseUrl);
+        try {
+            generator.run();
+        } finally {
+            generator.shutdown();
+            if (embedded != null) {
+                embedded.stop();
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.gfg.NaarPazham.loadgen;
+
+import com.gfg.NaarPazham.LatencyHistogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Everything measured during one window of a load run: per-endpoint latency
+ * (microseconds) and outcome counts, plus game-level counters.
+ */
+class LoadStats {
+
+    final long startNanos = System.nanoTime();
+    final AtomicLong gamesPlayed = new AtomicLong();
+    final AtomicLong movesMade = new AtomicLong();
+    final AtomicLong matchesFound = new AtomicLong();
+    final LatencyHistogram matchWaitMillis = new LatencyHistogram();
+
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+    static class EndpointStats {
+        final LatencyHistogram latencyMicros = new LatencyHistogram();
+        final AtomicLong clientErrors = new AtomicLong();
+        final AtomicLong serverErrors = new AtomicLong();
+        /** 429s and 503s: the server shedding load, counted apart from real errors. */
+        final AtomicLong shed = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+
+        long requests() {
+            return latencyMicros.getCount() + failures.get();
+        }
+    }
+
+    /** A completed exchange; status is the HTTP status code. */
+    void recordResponse(String endpoint, long latencyNanos, int status) {
+        EndpointStats stats = endpoint(endpoint);
+        stats.latencyMicros.record(latencyNanos / 1000);
+        if (status == 429 || status == 503) {
+            stats.shed.incrementAndGet();
+        } else if (status >= 500) {
+            stats.serverErrors.incrementAndGet();
+        } else if (status >= 400) {
+            stats.clientErrors.incrementAndGet();
+        }
+    }
+
+    /** No response at all: connection failure or timeout. */
+    void recordFailure(String endpoint) {
+        endpoint(endpoint).failures.incrementAndGet();
+    }
+
+    /** Endpoints sorted by name. */
+    Map<String, EndpointStats> endpoints() {
+        return new TreeMap<>(endpoints);
+    }
+
+    /** All endpoints merged into one. */
+    EndpointStats total() {
+        EndpointStats total = new EndpointStats();
+        for (EndpointStats stats : endpoints.values()) {
+            total.latencyMicros.add(stats.latencyMicros);
+            total.clientErrors.addAndGet(stats.clientErrors.get());
+            total.serverErrors.addAndGet(stats.serverErrors.get());
+            total.shed.addAndGet(stats.shed.get());
+            total.failures.addAndGet(stats.failures.get());
+        }
+        return total;
+    }
+
+    double elapsedSeconds() {
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+
+    private EndpointStats endpoint(String endpoint) {
+        return endpoints.computeIfAbsent(endpoint, name -> new EndpointStats());
+    }
+}
@@ -0,0 +1,496 @@
+package com.gfg.NaarPazham.loadgen;
+
+import com.gfg.NaarPazham.Backpressure;
+import com.gfg.NaarPazham.GameRules;
+import com.gfg.NaarPazham.GameWireCodec;
+import com.gfg.NaarPazham.ServerGameState;
+import com.gfg.NaarPazham.server.GameController;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One simulated client, replaying the app's request sequence:
+ *
+ * <pre>
+ *   QueueManager.joinQueue          POST matchmaking/find
+ *     status checks every 3s        GET  matchmaking/player-status/{id}
+ *   findMatchWithEnhancedPolling    GET  matchmaking/status/{id}  (2s, then 3/5/8/10s)
+ *   GamePollingService              GET  {gameId}?playerId        (every 2s)
+ *   processMove on our turn         POST {gameId}/moves           (after think time)
+ *   leaveGame                       POST {gameId}/leave
+ * </pre>
+ *
+ * then queues again until stopped. Nothing blocks: every step is an async
+ * request or a scheduled task, and responses are handled back on the shared
+ * scheduler, so thousands of players share a few threads.
+ *
+ * Like the app, each player backs off its polling when the server sheds it
+ * with a 429/503 and Retry-After (see {@link Backpressure}).
+ */
+class VirtualPlayer {
+
+    private static final String API = "/api/games";
+    private static final String JSON_CONTENT_TYPE = "application/json; charset=utf-8";
+    private static final long RETRY_DELAY_MS = 5000;
+
+    private enum Phase { IDLE, QUEUED, PLAYING, STOPPED }
+
+    private final String playerId;
+    private final String deviceId;
+    private final LoadGenerator.LoadConfig config;
+    private final LoadClient client;
+    private final ScheduledExecutorService scheduler;
+    private final CountDownLatch stoppedLatch;
+    // Per player, as each app instance has its own
+    private final Backpressure backpressure = new Backpressure();
+
+    // Bumped on every queue join or game start so stale poll chains die out
+    private final AtomicInteger epoch = new AtomicInteger();
+    private final AtomicBoolean moveInFlight = new AtomicBoolean();
+    private final AtomicBoolean stopped = new AtomicBoolean();
+    private volatile Phase phase = Phase.IDLE;
+    private volatile boolean stopping;
+    private volatile boolean serverSupportsBinary;
+
+    private volatile long queueStartTime;
+    private volatile String gameId;
+    private volatile boolean isPlayer1;
+
+    VirtualPlayer(String playerId, String deviceId, LoadGenerator.LoadConfig config, LoadClient client,
+                  ScheduledExecutorService scheduler, CountDownLatch stoppedLatch) {
+        this.playerId = playerId;
+        this.deviceId = deviceId;
+        this.config = config;
+        this.client = client;
+        this.scheduler = scheduler;
+        this.stoppedLatch = stoppedLatch;
+    }
+
+    void start(long delayMs) {
+        later(this::joinQueue, delayMs);
+    }
+
+    /** Finish the current step, leave any queue or game, then count down. */
+    void stop() {
+        stopping = true;
+        if (phase == Phase.IDLE) {
+            markStopped();
+        }
+    }
+
+    // ===== MATCHMAKING =====
+
+    private void joinQueue() {
+        if (stopping) {
+            markStopped();
+            return;
+        }
+        int myEpoch = epoch.incrementAndGet();
+        queueStartTime = System.currentTimeMillis();
+        phase = Phase.QUEUED;
+
+        JSONObject body = new JSONObject().put("playerId", playerId);
+        post(API + "/matchmaking/find", body.toString().getBytes(StandardCharsets.UTF_8),
+                        JSON_CONTENT_TYPE, "X-Device-ID", deviceId)
+                .whenComplete((response, error) -> later(() -> {
+                    if (!isCurrent(myEpoch)) {
+                        return;
+                    }
+                    if (stopping) {
+                        cancelQueue();
+                        return;
+                    }
+                    if (response == null || (response.statusCode() != 200 && response.statusCode() != 409)) {
+                        phase = Phase.IDLE;
+                        later(this::joinQueue, pollDelay(RETRY_DELAY_MS));
+                        return;
+                    }
+                    if (response.statusCode() == 200 && onMatchmakingResponse(response)) {
+                        return;
+                    }
+                    // waiting / already queued: QueueManager and enhanced polling both start
+                    if (config.queueStatusIntervalMs > 0) {
+                        later(() -> checkQueueStatus(myEpoch), pollDelay(config.queueStatusIntervalMs));
+                    }
+                    later(() -> pollMatchStatus(myEpoch), pollDelay(config.statusInitialDelayMs));
+                }, 0));
+    }
+
+    private void pollMatchStatus(int myEpoch) {
+        if (!isQueued(myEpoch)) {
+            return;
+        }
+        if (stopping) {
+            cancelQueue();
+            return;
+        }
+        long elapsed = System.currentTimeMillis() - queueStartTime;
+        if (elapsed >= config.queueTimeoutMs) {
+            // QueueManager gives up, leaves the queue and the player tries again
+            epoch.incrementAndGet();
+            cancelThen(this::joinQueue);
+            return;
+        }
+
+        get(API + "/matchmaking/status/" + playerId)
+                .whenComplete((response, error) -> later(() -> {
+                    if (!isQueued(myEpoch)) {
+                        return;
+                    }
+                    if (response != null && response.statusCode() == 404) {
+                        // Dropped from the queue server-side
+                        phase = Phase.IDLE;
+                        later(this::joinQueue, config.rejoinDelayMs);
+                        return;
+                    }
+                    if (response != null && response.statusCode() == 200 && onMatchmakingResponse(response)) {
+                        return;
+                    }
+                    later(() -> pollMatchStatus(myEpoch), pollDelay(pollingInterval(elapsed)));
+                }, 0));
+    }
+
+    private void checkQueueStatus(int myEpoch) {
+        if (!isQueued(myEpoch) || stopping) {
+            return;
+        }
+        get(API + "/matchmaking/player-status/" + playerId)
+                .whenComplete((response, error) -> later(() -> checkQueueStatus(myEpoch),
+                        pollDelay(config.queueStatusIntervalMs)));
+    }
+
+    /** True once the response says we are matched and the game has started. */
+    private boolean onMatchmakingResponse(HttpResponse<byte[]> response) {
+        JSONObject json = new JSONObject(new String(response.body(), StandardCharsets.UTF_8));
+        if (!"match_found".equals(json.optString("status"))) {
+            return false;
+        }
+        client.stats().matchesFound.incrementAndGet();
+        client.stats().matchWaitMillis.record(System.currentTimeMillis() - queueStartTime);
+        startGame(json.getString("gameId"), json.optInt("playerNumber") == 1);
+        return true;
+    }
+
+    private void cancelQueue() {
+        cancelThen(this::markStopped);
+    }
+
+    private void cancelThen(Runnable next) {
+        JSONObject body = new JSONObject().put("playerId", playerId);
+        post(API + "/matchmaking/cancel", body.toString().getBytes(StandardCharsets.UTF_8),
+                        JSON_CONTENT_TYPE)
+                .whenComplete((response, error) -> later(() -> {
+                    phase = Phase.IDLE;
+                    next.run();
+                }, 0));
+    }
+
+    // Same schedule as NetworkService.calculatePollingInterval
+    private static long pollingInterval(long elapsedMs) {
+        if (elapsedMs < 30_000) {
+            return 3_000;
+        } else if (elapsedMs < 60_000) {
+            return 5_000;
+        } else if (elapsedMs < 2 * 60_000) {
+            return 8_000;
+        }
+        return 10_000;
+    }
+
+    // ===== GAME =====
+
+    private void startGame(String newGameId, boolean player1) {
+        int myEpoch = epoch.incrementAndGet();
+        gameId = newGameId;
+        isPlayer1 = player1;
+        moveInFlight.set(false);
+        phase = Phase.PLAYING;
+        later(() -> pollGame(myEpoch), 0);
+    }
+
+    private void pollGame(int myEpoch) {
+        if (!isPlaying(myEpoch)) {
+            return;
+        }
+        if (stopping) {
+            leaveGame(myEpoch);
+            return;
+        }
+
+        get(API + "/" + gameId + "?playerId=" + playerId, gameHeaders())
+                .whenComplete((response, error) -> later(() -> {
+                    if (!isPlaying(myEpoch)) {
+                        return;
+                    }
+                    if (response != null && (response.statusCode() == 404 || response.statusCode() == 403)) {
+                        leaveGame(myEpoch);
+                        return;
+                    }
+                    long state = response != null && response.statusCode() == 200 ? parseState(response) : -1;
+                    if (state >= 0 && onGameState(myEpoch, state)) {
+                        return;
+                    }
+                    later(() -> pollGame(myEpoch), pollDelay(config.gamePollIntervalMs));
+                }, 0));
+    }
+
+    /** True once the game is over and the player has moved on. */
+    private boolean onGameState(int myEpoch, long state) {
+        if (GameRules.isGameOver(state) || GameRules.moveCount(state) >= config.maxMovesPerGame) {
+            leaveGame(myEpoch);
+            return true;
+        }
+        if (GameRules.isPlayer1Turn(state) == isPlayer1 && moveInFlight.compareAndSet(false, true)) {
+            long thinkMs = config.thinkTimeMinMs >= config.thinkTimeMaxMs ? config.thinkTimeMinMs
+                    : ThreadLocalRandom.current().nextLong(config.thinkTimeMinMs, config.thinkTimeMaxMs + 1);
+            later(() -> sendMove(myEpoch, state), thinkMs);
+        }
+        return false;
+    }
+
+    private void sendMove(int myEpoch, long state) {
+        if (!isPlaying(myEpoch) || stopping) {
+            moveInFlight.set(false);
+            return;
+        }
+        int[] move = chooseMove(state, isPlayer1);
+        if (move == null) {
+            // Blocked in: nothing legal to do, so concede
+            leaveGame(myEpoch);
+            return;
+        }
+
+        int fromCell = move[0];
+        int toCell = move[1];
+        Integer fromX = fromCell != GameRules.NO_CELL ? GameRules.cellX(fromCell) : null;
+        Integer fromY = fromCell != GameRules.NO_CELL ? GameRules.cellY(fromCell) : null;
+        byte[] body;
+        String contentType;
+        if (config.binaryProtocol && serverSupportsBinary) {
+            body = GameWireCodec.encodeMove(playerId, GameRules.cellX(toCell), GameRules.cellY(toCell), fromX, fromY);
+            contentType = GameWireCodec.VERSIONED_CONTENT_TYPE;
+        } else {
+            JSONObject json = new JSONObject()
+                    .put("playerId", playerId)
+                    .put("boardX", GameRules.cellX(toCell))
+                    .put("boardY", GameRules.cellY(toCell));
+            if (fromX != null) {
+                json.put("fromX", fromX).put("fromY", fromY);
+            }
+            body = json.toString().getBytes(StandardCharsets.UTF_8);
+            contentType = JSON_CONTENT_TYPE;
+        }
+
+        post(API + "/" + gameId + "/moves", body, contentType, moveHeaders(state))
+                .whenComplete((response, error) -> later(() -> {
+                    moveInFlight.set(false);
+                    if (!isPlaying(myEpoch) || response == null || response.statusCode() != 200) {
+                        return;
+                    }
+                    long next = parseState(response);
+                    if (next >= 0 && GameRules.moveCount(next) > GameRules.moveCount(state)) {
+                        client.stats().movesMade.incrementAndGet();
+                    }
+                    if (next >= 0 && GameRules.isGameOver(next)) {
+                        leaveGame(myEpoch);
+                    }
+                }, 0));
+    }
+
+    private void leaveGame(int myEpoch) {
+        if (!isPlaying(myEpoch) || !epoch.compareAndSet(myEpoch, myEpoch + 1)) {
+            return;
+        }
+        if (isPlayer1) {
+            client.stats().gamesPlayed.incrementAndGet();
+        }
+        post(API + "/" + gameId + "/leave?playerId=" + playerId, new byte[0], JSON_CONTENT_TYPE)
+                .whenComplete((response, error) -> later(() -> {
+                    phase = Phase.IDLE;
+                    if (stopping) {
+                        markStopped();
+                    } else {
+                        later(this::joinQueue, config.rejoinDelayMs);
+                    }
+                }, 0));
+    }
+
+    private String[] gameHeaders() {
+        if (!config.binaryProtocol) {
+            return new String[] {"X-Device-ID", deviceId};
+        }
+        return new String[] {"Accept", GameWireCodec.ACCEPT_HEADER, "X-Device-ID", deviceId};
+    }
+
+    // As NetworkService.processMove: a fresh key per move, and the board it was chosen on
+    private String[] moveHeaders(long state) {
+        String[] game = gameHeaders();
+        String[] headers = Arrays.copyOf(game, game.length + 4);
+        headers[game.length] = GameController.IDEMPOTENCY_KEY_HEADER;
+        headers[game.length + 1] = UUID.randomUUID().toString();
+        headers[game.length + 2] = GameController.MOVE_SEQUENCE_HEADER;
+        headers[game.length + 3] = Integer.toString(GameRules.moveCount(state));
+        return headers;
+    }
+
+    /** Packed GameRules state from a game response, or -1 if there is none. */
+    private long parseState(HttpResponse<byte[]> response) {
+        try {
+            String contentType = response.headers().firstValue("Content-Type").orElse(null);
+            if (GameWireCodec.isWireContentType(contentType)) {
+                byte[] frame = response.body();
+                if (GameWireCodec.frameType(frame) != GameWireCodec.TYPE_GAME_STATE) {
+                    return -1;
+                }
+                serverSupportsBinary = true;
+                return packedState(GameWireCodec.decodeGameState(frame));
+            }
+
+            JSONObject json = new JSONObject(new String(response.body(), StandardCharsets.UTF_8));
+            JSONObject game = json.optJSONObject("game");
+            if (game == null) {
+                return -1;
+            }
+            int winner = "PLAYER 1".equals(game.optString("winner")) ? GameRules.WINNER_PLAYER_1
+                    : "PLAYER 2".equals(game.optString("winner")) ? GameRules.WINNER_PLAYER_2
+                    : GameRules.WINNER_NONE;
+            if (winner == GameRules.WINNER_NONE && !"ACTIVE".equals(game.optString("gameStatus"))) {
+                winner = isPlayer1 ? GameRules.WINNER_PLAYER_2 : GameRules.WINNER_PLAYER_1;
+            }
+            return GameRules.pack(maskOf(game.optJSONArray("player1Moves")),
+                    maskOf(game.optJSONArray("player2Moves")), winner, game.optInt("totalMoves"));
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private long packedState(ServerGameState game) {
+        long state = GameRules.fromServerState(game);
+        if (!GameRules.isGameOver(state) && !game.isActive()) {
+            // Abandoned without a recorded winner still ends the game for us
+            state = GameRules.withWinner(state, isPlayer1 ? GameRules.WINNER_PLAYER_2 : GameRules.WINNER_PLAYER_1);
+        }
+        return state;
+    }
+
+    private static int maskOf(JSONArray moves) {
+        int mask = 0;
+        for (int i = 0; moves != null && i < moves.length(); i++) {
+            JSONObject move = moves.getJSONObject(i);
+            int cell = GameRules.cellIndex(move.getInt("boardX"), move.getInt("boardY"));
+            if (cell != GameRules.NO_CELL) {
+                mask |= 1 << cell;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * A winning move if there is one, otherwise a random legal move, as
+     * {fromCell, toCell}; fromCell is NO_CELL for placements. Null if stuck.
+     */
+    static int[] chooseMove(long state, boolean player1) {
+        int own = GameRules.playerMask(state, player1);
+        int occupied = own | GameRules.playerMask(state, !player1);
+        List<int[]> legal = new ArrayList<>();
+
+        for (int to = 0; to < GameRules.CELL_COUNT; to++) {
+            if ((occupied & (1 << to)) != 0) {
+                continue;
+            }
+            if (GameRules.isPlacementPhase(state)) {
+                legal.add(new int[] {GameRules.NO_CELL, to});
+                continue;
+            }
+            for (int from = 0; from < GameRules.CELL_COUNT; from++) {
+                if ((own & (1 << from)) != 0 && GameRules.areAdjacent(from, to)) {
+                    legal.add(new int[] {from, to});
+                }
+            }
+        }
+
+        for (int[] move : legal) {
+            long next = GameRules.apply(state, player1, move[0], move[1]);
+            if (!GameRules.isError(next) && GameRules.isGameOver(next)) {
+                return move;
+            }
+        }
+        return legal.isEmpty() ? null : legal.get(ThreadLocalRandom.current().nextInt(legal.size()));
+    }
+
+    // ===== HELPERS =====
+
+    private boolean isCurrent(int myEpoch) {
+        return epoch.get() == myEpoch;
+    }
+
+    private boolean isQueued(int myEpoch) {
+        return phase == Phase.QUEUED && isCurrent(myEpoch);
+    }
+
+    private boolean isPlaying(int myEpoch) {
+        return phase == Phase.PLAYING && isCurrent(myEpoch);
+    }
+
+    // ===== REQUESTS =====
+
+    private CompletableFuture<HttpResponse<byte[]>> get(String pathAndQuery, String... headers) {
+        return client.get(pathAndQuery, headers).whenComplete(this::observe);
+    }
+
+    private CompletableFuture<HttpResponse<byte[]>> post(String pathAndQuery, byte[] body, String contentType,
+                                                         String... headers) {
+        return client.post(pathAndQuery, body, contentType, headers).whenComplete(this::observe);
+    }
+
+    private void observe(HttpResponse<byte[]> response, Throwable error) {
+        if (response != null) {
+            backpressure.onResponse(response.statusCode(), response.headers().firstValue("Retry-After").orElse(null));
+        }
+    }
+
+    private long pollDelay(long plannedMs) {
+        return backpressure.delayFor(plannedMs);
+    }
+
+    private void later(Runnable task, long delayMs) {
+        if (scheduler.isShutdown()) {
+            return;
+        }
+        scheduler.schedule(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                // A malformed response must not kill the player; start over
+                phase = Phase.IDLE;
+                if (stopping) {
+                    markStopped();
+                } else {
+                    later(this::joinQueue, RETRY_DELAY_MS);
+                }
+            }
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void markStopped() {
+        phase = Phase.STOPPED;
+        if (stopped.compareAndSet(false, true)) {
+            stoppedLatch.countDown();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.gfg.NaarPazham.server;
+
+import com.gfg.NaarPazham.GameRules;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * processMove throughput under contention at 1, 8 and 64 threads.
+ *
+ * Every game replays a script that never ends: six placements, then both
+ * players shuffling one piece back and forth. Each thread picks random games
+ * and plays the scripted move for the move count it last saw; when another
+ * thread got there first the move is rejected (still a full locked
+ * validation) and the thread catches up from the returned state. "applied"
+ * and "rejected" split the ops; games=1 is the worst case, every thread on
+ * one game. persistence=log includes the per-move log append, and
+ * log+slots also writes each game through to a GameSlotFile.
+ *
+ * Run with: ./gradlew :server:jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GameStoreBenchmark {
+
+    // {fromCell, toCell}; P1 on even move counts
+    private static final int[][] PLACEMENTS = {
+            {GameRules.NO_CELL, 0}, {GameRules.NO_CELL, 1}, {GameRules.NO_CELL, 2},
+            {GameRules.NO_CELL, 6}, {GameRules.NO_CELL, 7}, {GameRules.NO_CELL, 8}};
+    private static final int[][] CYCLE = {{0, 3}, {8, 5}, {3, 0}, {5, 8}};
+
+    @Param({"1", "64", "4096"})
+    public int games;
+
+    @Param({"none", "log", "log+slots"})
+    public String persistence;
+
+    private Path slotPath;
+    private GameSlotFile slotFile;
+
+    private GameStore store;
+    private String[] gameIds;
+    private String[] player1Ids;
+    private String[] player2Ids;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Moves {
+        public long applied;
+        public long rejected;
+        int[] seenMoveCount;
+
+        @Setup(Level.Iteration)
+        public void setUp(GameStoreBenchmark benchmark) {
+            seenMoveCount = new int[benchmark.games];
+        }
+    }
+
+    // A fresh store per iteration keeps move counts far from the packed limit
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        if ("log+slots".equals(persistence)) {
+            slotPath = Files.createTempFile("games-bench", ".slots");
+            Files.delete(slotPath);
+            slotFile = new GameSlotFile(slotPath);
+        }
+        store = new GameStore(64, "none".equals(persistence) ? null : new InMemoryMoveLog(), slotFile);
+        gameIds = new String[games];
+        player1Ids = new String[games];
+        player2Ids = new String[games];
+        for (int i = 0; i < games; i++) {
+            player1Ids[i] = "BENCH_P1_" + i;
+            player2Ids[i] = "BENCH_P2_" + i;
+            gameIds[i] = store.createGame(player1Ids[i], player2Ids[i]).getGameId();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        if (slotFile != null) {
+            slotFile.close();
+            Files.delete(slotPath);
+            slotFile = null;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public GameStore.MoveResult processMove1(Moves moves) {
+        return playOne(moves);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public GameStore.MoveResult processMove8(Moves moves) {
+        return playOne(moves);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public GameStore.MoveResult processMove64(Moves moves) {
+        return playOne(moves);
+    }
+
+    private GameStore.MoveResult playOne(Moves moves) {
+        int game = games == 1 ? 0 : ThreadLocalRandom.current().nextInt(games);
+        int moveCount = moves.seenMoveCount[game];
+        int[] move = moveCount < PLACEMENTS.length
+                ? PLACEMENTS[moveCount]
+                : CYCLE[(moveCount - PLACEMENTS.length) % CYCLE.length];
+        String playerId = (moveCount & 1) == 0 ? player1Ids[game] : player2Ids[game];
+
+        GameStore.MoveResult result = store.processMove(gameIds[game], playerId, move[0], move[1]);
+        if (result.isSuccess()) {
+            moves.applied++;
+        } else {
+            moves.rejected++;
+        }
+        moves.seenMoveCount[game] = result.game.getTotalMoves();
+        return result;
+    }
+}
@@ -0,0 +1,103 @@
+package com.gfg.NaarPazham.server;
+
+import com.gfg.NaarPazham.GameRules;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Append and replay cost of the heap and memory-mapped move logs.
+ *
+ * append plays the same script as GameStoreBenchmark into one game;
+ * replayTo rebuilds the board at a random point of a 1024-event game, which
+ * should cost at most SNAPSHOT_INTERVAL rule applications whatever the length.
+ *
+ * Run with: ./gradlew :server:jmh -Pjmh.includes=MoveLogBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MoveLogBenchmark {
+
+    private static final int[][] PLACEMENTS = {
+            {GameRules.NO_CELL, 0}, {GameRules.NO_CELL, 1}, {GameRules.NO_CELL, 2},
+            {GameRules.NO_CELL, 6}, {GameRules.NO_CELL, 7}, {GameRules.NO_CELL, 8}};
+    private static final int[][] CYCLE = {{0, 3}, {8, 5}, {3, 0}, {5, 8}};
+    private static final int REPLAY_EVENTS = 1024;
+
+    @Param({"memory", "mapped"})
+    public String storage;
+
+    private Path directory;
+    private MoveLog log;
+    private String appendGame;
+    private int appended;
+    private int games;
+    private int replayPoint;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        if ("mapped".equals(storage)) {
+            directory = Files.createTempDirectory("movelog-bench");
+            log = new MappedMoveLog(directory);
+        } else {
+            log = new InMemoryMoveLog();
+        }
+        for (int i = 0; i < REPLAY_EVENTS; i++) {
+            append("REPLAY", i);
+        }
+        newAppendGame();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        log.close();
+        if (directory != null) {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+            directory = null;
+        }
+    }
+
+    @Benchmark
+    public int append() {
+        // Roll over well before the packed move count could overflow
+        if (appended == 1 << 16) {
+            newAppendGame();
+        }
+        return append(appendGame, appended++);
+    }
+
+    @Benchmark
+    public long replayTo() {
+        replayPoint = (replayPoint + 97) % (REPLAY_EVENTS + 1);
+        return log.replayTo("REPLAY", replayPoint);
+    }
+
+    private void newAppendGame() {
+        appendGame = "APPEND_" + games++;
+        appended = 0;
+    }
+
+    private int append(String gameId, int moveCount) {
+        int[] move = moveCount < PLACEMENTS.length ? PLACEMENTS[moveCount]
+                : CYCLE[(moveCount - PLACEMENTS.length) % CYCLE.length];
+        return log.appendMove(gameId, moveCount % 2 == 0, move[0], move[1], moveCount);
+    }
+}
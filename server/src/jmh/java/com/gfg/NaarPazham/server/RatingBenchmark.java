@@ -0,0 +1,69 @@
+package com.gfg.NaarPazham.server;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rating updates and leaderboard reads with 1000 and 100000 rated players.
+ * All three should barely move between the two sizes: a result, a rank
+ * lookup and a page of the top 100 are O(log n) on the rank tree (plus the
+ * page itself), where sorting the table per request would grow with n.
+ *
+ * Run with: ./gradlew :server:jmh -Pjmh.includes=RatingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RatingBenchmark {
+
+    @Param({"1000", "100000"})
+    public int players;
+
+    private RatingService ratings;
+    private String[] playerIds;
+
+    @Setup
+    public void setUp() {
+        ratings = new RatingService();
+        playerIds = new String[players];
+        for (int i = 0; i < players; i++) {
+            playerIds[i] = "P" + i;
+        }
+        // Every player rated, with a spread of results behind them
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < players; i++) {
+                int opponent = ThreadLocalRandom.current().nextInt(players - 1);
+                ratings.recordResult(playerIds[i], playerIds[opponent >= i ? opponent + 1 : opponent],
+                        ThreadLocalRandom.current().nextBoolean() ? 1.0 : 0.0);
+            }
+        }
+    }
+
+    @Benchmark
+    public void recordResult() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int a = random.nextInt(players);
+        int b = random.nextInt(players - 1);
+        ratings.recordResult(playerIds[a], playerIds[b >= a ? b + 1 : b], random.nextBoolean() ? 1.0 : 0.0);
+    }
+
+    @Benchmark
+    public int rankOfPlayer() {
+        return ratings.getPlayer(playerIds[ThreadLocalRandom.current().nextInt(players)]).rank;
+    }
+
+    @Benchmark
+    public List<RatingService.PlayerRating> top100() {
+        return ratings.getTop(100);
+    }
+}
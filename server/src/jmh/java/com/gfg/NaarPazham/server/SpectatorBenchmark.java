@@ -0,0 +1,102 @@
+package com.gfg.NaarPazham.server;
+
+import com.gfg.NaarPazham.GameRules;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cost of a move in a game with 0, 100 and 10000 spectators, as seen by the
+ * player: processMove plus queueing the update for everyone watching.
+ * Delivery runs on a separate pool, as it does in the server. A tenth of
+ * the spectators take 1ms per event, so their queues overflow and drop.
+ *
+ * Each iteration checks that every move was encoded exactly once, however
+ * many spectators there are, and fails otherwise.
+ *
+ * Run with: ./gradlew :server:jmh -Pjmh.includes=SpectatorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SpectatorBenchmark {
+
+    // {fromCell, toCell}; P1 on even move counts
+    private static final int[][] PLACEMENTS = {
+            {GameRules.NO_CELL, 0}, {GameRules.NO_CELL, 1}, {GameRules.NO_CELL, 2},
+            {GameRules.NO_CELL, 6}, {GameRules.NO_CELL, 7}, {GameRules.NO_CELL, 8}};
+    private static final int[][] CYCLE = {{0, 3}, {8, 5}, {3, 0}, {5, 8}};
+
+    @Param({"0", "100", "10000"})
+    public int spectators;
+
+    private ExecutorService delivery;
+    private SpectatorBroadcaster broadcaster;
+    private GameStore store;
+    private String gameId;
+    private int moveCount;
+    private long applied;
+    private final AtomicLong deliveredBytes = new AtomicLong();
+
+    // A fresh store per iteration keeps move counts far from the packed limit
+    @Setup(Level.Iteration)
+    public void setUp() {
+        delivery = Executors.newFixedThreadPool(4);
+        broadcaster = new SpectatorBroadcaster(delivery, SpectatorBroadcaster.DEFAULT_QUEUE_CAPACITY);
+        store = new GameStore(null);
+        store.addListener(broadcaster);
+        gameId = store.createGame("P1", "P2").getGameId();
+        moveCount = 0;
+        applied = 0;
+        for (int i = 0; i < spectators; i++) {
+            boolean slow = i % 10 == 0;
+            broadcaster.subscribe(gameId, event -> {
+                if (slow) {
+                    try {
+                        Thread.sleep(1);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                deliveredBytes.addAndGet(event.length());
+            });
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void checkEncodes() throws InterruptedException {
+        delivery.shutdownNow();
+        delivery.awaitTermination(10, TimeUnit.SECONDS);
+        long expected = spectators > 0 ? applied : 0;
+        if (broadcaster.getEncodedCount() != expected) {
+            throw new IllegalStateException(applied + " moves but " + broadcaster.getEncodedCount() + " encodes");
+        }
+    }
+
+    @Benchmark
+    public GameStore.MoveResult move() {
+        int[] move = moveCount < PLACEMENTS.length
+                ? PLACEMENTS[moveCount]
+                : CYCLE[(moveCount - PLACEMENTS.length) % CYCLE.length];
+        GameStore.MoveResult result = store.processMove(gameId, moveCount % 2 == 0 ? "P1" : "P2", move[0], move[1]);
+        if (!result.isSuccess()) {
+            throw new IllegalStateException("Scripted move rejected: " + result.code);
+        }
+        moveCount++;
+        applied++;
+        return result;
+    }
+}
@@ -0,0 +1,60 @@
+package com.gfg.NaarPazham.server;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A whole 4096-player tournament, single elimination and Swiss, played out
+ * by the AI players of {@link TournamentSimulation} on a game store. Each
+ * run checks the bracket as TournamentSimulationTest does and fails if it
+ * doesn't hold up.
+ *
+ * Run with: ./gradlew :server:jmh -Pjmh.includes=TournamentBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class TournamentBenchmark {
+
+    private static final long TIMEOUT_MS = 60000;
+
+    @Param({"SINGLE_ELIMINATION", "SWISS"})
+    public Tournament.Format format;
+
+    @Param({"4096"})
+    public int players;
+
+    private TournamentSimulation simulation;
+
+    @Setup(Level.Invocation)
+    public void setUp() throws IOException {
+        simulation = new TournamentSimulation(null);
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        simulation.close();
+    }
+
+    @Benchmark
+    public int playTournament() throws Exception {
+        Tournament tournament = simulation.start(format, players);
+        simulation.finish(tournament, TIMEOUT_MS);
+        return tournament.getWinner();
+    }
+}
@@ -0,0 +1,126 @@
+package com.gfg.NaarPazham.server;
+
+import com.gfg.NaarPazham.GameTransport;
+import com.gfg.NaarPazham.GameWireCodec;
+import com.gfg.NaarPazham.TransportRequest;
+import com.gfg.NaarPazham.TransportResponse;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round-trip cost of one API call through each {@link GameTransport}, against
+ * the same in-process server: a binary game-state fetch (the polling hot
+ * path) and a JSON queue-status call.
+ *
+ * loopback calls the GameController directly, so it is the floor: routing,
+ * rules and encoding with no transport at all. http and websocket add
+ * loopback-interface sockets, framing and thread hand-offs; the gap between
+ * them is what keeping one socket open saves per call.
+ *
+ * Run with: ./gradlew :server:jmh -Pjmh.includes=TransportBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransportBenchmark {
+
+    @Param({"loopback", "http", "websocket"})
+    public String transport;
+
+    private GameServer server;
+    private GameTransport client;
+    private TransportRequest gameRequest;
+    private TransportRequest queueStatusRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        GameServer.ServerConfig defaults = GameServer.ServerConfig.onPort(0);
+        server = GameServer.start(new GameServer.ServerConfig(0, defaults.requestThreads,
+                defaults.gameInactivityTimeoutMs, defaults.finishedGameRetentionMs, null).withWebSocketPort(0));
+
+        // Two players matched in-process, so every call below hits a live game
+        GameTransport setup = new LoopbackTransport(server.getController());
+        for (String player : new String[] {"bench-p1", "bench-p2"}) {
+            call(setup, TransportRequest.post("/api/games/matchmaking/find")
+                    .json(new JSONObject().put("playerId", player).toString())
+                    .header("X-Device-ID", player + "-device"));
+        }
+        server.getMatchmaking().tick();
+        String gameId = new JSONObject(call(setup,
+                TransportRequest.get("/api/games/matchmaking/status/bench-p1")).bodyAsString())
+                .getString("gameId");
+
+        gameRequest = TransportRequest.get("/api/games/" + gameId + "?playerId=bench-p1")
+                .header("Accept", GameWireCodec.ACCEPT_HEADER);
+        queueStatusRequest = TransportRequest.get("/api/games/matchmaking/queue-status");
+
+        switch (transport) {
+            case "loopback":
+                client = setup;
+                break;
+            case "http":
+                client = new JdkHttpTransport("http://localhost:" + server.getPort());
+                break;
+            case "websocket":
+                client = new JdkWebSocketTransport("ws://localhost:" + server.getWebSocketPort() + "/");
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown transport: " + transport);
+        }
+        if (call(client, gameRequest).getStatus() != 200) {
+            throw new IllegalStateException("Game fetch failed over " + transport);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (client instanceof JdkWebSocketTransport) {
+            ((JdkWebSocketTransport) client).close();
+        }
+        server.stop();
+    }
+
+    @Benchmark
+    public TransportResponse getGameBinary() throws IOException {
+        return call(client, gameRequest);
+    }
+
+    @Benchmark
+    public TransportResponse queueStatusJson() throws IOException {
+        return call(client, queueStatusRequest);
+    }
+
+    private static TransportResponse call(GameTransport transport, TransportRequest request) throws IOException {
+        CompletableFuture<TransportResponse> result = new CompletableFuture<>();
+        transport.send(request, new GameTransport.Callback() {
+            @Override
+            public void onResponse(TransportResponse response) {
+                result.complete(response);
+            }
+
+            @Override
+            public void onFailure(IOException error) {
+                result.completeExceptionally(error);
+            }
+        });
+        try {
+            return result.get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IOException("Call failed over " + transport.getClass().getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.gfg.NaarPazham.server;
+
+import com.gfg.NaarPazham.GameRules;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Record layout, snapshots and replay shared by the MoveLog implementations,
+ * which only decide where each game's bytes live.
+ *
+ * Every SNAPSHOT_INTERVAL events are followed by one snapshot record, so the
+ * slot of any event or snapshot is computed from its sequence alone.
+ */
+abstract class AbstractMoveLog implements MoveLog {
+
+    protected static final int INITIAL_SLOTS = 64;
+
+    private final Map<String, PerGameLog> logs = new ConcurrentHashMap<>();
+
+    /** A game's records plus what's needed to append without rereading them. */
+    protected final class PerGameLog {
+        final String gameId;
+        ByteBuffer buffer;
+        int slots;
+        int lastSequence;
+        long state = GameRules.NEW_GAME;
+
+        PerGameLog(String gameId, ByteBuffer buffer) {
+            this.gameId = gameId;
+            this.buffer = buffer;
+        }
+
+        synchronized int append(byte kind, boolean player1, int fromCell, int toCell, long timestamp) {
+            int sequence = lastSequence + 1;
+            MoveRecord record = new MoveRecord(sequence, kind, player1, fromCell, toCell, timestamp);
+            long next = record.applyTo(state);
+
+            int player = kind == MoveRecord.KIND_ABANDON || kind == MoveRecord.KIND_RESTORE ? 0 : player1 ? 1 : 2;
+            ensureCapacity(slots + 2);
+            MoveRecord.write(buffer, slots * MoveRecord.SIZE, sequence, kind, player, fromCell, toCell, timestamp);
+            slots++;
+            if (sequence % SNAPSHOT_INTERVAL == 0) {
+                MoveRecord.write(buffer, slots * MoveRecord.SIZE, sequence, MoveRecord.KIND_SNAPSHOT, 0,
+                        GameRules.NO_CELL, GameRules.NO_CELL, next);
+                slots++;
+            }
+            state = next;
+            lastSequence = sequence;
+            return sequence;
+        }
+
+        synchronized List<MoveRecord> read(int fromSequence) {
+            List<MoveRecord> records = new ArrayList<>(Math.max(0, lastSequence - fromSequence + 1));
+            for (int sequence = Math.max(1, fromSequence); sequence <= lastSequence; sequence++) {
+                records.add(MoveRecord.read(buffer, eventSlot(sequence) * MoveRecord.SIZE));
+            }
+            return records;
+        }
+
+        synchronized long replayTo(int sequence) {
+            if (sequence < 0 || sequence > lastSequence) {
+                throw new IllegalArgumentException("No event " + sequence + " in " + gameId);
+            }
+            if (sequence == lastSequence) {
+                return state;
+            }
+            int snapshots = sequence / SNAPSHOT_INTERVAL;
+            long replayed = snapshots == 0 ? GameRules.NEW_GAME
+                    : MoveRecord.payloadAt(buffer, snapshotSlot(snapshots) * MoveRecord.SIZE);
+            for (int next = snapshots * SNAPSHOT_INTERVAL + 1; next <= sequence; next++) {
+                replayed = MoveRecord.read(buffer, eventSlot(next) * MoveRecord.SIZE).applyTo(replayed);
+            }
+            return replayed;
+        }
+
+        /** Rebuild the append position and state from whatever the buffer holds. */
+        synchronized void recover() {
+            slots = 0;
+            lastSequence = 0;
+            state = GameRules.NEW_GAME;
+            int capacity = buffer.capacity() / MoveRecord.SIZE;
+            while (true) {
+                int sequence = lastSequence + 1;
+                int slot = eventSlot(sequence);
+                boolean snapshotDue = sequence % SNAPSHOT_INTERVAL == 0;
+                if (slot + (snapshotDue ? 1 : 0) >= capacity || !MoveRecord.isValid(buffer, slot * MoveRecord.SIZE)
+                        || buffer.getInt(slot * MoveRecord.SIZE) != sequence) {
+                    break;
+                }
+                long next;
+                try {
+                    next = MoveRecord.read(buffer, slot * MoveRecord.SIZE).applyTo(state);
+                } catch (IllegalStateException e) {
+                    break; // Treat a record that doesn't replay like a torn tail
+                }
+                state = next;
+                lastSequence = sequence;
+                slots = slot + 1;
+                if (snapshotDue) {
+                    // Rewritten rather than trusted: the crash may have come between the two writes
+                    MoveRecord.write(buffer, slots * MoveRecord.SIZE, sequence, MoveRecord.KIND_SNAPSHOT, 0,
+                            GameRules.NO_CELL, GameRules.NO_CELL, state);
+                    slots++;
+                }
+            }
+        }
+
+        private void ensureCapacity(int neededSlots) {
+            int capacity = buffer.capacity() / MoveRecord.SIZE;
+            if (neededSlots > capacity) {
+                buffer = grow(gameId, buffer, Math.max(neededSlots, capacity * 2) * MoveRecord.SIZE);
+            }
+        }
+    }
+
+    // ===== STORAGE =====
+
+    /** Storage for a game seen for the first time. */
+    protected abstract ByteBuffer allocate(String gameId, int capacityBytes);
+
+    /** Larger storage holding the same bytes. */
+    protected abstract ByteBuffer grow(String gameId, ByteBuffer current, int capacityBytes);
+
+    protected abstract void release(String gameId, ByteBuffer buffer);
+
+    /** Adopt existing storage (e.g. a file found at startup) and rebuild its state. */
+    protected final void restore(String gameId, ByteBuffer buffer) {
+        PerGameLog log = new PerGameLog(gameId, buffer);
+        log.recover();
+        logs.put(gameId, log);
+    }
+
+    protected final Collection<PerGameLog> openLogs() {
+        return logs.values();
+    }
+
+    // ===== MoveLog =====
+
+    @Override
+    public int appendMove(String gameId, boolean player1, int fromCell, int toCell, long timestamp) {
+        return logFor(gameId).append(MoveRecord.KIND_MOVE, player1, fromCell, toCell, timestamp);
+    }
+
+    @Override
+    public int appendForfeit(String gameId, boolean player1, long timestamp) {
+        return logFor(gameId).append(MoveRecord.KIND_FORFEIT, player1, GameRules.NO_CELL, GameRules.NO_CELL, timestamp);
+    }
+
+    @Override
+    public int appendAbandon(String gameId, long timestamp) {
+        return logFor(gameId).append(MoveRecord.KIND_ABANDON, false, GameRules.NO_CELL, GameRules.NO_CELL, timestamp);
+    }
+
+    @Override
+    public int appendRestore(String gameId, long state) {
+        return logFor(gameId).append(MoveRecord.KIND_RESTORE, false, GameRules.NO_CELL, GameRules.NO_CELL, state);
+    }
+
+    @Override
+    public List<MoveRecord> read(String gameId, int fromSequence) {
+        PerGameLog log = gameId != null ? logs.get(gameId) : null;
+        return log != null ? log.read(fromSequence) : Collections.emptyList();
+    }
+
+    @Override
+    public int lastSequence(String gameId) {
+        PerGameLog log = gameId != null ? logs.get(gameId) : null;
+        if (log == null) {
+            return 0;
+        }
+        synchronized (log) {
+            return log.lastSequence;
+        }
+    }
+
+    @Override
+    public long replay(String gameId) {
+        PerGameLog log = gameId != null ? logs.get(gameId) : null;
+        if (log == null) {
+            return GameRules.NEW_GAME;
+        }
+        synchronized (log) {
+            return log.state;
+        }
+    }
+
+    @Override
+    public long replayTo(String gameId, int sequence) {
+        PerGameLog log = gameId != null ? logs.get(gameId) : null;
+        if (log == null) {
+            if (sequence == 0) {
+                return GameRules.NEW_GAME;
+            }
+            throw new IllegalArgumentException("No move log for " + gameId);
+        }
+        return log.replayTo(sequence);
+    }
+
+    @Override
+    public Collection<String> gameIds() {
+        return Collections.unmodifiableSet(logs.keySet());
+    }
+
+    @Override
+    public void delete(String gameId) {
+        PerGameLog log = gameId != null ? logs.remove(gameId) : null;
+        if (log != null) {
+            synchronized (log) {
+                release(gameId, log.buffer);
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        // Heap storage has nothing to flush
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    // ===== HELPERS =====
+
+    private PerGameLog logFor(String gameId) {
+        if (gameId == null) {
+            throw new IllegalArgumentException("Game ID cannot be null");
+        }
+        PerGameLog log = logs.get(gameId);
+        if (log == null) {
+            log = logs.computeIfAbsent(gameId,
+                    id -> new PerGameLog(id, allocate(id, INITIAL_SLOTS * MoveRecord.SIZE)));
+        }
+        return log;
+    }
+
+    static int eventSlot(int sequence) {
+        return (sequence - 1) + (sequence - 1) / SNAPSHOT_INTERVAL;
+    }
+
+    /** Slot of the n-th snapshot (n >= 1), written right after event n * SNAPSHOT_INTERVAL. */
+    static int snapshotSlot(int n) {
+        return n * (SNAPSHOT_INTERVAL + 1) - 1;
+    }
+}
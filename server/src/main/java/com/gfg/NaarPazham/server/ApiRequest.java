@@ -0,0 +1,92 @@
+package com.gfg.NaarPazham.server;
+
+import com.gfg.NaarPazham.GameWireCodec;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * One API call, independent of how it arrived (HTTP or in-process).
+ */
+public class ApiRequest {
+    public final String method;
+    public final String path;
+    public final Map<String, String> query;
+    public final Map<String, String> headers;
+    public final byte[] body;
+
+    public ApiRequest(String method, String path, Map<String, String> query,
+                      Map<String, String> headers, byte[] body) {
+        if (method == null || path == null) {
+            throw new IllegalArgumentException("Method and path cannot be null");
+        }
+        this.method = method.toUpperCase(Locale.ROOT);
+        this.path = path;
+        this.query = query != null ? query : Collections.emptyMap();
+
+        Map<String, String> caseInsensitive = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (headers != null) {
+            caseInsensitive.putAll(headers);
+        }
+        this.headers = caseInsensitive;
+        this.body = body != null ? body : new byte[0];
+    }
+
+    /** Build from a path that may carry a query string, e.g. "/api/games/1?playerId=x". */
+    public static ApiRequest of(String method, String pathAndQuery, Map<String, String> headers, byte[] body) {
+        int queryStart = pathAndQuery.indexOf('?');
+        if (queryStart < 0) {
+            return new ApiRequest(method, pathAndQuery, null, headers, body);
+        }
+        return new ApiRequest(method, pathAndQuery.substring(0, queryStart),
+                parseQuery(pathAndQuery.substring(queryStart + 1)), headers, body);
+    }
+
+    public static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq >= 0 ? pair.substring(0, eq) : pair;
+            String value = eq >= 0 ? pair.substring(eq + 1) : "";
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    public String header(String name) {
+        return headers.get(name);
+    }
+
+    public String queryParam(String name) {
+        return query.get(name);
+    }
+
+    /** Body as JSON; an empty body is an empty object. */
+    public JSONObject jsonBody() throws JSONException {
+        if (body.length == 0) {
+            return new JSONObject();
+        }
+        return new JSONObject(new String(body, StandardCharsets.UTF_8));
+    }
+
+    public boolean hasBinaryBody() {
+        return GameWireCodec.isWireContentType(header("Content-Type"));
+    }
+
+    /** True if the caller listed the binary format in Accept. */
+    public boolean acceptsBinary() {
+        return GameWireCodec.isWireContentType(header("Accept"));
+    }
+}
@@ -0,0 +1,48 @@
+package com.gfg.NaarPazham.server;
+
+import com.gfg.NaarPazham.GameWireCodec;
+
+import org.json.JSONObject;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Status, content type and body of an API call, plus any extra headers.
+ */
+public class ApiResponse {
+    public static final String JSON_CONTENT_TYPE = "application/json; charset=utf-8";
+
+    public final int status;
+    public final String contentType;
+    public final byte[] body;
+    public final Map<String, String> headers = new LinkedHashMap<>();
+
+    public ApiResponse(int status, String contentType, byte[] body) {
+        this.status = status;
+        this.contentType = contentType;
+        this.body = body != null ? body : new byte[0];
+    }
+
+    public static ApiResponse json(int status, JSONObject json) {
+        return new ApiResponse(status, JSON_CONTENT_TYPE, json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ApiResponse binary(int status, byte[] frame) {
+        return new ApiResponse(status, GameWireCodec.VERSIONED_CONTENT_TYPE, frame);
+    }
+
+    public ApiResponse withHeader(String name, String value) {
+        headers.put(name, value);
+        return this;
+    }
+
+    public boolean isBinary() {
+        return GameWireCodec.isWireContentType(contentType);
+    }
+
+    public String bodyAsString() {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,630 @@
+package com.gfg.NaarPazham.server;
+
+import com.gfg.NaarPazham.GameRules;
+import com.gfg.NaarPazham.GameWireCodec;
+import com.gfg.NaarPazham.MoveRequest;
+import com.gfg.NaarPazham.ServerGameState;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Routes /api/games requests to the game store and matchmaking queue,
+ * answering in the shapes NetworkService expects.
+ *
+ * Game endpoints (state, moves) answer in the binary wire format when the
+ * caller lists it in Accept; everything else is JSON.
+ *
+ * Moves may carry an Idempotency-Key header, so a resent move is answered
+ * from the original result instead of being applied twice, and an
+ * X-Move-Sequence header with the move count the board had when the player
+ * chose the move; a move made against an older board gets a 409.
+ *
+ * POST /api/games/batch answers up to {@link #MAX_BATCH_SIZE} GET requests
+ * in one round trip, each routed as if it had been sent on its own:
+ *
+ * <pre>
+ *   {"requests": [{"id": 0, "method": "GET", "path": "/api/games/42?playerId=p"}, ...]}
+ *   {"status": "success", "responses": [{"id": 0, "status": 200, "body": {...}}, ...]}
+ * </pre>
+ *
+ * A batch counts as one request for load shedding.
+ *
+ * Anyone may watch a game: GET /api/games/{gameId}/watch returns its state
+ * without a player check. Over HTTP that is all it does; the WebSocket
+ * gateway also subscribes the connection to the game's updates until
+ * DELETE /api/games/{gameId}/watch (see {@link SpectatorBroadcaster}).
+ *
+ * Given a {@link RatingService}, GET /api/games/leaderboard?offset=&limit=
+ * pages through the players by rating and GET /api/games/ratings/{playerId}
+ * gives one player's rating and rank.
+ *
+ * Requests the {@link LoadShedder} turns away get a 503 (overloaded) or 429
+ * (one device calling too often) with a Retry-After header, and never reach
+ * the game store.
+ */
+public class GameController {
+    private static final Logger LOG = Logger.getLogger(GameController.class.getName());
+
+    public static final String API_PREFIX = "/api/games";
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String MOVE_SEQUENCE_HEADER = "X-Move-Sequence";
+
+    public static final int MAX_BATCH_SIZE = 16;
+
+    public static final int DEFAULT_LEADERBOARD_LIMIT = 20;
+    public static final int MAX_LEADERBOARD_LIMIT = 100;
+
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 64;
+
+    private final GameStore gameStore;
+    private final MatchmakingService matchmaking;
+    private final String adminKey;
+    private final LoadShedder loadShedder;
+    private final RatingService ratings;
+
+    public GameController(GameStore gameStore, MatchmakingService matchmaking, String adminKey) {
+        this(gameStore, matchmaking, adminKey, LoadShedder.disabled());
+    }
+
+    public GameController(GameStore gameStore, MatchmakingService matchmaking, String adminKey,
+                          LoadShedder loadShedder) {
+        this(gameStore, matchmaking, adminKey, loadShedder, null);
+    }
+
+    /** A null ratings service turns the leaderboard and rating routes off. */
+    public GameController(GameStore gameStore, MatchmakingService matchmaking, String adminKey,
+                          LoadShedder loadShedder, RatingService ratings) {
+        if (gameStore == null || matchmaking == null || loadShedder == null) {
+            throw new IllegalArgumentException("GameStore, MatchmakingService and LoadShedder cannot be null");
+        }
+        this.gameStore = gameStore;
+        this.matchmaking = matchmaking;
+        this.adminKey = adminKey;
+        this.loadShedder = loadShedder;
+        this.ratings = ratings;
+    }
+
+    public ApiResponse handle(ApiRequest request) {
+        String deviceId = request.header("X-Device-ID");
+        int admission = loadShedder.admit(endpointName(request.method, request.path), deviceId);
+        if (admission != LoadShedder.ADMITTED) {
+            boolean overloaded = admission == LoadShedder.OVERLOADED;
+            return error(overloaded ? 503 : 429, overloaded ? "Server busy" : "Too many requests")
+                    .withHeader("Retry-After", Integer.toString(loadShedder.retryAfterSeconds(admission, deviceId)));
+        }
+        return dispatch(request);
+    }
+
+    private ApiResponse dispatch(ApiRequest request) {
+        try {
+            return route(request);
+        } catch (JSONException e) {
+            return error(400, "Malformed request body: " + e.getMessage());
+        } catch (GameWireCodec.WireFormatException e) {
+            return error(400, "Malformed binary body: " + e.getMessage());
+        } catch (Exception e) {
+            LOG.log(Level.SEVERE, "Unhandled error for " + request.method + " " + request.path, e);
+            return error(500, "Server error");
+        }
+    }
+
+    public LoadShedder getLoadShedder() {
+        return loadShedder;
+    }
+
+    /** Stable name for an endpoint, used for logging and per-endpoint statistics. */
+    public static String endpointName(String method, String path) {
+        if (!path.startsWith(API_PREFIX)) {
+            return "unknown";
+        }
+        String[] parts = path.substring(API_PREFIX.length()).split("/");
+        if (parts.length < 2) {
+            return "unknown";
+        }
+        if ("matchmaking".equals(parts[1]) && parts.length >= 3) {
+            return "matchmaking/" + parts[2];
+        }
+        if ("admin".equals(parts[1])) {
+            return "admin";
+        }
+        if ("ratings".equals(parts[1]) || "leaderboard".equals(parts[1])) {
+            return parts[1];
+        }
+        if (parts.length == 2 && "batch".equals(parts[1]) && "POST".equals(method)) {
+            return "batch";
+        }
+        if (parts.length == 2) {
+            return "GET".equals(method) ? "game" : "unknown";
+        }
+        return parts[2];
+    }
+
+    // ===== ROUTING =====
+
+    private ApiResponse route(ApiRequest request) throws JSONException, GameWireCodec.WireFormatException {
+        if (!request.path.startsWith(API_PREFIX + "/")) {
+            return error(404, "Not found");
+        }
+        // "/api/games/x/y" -> ["", "x", "y"]
+        String[] parts = request.path.substring(API_PREFIX.length()).split("/");
+        boolean get = "GET".equals(request.method);
+        boolean post = "POST".equals(request.method);
+
+        if (parts.length >= 3 && "matchmaking".equals(parts[1])) {
+            String action = parts[2];
+            if (post && parts.length == 3 && "find".equals(action)) return findMatch(request);
+            if (post && parts.length == 3 && "cancel".equals(action)) return cancelMatchmaking(request);
+            if (post && parts.length == 3 && "heartbeat".equals(action)) return heartbeat(request);
+            if (get && parts.length == 3 && "queue-status".equals(action)) return queueStatus();
+            if (get && parts.length == 4 && "status".equals(action)) return matchmakingStatus(parts[3]);
+            if (get && parts.length == 4 && "player-status".equals(action)) return playerStatus(parts[3]);
+            return error(404, "Not found");
+        }
+
+        if (parts.length == 3 && "admin".equals(parts[1]) && "process-queue".equals(parts[2]) && post) {
+            return processQueue(request);
+        }
+
+        if (ratings != null && get) {
+            if (parts.length == 2 && "leaderboard".equals(parts[1])) return leaderboard(request);
+            if (parts.length == 3 && "ratings".equals(parts[1])) return playerRating(parts[2]);
+        }
+
+        if (parts.length == 2 && post && "batch".equals(parts[1])) return batch(request);
+        if (parts.length == 2 && get) return getGame(request, parts[1]);
+        if (parts.length == 3 && get && "history".equals(parts[2])) return getHistory(request, parts[1]);
+        if (parts.length == 3 && post && "moves".equals(parts[2])) return processMove(request, parts[1]);
+        if (parts.length == 3 && post && "leave".equals(parts[2])) return leaveGame(request, parts[1]);
+        if (parts.length == 3 && get && "watch".equals(parts[2])) return watchGame(request, parts[1]);
+        if (parts.length == 3 && "DELETE".equals(request.method) && "watch".equals(parts[2])) {
+            return success("Stopped watching");
+        }
+
+        return error(404, "Not found");
+    }
+
+    // ===== BATCH =====
+
+    private ApiResponse batch(ApiRequest request) throws JSONException {
+        JSONArray requests = request.jsonBody().optJSONArray("requests");
+        if (requests == null || requests.length() == 0) {
+            return error(400, "Batch requests are required");
+        }
+        if (requests.length() > MAX_BATCH_SIZE) {
+            return error(400, "At most " + MAX_BATCH_SIZE + " requests per batch");
+        }
+
+        // Sub-requests act for the same device, and get JSON back
+        Map<String, String> headers = new HashMap<>();
+        String deviceId = request.header("X-Device-ID");
+        if (deviceId != null) {
+            headers.put("X-Device-ID", deviceId);
+        }
+
+        JSONArray responses = new JSONArray();
+        for (int i = 0; i < requests.length(); i++) {
+            JSONObject sub = requests.getJSONObject(i);
+            String path = sub.optString("path", "");
+            ApiResponse response;
+            if (!"GET".equalsIgnoreCase(sub.optString("method", "GET"))) {
+                response = error(405, "Only GET requests can be batched");
+            } else if (!path.startsWith(API_PREFIX + "/")) {
+                response = error(404, "Not found");
+            } else {
+                // GET only, so a batch can't contain another batch
+                response = dispatch(ApiRequest.of("GET", path, headers, null));
+            }
+            responses.put(new JSONObject()
+                    .put("id", sub.opt("id") != null ? sub.opt("id") : i)
+                    .put("status", response.status)
+                    .put("body", new JSONObject(response.bodyAsString())));
+        }
+
+        JSONObject json = new JSONObject();
+        json.put("status", "success");
+        json.put("responses", responses);
+        return ApiResponse.json(200, json);
+    }
+
+    // ===== MATCHMAKING =====
+
+    private ApiResponse findMatch(ApiRequest request) throws JSONException {
+        JSONObject body = request.jsonBody();
+        String playerId = body.optString("playerId", "").trim();
+        String deviceId = request.header("X-Device-ID");
+        if (playerId.isEmpty()) {
+            return error(400, "Player ID is required");
+        }
+        if (deviceId == null || deviceId.trim().isEmpty()) {
+            return error(400, "Device ID is required");
+        }
+
+        // Optional hints; clients that send neither share one bucket
+        int bucket = matchmaking.bucketFor(playerId,
+                body.optInt("rating", MatchmakingService.DEFAULT_RATING),
+                body.optInt("latencyMs", MatchmakingService.UNKNOWN_LATENCY));
+        MatchmakingService.Result result = matchmaking.findMatch(playerId, deviceId.trim(), bucket);
+        if (result.status == MatchmakingService.Status.ALREADY_QUEUED) {
+            return error(409, "Player is already in the matchmaking queue");
+        }
+        return matchmakingResponse(playerId, result);
+    }
+
+    private ApiResponse matchmakingStatus(String playerId) {
+        MatchmakingService.Result result = matchmaking.getStatus(playerId);
+        if (result.status == MatchmakingService.Status.NOT_FOUND) {
+            return error(404, "Player is not in the matchmaking queue");
+        }
+        return matchmakingResponse(playerId, result);
+    }
+
+    private ApiResponse cancelMatchmaking(ApiRequest request) throws JSONException {
+        String playerId = request.jsonBody().optString("playerId", "").trim();
+        if (playerId.isEmpty()) {
+            return error(400, "Player ID is required");
+        }
+        if (!matchmaking.cancel(playerId)) {
+            return error(404, "Player is not in the matchmaking queue");
+        }
+        return success("Left matchmaking queue");
+    }
+
+    private ApiResponse heartbeat(ApiRequest request) throws JSONException {
+        String playerId = request.jsonBody().optString("playerId", "").trim();
+        if (playerId.isEmpty()) {
+            return error(400, "Player ID is required");
+        }
+        if (!matchmaking.heartbeat(playerId)) {
+            return error(404, "Player is not in the matchmaking queue");
+        }
+        return success("Heartbeat received");
+    }
+
+    private ApiResponse queueStatus() {
+        JSONObject json = new JSONObject();
+        json.put("status", "success");
+        json.put("queueSize", matchmaking.queueSize());
+        json.put("activeGames", gameStore.activeGameCount());
+        putWaitStats(json);
+        return ApiResponse.json(200, json);
+    }
+
+    private ApiResponse playerStatus(String playerId) {
+        JSONObject json = new JSONObject();
+        ServerGameState activeGame = gameStore.findActiveGame(playerId);
+        if (activeGame != null) {
+            json.put("status", "in_game");
+            json.put("gameId", activeGame.getGameId());
+            return ApiResponse.json(200, json);
+        }
+
+        MatchmakingService.Result result = matchmaking.getStatus(playerId);
+        if (result.status == MatchmakingService.Status.WAITING) {
+            json.put("status", "in_queue");
+            json.put("queueTimeMs", result.queueTimeMs);
+            json.put("queuePosition", result.queuePosition);
+            json.put("queueSize", matchmaking.queueSize());
+            json.put("estimatedWaitSeconds", matchmaking.estimateWaitSeconds(result.queuePosition));
+            putWaitStats(json);
+        } else {
+            json.put("status", "not_in_queue");
+        }
+        return ApiResponse.json(200, json);
+    }
+
+    private ApiResponse processQueue(ApiRequest request) {
+        if (adminKey == null || !adminKey.equals(request.header("X-Admin-Key"))) {
+            return error(403, "Access denied");
+        }
+        int matches = matchmaking.processQueue();
+        return success("Processed queue: " + matches + " matches created");
+    }
+
+    private ApiResponse matchmakingResponse(String playerId, MatchmakingService.Result result) {
+        JSONObject json = new JSONObject();
+        json.put("playerId", playerId);
+        if (result.status == MatchmakingService.Status.MATCH_FOUND) {
+            json.put("status", "match_found");
+            json.put("message", "Match found");
+            json.put("gameId", result.game.getGameId());
+            json.put("playerNumber", result.playerNumber);
+            json.put("gameState", GameJson.toJson(result.game));
+        } else {
+            json.put("status", "waiting");
+            json.put("message", "Waiting for opponent");
+            json.put("queuePosition", result.queuePosition);
+            json.put("queueSize", matchmaking.queueSize());
+        }
+        return ApiResponse.json(200, json);
+    }
+
+    // ===== RATINGS =====
+
+    private ApiResponse leaderboard(ApiRequest request) {
+        int offset;
+        int limit;
+        try {
+            offset = intParam(request, "offset", 0);
+            limit = intParam(request, "limit", DEFAULT_LEADERBOARD_LIMIT);
+        } catch (NumberFormatException e) {
+            return error(400, "offset and limit must be numbers");
+        }
+        if (offset < 0 || limit < 1 || limit > MAX_LEADERBOARD_LIMIT) {
+            return error(400, "offset must be at least 0 and limit 1 to " + MAX_LEADERBOARD_LIMIT);
+        }
+
+        JSONArray players = new JSONArray();
+        for (RatingService.PlayerRating player : ratings.getLeaderboard(offset, limit)) {
+            players.put(ratingJson(player));
+        }
+        JSONObject json = new JSONObject();
+        json.put("status", "success");
+        json.put("totalPlayers", ratings.getPlayerCount());
+        json.put("players", players);
+        return ApiResponse.json(200, json);
+    }
+
+    private ApiResponse playerRating(String playerId) {
+        RatingService.PlayerRating player = ratings.getPlayer(playerId);
+        if (player == null) {
+            return error(404, "Player has no rating yet");
+        }
+        JSONObject json = ratingJson(player);
+        json.put("status", "success");
+        return ApiResponse.json(200, json);
+    }
+
+    // ===== GAMES =====
+
+    private ApiResponse getGame(ApiRequest request, String gameId) {
+        String playerId = request.queryParam("playerId");
+        if (playerId == null || playerId.trim().isEmpty()) {
+            return gameError(request, 400, "Player ID is required");
+        }
+
+        ServerGameState game = gameStore.getGame(gameId);
+        if (game == null) {
+            return gameError(request, 404, "Game not found");
+        }
+        if (!game.isPlayerInGame(playerId.trim())) {
+            return gameError(request, 403, "Player is not in this game");
+        }
+        return gameResponse(request, game);
+    }
+
+    /** A game's state for a spectator, who needn't be one of its players. */
+    private ApiResponse watchGame(ApiRequest request, String gameId) {
+        ServerGameState game = gameStore.getGame(gameId);
+        if (game == null) {
+            return gameError(request, 404, "Game not found");
+        }
+        return gameResponse(request, game);
+    }
+
+    /**
+     * The game's logged events, or with ?at=N the game as it stood after
+     * event N (in the same shapes as a normal game fetch).
+     */
+    private ApiResponse getHistory(ApiRequest request, String gameId) {
+        String playerId = request.queryParam("playerId");
+        if (playerId == null || playerId.trim().isEmpty()) {
+            return gameError(request, 400, "Player ID is required");
+        }
+
+        ServerGameState game = gameStore.getGame(gameId);
+        if (game == null) {
+            return gameError(request, 404, "Game not found");
+        }
+        if (!game.isPlayerInGame(playerId.trim())) {
+            return gameError(request, 403, "Player is not in this game");
+        }
+
+        String at = request.queryParam("at");
+        if (at != null) {
+            int sequence;
+            try {
+                sequence = Integer.parseInt(at.trim());
+            } catch (NumberFormatException e) {
+                return gameError(request, 400, "at must be a move number");
+            }
+            ServerGameState past = gameStore.getGameAt(gameId, sequence);
+            if (past == null) {
+                return gameError(request, 404, "No move " + sequence + " in this game");
+            }
+            return gameResponse(request, past);
+        }
+
+        JSONArray events = new JSONArray();
+        for (MoveRecord record : gameStore.getHistory(gameId)) {
+            events.put(historyJson(record));
+        }
+        JSONObject json = new JSONObject();
+        json.put("status", "success");
+        json.put("gameId", gameId);
+        json.put("events", events);
+        return ApiResponse.json(200, json);
+    }
+
+    private ApiResponse processMove(ApiRequest request, String gameId)
+            throws JSONException, GameWireCodec.WireFormatException {
+        String playerId;
+        int toCell;
+        int fromCell = GameRules.NO_CELL;
+
+        if (request.hasBinaryBody()) {
+            MoveRequest move = GameWireCodec.decodeMove(request.body);
+            playerId = move.getPlayerId();
+            if (move.getBoardX() != null) {
+                toCell = GameRules.cellIndex(move.getBoardX(), move.getBoardY());
+            } else {
+                toCell = GameRules.cellIndex(move.getToX(), move.getToY());
+                fromCell = GameRules.cellIndex(move.getFromX(), move.getFromY());
+            }
+        } else {
+            JSONObject body = request.jsonBody();
+            playerId = body.optString("playerId", null);
+            if (!body.has("boardX") || !body.has("boardY")) {
+                return gameError(request, 400, "boardX and boardY are required");
+            }
+            toCell = GameRules.cellIndex(body.getInt("boardX"), body.getInt("boardY"));
+            if (body.has("fromX") && body.has("fromY")) {
+                fromCell = GameRules.cellIndex(body.getInt("fromX"), body.getInt("fromY"));
+                if (fromCell == GameRules.NO_CELL) {
+                    return gameError(request, 400, GameRules.describe(GameRules.ERROR_INVALID_POSITION));
+                }
+            }
+        }
+
+        if (playerId == null || playerId.trim().isEmpty()) {
+            return gameError(request, 400, "Player ID is required");
+        }
+        if (toCell == GameRules.NO_CELL) {
+            return gameError(request, 400, GameRules.describe(GameRules.ERROR_INVALID_POSITION));
+        }
+
+        String idempotencyKey = request.header(IDEMPOTENCY_KEY_HEADER);
+        if (idempotencyKey != null && (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            return gameError(request, 400, "Invalid " + IDEMPOTENCY_KEY_HEADER);
+        }
+        int expectedMoveCount = GameStore.ANY_MOVE_COUNT;
+        String sequence = request.header(MOVE_SEQUENCE_HEADER);
+        if (sequence != null) {
+            try {
+                expectedMoveCount = Integer.parseInt(sequence.trim());
+            } catch (NumberFormatException e) {
+                return gameError(request, 400, "Invalid " + MOVE_SEQUENCE_HEADER);
+            }
+            if (expectedMoveCount < 0) {
+                return gameError(request, 400, "Invalid " + MOVE_SEQUENCE_HEADER);
+            }
+        }
+
+        GameStore.MoveResult result = gameStore.processMove(gameId, playerId.trim(), fromCell, toCell,
+                idempotencyKey, expectedMoveCount);
+        switch (result.code) {
+            case GameRules.OK:
+                ApiResponse response = gameResponse(request, result.game);
+                return result.replayed ? response.withHeader("Idempotent-Replayed", "true") : response;
+            case GameStore.ERROR_GAME_NOT_FOUND:
+                return gameError(request, 404, "Game not found");
+            case GameStore.ERROR_NOT_A_PLAYER:
+                return gameError(request, 403, "Player is not in this game");
+            case GameStore.ERROR_GAME_NOT_ACTIVE:
+                return gameError(request, 200, "Game is not active");
+            case GameStore.ERROR_STALE_MOVE:
+                return gameError(request, 409, "Board changed since the move was made");
+            default:
+                // Rule violations are a normal outcome: 200 with the reason, like the client's own checks
+                return gameError(request, 200, GameRules.describe(result.code));
+        }
+    }
+
+    private ApiResponse leaveGame(ApiRequest request, String gameId) {
+        String playerId = request.queryParam("playerId");
+        if (playerId == null || playerId.trim().isEmpty()) {
+            return error(400, "Player ID is required");
+        }
+
+        GameStore.MoveResult result = gameStore.leaveGame(gameId, playerId.trim());
+        if (result.code == GameStore.ERROR_GAME_NOT_FOUND) {
+            return error(404, "Game not found");
+        }
+        if (result.code == GameStore.ERROR_NOT_A_PLAYER) {
+            return error(403, "Player is not in this game");
+        }
+        return success("Left game");
+    }
+
+    private ApiResponse gameResponse(ApiRequest request, ServerGameState game) {
+        if (request.acceptsBinary()) {
+            return ApiResponse.binary(200, GameWireCodec.encodeGameState(game));
+        }
+        JSONObject json = new JSONObject();
+        json.put("status", "success");
+        json.put("game", GameJson.toJson(game));
+        return ApiResponse.json(200, json);
+    }
+
+    private ApiResponse gameError(ApiRequest request, int status, String message) {
+        if (request.acceptsBinary()) {
+            return ApiResponse.binary(status, GameWireCodec.encodeError(message));
+        }
+        return error(status, message);
+    }
+
+    // ===== HELPERS =====
+
+    private static JSONObject historyJson(MoveRecord record) {
+        JSONObject json = new JSONObject();
+        json.put("sequence", record.sequence);
+        if (record.kind == MoveRecord.KIND_RESTORE) {
+            json.put("type", "RESTORE");
+            return json;
+        }
+        json.put("timestamp", record.timestamp);
+        switch (record.kind) {
+            case MoveRecord.KIND_MOVE:
+                json.put("type", record.isPlacement() ? "PLACE" : "MOVE");
+                break;
+            case MoveRecord.KIND_FORFEIT:
+                json.put("type", "FORFEIT");
+                break;
+            default:
+                json.put("type", "ABANDON");
+                return json;
+        }
+        json.put("player", record.player1 ? 1 : 2);
+        if (record.fromCell != GameRules.NO_CELL) {
+            json.put("fromX", GameRules.cellX(record.fromCell));
+            json.put("fromY", GameRules.cellY(record.fromCell));
+        }
+        if (record.toCell != GameRules.NO_CELL) {
+            json.put("toX", GameRules.cellX(record.toCell));
+            json.put("toY", GameRules.cellY(record.toCell));
+        }
+        return json;
+    }
+
+    private static JSONObject ratingJson(RatingService.PlayerRating player) {
+        JSONObject json = new JSONObject();
+        json.put("playerId", player.playerId);
+        json.put("rating", player.rating);
+        json.put("games", player.games);
+        json.put("rank", player.rank);
+        return json;
+    }
+
+    private static int intParam(ApiRequest request, String name, int defaultValue) {
+        String value = request.queryParam(name);
+        return value != null ? Integer.parseInt(value.trim()) : defaultValue;
+    }
+
+    private void putWaitStats(JSONObject json) {
+        MatchmakingService.WaitStats stats = matchmaking.getWaitStats();
+        json.put("waitSamples", stats.samples);
+        json.put("waitP50Seconds", stats.p50Ms / 1000.0);
+        json.put("waitP90Seconds", stats.p90Ms / 1000.0);
+        json.put("waitP99Seconds", stats.p99Ms / 1000.0);
+    }
+
+    private static ApiResponse success(String message) {
+        JSONObject json = new JSONObject();
+        json.put("status", "success");
+        json.put("message", message);
+        return ApiResponse.json(200, json);
+    }
+
+    private static ApiResponse error(int status, String message) {
+        JSONObject json = new JSONObject();
+        json.put("status", "error");
+        json.put("message", message);
+        return ApiResponse.json(status, json);
+    }
+}
@@ -0,0 +1,52 @@
+package com.gfg.NaarPazham.server;
+
+import com.gfg.NaarPazham.PlayerMove;
+import com.gfg.NaarPazham.ServerGameState;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.List;
+
+/**
+ * JSON shape of a game, as parsed by NetworkService.parseServerGameState.
+ */
+final class GameJson {
+
+    private GameJson() {}
+
+    static JSONObject toJson(ServerGameState game) {
+        JSONObject json = new JSONObject();
+        json.put("gameId", game.getGameId());
+        json.put("player1Id", nullable(game.getPlayer1Id()));
+        json.put("player2Id", nullable(game.getPlayer2Id()));
+        json.put("gameStatus", game.getGameStatus());
+        json.put("player1Turn", game.isPlayer1Turn());
+        json.put("placementPhase", game.isPlacementPhase());
+        json.put("winner", nullable(game.getWinner()));
+        json.put("gameStarted", game.isGameStarted());
+        json.put("player1Assigned", game.isPlayer1Assigned());
+        json.put("player2Assigned", game.isPlayer2Assigned());
+        json.put("totalMoves", game.getTotalMoves());
+        json.put("lastActivity", game.getLastActivity());
+        json.put("player1Moves", movesToJson(game.getPlayer1Moves()));
+        json.put("player2Moves", movesToJson(game.getPlayer2Moves()));
+        return json;
+    }
+
+    private static JSONArray movesToJson(List<PlayerMove> moves) {
+        JSONArray array = new JSONArray();
+        for (PlayerMove move : moves) {
+            JSONObject moveJson = new JSONObject();
+            moveJson.put("boardX", move.getBoardX());
+            moveJson.put("boardY", move.getBoardY());
+            moveJson.put("player1", move.isPlayer1());
+            array.put(moveJson);
+        }
+        return array;
+    }
+
+    private static Object nullable(Object value) {
+        return value != null ? value : JSONObject.NULL;
+    }
+}
@@ -0,0 +1,410 @@
+package com.gfg.NaarPazham.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Embeddable stand-in for the game backend. Serves the /api/games contract
+ * over plain HTTP from memory, so the client, load generators and benchmarks
+ * can run against a real server on one machine.
+ *
+ * <pre>
+ *   GameServer server = GameServer.start(ServerConfig.defaultConfig());
+ *   ... http://localhost:server.getPort()/api/games/...
+ *   server.stop();
+ * </pre>
+ *
+ * The same API is also served over a WebSocket (see {@link WebSocketGateway})
+ * when the config gives it a port, e.g. -Dnaarpazham.wsPort=8081. Its
+ * connections can watch games, receiving every change as it happens (see
+ * {@link SpectatorBroadcaster}).
+ *
+ * Finished games update Elo ratings (see {@link RatingService}), which the
+ * matchmaker buckets players by and the leaderboard routes serve.
+ *
+ * Tournaments run on the same games (see {@link TournamentService}); with
+ * -Dnaarpazham.tournamentDir their brackets survive a restart.
+ *
+ * Past {@code maxPendingRequests} queued or running requests the server sheds
+ * load with 503 + Retry-After (see {@link LoadShedder}); tune with
+ * -Dnaarpazham.maxPending, -Dnaarpazham.deviceRps and -Dnaarpazham.retryAfter.
+ *
+ * Or standalone: ./gradlew :server:run --args="8080"
+ */
+public class GameServer {
+    private static final Logger LOG = Logger.getLogger(GameServer.class.getName());
+
+    private static final long MAINTENANCE_INTERVAL_MS = 10000;
+
+    static {
+        // The JDK server writes the headers and the body separately; with
+        // Nagle's algorithm on, every response then waits out the client's
+        // delayed ACK (~40ms on Linux)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final ServerConfig config;
+    private final GameStore gameStore;
+    private final MatchmakingService matchmaking;
+    private final RatingService ratings;
+    private final GameController controller;
+    private final SpectatorBroadcaster spectators;
+    private final TournamentService tournaments;
+
+    private HttpServer httpServer;
+    private WebSocketGateway webSocketGateway;
+    private ExecutorService requestExecutor;
+    private ScheduledExecutorService maintenanceExecutor;
+
+    public static class ServerConfig {
+        public static final int DEFAULT_RETRY_AFTER_SECONDS = 5;
+
+        public final int port;
+        public final int requestThreads;
+        public final long gameInactivityTimeoutMs;
+        public final long finishedGameRetentionMs;
+        public final String adminKey;
+        /** Directory for memory-mapped move logs; null keeps them on the heap. */
+        public final String moveLogDirectory;
+        /** Memory-mapped file holding the games themselves; null keeps them in memory only. */
+        public final String gameFile;
+        /** Port for the WebSocket endpoint; 0 picks a free one, negative disables it. */
+        public final int webSocketPort;
+        /** Queued plus running requests before load is shed with 503s; 0 never sheds. */
+        public final int maxPendingRequests;
+        /** Sustained requests per second one device may send before getting 429s; 0 is unlimited. */
+        public final int deviceRequestsPerSecond;
+        /** Retry-After sent with a 503. */
+        public final int retryAfterSeconds;
+        /** Directory for tournament brackets; null keeps them in memory only. */
+        public final String tournamentDirectory;
+
+        /**
+         * The essentials; everything else starts off (in memory, no
+         * WebSocket, no load shedding) and is turned on with the with*
+         * methods, each of which returns a changed copy.
+         */
+        public ServerConfig(int port, int requestThreads, long gameInactivityTimeoutMs,
+                            long finishedGameRetentionMs, String adminKey) {
+            this(port, requestThreads, gameInactivityTimeoutMs, finishedGameRetentionMs, adminKey,
+                    null, null, -1, 0, 0, DEFAULT_RETRY_AFTER_SECONDS, null);
+        }
+
+        private ServerConfig(int port, int requestThreads, long gameInactivityTimeoutMs,
+                             long finishedGameRetentionMs, String adminKey,
+                             String moveLogDirectory, String gameFile, int webSocketPort,
+                             int maxPendingRequests, int deviceRequestsPerSecond, int retryAfterSeconds,
+                             String tournamentDirectory) {
+            this.port = port;
+            this.requestThreads = requestThreads;
+            this.gameInactivityTimeoutMs = gameInactivityTimeoutMs;
+            this.finishedGameRetentionMs = finishedGameRetentionMs;
+            this.adminKey = adminKey;
+            this.moveLogDirectory = moveLogDirectory;
+            this.gameFile = gameFile;
+            this.webSocketPort = webSocketPort;
+            this.maxPendingRequests = maxPendingRequests;
+            this.deviceRequestsPerSecond = deviceRequestsPerSecond;
+            this.retryAfterSeconds = retryAfterSeconds;
+            this.tournamentDirectory = tournamentDirectory;
+        }
+
+        public ServerConfig withMoveLogDirectory(String moveLogDirectory) {
+            return new ServerConfig(port, requestThreads, gameInactivityTimeoutMs, finishedGameRetentionMs, adminKey,
+                    moveLogDirectory, gameFile, webSocketPort, maxPendingRequests, deviceRequestsPerSecond,
+                    retryAfterSeconds, tournamentDirectory);
+        }
+
+        public ServerConfig withGameFile(String gameFile) {
+            return new ServerConfig(port, requestThreads, gameInactivityTimeoutMs, finishedGameRetentionMs, adminKey,
+                    moveLogDirectory, gameFile, webSocketPort, maxPendingRequests, deviceRequestsPerSecond,
+                    retryAfterSeconds, tournamentDirectory);
+        }
+
+        public ServerConfig withWebSocketPort(int webSocketPort) {
+            return new ServerConfig(port, requestThreads, gameInactivityTimeoutMs, finishedGameRetentionMs, adminKey,
+                    moveLogDirectory, gameFile, webSocketPort, maxPendingRequests, deviceRequestsPerSecond,
+                    retryAfterSeconds, tournamentDirectory);
+        }
+
+        public ServerConfig withMaxPendingRequests(int maxPendingRequests) {
+            return new ServerConfig(port, requestThreads, gameInactivityTimeoutMs, finishedGameRetentionMs, adminKey,
+                    moveLogDirectory, gameFile, webSocketPort, maxPendingRequests, deviceRequestsPerSecond,
+                    retryAfterSeconds, tournamentDirectory);
+        }
+
+        public ServerConfig withDeviceRequestsPerSecond(int deviceRequestsPerSecond) {
+            return new ServerConfig(port, requestThreads, gameInactivityTimeoutMs, finishedGameRetentionMs, adminKey,
+                    moveLogDirectory, gameFile, webSocketPort, maxPendingRequests, deviceRequestsPerSecond,
+                    retryAfterSeconds, tournamentDirectory);
+        }
+
+        public ServerConfig withRetryAfterSeconds(int retryAfterSeconds) {
+            return new ServerConfig(port, requestThreads, gameInactivityTimeoutMs, finishedGameRetentionMs, adminKey,
+                    moveLogDirectory, gameFile, webSocketPort, maxPendingRequests, deviceRequestsPerSecond,
+                    retryAfterSeconds, tournamentDirectory);
+        }
+
+        public ServerConfig withTournamentDirectory(String tournamentDirectory) {
+            return new ServerConfig(port, requestThreads, gameInactivityTimeoutMs, finishedGameRetentionMs, adminKey,
+                    moveLogDirectory, gameFile, webSocketPort, maxPendingRequests, deviceRequestsPerSecond,
+                    retryAfterSeconds, tournamentDirectory);
+        }
+
+        public static ServerConfig defaultConfig() {
+            return onPort(8080);
+        }
+
+        /** Port 0 picks a free port; see {@link GameServer#getPort()}. */
+        public static ServerConfig onPort(int port) {
+            int threads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+            return new ServerConfig(port, threads, 300000, 600000, System.getProperty("naarpazham.adminKey"))
+                    .withMoveLogDirectory(System.getProperty("naarpazham.moveLogDir"))
+                    .withGameFile(System.getProperty("naarpazham.gameFile"))
+                    .withWebSocketPort(Integer.getInteger("naarpazham.wsPort", -1))
+                    .withMaxPendingRequests(Integer.getInteger("naarpazham.maxPending", threads * 64))
+                    .withDeviceRequestsPerSecond(Integer.getInteger("naarpazham.deviceRps", 0))
+                    .withRetryAfterSeconds(Integer.getInteger("naarpazham.retryAfter", DEFAULT_RETRY_AFTER_SECONDS))
+                    .withTournamentDirectory(System.getProperty("naarpazham.tournamentDir"));
+        }
+    }
+
+    public GameServer(ServerConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException("ServerConfig cannot be null");
+        }
+        this.config = config;
+        this.gameStore = new GameStore(createMoveLog(config), createSlotFile(config));
+        this.ratings = new RatingService();
+        gameStore.addListener(ratings);
+        this.matchmaking = new MatchmakingService(gameStore, ratings);
+        this.controller = new GameController(gameStore, matchmaking, config.adminKey,
+                new LoadShedder(config.maxPendingRequests, config.deviceRequestsPerSecond, config.retryAfterSeconds),
+                ratings);
+        this.spectators = new SpectatorBroadcaster();
+        gameStore.addListener(spectators);
+        this.tournaments = createTournaments(config, gameStore);
+    }
+
+    public static GameServer start(ServerConfig config) throws IOException {
+        GameServer server = new GameServer(config);
+        server.start();
+        return server;
+    }
+
+    public synchronized void start() throws IOException {
+        if (httpServer != null) {
+            return;
+        }
+
+        httpServer = HttpServer.create(new InetSocketAddress(config.port), 1024);
+        requestExecutor = Executors.newFixedThreadPool(config.requestThreads);
+        // Both transports queue on the same pool, counted as pending for load shedding
+        Executor tracked = controller.getLoadShedder().tracking(requestExecutor);
+        httpServer.setExecutor(tracked);
+        httpServer.createContext("/", this::handleExchange);
+        httpServer.start();
+
+        if (config.webSocketPort >= 0) {
+            webSocketGateway = new WebSocketGateway(controller, tracked, spectators);
+            webSocketGateway.start(config.webSocketPort);
+        }
+
+        maintenanceExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "GameServerMaintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        maintenanceExecutor.scheduleWithFixedDelay(this::runMatchmakingTick,
+                MatchmakingService.TICK_INTERVAL_MS, MatchmakingService.TICK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        maintenanceExecutor.scheduleWithFixedDelay(this::runMaintenance,
+                MAINTENANCE_INTERVAL_MS, MAINTENANCE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+        LOG.info("Game server listening on port " + getPort()
+                + (webSocketGateway != null ? ", WebSocket on port " + getWebSocketPort() : ""));
+    }
+
+    public synchronized void stop() {
+        if (httpServer == null) {
+            return;
+        }
+        httpServer.stop(0);
+        if (webSocketGateway != null) {
+            webSocketGateway.stop();
+            webSocketGateway = null;
+        }
+        requestExecutor.shutdownNow();
+        maintenanceExecutor.shutdownNow();
+        try {
+            gameStore.getMoveLog().close();
+            if (gameStore.getSlotFile() != null) {
+                gameStore.getSlotFile().close();
+            }
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Could not close game storage", e);
+        }
+        httpServer = null;
+        LOG.info("Game server stopped");
+    }
+
+    public int getPort() {
+        return httpServer != null ? httpServer.getAddress().getPort() : config.port;
+    }
+
+    /** Port of the WebSocket endpoint, or -1 if it is disabled. */
+    public int getWebSocketPort() {
+        return webSocketGateway != null ? webSocketGateway.getPort() : -1;
+    }
+
+    /** The transport-independent request handler, for in-process callers. */
+    public GameController getController() {
+        return controller;
+    }
+
+    public GameStore getGameStore() {
+        return gameStore;
+    }
+
+    public MatchmakingService getMatchmaking() {
+        return matchmaking;
+    }
+
+    /** Player ratings, updated as games finish; the matchmaker buckets by them. */
+    public RatingService getRatings() {
+        return ratings;
+    }
+
+    /** Game updates for spectators; in-process callers can subscribe directly. */
+    public SpectatorBroadcaster getSpectators() {
+        return spectators;
+    }
+
+    /** Tournaments played on this server's games; created in-process. */
+    public TournamentService getTournaments() {
+        return tournaments;
+    }
+
+    // ===== HTTP ADAPTER =====
+
+    private void handleExchange(HttpExchange exchange) throws IOException {
+        try {
+            byte[] body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = in.readAllBytes();
+            }
+
+            Map<String, String> headers = new HashMap<>();
+            for (Map.Entry<String, List<String>> header : exchange.getRequestHeaders().entrySet()) {
+                if (!header.getValue().isEmpty()) {
+                    headers.put(header.getKey(), header.getValue().get(0));
+                }
+            }
+
+            ApiRequest request = new ApiRequest(exchange.getRequestMethod(),
+                    exchange.getRequestURI().getPath(),
+                    ApiRequest.parseQuery(exchange.getRequestURI().getRawQuery()),
+                    headers, body);
+            ApiResponse response = controller.handle(request);
+
+            exchange.getResponseHeaders().set("Content-Type", response.contentType);
+            for (Map.Entry<String, String> header : response.headers.entrySet()) {
+                exchange.getResponseHeaders().set(header.getKey(), header.getValue());
+            }
+            exchange.sendResponseHeaders(response.status, response.body.length == 0 ? -1 : response.body.length);
+            if (response.body.length > 0) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(response.body);
+                }
+            }
+        } catch (Exception e) {
+            LOG.log(Level.WARNING, "Failed to handle " + exchange.getRequestURI(), e);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void runMatchmakingTick() {
+        try {
+            matchmaking.tick();
+        } catch (Exception e) {
+            LOG.log(Level.WARNING, "Matchmaking tick failed", e);
+        }
+    }
+
+    private void runMaintenance() {
+        try {
+            int matches = matchmaking.processQueue();
+            int removed = gameStore.expireStaleGames(config.gameInactivityTimeoutMs, config.finishedGameRetentionMs);
+            controller.getLoadShedder().expireIdleDevices();
+            gameStore.getMoveLog().flush();
+            if (gameStore.getSlotFile() != null) {
+                gameStore.getSlotFile().flush();
+            }
+            if (matches > 0 || removed > 0) {
+                LOG.fine("Maintenance: " + matches + " matches, " + removed + " games removed");
+            }
+        } catch (Exception e) {
+            LOG.log(Level.WARNING, "Maintenance failed", e);
+        }
+    }
+
+    private static MoveLog createMoveLog(ServerConfig config) {
+        if (config.moveLogDirectory == null) {
+            return new InMemoryMoveLog();
+        }
+        try {
+            return new MappedMoveLog(Paths.get(config.moveLogDirectory));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open move log directory " + config.moveLogDirectory, e);
+        }
+    }
+
+    private static GameSlotFile createSlotFile(ServerConfig config) {
+        if (config.gameFile == null) {
+            return null;
+        }
+        try {
+            return new GameSlotFile(Paths.get(config.gameFile));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open game file " + config.gameFile, e);
+        }
+    }
+
+    private static TournamentService createTournaments(ServerConfig config, GameStore gameStore) {
+        try {
+            return new TournamentService(gameStore,
+                    config.tournamentDirectory != null ? Paths.get(config.tournamentDirectory) : null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open tournament directory " + config.tournamentDirectory, e);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        GameServer server = start(ServerConfig.onPort(port));
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        System.out.println("NaarPazham stand-in server on http://localhost:" + server.getPort() + GameController.API_PREFIX);
+        if (server.getWebSocketPort() >= 0) {
+            System.out.println("WebSocket API on ws://localhost:" + server.getWebSocketPort() + "/");
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.gfg.NaarPazham.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Games kept in fixed-size slots of a memory-mapped file, so the stand-in
+ * server picks up every game where it left off after a restart or crash.
+ *
+ * Each 256-byte slot holds two copies of a 56-byte hot header and, after
+ * them, the game and player ids (written once, when the slot is taken):
+ *
+ * <pre>
+ *   header (x2, at 0 and 64)          ids (at 128)
+ *   0..3    version                   gameId, player1Id, player2Id
+ *   4       status (-1 = free)        each as a length byte + UTF-8,
+ *   8..15   packed GameRules state    128 bytes in total
+ *   16..39  last activity: game, player 1, player 2
+ *   40..47  hash of the ids
+ *   48..55  check over bytes 0..47
+ * </pre>
+ *
+ * An update writes the copy the previous update didn't, check last, and
+ * takes no lock: callers already serialize writes to a slot (GameStore
+ * holds the game's stripe), and a crash mid-write leaves the other copy
+ * intact. Recovery scans every slot and keeps the newest copy whose check
+ * and ids hash hold up.
+ *
+ * The file grows in segments of SEGMENT_SLOTS slots, each mapped once.
+ */
+public final class GameSlotFile implements Closeable {
+    private static final Logger LOG = Logger.getLogger(GameSlotFile.class.getName());
+
+    public static final int SLOT_SIZE = 256;
+    public static final int SEGMENT_SLOTS = 4096;
+
+    static final byte STATUS_FREE = -1;
+
+    private static final int HEADER_STRIDE = 64;
+    private static final int IDS_OFFSET = 2 * HEADER_STRIDE;
+    private static final int IDS_SIZE = SLOT_SIZE - IDS_OFFSET;
+    private static final long SEGMENT_BYTES = (long) SEGMENT_SLOTS * SLOT_SIZE;
+
+    /** A game found in the file at startup. */
+    public static final class Entry {
+        public final int slot;
+        public final String gameId;
+        public final String player1Id;
+        public final String player2Id;
+        public final byte status;
+        public final long state;
+        public final long lastActivity;
+        public final long player1LastActivity;
+        public final long player2LastActivity;
+
+        Entry(int slot, String gameId, String player1Id, String player2Id, byte status, long state,
+              long lastActivity, long player1LastActivity, long player2LastActivity) {
+            this.slot = slot;
+            this.gameId = gameId;
+            this.player1Id = player1Id;
+            this.player2Id = player2Id;
+            this.status = status;
+            this.state = state;
+            this.lastActivity = lastActivity;
+            this.player1LastActivity = player1LastActivity;
+            this.player2LastActivity = player2LastActivity;
+        }
+    }
+
+    /** One mapped run of slots plus each slot's latest version and ids hash. */
+    private static final class Segment {
+        final MappedByteBuffer buffer;
+        final int[] versions = new int[SEGMENT_SLOTS];
+        final long[] idsHashes = new long[SEGMENT_SLOTS];
+
+        Segment(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+    }
+
+    private final Path file;
+    private final FileChannel channel;
+    private volatile Segment[] segments = new Segment[0];
+    private final AtomicInteger nextSlot = new AtomicInteger();
+    private final ConcurrentLinkedQueue<Integer> freeSlots = new ConcurrentLinkedQueue<>();
+    private final List<Entry> recovered;
+
+    public GameSlotFile(Path file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("File cannot be null");
+        }
+        this.file = file;
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        int existingSegments = (int) ((channel.size() + SEGMENT_BYTES - 1) / SEGMENT_BYTES);
+        for (int i = 0; i < existingSegments; i++) {
+            addSegment();
+        }
+        recovered = Collections.unmodifiableList(scan(existingSegments * SEGMENT_SLOTS));
+        if (!recovered.isEmpty()) {
+            LOG.info("Recovered " + recovered.size() + " games from " + file);
+        }
+    }
+
+    /** Games that were in the file when it was opened. */
+    public List<Entry> recovered() {
+        return recovered;
+    }
+
+    // ===== SLOTS =====
+
+    /**
+     * Take a slot for a new game and record its ids. Returns -1 if the ids
+     * don't fit, in which case the game simply isn't persisted.
+     */
+    public int allocate(String gameId, String player1Id, String player2Id) {
+        byte[][] ids = {utf8(gameId), utf8(player1Id), utf8(player2Id)};
+        if (ids[0].length + ids[1].length + ids[2].length + 3 > IDS_SIZE
+                || ids[0].length > 255 || ids[1].length > 255 || ids[2].length > 255) {
+            LOG.warning("Ids too long to persist game " + gameId);
+            return -1;
+        }
+
+        Integer reused = freeSlots.poll();
+        int slot = reused != null ? reused : nextSlot.getAndIncrement();
+        Segment segment = segmentFor(slot);
+        int base = slotOffset(slot);
+
+        int offset = base + IDS_OFFSET;
+        for (byte[] id : ids) {
+            segment.buffer.put(offset++, (byte) id.length);
+            for (byte b : id) {
+                segment.buffer.put(offset++, b);
+            }
+        }
+        segment.idsHashes[slot % SEGMENT_SLOTS] = idsHash(segment.buffer, base);
+        return slot;
+    }
+
+    /** Record a game's current state; only one thread may write a given slot at a time. */
+    public void write(int slot, byte status, long state, long lastActivity,
+                      long player1LastActivity, long player2LastActivity) {
+        Segment segment = segments[slot / SEGMENT_SLOTS];
+        int index = slot % SEGMENT_SLOTS;
+        int version = segment.versions[index] + 1;
+        int header = slotOffset(slot) + (version & 1) * HEADER_STRIDE;
+        ByteBuffer buffer = segment.buffer;
+
+        buffer.putInt(header, version);
+        buffer.put(header + 4, status);
+        buffer.putLong(header + 8, state);
+        buffer.putLong(header + 16, lastActivity);
+        buffer.putLong(header + 24, player1LastActivity);
+        buffer.putLong(header + 32, player2LastActivity);
+        buffer.putLong(header + 40, segment.idsHashes[index]);
+        buffer.putLong(header + 48, headerCheck(buffer, header));
+        segment.versions[index] = version;
+    }
+
+    /** Give up a slot once its game is gone. */
+    public void free(int slot) {
+        write(slot, STATUS_FREE, 0, 0, 0, 0);
+        freeSlots.offer(slot);
+    }
+
+    /** Slots ever handed out, in use or free. */
+    public int capacityUsed() {
+        return nextSlot.get();
+    }
+
+    /** Make every write so far survive a power loss, not just a crash. */
+    public void flush() {
+        for (Segment segment : segments) {
+            segment.buffer.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    // ===== RECOVERY =====
+
+    private List<Entry> scan(int slotCount) {
+        List<Entry> entries = new ArrayList<>();
+        int highestUsed = -1;
+
+        for (int slot = 0; slot < slotCount; slot++) {
+            Segment segment = segments[slot / SEGMENT_SLOTS];
+            int index = slot % SEGMENT_SLOTS;
+            ByteBuffer buffer = segment.buffer;
+            int base = slotOffset(slot);
+
+            long idsHash = idsHash(buffer, base);
+            int newest = -1;
+            int newestVersion = 0;
+            for (int copy = 0; copy < 2; copy++) {
+                int header = base + copy * HEADER_STRIDE;
+                int version = buffer.getInt(header);
+                if (version <= 0 || (version & 1) != copy || buffer.getLong(header + 48) != headerCheck(buffer, header)) {
+                    continue;
+                }
+                boolean free = buffer.get(header + 4) == STATUS_FREE;
+                if (!free && buffer.getLong(header + 40) != idsHash) {
+                    continue; // Left over from the slot's previous game
+                }
+                if (version > newestVersion) {
+                    newest = header;
+                    newestVersion = version;
+                }
+            }
+            if (newest < 0) {
+                continue; // Never written: the rest of the file is unused or this slot's first write was torn
+            }
+
+            highestUsed = slot;
+            segment.versions[index] = newestVersion;
+            segment.idsHashes[index] = idsHash;
+            byte status = buffer.get(newest + 4);
+            if (status == STATUS_FREE) {
+                continue;
+            }
+            String[] ids = readIds(buffer, base);
+            entries.add(new Entry(slot, ids[0], ids[1], ids[2], status, buffer.getLong(newest + 8),
+                    buffer.getLong(newest + 16), buffer.getLong(newest + 24), buffer.getLong(newest + 32)));
+        }
+
+        // Unwritten slots below the high-water mark are free too
+        int next = highestUsed + 1;
+        boolean[] used = new boolean[next];
+        for (Entry entry : entries) {
+            used[entry.slot] = true;
+        }
+        for (int slot = 0; slot < next; slot++) {
+            if (!used[slot]) {
+                freeSlots.offer(slot);
+            }
+        }
+        nextSlot.set(next);
+        return entries;
+    }
+
+    // ===== HELPERS =====
+
+    private Segment segmentFor(int slot) {
+        int needed = slot / SEGMENT_SLOTS + 1;
+        if (segments.length < needed) {
+            synchronized (this) {
+                while (segments.length < needed) {
+                    addSegment();
+                }
+            }
+        }
+        return segments[slot / SEGMENT_SLOTS];
+    }
+
+    // Callers hold the monitor, or are the constructor
+    private void addSegment() {
+        Segment[] current = segments;
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE,
+                    current.length * SEGMENT_BYTES, SEGMENT_BYTES);
+            Segment[] grown = new Segment[current.length + 1];
+            System.arraycopy(current, 0, grown, 0, current.length);
+            grown[current.length] = new Segment(buffer);
+            segments = grown;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not grow " + file, e);
+        }
+    }
+
+    private static int slotOffset(int slot) {
+        return (slot % SEGMENT_SLOTS) * SLOT_SIZE;
+    }
+
+    private static byte[] utf8(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Ids cannot be null");
+        }
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String[] readIds(ByteBuffer buffer, int base) {
+        String[] ids = new String[3];
+        int offset = base + IDS_OFFSET;
+        for (int i = 0; i < ids.length; i++) {
+            int length = buffer.get(offset++) & 0xFF;
+            byte[] bytes = new byte[length];
+            for (int j = 0; j < length; j++) {
+                bytes[j] = buffer.get(offset++);
+            }
+            ids[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return ids;
+    }
+
+    private static long idsHash(ByteBuffer buffer, int base) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = base + IDS_OFFSET; i < base + SLOT_SIZE; i++) {
+            hash = (hash ^ (buffer.get(i) & 0xFF)) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    private static long headerCheck(ByteBuffer buffer, int header) {
+        long check = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < 48; i += 8) {
+            check = Long.rotateLeft(check ^ buffer.getLong(header + i), 27) * 0x3C79AC492BA7B653L;
+        }
+        return check;
+    }
+}
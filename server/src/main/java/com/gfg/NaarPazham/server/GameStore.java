@@ -0,0 +1,578 @@
+package com.gfg.NaarPazham.server;
+
+import com.gfg.NaarPazham.GameRules;
+import com.gfg.NaarPazham.ServerGameState;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory games, keyed by gameId. Each game is a small record holding the
+ * GameRules packed board rather than a ServerGameState with move lists;
+ * ServerGameState is only built for callers, who always get a copy.
+ *
+ * Changes to a game are serialized by one of a fixed set of lock stripes
+ * chosen by gameId, so games never wait on each other unless they share a
+ * stripe, and there is no store-wide lock.
+ *
+ * Every change is appended to a {@link MoveLog} under the same lock before
+ * it is applied, so a change the log refuses never reaches the game; a
+ * game's history can be read back or replayed to any earlier move, and,
+ * given a {@link GameSlotFile}, written through to its slot so games survive
+ * a restart.
+ *
+ * Moves can carry an idempotency key and the move count they were based on.
+ * The last {@link #DEDUPE_WINDOW} applied keys of each game are remembered,
+ * so a resent move gets the original result instead of being applied again,
+ * and a move based on an older board than the current one is refused.
+ *
+ * A player is in at most one active game at a time: createGame refuses a
+ * pairing while either player is still in another one.
+ *
+ * {@link Listener}s hear about every change after the game's lock is
+ * released, so they may see two changes to a game in either order.
+ */
+public class GameStore {
+
+    // Store-level result codes, alongside the GameRules ERROR_* codes
+    public static final int ERROR_GAME_NOT_FOUND = 100;
+    public static final int ERROR_NOT_A_PLAYER = 101;
+    public static final int ERROR_GAME_NOT_ACTIVE = 102;
+    /** The move was based on a board that has changed since. */
+    public static final int ERROR_STALE_MOVE = 103;
+
+    /** Applied moves remembered per game for deduplication. */
+    public static final int DEDUPE_WINDOW = 8;
+    /** No move count given: apply the move to whatever the board is now. */
+    public static final int ANY_MOVE_COUNT = -1;
+
+    private static final byte STATUS_ACTIVE = 0;
+    private static final byte STATUS_FINISHED = 1;
+    private static final byte STATUS_ABANDONED = 2;
+    private static final String[] STATUS_NAMES = {"ACTIVE", "FINISHED", "ABANDONED"};
+
+    private static final int MIN_STRIPES = 64;
+
+    private final Map<String, GameRecord> games = new ConcurrentHashMap<>();
+    private final Map<String, String> activeGameByPlayer = new ConcurrentHashMap<>();
+    private final AtomicLong gameCounter = new AtomicLong();
+    private final AtomicInteger activeGames = new AtomicInteger();
+    private final Object[] stripes;
+    private final int stripeMask;
+    private final MoveLog moveLog;
+    private final GameSlotFile slotFile;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    /** Told about every applied move, forfeit and abandonment; {@code game} is shared, so read only. */
+    public interface Listener {
+        void onGameChanged(ServerGameState game);
+    }
+
+    public static class MoveResult {
+        public final int code;
+        public final ServerGameState game;
+        /** The move had already been applied; game is the state it produced then. */
+        public final boolean replayed;
+
+        MoveResult(int code, ServerGameState game) {
+            this(code, game, false);
+        }
+
+        MoveResult(int code, ServerGameState game, boolean replayed) {
+            this.code = code;
+            this.game = game;
+            this.replayed = replayed;
+        }
+
+        public boolean isSuccess() {
+            return code == GameRules.OK;
+        }
+    }
+
+    /** One game; every field but the ids is guarded by the game's stripe. */
+    private static final class GameRecord {
+        final String gameId;
+        final String player1Id;
+        final String player2Id;
+        long state;
+        byte status;
+        long lastActivity;
+        long player1LastActivity; // 0 until the player first moves
+        long player2LastActivity;
+        int slot = -1; // In the slot file; -1 if not persisted
+        // Idempotency keys of recently applied moves and the state each one
+        // produced, as a ring; allocated by the first keyed move
+        String[] moveKeys;
+        GameRecord[] moveResults;
+        int nextMoveKey;
+
+        GameRecord(String gameId, String player1Id, String player2Id) {
+            this.gameId = gameId;
+            this.player1Id = player1Id;
+            this.player2Id = player2Id;
+        }
+
+        GameRecord copy() {
+            GameRecord copy = new GameRecord(gameId, player1Id, player2Id);
+            copy.state = state;
+            copy.status = status;
+            copy.lastActivity = lastActivity;
+            copy.player1LastActivity = player1LastActivity;
+            copy.player2LastActivity = player2LastActivity;
+            return copy;
+        }
+
+        boolean isActive() {
+            return status == STATUS_ACTIVE;
+        }
+
+        GameRecord appliedMove(String key) {
+            if (moveKeys != null) {
+                for (int i = 0; i < moveKeys.length; i++) {
+                    if (key.equals(moveKeys[i])) {
+                        return moveResults[i];
+                    }
+                }
+            }
+            return null;
+        }
+
+        void rememberMove(String key, GameRecord result) {
+            if (moveKeys == null) {
+                moveKeys = new String[DEDUPE_WINDOW];
+                moveResults = new GameRecord[DEDUPE_WINDOW];
+            }
+            moveKeys[nextMoveKey] = key;
+            moveResults[nextMoveKey] = result;
+            nextMoveKey = (nextMoveKey + 1) % DEDUPE_WINDOW;
+        }
+    }
+
+    public GameStore() {
+        this(new InMemoryMoveLog());
+    }
+
+    public GameStore(MoveLog moveLog) {
+        this(moveLog, null);
+    }
+
+    public GameStore(MoveLog moveLog, GameSlotFile slotFile) {
+        this(Math.max(MIN_STRIPES, Runtime.getRuntime().availableProcessors() * 16), moveLog, slotFile);
+    }
+
+    public GameStore(int stripeCount, MoveLog moveLog) {
+        this(stripeCount, moveLog, null);
+    }
+
+    /**
+     * stripeCount is rounded up to a power of two; a null moveLog keeps no
+     * history and a null slotFile keeps games in memory only. Games already
+     * in slotFile are loaded.
+     */
+    public GameStore(int stripeCount, MoveLog moveLog, GameSlotFile slotFile) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+        int size = 1;
+        while (size < stripeCount) {
+            size <<= 1;
+        }
+        stripes = new Object[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Object();
+        }
+        stripeMask = size - 1;
+        this.moveLog = moveLog;
+        this.slotFile = slotFile;
+        if (slotFile != null) {
+            restoreGames(slotFile);
+        }
+    }
+
+    // ===== GAME LIFECYCLE =====
+
+    /**
+     * Start a game between two players; player 1 moves first. Returns null,
+     * creating nothing, if either player is still in another active game.
+     */
+    public ServerGameState createGame(String player1Id, String player2Id) {
+        if (player1Id == null || player2Id == null) {
+            throw new IllegalArgumentException("Player IDs cannot be null");
+        }
+        if (player1Id.equals(player2Id)) {
+            throw new IllegalArgumentException("A player cannot play themselves");
+        }
+
+        String gameId = "GAME_" + System.currentTimeMillis() + "_" + gameCounter.incrementAndGet();
+        GameRecord game = new GameRecord(gameId, player1Id, player2Id);
+        game.state = GameRules.NEW_GAME;
+        game.status = STATUS_ACTIVE;
+        game.lastActivity = System.currentTimeMillis();
+
+        // Not yet published, so no lock needed for the copy or the first write
+        if (slotFile != null) {
+            game.slot = slotFile.allocate(gameId, player1Id, player2Id);
+            persist(game);
+        }
+        GameRecord snapshot = game.copy();
+
+        // In the map before the players point at it, so a claim never sees a missing game
+        games.put(gameId, game);
+        if (!claimPlayer(player1Id, gameId)) {
+            discard(game);
+            return null;
+        }
+        if (!claimPlayer(player2Id, gameId)) {
+            activeGameByPlayer.remove(player1Id, gameId);
+            discard(game);
+            return null;
+        }
+        activeGames.incrementAndGet();
+        return toServerState(snapshot);
+    }
+
+    public ServerGameState getGame(String gameId) {
+        GameRecord snapshot = snapshot(gameId);
+        return snapshot != null ? toServerState(snapshot) : null;
+    }
+
+    /** The game a player is currently in, or null once it has finished. */
+    public ServerGameState findActiveGame(String playerId) {
+        String gameId = playerId != null ? activeGameByPlayer.get(playerId) : null;
+        GameRecord snapshot = snapshot(gameId);
+        if (snapshot == null || !snapshot.isActive()) {
+            return null;
+        }
+        return toServerState(snapshot);
+    }
+
+    // ===== MOVES =====
+
+    /** Validate and apply a move; fromCell is GameRules.NO_CELL for placements. */
+    public MoveResult processMove(String gameId, String playerId, int fromCell, int toCell) {
+        return processMove(gameId, playerId, fromCell, toCell, null, ANY_MOVE_COUNT);
+    }
+
+    /**
+     * Apply a move at most once. A move whose {@code idempotencyKey} was
+     * already applied returns the state it produced, marked replayed; null
+     * turns deduplication off. Unless {@code expectedMoveCount} is
+     * {@link #ANY_MOVE_COUNT}, a new move is refused with
+     * {@link #ERROR_STALE_MOVE} if the game has seen a different number of
+     * moves.
+     */
+    public MoveResult processMove(String gameId, String playerId, int fromCell, int toCell,
+                                  String idempotencyKey, int expectedMoveCount) {
+        if (playerId == null) {
+            throw new IllegalArgumentException("Player ID cannot be null");
+        }
+        GameRecord game = gameId != null ? games.get(gameId) : null;
+        if (game == null) {
+            return new MoveResult(ERROR_GAME_NOT_FOUND, null);
+        }
+        boolean isPlayer1 = playerId.equals(game.player1Id);
+        if (!isPlayer1 && !playerId.equals(game.player2Id)) {
+            return new MoveResult(ERROR_NOT_A_PLAYER, null);
+        }
+
+        int code;
+        GameRecord snapshot;
+        boolean finished = false;
+        synchronized (stripeFor(gameId)) {
+            GameRecord applied = idempotencyKey != null ? game.appliedMove(idempotencyKey) : null;
+            if (applied != null) {
+                return new MoveResult(GameRules.OK, toServerState(applied), true);
+            }
+            if (!game.isActive()) {
+                code = game.status == STATUS_FINISHED ? GameRules.ERROR_GAME_OVER : ERROR_GAME_NOT_ACTIVE;
+            } else if (expectedMoveCount != ANY_MOVE_COUNT && expectedMoveCount != GameRules.moveCount(game.state)) {
+                code = ERROR_STALE_MOVE;
+            } else {
+                long next = GameRules.apply(game.state, isPlayer1, fromCell, toCell);
+                if (GameRules.isError(next)) {
+                    code = GameRules.errorCode(next);
+                } else {
+                    code = GameRules.OK;
+                    long now = System.currentTimeMillis();
+                    // Logged first, so a move the log refuses leaves the game untouched
+                    if (moveLog != null) {
+                        moveLog.appendMove(gameId, isPlayer1, fromCell, toCell, now);
+                    }
+                    game.state = next;
+                    touch(game, isPlayer1, now);
+                    if (GameRules.isGameOver(next)) {
+                        game.status = STATUS_FINISHED;
+                        finished = true;
+                    }
+                    persist(game);
+                }
+            }
+            snapshot = game.copy();
+            if (code == GameRules.OK && idempotencyKey != null) {
+                game.rememberMove(idempotencyKey, snapshot);
+            }
+        }
+
+        if (finished) {
+            releasePlayers(game);
+        }
+        ServerGameState state = toServerState(snapshot);
+        if (code == GameRules.OK) {
+            notifyChanged(state);
+        }
+        return new MoveResult(code, state);
+    }
+
+    /** Leaving an active game hands the win to the opponent. */
+    public MoveResult leaveGame(String gameId, String playerId) {
+        if (playerId == null) {
+            throw new IllegalArgumentException("Player ID cannot be null");
+        }
+        GameRecord game = gameId != null ? games.get(gameId) : null;
+        if (game == null) {
+            return new MoveResult(ERROR_GAME_NOT_FOUND, null);
+        }
+        boolean isPlayer1 = playerId.equals(game.player1Id);
+        if (!isPlayer1 && !playerId.equals(game.player2Id)) {
+            return new MoveResult(ERROR_NOT_A_PLAYER, null);
+        }
+
+        GameRecord snapshot;
+        boolean abandoned = false;
+        synchronized (stripeFor(gameId)) {
+            if (game.isActive()) {
+                long now = System.currentTimeMillis();
+                if (moveLog != null) {
+                    moveLog.appendForfeit(gameId, isPlayer1, now);
+                }
+                game.state = GameRules.withWinner(game.state,
+                        isPlayer1 ? GameRules.WINNER_PLAYER_2 : GameRules.WINNER_PLAYER_1);
+                game.status = STATUS_ABANDONED;
+                touch(game, isPlayer1, now);
+                abandoned = true;
+                persist(game);
+            }
+            snapshot = game.copy();
+        }
+
+        ServerGameState state = toServerState(snapshot);
+        if (abandoned) {
+            releasePlayers(game);
+            notifyChanged(state);
+        }
+        return new MoveResult(GameRules.OK, state);
+    }
+
+    // ===== HISTORY =====
+
+    /** Logged events for a game, oldest first; empty without a move log. */
+    public List<MoveRecord> getHistory(String gameId) {
+        return moveLog != null ? moveLog.read(gameId, 1) : Collections.emptyList();
+    }
+
+    /**
+     * The game as it stood after the given event (0 = before any move), or
+     * null if the game or the event doesn't exist.
+     */
+    public ServerGameState getGameAt(String gameId, int sequence) {
+        GameRecord snapshot = snapshot(gameId);
+        if (snapshot == null || moveLog == null
+                || sequence < 0 || sequence > moveLog.lastSequence(gameId)) {
+            return null;
+        }
+        snapshot.state = moveLog.replayTo(gameId, sequence);
+        if (sequence < moveLog.lastSequence(gameId)) {
+            snapshot.status = GameRules.isGameOver(snapshot.state) ? STATUS_FINISHED : STATUS_ACTIVE;
+        }
+        return toServerState(snapshot);
+    }
+
+    public MoveLog getMoveLog() {
+        return moveLog;
+    }
+
+    public GameSlotFile getSlotFile() {
+        return slotFile;
+    }
+
+    public void addListener(Listener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    // ===== MAINTENANCE =====
+
+    /**
+     * Abandon active games nobody has touched for inactiveMs and drop ended
+     * games older than retentionMs. Returns the number of games removed.
+     */
+    public int expireStaleGames(long inactiveMs, long retentionMs) {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        Iterator<GameRecord> it = games.values().iterator();
+        while (it.hasNext()) {
+            GameRecord game = it.next();
+            boolean release = false;
+            GameRecord snapshot = null;
+            synchronized (stripeFor(game.gameId)) {
+                long idle = now - game.lastActivity;
+                if (game.isActive() && idle > inactiveMs) {
+                    if (moveLog != null) {
+                        moveLog.appendAbandon(game.gameId, now);
+                    }
+                    game.status = STATUS_ABANDONED;
+                    release = true;
+                    persist(game);
+                    snapshot = game.copy();
+                } else if (!game.isActive() && idle > retentionMs) {
+                    it.remove();
+                    removed++;
+                    if (moveLog != null) {
+                        moveLog.delete(game.gameId);
+                    }
+                    if (game.slot >= 0) {
+                        slotFile.free(game.slot);
+                    }
+                }
+            }
+            if (release) {
+                releasePlayers(game);
+                if (!listeners.isEmpty()) {
+                    notifyChanged(toServerState(snapshot));
+                }
+            }
+        }
+        return removed;
+    }
+
+    public int gameCount() {
+        return games.size();
+    }
+
+    public int activeGameCount() {
+        return activeGames.get();
+    }
+
+    // ===== HELPERS =====
+
+    private Object stripeFor(String gameId) {
+        int h = gameId.hashCode();
+        return stripes[(h ^ (h >>> 16)) & stripeMask];
+    }
+
+    private GameRecord snapshot(String gameId) {
+        GameRecord game = gameId != null ? games.get(gameId) : null;
+        if (game == null) {
+            return null;
+        }
+        synchronized (stripeFor(gameId)) {
+            return game.copy();
+        }
+    }
+
+    /** Write the game through to its slot; callers hold its stripe. */
+    private void persist(GameRecord game) {
+        if (game.slot >= 0) {
+            slotFile.write(game.slot, game.status, game.state, game.lastActivity,
+                    game.player1LastActivity, game.player2LastActivity);
+        }
+    }
+
+    private void restoreGames(GameSlotFile slotFile) {
+        for (GameSlotFile.Entry entry : slotFile.recovered()) {
+            GameRecord game = new GameRecord(entry.gameId, entry.player1Id, entry.player2Id);
+            game.state = entry.state;
+            game.status = entry.status;
+            game.lastActivity = entry.lastActivity;
+            game.player1LastActivity = entry.player1LastActivity;
+            game.player2LastActivity = entry.player2LastActivity;
+            game.slot = entry.slot;
+            // A heap log starts empty, and a durable one may trail the slot by a move
+            if (moveLog != null && moveLog.replay(game.gameId) != game.state) {
+                moveLog.appendRestore(game.gameId, game.state);
+            }
+            games.put(game.gameId, game);
+            if (game.isActive()) {
+                activeGameByPlayer.put(game.player1Id, game.gameId);
+                activeGameByPlayer.put(game.player2Id, game.gameId);
+                activeGames.incrementAndGet();
+            }
+        }
+    }
+
+    private static void touch(GameRecord game, boolean isPlayer1, long now) {
+        if (isPlayer1) {
+            game.player1LastActivity = now;
+        } else {
+            game.player2LastActivity = now;
+        }
+        game.lastActivity = now;
+    }
+
+    private void notifyChanged(ServerGameState state) {
+        for (Listener listener : listeners) {
+            listener.onGameChanged(state);
+        }
+    }
+
+    /**
+     * Point the player at gameId unless they are in another active game. A
+     * game that has ended but not yet released its players doesn't count.
+     */
+    private boolean claimPlayer(String playerId, String gameId) {
+        while (true) {
+            String current = activeGameByPlayer.putIfAbsent(playerId, gameId);
+            if (current == null) {
+                return true;
+            }
+            GameRecord other = snapshot(current);
+            if (other != null && other.isActive()) {
+                return false;
+            }
+            if (activeGameByPlayer.replace(playerId, current, gameId)) {
+                return true;
+            }
+        }
+    }
+
+    /** Undo a game createGame couldn't hand to its players. */
+    private void discard(GameRecord game) {
+        games.remove(game.gameId);
+        if (game.slot >= 0) {
+            slotFile.free(game.slot);
+        }
+    }
+
+    private void releasePlayers(GameRecord game) {
+        activeGames.decrementAndGet();
+        activeGameByPlayer.remove(game.player1Id, game.gameId);
+        activeGameByPlayer.remove(game.player2Id, game.gameId);
+    }
+
+    private static ServerGameState toServerState(GameRecord game) {
+        ServerGameState state = new ServerGameState(game.gameId);
+        state.setPlayer1Id(game.player1Id);
+        state.setPlayer2Id(game.player2Id);
+        state.setPlayer1Assigned(true);
+        state.setPlayer2Assigned(true);
+        state.setGameStarted(true);
+        state.setGameStatus(STATUS_NAMES[game.status]);
+        GameRules.writeToServerState(game.state, state);
+        state.setLastActivity(game.lastActivity);
+        state.setPlayer1LastActivity(game.player1LastActivity != 0 ? game.player1LastActivity : null);
+        state.setPlayer2LastActivity(game.player2LastActivity != 0 ? game.player2LastActivity : null);
+        return state;
+    }
+}
@@ -0,0 +1,30 @@
+package com.gfg.NaarPazham.server;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Move log on the heap: the default, and what tests and benchmarks use.
+ * Lost on restart; see {@link MappedMoveLog} for a durable one.
+ */
+public class InMemoryMoveLog extends AbstractMoveLog {
+
+    @Override
+    protected ByteBuffer allocate(String gameId, int capacityBytes) {
+        return ByteBuffer.allocate(capacityBytes);
+    }
+
+    @Override
+    protected ByteBuffer grow(String gameId, ByteBuffer current, int capacityBytes) {
+        ByteBuffer larger = ByteBuffer.allocate(capacityBytes);
+        ByteBuffer source = current.duplicate();
+        source.clear();
+        larger.put(source);
+        larger.clear();
+        return larger;
+    }
+
+    @Override
+    protected void release(String gameId, ByteBuffer buffer) {
+        // Garbage collected with the log
+    }
+}
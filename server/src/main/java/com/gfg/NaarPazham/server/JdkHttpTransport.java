@@ -0,0 +1,76 @@
+package com.gfg.NaarPazham.server;
+
+import com.gfg.NaarPazham.GameTransport;
+import com.gfg.NaarPazham.TransportRequest;
+import com.gfg.NaarPazham.TransportResponse;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link GameTransport} over the JDK HttpClient, standing in for the app's
+ * OkHttp transport in JVM clients such as the benchmarks: one pooled HTTP/1.1 keep-alive
+ * connection per concurrent call, callbacks on the client's executor.
+ */
+class JdkHttpTransport implements GameTransport {
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String baseUrl;
+    private final Set<CompletableFuture<?>> inFlight = ConcurrentHashMap.newKeySet();
+
+    JdkHttpTransport(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    @Override
+    public void send(TransportRequest request, Callback callback) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + request.getPath()))
+                .timeout(Duration.ofMillis(request.totalTimeoutMs()))
+                .method(request.getMethod(), request.hasBody()
+                        ? HttpRequest.BodyPublishers.ofByteArray(request.getBody())
+                        : HttpRequest.BodyPublishers.noBody());
+        request.getHeaders().forEach(builder::header);
+        if (request.hasBody()) {
+            builder.header("Content-Type", request.getContentType());
+        }
+
+        CompletableFuture<HttpResponse<byte[]>> call =
+                client.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+        inFlight.add(call);
+        call.whenComplete((response, error) -> {
+            if (!inFlight.remove(call)) {
+                return;
+            }
+            if (error != null) {
+                callback.onFailure(error instanceof IOException ? (IOException) error : new IOException(error));
+                return;
+            }
+            Map<String, String> headers = new HashMap<>();
+            for (Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+                headers.put(header.getKey(), header.getValue().get(0));
+            }
+            callback.onResponse(new TransportResponse(response.statusCode(),
+                    response.headers().firstValue("Content-Type").orElse(null), headers, response.body()));
+        });
+    }
+
+    @Override
+    public void cancelAll() {
+        for (CompletableFuture<?> call : inFlight) {
+            inFlight.remove(call);
+            call.cancel(true);
+        }
+    }
+}
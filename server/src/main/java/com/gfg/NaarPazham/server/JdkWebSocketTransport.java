@@ -0,0 +1,103 @@
+package com.gfg.NaarPazham.server;
+
+import com.gfg.NaarPazham.GameTransport;
+import com.gfg.NaarPazham.GameWireCodec;
+import com.gfg.NaarPazham.TransportEnvelope;
+import com.gfg.NaarPazham.TransportRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link GameTransport} over one JDK WebSocket to a {@link WebSocketGateway},
+ * standing in for the app's WebSocketTransport in JVM clients such as the
+ * benchmarks. Calls are matched to responses by envelope id; events for
+ * watched games go to the event listener on the socket's thread.
+ */
+class JdkWebSocketTransport implements GameTransport, WebSocket.Listener {
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final Map<Integer, Callback> pending = new ConcurrentHashMap<>();
+    private final ByteArrayOutputStream partial = new ByteArrayOutputStream();
+    private final WebSocket socket;
+    private volatile EventListener eventListener;
+
+    JdkWebSocketTransport(String url) {
+        socket = HttpClient.newHttpClient().newWebSocketBuilder().buildAsync(URI.create(url), this).join();
+    }
+
+    @Override
+    public void send(TransportRequest request, Callback callback) {
+        int id = nextId.incrementAndGet();
+        pending.put(id, callback);
+        byte[] envelope = TransportEnvelope.encodeRequest(id, request);
+        // The JDK WebSocket allows one outstanding send at a time
+        synchronized (socket) {
+            socket.sendBinary(ByteBuffer.wrap(envelope), true).join();
+        }
+    }
+
+    @Override
+    public boolean setEventListener(EventListener listener) {
+        eventListener = listener;
+        return true;
+    }
+
+    @Override
+    public void cancelAll() {
+        pending.clear();
+    }
+
+    void close() {
+        socket.sendClose(WebSocket.NORMAL_CLOSURE, "").join();
+    }
+
+    @Override
+    public CompletionStage<?> onBinary(WebSocket webSocket, ByteBuffer data, boolean last) {
+        byte[] chunk = new byte[data.remaining()];
+        data.get(chunk);
+        partial.write(chunk, 0, chunk.length);
+        if (last) {
+            byte[] message = partial.toByteArray();
+            partial.reset();
+            try {
+                if (TransportEnvelope.kind(message) == TransportEnvelope.KIND_EVENT) {
+                    EventListener listener = eventListener;
+                    if (listener != null) {
+                        listener.onGameEvent(TransportEnvelope.decodeEvent(message));
+                    }
+                } else {
+                    Callback callback = pending.remove(TransportEnvelope.id(message));
+                    if (callback != null) {
+                        callback.onResponse(TransportEnvelope.decodeResponse(message));
+                    }
+                }
+            } catch (GameWireCodec.WireFormatException e) {
+                failAll(new IOException(e.getMessage()));
+            }
+        }
+        webSocket.request(1);
+        return null;
+    }
+
+    @Override
+    public void onError(WebSocket webSocket, Throwable error) {
+        failAll(new IOException(error));
+    }
+
+    private void failAll(IOException error) {
+        for (Integer id : pending.keySet()) {
+            Callback callback = pending.remove(id);
+            if (callback != null) {
+                callback.onFailure(error);
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.gfg.NaarPazham.server;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Turns requests away before they pile up, with the signals the client
+ * backs off on:
+ *
+ * <ul>
+ *   <li>503 + Retry-After when too many requests are queued or running.
+ *       Polls are shed first, at three quarters of the limit, so moves and
+ *       matchmaking keep going while the pollers slow down.</li>
+ *   <li>429 + Retry-After when one device sends more than its share, as a
+ *       rate per second with a burst allowance (GCRA, one CAS per call).</li>
+ * </ul>
+ *
+ * Pending requests are counted from the moment the transport hands them to
+ * the request executor, so a long queue counts even while every thread is
+ * busy; see {@link #tracking(Executor)}. Either limit at 0 is off.
+ */
+public class LoadShedder {
+    // admit() results
+    public static final int ADMITTED = 0;
+    public static final int OVERLOADED = 1;
+    public static final int RATE_LIMITED = 2;
+
+    private static final int DEVICE_BURST = 10;
+    // Buckets idle this long are full again and can be dropped
+    private static final long IDLE_BUCKET_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final int maxPending;
+    private final int pollLimit;
+    private final int deviceRequestsPerSecond;
+    private final long emissionIntervalNanos;
+    private final int retryAfterSeconds;
+
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong overloaded = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    // Per device: the theoretical arrival time of its next request
+    private final Map<String, AtomicLong> devices = new ConcurrentHashMap<>();
+
+    public LoadShedder(int maxPending, int deviceRequestsPerSecond, int retryAfterSeconds) {
+        if (maxPending < 0 || deviceRequestsPerSecond < 0 || retryAfterSeconds <= 0) {
+            throw new IllegalArgumentException("Invalid load shedding settings");
+        }
+        this.maxPending = maxPending;
+        this.pollLimit = Math.max(1, maxPending * 3 / 4);
+        this.deviceRequestsPerSecond = deviceRequestsPerSecond;
+        this.emissionIntervalNanos = deviceRequestsPerSecond > 0
+                ? TimeUnit.SECONDS.toNanos(1) / deviceRequestsPerSecond : 0;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /** Never sheds. */
+    public static LoadShedder disabled() {
+        return new LoadShedder(0, 0, 1);
+    }
+
+    /**
+     * Wrap the request executor so every task counts as pending from
+     * submission until it finishes.
+     */
+    public Executor tracking(Executor executor) {
+        return task -> {
+            pending.incrementAndGet();
+            try {
+                executor.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        pending.decrementAndGet();
+                    }
+                });
+            } catch (RuntimeException e) {
+                pending.decrementAndGet();
+                throw e;
+            }
+        };
+    }
+
+    /**
+     * Whether to serve a request now: {@link #ADMITTED}, {@link #OVERLOADED}
+     * or {@link #RATE_LIMITED}. {@code deviceId} may be null.
+     */
+    public int admit(String endpoint, String deviceId) {
+        if ("admin".equals(endpoint)) {
+            return ADMITTED;
+        }
+        if (maxPending > 0 && pending.get() > (isPoll(endpoint) ? pollLimit : maxPending)) {
+            overloaded.incrementAndGet();
+            return OVERLOADED;
+        }
+        if (deviceRequestsPerSecond > 0 && deviceId != null && !takeToken(deviceId)) {
+            rateLimited.incrementAndGet();
+            return RATE_LIMITED;
+        }
+        return ADMITTED;
+    }
+
+    /** Seconds a rejected caller should wait; rate-limited devices wait for their next token. */
+    public int retryAfterSeconds(int admission, String deviceId) {
+        if (admission == RATE_LIMITED && deviceId != null) {
+            AtomicLong next = devices.get(deviceId);
+            if (next != null) {
+                long wait = next.get() - burstNanos() - System.nanoTime();
+                return (int) Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait) + 1);
+            }
+        }
+        return retryAfterSeconds;
+    }
+
+    /** Drop the buckets of devices that have gone quiet. */
+    public int expireIdleDevices() {
+        long cutoff = System.nanoTime() - IDLE_BUCKET_NANOS;
+        int removed = 0;
+        for (Iterator<AtomicLong> it = devices.values().iterator(); it.hasNext(); ) {
+            if (it.next().get() - cutoff < 0) {
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    // ===== STATS =====
+
+    public int getPending() {
+        return pending.get();
+    }
+
+    public long getOverloadedCount() {
+        return overloaded.get();
+    }
+
+    public long getRateLimitedCount() {
+        return rateLimited.get();
+    }
+
+    // Endpoints clients call on a timer; shedding them only delays an update
+    private static boolean isPoll(String endpoint) {
+        switch (endpoint) {
+            case "game":
+            case "history":
+            case "matchmaking/status":
+            case "matchmaking/player-status":
+            case "matchmaking/queue-status":
+            case "matchmaking/heartbeat":
+            case "batch":
+            case "watch":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private boolean takeToken(String deviceId) {
+        AtomicLong next = devices.computeIfAbsent(deviceId, id -> new AtomicLong(System.nanoTime()));
+        while (true) {
+            long now = System.nanoTime();
+            long current = next.get();
+            long arrival = current - now > 0 ? current : now;
+            if (arrival - now > burstNanos()) {
+                return false;
+            }
+            if (next.compareAndSet(current, arrival + emissionIntervalNanos)) {
+                return true;
+            }
+        }
+    }
+
+    private long burstNanos() {
+        return emissionIntervalNanos * (DEVICE_BURST - 1);
+    }
+}
@@ -0,0 +1,70 @@
+package com.gfg.NaarPazham.server;
+
+import com.gfg.NaarPazham.GameTransport;
+import com.gfg.NaarPazham.TransportRequest;
+import com.gfg.NaarPazham.TransportResponse;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link GameTransport} that hands requests straight to a
+ * {@link GameController} in the same process: no sockets, no threads, no
+ * serialization beyond the request and response bodies. Lets the full online
+ * flow (matchmaking, moves, leaving) run against the real rules engine with
+ * zero latency, and gives the transport benchmarks their floor.
+ *
+ * By default the handler runs and the callback fires on the calling thread,
+ * before send() returns. Pass an executor to deliver callbacks elsewhere,
+ * e.g. the main thread, so callers see the same ordering as a real network.
+ */
+public class LoopbackTransport implements GameTransport {
+    private final GameController controller;
+    private final Executor executor;
+    // Bumped by cancelAll(); calls sent under an older generation are dropped
+    private final AtomicLong generation = new AtomicLong();
+
+    public LoopbackTransport(GameController controller) {
+        this(controller, Runnable::run);
+    }
+
+    public LoopbackTransport(GameController controller, Executor executor) {
+        if (controller == null || executor == null) {
+            throw new IllegalArgumentException("Controller and executor cannot be null");
+        }
+        this.controller = controller;
+        this.executor = executor;
+    }
+
+    @Override
+    public void send(TransportRequest request, Callback callback) {
+        long sentIn = generation.get();
+        executor.execute(() -> {
+            if (generation.get() != sentIn) {
+                return;
+            }
+            callback.onResponse(toTransportResponse(controller.handle(toApiRequest(request))));
+        });
+    }
+
+    @Override
+    public void cancelAll() {
+        generation.incrementAndGet();
+    }
+
+    // ===== CONVERSION =====
+
+    static ApiRequest toApiRequest(TransportRequest request) {
+        Map<String, String> headers = new HashMap<>(request.getHeaders());
+        if (request.hasBody()) {
+            headers.put("Content-Type", request.getContentType());
+        }
+        return ApiRequest.of(request.getMethod(), request.getPath(), headers, request.getBody());
+    }
+
+    static TransportResponse toTransportResponse(ApiResponse response) {
+        return new TransportResponse(response.status, response.contentType, response.headers, response.body);
+    }
+}
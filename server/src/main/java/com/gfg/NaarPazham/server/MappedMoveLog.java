@@ -0,0 +1,116 @@
+package com.gfg.NaarPazham.server;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Move log with one memory-mapped file per game ({gameId}.mlog) in a
+ * directory. An append is a store into the mapping: it survives a process
+ * crash as soon as it's written, and a power loss once {@link #flush()} has
+ * run. Files are grown by doubling and remapping.
+ *
+ * Opening a directory recovers every log in it, stopping each at its first
+ * incomplete record, so a torn final write is simply dropped.
+ */
+public class MappedMoveLog extends AbstractMoveLog {
+    private static final Logger LOG = Logger.getLogger(MappedMoveLog.class.getName());
+
+    private static final String EXTENSION = ".mlog";
+    private static final Pattern SAFE_GAME_ID = Pattern.compile("[A-Za-z0-9_-]+");
+
+    private final Path directory;
+
+    public MappedMoveLog(Path directory) throws IOException {
+        if (directory == null) {
+            throw new IllegalArgumentException("Directory cannot be null");
+        }
+        this.directory = Files.createDirectories(directory);
+
+        int recovered = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String gameId = name.substring(0, name.length() - EXTENSION.length());
+                long size = Files.size(file);
+                if (size < MoveRecord.SIZE || size > Integer.MAX_VALUE) {
+                    LOG.warning("Skipping unusable move log " + file);
+                    continue;
+                }
+                restore(gameId, map(file, (int) size));
+                recovered++;
+            }
+        }
+        if (recovered > 0) {
+            LOG.info("Recovered " + recovered + " move logs from " + directory);
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    protected ByteBuffer allocate(String gameId, int capacityBytes) {
+        if (!SAFE_GAME_ID.matcher(gameId).matches()) {
+            throw new IllegalArgumentException("Game ID not usable as a file name: " + gameId);
+        }
+        return mapUnchecked(fileFor(gameId), capacityBytes);
+    }
+
+    @Override
+    protected ByteBuffer grow(String gameId, ByteBuffer current, int capacityBytes) {
+        // Mapping a larger region of the same file keeps the existing bytes
+        ((MappedByteBuffer) current).force();
+        return mapUnchecked(fileFor(gameId), capacityBytes);
+    }
+
+    @Override
+    protected void release(String gameId, ByteBuffer buffer) {
+        try {
+            Files.deleteIfExists(fileFor(gameId));
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Could not delete move log for " + gameId, e);
+        }
+    }
+
+    @Override
+    public void flush() {
+        for (PerGameLog log : openLogs()) {
+            synchronized (log) {
+                ((MappedByteBuffer) log.buffer).force();
+            }
+        }
+    }
+
+    // ===== HELPERS =====
+
+    private Path fileFor(String gameId) {
+        return directory.resolve(gameId + EXTENSION);
+    }
+
+    private static MappedByteBuffer mapUnchecked(Path file, int capacityBytes) {
+        try {
+            return map(file, capacityBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map " + file, e);
+        }
+    }
+
+    private static MappedByteBuffer map(Path file, int capacityBytes) throws IOException {
+        // The mapping stays valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, capacityBytes);
+        }
+    }
+}
@@ -0,0 +1,498 @@
+package com.gfg.NaarPazham.server;
+
+import com.gfg.NaarPazham.LatencyHistogram;
+import com.gfg.NaarPazham.ServerGameState;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free matchmaking engine.
+ *
+ * Joining, polling and cancelling never take a lock: a player gets a ticket
+ * whose state moves WAITING -> MATCHED or CANCELLED by CAS, and waiting
+ * tickets sit in one concurrent queue per skill/latency bucket. Pairing happens in
+ * batches on {@link #tick()}, oldest first within a bucket; tickets left over
+ * for longer than {@link #WIDEN_AFTER_MS} may pair with neighbouring buckets.
+ *
+ * Pairing claims the older ticket as PAIRING, then the newer one, and puts
+ * the older back to WAITING if the newer one was cancelled first. A cancel
+ * that lands on PAIRING spins until the game is created or the pairing
+ * falls through, so "not waiting" always means matched or already gone. A
+ * player who has meanwhile got a game elsewhere, such as a tournament, is
+ * dropped from the queue at pairing and reported as matched into that game.
+ *
+ * A device holds at most one waiting ticket (a new one supersedes the old),
+ * so two tickets that meet in a queue are always from different devices and
+ * self-matching is ruled out in O(1) at join time.
+ *
+ * A waiting player's queue position is their place in the bucket's join
+ * order counted from the oldest ticket the last tick left waiting, so it
+ * goes down as the tickets ahead of them are matched or dropped. Tickets
+ * not polled for {@link #QUEUE_ENTRY_TIMEOUT_MS} are dropped on the tick.
+ *
+ * Wait times of matched players feed a histogram, so queue estimates come
+ * from what players actually waited.
+ *
+ * Given a {@link RatingService}, players are bucketed by the rating the
+ * server keeps for them rather than whatever rating their client sends.
+ */
+public class MatchmakingService {
+
+    /** Queue entries not polled or heartbeated for this long are dropped. */
+    public static final long QUEUE_ENTRY_TIMEOUT_MS = 60000;
+    /** How often the server should call {@link #tick()}. */
+    public static final long TICK_INTERVAL_MS = 250;
+    /** Leftover tickets waiting at least this long may pair across adjacent buckets. */
+    public static final long WIDEN_AFTER_MS = 10000;
+
+    public static final int DEFAULT_RATING = 1200;
+    public static final int UNKNOWN_LATENCY = -1;
+
+    private static final int SKILL_BANDS = 8;
+    private static final int SKILL_BAND_WIDTH = 200;
+    private static final int SKILL_FLOOR = 600;
+    private static final int[] LATENCY_TIER_LIMITS_MS = {60, 150};
+    private static final int LATENCY_TIERS = LATENCY_TIER_LIMITS_MS.length + 1;
+    public static final int BUCKET_COUNT = SKILL_BANDS * LATENCY_TIERS;
+
+    private static final int SECONDS_PER_QUEUE_POSITION = 10;
+    private static final int MIN_WAIT_SAMPLES = 10;
+    private static final long WAIT_WINDOW_MS = 5 * 60 * 1000;
+
+    private static final int WAITING = 0;
+    private static final int MATCHED = 1;
+    private static final int CANCELLED = 2;
+    private static final int PAIRING = 3; // Claimed by a tick that may still give it back
+
+    private final GameStore gameStore;
+    private final RatingService ratings;
+    private final Runnable pairingPause; // Runs between the two claims of a pairing; tests only
+    private final Map<String, Ticket> ticketsByPlayer = new ConcurrentHashMap<>();
+    private final Map<String, Ticket> ticketsByDevice = new ConcurrentHashMap<>();
+    private final List<Queue<Ticket>> buckets = new ArrayList<>(BUCKET_COUNT);
+    private final AtomicIntegerArray waitingPerBucket = new AtomicIntegerArray(BUCKET_COUNT);
+    private final AtomicInteger waitingCount = new AtomicInteger();
+    private final AtomicLong ticketSequence = new AtomicLong();
+    // Per bucket: the last join, and the last join before the oldest ticket still waiting
+    private final AtomicLongArray joinSequence = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLongArray headSequence = new AtomicLongArray(BUCKET_COUNT);
+
+    // Only touched by the thread that holds ticking
+    private final AtomicBoolean ticking = new AtomicBoolean();
+    private final List<List<Ticket>> carried = new ArrayList<>(BUCKET_COUNT);
+
+    // Matched wait times (ms) over the current and previous window
+    private volatile LatencyHistogram waitWindow = new LatencyHistogram();
+    private volatile LatencyHistogram previousWaitWindow = new LatencyHistogram();
+    private volatile long waitWindowStartedAt = System.currentTimeMillis();
+    private volatile WaitStats waitStats = new WaitStats(0, 0, 0, 0);
+
+    public enum Status { MATCH_FOUND, WAITING, ALREADY_QUEUED, NOT_FOUND }
+
+    public static class Result {
+        public final Status status;
+        public final ServerGameState game;
+        public final int playerNumber;
+        public final int queuePosition;
+        public final long queueTimeMs;
+
+        Result(Status status, ServerGameState game, int playerNumber, int queuePosition, long queueTimeMs) {
+            this.status = status;
+            this.game = game;
+            this.playerNumber = playerNumber;
+            this.queuePosition = queuePosition;
+            this.queueTimeMs = queueTimeMs;
+        }
+
+        static Result matched(ServerGameState game, String playerId) {
+            return new Result(Status.MATCH_FOUND, game, playerId.equals(game.getPlayer1Id()) ? 1 : 2, 0, 0);
+        }
+
+        static Result of(Status status) {
+            return new Result(status, null, 0, 0, 0);
+        }
+    }
+
+    /** Measured time from joining the queue to being matched. */
+    public static class WaitStats {
+        public final long samples;
+        public final long p50Ms;
+        public final long p90Ms;
+        public final long p99Ms;
+
+        WaitStats(long samples, long p50Ms, long p90Ms, long p99Ms) {
+            this.samples = samples;
+            this.p50Ms = p50Ms;
+            this.p90Ms = p90Ms;
+            this.p99Ms = p99Ms;
+        }
+    }
+
+    private static final class Ticket {
+        final String playerId;
+        final String deviceId;
+        final int bucket;
+        final long joinedAt;
+        final long sequence;
+        final AtomicInteger state = new AtomicInteger(WAITING);
+        volatile long lastSeen;
+        volatile long bucketSequence; // Place in the bucket's join order
+
+        Ticket(String playerId, String deviceId, int bucket, long now, long sequence) {
+            this.playerId = playerId;
+            this.deviceId = deviceId;
+            this.bucket = bucket;
+            this.joinedAt = now;
+            this.lastSeen = now;
+            this.sequence = sequence;
+        }
+
+        boolean isWaiting() {
+            return state.get() == WAITING;
+        }
+
+        /** WAITING -> CANCELLED, waiting out a pairing in progress; false once matched or cancelled. */
+        boolean cancel() {
+            while (true) {
+                int current = state.get();
+                if (current == PAIRING) {
+                    Thread.onSpinWait();
+                } else if (current != WAITING) {
+                    return false;
+                } else if (state.compareAndSet(WAITING, CANCELLED)) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    public MatchmakingService(GameStore gameStore) {
+        this(gameStore, null);
+    }
+
+    /** A null ratings service leaves skill to the ratings clients send. */
+    public MatchmakingService(GameStore gameStore, RatingService ratings) {
+        this(gameStore, ratings, null);
+    }
+
+    MatchmakingService(GameStore gameStore, RatingService ratings, Runnable pairingPause) {
+        if (gameStore == null) {
+            throw new IllegalArgumentException("GameStore cannot be null");
+        }
+        this.gameStore = gameStore;
+        this.ratings = ratings;
+        this.pairingPause = pairingPause;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.add(new ConcurrentLinkedQueue<>());
+            carried.add(new ArrayList<>());
+        }
+    }
+
+    /** Bucket for a rating and a measured round trip; UNKNOWN_LATENCY lands in the slowest tier. */
+    public static int bucketFor(int rating, int latencyMs) {
+        int band = Math.min(SKILL_BANDS - 1, Math.max(0, (rating - SKILL_FLOOR) / SKILL_BAND_WIDTH));
+        int tier = LATENCY_TIERS - 1;
+        if (latencyMs >= 0) {
+            for (int i = 0; i < LATENCY_TIER_LIMITS_MS.length; i++) {
+                if (latencyMs < LATENCY_TIER_LIMITS_MS[i]) {
+                    tier = i;
+                    break;
+                }
+            }
+        }
+        return band * LATENCY_TIERS + tier;
+    }
+
+    /**
+     * Bucket for a player: their server-side rating once they have one,
+     * otherwise {@code unratedRating}, e.g. the rating their client sent.
+     */
+    public int bucketFor(String playerId, int unratedRating, int latencyMs) {
+        int rating = ratings != null ? ratings.getRating(playerId, unratedRating) : unratedRating;
+        return bucketFor(rating, latencyMs);
+    }
+
+    // ===== QUEUE OPERATIONS =====
+
+    public Result findMatch(String playerId, String deviceId) {
+        return findMatch(playerId, deviceId, bucketFor(playerId, DEFAULT_RATING, UNKNOWN_LATENCY));
+    }
+
+    /** Join the queue; the match itself is made by the next tick. */
+    public Result findMatch(String playerId, String deviceId, int bucket) {
+        if (bucket < 0 || bucket >= BUCKET_COUNT) {
+            throw new IllegalArgumentException("Invalid bucket: " + bucket);
+        }
+        ServerGameState activeGame = gameStore.findActiveGame(playerId);
+        if (activeGame != null) {
+            return Result.matched(activeGame, playerId);
+        }
+
+        long now = System.currentTimeMillis();
+        Ticket ticket = new Ticket(playerId, deviceId, bucket, now, ticketSequence.incrementAndGet());
+        Ticket existing = ticketsByPlayer.putIfAbsent(playerId, ticket);
+        while (existing != null) {
+            if (existing.state.get() != CANCELLED) {
+                // Still queued, or matched and about to get a game
+                existing.lastSeen = now;
+                return Result.of(Status.ALREADY_QUEUED);
+            }
+            existing = ticketsByPlayer.replace(playerId, existing, ticket)
+                    ? null : ticketsByPlayer.putIfAbsent(playerId, ticket);
+        }
+
+        // One waiting ticket per device: supersede the old one before this one becomes visible
+        Ticket previous = ticketsByDevice.put(deviceId, ticket);
+        if (previous != null && previous.cancel()) {
+            release(previous);
+        }
+
+        waitingCount.incrementAndGet();
+        waitingPerBucket.incrementAndGet(bucket);
+        ticket.bucketSequence = joinSequence.incrementAndGet(bucket);
+        buckets.get(bucket).offer(ticket);
+        return new Result(Status.WAITING, null, 0, positionOf(ticket), 0);
+    }
+
+    /** match_found once paired, waiting while queued, NOT_FOUND otherwise. */
+    public Result getStatus(String playerId) {
+        ServerGameState activeGame = gameStore.findActiveGame(playerId);
+        if (activeGame != null) {
+            return Result.matched(activeGame, playerId);
+        }
+
+        Ticket ticket = ticketsByPlayer.get(playerId);
+        if (ticket == null || ticket.state.get() == CANCELLED) {
+            return Result.of(Status.NOT_FOUND);
+        }
+        long now = System.currentTimeMillis();
+        ticket.lastSeen = now;
+        return new Result(Status.WAITING, null, 0, positionOf(ticket), now - ticket.joinedAt);
+    }
+
+    public boolean cancel(String playerId) {
+        Ticket ticket = ticketsByPlayer.get(playerId);
+        if (ticket == null || !ticket.cancel()) {
+            return false;
+        }
+        release(ticket);
+        return true;
+    }
+
+    public boolean heartbeat(String playerId) {
+        Ticket ticket = ticketsByPlayer.get(playerId);
+        if (ticket == null || ticket.state.get() == CANCELLED || ticket.state.get() == MATCHED) {
+            return false;
+        }
+        ticket.lastSeen = System.currentTimeMillis();
+        return true;
+    }
+
+    public int queueSize() {
+        return waitingCount.get();
+    }
+
+    public WaitStats getWaitStats() {
+        return waitStats;
+    }
+
+    /**
+     * Median measured wait once enough players have been matched; before
+     * that, the old ten-seconds-per-position guess.
+     */
+    public int estimateWaitSeconds(int queuePosition) {
+        WaitStats stats = waitStats;
+        if (stats.samples >= MIN_WAIT_SAMPLES) {
+            return (int) Math.max(1, (stats.p50Ms + 999) / 1000);
+        }
+        return Math.max(SECONDS_PER_QUEUE_POSITION, queuePosition * SECONDS_PER_QUEUE_POSITION);
+    }
+
+    // ===== PAIRING =====
+
+    /**
+     * Pair everyone who can be paired. Safe to call from any thread; a call
+     * that overlaps a running tick returns 0 immediately. Returns the number
+     * of matches made.
+     */
+    public int tick() {
+        if (!ticking.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            int matches = 0;
+            List<Ticket> widen = new ArrayList<>();
+
+            for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+                List<Ticket> pending = carried.get(bucket);
+                Queue<Ticket> queue = buckets.get(bucket);
+                for (Ticket ticket = queue.poll(); ticket != null; ticket = queue.poll()) {
+                    pending.add(ticket);
+                }
+
+                Ticket held = null;
+                long lastJoin = headSequence.get(bucket);
+                for (Ticket ticket : pending) {
+                    lastJoin = Math.max(lastJoin, ticket.bucketSequence);
+                    if (now - ticket.lastSeen > QUEUE_ENTRY_TIMEOUT_MS && ticket.state.compareAndSet(WAITING, CANCELLED)) {
+                        release(ticket);
+                        continue;
+                    }
+                    if (!ticket.isWaiting()) {
+                        continue;
+                    }
+                    if (held == null || !held.isWaiting()) {
+                        held = ticket;
+                    } else if (pair(held, ticket, now)) {
+                        matches++;
+                        held = null;
+                    } else {
+                        held = ticket.isWaiting() ? ticket : held;
+                    }
+                }
+                pending.clear();
+
+                if (held != null && held.isWaiting()) {
+                    headSequence.set(bucket, held.bucketSequence - 1);
+                    if (now - held.joinedAt >= WIDEN_AFTER_MS) {
+                        widen.add(held);
+                    } else {
+                        pending.add(held);
+                    }
+                } else {
+                    headSequence.set(bucket, lastJoin);
+                }
+            }
+
+            // Long waiters: pair with the nearest leftover in bucket order, one
+            // more skill band apart for every further WIDEN_AFTER_MS waited
+            widen.sort(Comparator.comparingInt(ticket -> ticket.bucket));
+            Ticket held = null;
+            for (Ticket ticket : widen) {
+                if (held != null && withinReach(held, ticket, now)
+                        && pair(held.sequence < ticket.sequence ? held : ticket,
+                                held.sequence < ticket.sequence ? ticket : held, now)) {
+                    matches++;
+                    held = null;
+                    continue;
+                }
+                if (held != null && held.isWaiting()) {
+                    carried.get(held.bucket).add(held);
+                }
+                held = ticket;
+            }
+            if (held != null && held.isWaiting()) {
+                carried.get(held.bucket).add(held);
+            }
+
+            refreshWaitStats(now, matches > 0);
+            return matches;
+        } finally {
+            ticking.set(false);
+        }
+    }
+
+    /** The same as {@link #tick()}, which also drops entries that stopped polling. */
+    public int processQueue() {
+        return tick();
+    }
+
+    /**
+     * Tickets that joined the bucket since its oldest waiting one, this one
+     * included; never more than are waiting there, as some in between may
+     * have been matched or cancelled since the last tick.
+     */
+    private int positionOf(Ticket ticket) {
+        long ahead = ticket.bucketSequence - headSequence.get(ticket.bucket);
+        int waiting = Math.max(1, waitingPerBucket.get(ticket.bucket));
+        return (int) Math.max(1, Math.min(ahead, waiting));
+    }
+
+    /** older plays first, as the longest-waiting player always has. */
+    private boolean pair(Ticket older, Ticket newer, long now) {
+        if (older.deviceId.equals(newer.deviceId)) {
+            // Can't happen while the device index holds; never worth a self-match
+            return false;
+        }
+        if (!newer.isWaiting() || !older.state.compareAndSet(WAITING, PAIRING)) {
+            return false;
+        }
+        if (pairingPause != null) {
+            pairingPause.run();
+        }
+        if (!newer.state.compareAndSet(WAITING, PAIRING)) {
+            older.state.set(WAITING);
+            return false;
+        }
+
+        while (gameStore.createGame(older.playerId, newer.playerId) == null) {
+            // One of them got a game elsewhere since joining, e.g. in a tournament:
+            // drop whoever is busy and put the other back, or try again if that game just ended
+            boolean olderBusy = gameStore.findActiveGame(older.playerId) != null;
+            boolean newerBusy = gameStore.findActiveGame(newer.playerId) != null;
+            if (olderBusy || newerBusy) {
+                unpair(older, olderBusy);
+                unpair(newer, newerBusy);
+                return false;
+            }
+        }
+        older.state.set(MATCHED);
+        newer.state.set(MATCHED);
+        waitWindow.record(now - older.joinedAt);
+        waitWindow.record(now - newer.joinedAt);
+        release(older);
+        release(newer);
+        return true;
+    }
+
+    /** Give back a ticket pair() claimed: cancelled if the player is busy, otherwise waiting again. */
+    private void unpair(Ticket ticket, boolean busy) {
+        ticket.state.set(busy ? CANCELLED : WAITING);
+        if (busy) {
+            release(ticket);
+        }
+    }
+
+    private static boolean withinReach(Ticket a, Ticket b, long now) {
+        long waited = now - Math.max(a.joinedAt, b.joinedAt);
+        long bandGap = Math.abs(a.bucket / LATENCY_TIERS - b.bucket / LATENCY_TIERS);
+        return bandGap <= waited / WIDEN_AFTER_MS;
+    }
+
+    /** Forget a ticket that just left WAITING. */
+    private void release(Ticket ticket) {
+        ticketsByPlayer.remove(ticket.playerId, ticket);
+        ticketsByDevice.remove(ticket.deviceId, ticket);
+        waitingPerBucket.decrementAndGet(ticket.bucket);
+        waitingCount.decrementAndGet();
+    }
+
+    private void refreshWaitStats(long now, boolean changed) {
+        if (now - waitWindowStartedAt >= WAIT_WINDOW_MS) {
+            previousWaitWindow = waitWindow;
+            waitWindow = new LatencyHistogram();
+            waitWindowStartedAt = now;
+            changed = true;
+        }
+        if (!changed) {
+            return;
+        }
+        LatencyHistogram merged = new LatencyHistogram();
+        merged.add(previousWaitWindow);
+        merged.add(waitWindow);
+        waitStats = new WaitStats(merged.getCount(), merged.getPercentile(50),
+                merged.getPercentile(90), merged.getPercentile(99));
+    }
+}
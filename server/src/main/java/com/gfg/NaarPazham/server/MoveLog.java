@@ -0,0 +1,54 @@
+package com.gfg.NaarPazham.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Append-only event log per game: every applied move, forfeit or
+ * abandonment as a fixed-width {@link MoveRecord}. A snapshot of the packed
+ * board is written after every {@link #SNAPSHOT_INTERVAL} events, so
+ * replaying to any point costs at most that many rule applications.
+ *
+ * Appends for one game must come from one thread at a time (GameStore holds
+ * the game's lock); different games and readers may run concurrently.
+ */
+public interface MoveLog extends Closeable {
+
+    int SNAPSHOT_INTERVAL = 32;
+
+    /** Log an applied move (fromCell is GameRules.NO_CELL for placements); returns its sequence. */
+    int appendMove(String gameId, boolean player1, int fromCell, int toCell, long timestamp);
+
+    /** Log a player leaving, which hands the win to the opponent. */
+    int appendForfeit(String gameId, boolean player1, long timestamp);
+
+    /** Log the game being dropped for inactivity; the board is unchanged. */
+    int appendAbandon(String gameId, long timestamp);
+
+    /**
+     * Log the game resuming from a saved board, e.g. one recovered after a
+     * restart without its history; replay continues from {@code state}.
+     */
+    int appendRestore(String gameId, long state);
+
+    /** Events with sequence >= fromSequence, oldest first; empty for unknown games. */
+    List<MoveRecord> read(String gameId, int fromSequence);
+
+    /** Sequence of the latest event, 0 if there is none. */
+    int lastSequence(String gameId);
+
+    /** Packed GameRules state after the latest event. */
+    long replay(String gameId);
+
+    /** Packed GameRules state after the given event (0 = the empty board). */
+    long replayTo(String gameId, int sequence);
+
+    Collection<String> gameIds();
+
+    void delete(String gameId);
+
+    /** Make everything appended so far durable. */
+    void flush() throws IOException;
+}
@@ -0,0 +1,129 @@
+package com.gfg.NaarPazham.server;
+
+import com.gfg.NaarPazham.GameRules;
+
+import java.nio.ByteBuffer;
+
+/**
+ * One event in a game's move log, stored as a fixed 16-byte record:
+ *
+ * <pre>
+ *   0..3   sequence   (1-based, per game)
+ *   4      kind       MOVE / FORFEIT / ABANDON / RESTORE, or SNAPSHOT (internal)
+ *   5      player     1 or 2, 0 if none
+ *   6      cells      from &lt;&lt; 4 | to, 0xF = none (from is none for placements)
+ *   7      check      xor of the other 15 bytes ^ 0x5A; an all-zero slot never checks out
+ *   8..15  timestamp  ms since epoch; for SNAPSHOT and RESTORE the packed GameRules state
+ * </pre>
+ */
+public final class MoveRecord {
+
+    public static final int SIZE = 16;
+
+    public static final byte KIND_MOVE = 1;
+    public static final byte KIND_FORFEIT = 2;
+    public static final byte KIND_ABANDON = 3;
+    static final byte KIND_SNAPSHOT = 4;
+    /** The game picked up from a saved board; replay continues from it. */
+    public static final byte KIND_RESTORE = 5;
+
+    private static final int NO_CELL_NIBBLE = 0xF;
+    private static final int CHECK_SEED = 0x5A;
+
+    public final int sequence;
+    public final byte kind;
+    /** The acting player; false for ABANDON, which has none. */
+    public final boolean player1;
+    public final int fromCell;
+    public final int toCell;
+    /** ms since epoch; for RESTORE the packed board instead. */
+    public final long timestamp;
+
+    MoveRecord(int sequence, byte kind, boolean player1, int fromCell, int toCell, long timestamp) {
+        this.sequence = sequence;
+        this.kind = kind;
+        this.player1 = player1;
+        this.fromCell = fromCell;
+        this.toCell = toCell;
+        this.timestamp = timestamp;
+    }
+
+    public boolean isPlacement() {
+        return kind == KIND_MOVE && fromCell == GameRules.NO_CELL;
+    }
+
+    /**
+     * Packed state after this event. Moves go through GameRules, so a log
+     * that doesn't replay cleanly fails loudly instead of resuming a
+     * corrupted board.
+     */
+    public long applyTo(long state) {
+        switch (kind) {
+            case KIND_MOVE: {
+                long next = GameRules.apply(state, player1, fromCell, toCell);
+                if (GameRules.isError(next)) {
+                    throw new IllegalStateException("Move " + sequence + " does not replay: "
+                            + GameRules.describe(GameRules.errorCode(next)));
+                }
+                return next;
+            }
+            case KIND_FORFEIT:
+                return GameRules.withWinner(state, player1 ? GameRules.WINNER_PLAYER_2 : GameRules.WINNER_PLAYER_1);
+            case KIND_RESTORE:
+                return timestamp;
+            default:
+                return state;
+        }
+    }
+
+    // ===== ENCODING =====
+
+    /** Write a record at the given byte offset; the check byte goes last. */
+    static void write(ByteBuffer buffer, int offset, int sequence, byte kind, int player,
+                      int fromCell, int toCell, long payload) {
+        int cells = (nibble(fromCell) << 4) | nibble(toCell);
+        buffer.putLong(offset + 8, payload);
+        buffer.putInt(offset, sequence);
+        buffer.put(offset + 4, kind);
+        buffer.put(offset + 5, (byte) player);
+        buffer.put(offset + 6, (byte) cells);
+        buffer.put(offset + 7, check(buffer, offset));
+    }
+
+    /** True if the slot holds a complete record. */
+    static boolean isValid(ByteBuffer buffer, int offset) {
+        return buffer.get(offset + 7) == check(buffer, offset) && buffer.getInt(offset) > 0;
+    }
+
+    static MoveRecord read(ByteBuffer buffer, int offset) {
+        int cells = buffer.get(offset + 6) & 0xFF;
+        return new MoveRecord(buffer.getInt(offset), buffer.get(offset + 4), buffer.get(offset + 5) == 1,
+                cell(cells >>> 4), cell(cells & 0xF), buffer.getLong(offset + 8));
+    }
+
+    static byte kindAt(ByteBuffer buffer, int offset) {
+        return buffer.get(offset + 4);
+    }
+
+    static long payloadAt(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset + 8);
+    }
+
+    private static byte check(ByteBuffer buffer, int offset) {
+        int check = CHECK_SEED;
+        for (int i = 0; i < SIZE; i++) {
+            if (i != 7) {
+                check ^= buffer.get(offset + i);
+            }
+        }
+        return (byte) check;
+    }
+
+    private static int nibble(int cell) {
+        return cell == GameRules.NO_CELL ? NO_CELL_NIBBLE : cell;
+    }
+
+    private static int cell(int nibble) {
+        return nibble == NO_CELL_NIBBLE ? GameRules.NO_CELL : nibble;
+    }
+}
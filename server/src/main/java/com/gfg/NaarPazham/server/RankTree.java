@@ -0,0 +1,158 @@
+package com.gfg.NaarPazham.server;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * An ordered set of distinct longs that also answers "how many keys are
+ * smaller than this one" and "which key is k-th" in O(log n): a treap whose
+ * nodes count their subtree. Callers pack whatever they sort by into the
+ * key, e.g. a score in the high half and a tiebreak in the low half.
+ *
+ * Not thread-safe; {@link RatingService} guards it with its lock.
+ */
+final class RankTree {
+
+    private static final class Node {
+        final long key;
+        final int priority;
+        Node left;
+        Node right;
+        int size = 1;
+
+        Node(long key, int priority) {
+            this.key = key;
+            this.priority = priority;
+        }
+    }
+
+    private Node root;
+    // Results of the last split
+    private Node splitLeft;
+    private Node splitRight;
+
+    int size() {
+        return size(root);
+    }
+
+    /** Add a key that isn't in the set yet. */
+    void insert(long key) {
+        split(root, key);
+        Node less = splitLeft;
+        Node rest = splitRight;
+        root = merge(merge(less, new Node(key, ThreadLocalRandom.current().nextInt())), rest);
+    }
+
+    /** Remove a key; false if it wasn't there. */
+    boolean remove(long key) {
+        split(root, key);
+        Node less = splitLeft;
+        split(splitRight, key + 1);
+        Node found = splitLeft;
+        root = merge(less, splitRight);
+        return found != null;
+    }
+
+    /** Keys smaller than {@code key}, i.e. its index if it is in the set. */
+    int rank(long key) {
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            if (key <= node.key) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    /** The key at {@code index}, counting from the smallest at 0. */
+    long select(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " of " + size());
+        }
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.key;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Up to {@code out.length} keys in order from {@code from}, in
+     * O(log n + count). Returns how many were written.
+     */
+    int range(int from, long[] out) {
+        if (from < 0) {
+            throw new IndexOutOfBoundsException("Index " + from);
+        }
+        return collect(root, from, out, 0);
+    }
+
+    // Writes the keys of node's subtree from index `from` into out[written..]
+    private static int collect(Node node, int from, long[] out, int written) {
+        if (node == null || written == out.length) {
+            return written;
+        }
+        int leftSize = size(node.left);
+        if (from < leftSize) {
+            written = collect(node.left, from, out, written);
+        }
+        if (written < out.length && from <= leftSize) {
+            out[written++] = node.key;
+        }
+        return collect(node.right, Math.max(0, from - leftSize - 1), out, written);
+    }
+
+    // Splits t into keys < key (splitLeft) and keys >= key (splitRight)
+    private void split(Node t, long key) {
+        if (t == null) {
+            splitLeft = null;
+            splitRight = null;
+        } else if (t.key < key) {
+            split(t.right, key);
+            t.right = splitLeft;
+            update(t);
+            splitLeft = t;
+        } else {
+            split(t.left, key);
+            t.left = splitRight;
+            update(t);
+            splitRight = t;
+        }
+    }
+
+    // Every key in a is smaller than every key in b
+    private static Node merge(Node a, Node b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        update(b);
+        return b;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static int size(Node node) {
+        return node != null ? node.size : 0;
+    }
+}
@@ -0,0 +1,206 @@
+package com.gfg.NaarPazham.server;
+
+import com.gfg.NaarPazham.ServerGameState;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Elo ratings for every player who has finished a game, and the leaderboard
+ * they make.
+ *
+ * Ratings change when a game ends with a winner (this service is a
+ * {@link GameStore.Listener}): a forfeit counts as a loss for whoever left,
+ * and only games abandoned for inactivity, which have no winner, go unrated.
+ * Both players' ratings and their leaderboard places change together under
+ * one write lock, so a reader never sees one side of a result without the
+ * other. New players start at {@link #INITIAL_RATING} and move faster for
+ * their first {@link #PROVISIONAL_GAMES} games.
+ *
+ * The leaderboard is a {@link RankTree} ordered by rating, best first, then
+ * by who was rated first, so a player's rank and any page of the table are
+ * O(log n) reads instead of a sort per request. Plain rating lookups, the
+ * matchmaker's, take no lock at all.
+ */
+public class RatingService implements GameStore.Listener {
+
+    public static final int INITIAL_RATING = MatchmakingService.DEFAULT_RATING;
+    public static final int PROVISIONAL_GAMES = 30;
+    /** Ratings never drop below this. */
+    public static final int RATING_FLOOR = 100;
+
+    private static final int PROVISIONAL_K = 40;
+    private static final int ESTABLISHED_K = 20;
+
+    /** One player's standing at the time it was read. */
+    public static final class PlayerRating {
+        public final String playerId;
+        public final int rating;
+        public final int games;
+        /** 1 for the top of the leaderboard. */
+        public final int rank;
+
+        PlayerRating(String playerId, int rating, int games, int rank) {
+            this.playerId = playerId;
+            this.rating = rating;
+            this.games = games;
+            this.rank = rank;
+        }
+    }
+
+    private static final class Entry {
+        final String playerId;
+        final int index; // Order of first rating; the leaderboard tiebreak
+        volatile int rating = INITIAL_RATING;
+        int games; // Guarded by the write lock
+
+        Entry(String playerId, int index) {
+            this.playerId = playerId;
+            this.index = index;
+        }
+
+        long key() {
+            return leaderboardKey(rating, index);
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Entry> players = new ConcurrentHashMap<>();
+    // Guarded by lock
+    private final List<Entry> byIndex = new ArrayList<>();
+    private final RankTree leaderboard = new RankTree();
+    private final AtomicLong gamesRated = new AtomicLong();
+
+    @Override
+    public void onGameChanged(ServerGameState game) {
+        if ("ACTIVE".equals(game.getGameStatus()) || game.getWinner() == null) {
+            return;
+        }
+        recordResult(game.getPlayer1Id(), game.getPlayer2Id(), "PLAYER 1".equals(game.getWinner()) ? 1.0 : 0.0);
+    }
+
+    /**
+     * Rate one game; {@code player1Score} is 1 for a player 1 win, 0 for a
+     * loss and 0.5 for a draw.
+     */
+    public void recordResult(String player1Id, String player2Id, double player1Score) {
+        if (player1Id == null || player2Id == null || player1Id.equals(player2Id)) {
+            throw new IllegalArgumentException("Two different player IDs are required");
+        }
+        if (player1Score < 0 || player1Score > 1) {
+            throw new IllegalArgumentException("Invalid score: " + player1Score);
+        }
+
+        lock.writeLock().lock();
+        try {
+            Entry a = entryFor(player1Id);
+            Entry b = entryFor(player2Id);
+            int ratingA = a.rating;
+            int ratingB = b.rating;
+            double expectedA = 1 / (1 + Math.pow(10, (ratingB - ratingA) / 400.0));
+            int newA = Math.max(RATING_FLOOR,
+                    (int) Math.round(ratingA + kFactor(a) * (player1Score - expectedA)));
+            int newB = Math.max(RATING_FLOOR,
+                    (int) Math.round(ratingB + kFactor(b) * ((1 - player1Score) - (1 - expectedA))));
+
+            leaderboard.remove(a.key());
+            leaderboard.remove(b.key());
+            a.rating = newA;
+            b.rating = newB;
+            a.games++;
+            b.games++;
+            leaderboard.insert(a.key());
+            leaderboard.insert(b.key());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        gamesRated.incrementAndGet();
+    }
+
+    // ===== QUERIES =====
+
+    /** The player's rating, or {@code unrated} if they haven't finished a game. */
+    public int getRating(String playerId, int unrated) {
+        Entry entry = playerId != null ? players.get(playerId) : null;
+        return entry != null ? entry.rating : unrated;
+    }
+
+    /** The player's rating and rank, or null if they haven't finished a game. */
+    public PlayerRating getPlayer(String playerId) {
+        Entry entry = playerId != null ? players.get(playerId) : null;
+        if (entry == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            return new PlayerRating(entry.playerId, entry.rating, entry.games, leaderboard.rank(entry.key()) + 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** The best {@code count} players. */
+    public List<PlayerRating> getTop(int count) {
+        return getLeaderboard(0, count);
+    }
+
+    /** Up to {@code count} players from rank {@code offset + 1} down. */
+    public List<PlayerRating> getLeaderboard(int offset, int count) {
+        if (offset < 0 || count < 0) {
+            throw new IllegalArgumentException("Offset and count cannot be negative");
+        }
+        lock.readLock().lock();
+        try {
+            long[] keys = new long[Math.max(0, Math.min(count, leaderboard.size() - offset))];
+            if (keys.length == 0) {
+                return Collections.emptyList();
+            }
+            int found = leaderboard.range(offset, keys);
+            List<PlayerRating> page = new ArrayList<>(found);
+            for (int i = 0; i < found; i++) {
+                Entry entry = byIndex.get((int) keys[i]);
+                page.add(new PlayerRating(entry.playerId, entry.rating, entry.games, offset + i + 1));
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Players with a rating. */
+    public int getPlayerCount() {
+        return players.size();
+    }
+
+    public long getGamesRated() {
+        return gamesRated.get();
+    }
+
+    // ===== HELPERS =====
+
+    /** Callers hold the write lock. */
+    private Entry entryFor(String playerId) {
+        Entry entry = players.get(playerId);
+        if (entry == null) {
+            entry = new Entry(playerId, byIndex.size());
+            byIndex.add(entry);
+            leaderboard.insert(entry.key());
+            players.put(playerId, entry);
+        }
+        return entry;
+    }
+
+    private static int kFactor(Entry entry) {
+        return entry.games < PROVISIONAL_GAMES ? PROVISIONAL_K : ESTABLISHED_K;
+    }
+
+    // Higher ratings first, then earlier players; the index is the low half
+    private static long leaderboardKey(int rating, int index) {
+        return ((long) -rating << 32) | index;
+    }
+}
@@ -0,0 +1,260 @@
+package com.gfg.NaarPazham.server;
+
+import com.gfg.NaarPazham.ServerGameState;
+import com.gfg.NaarPazham.TransportEnvelope;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Fans game updates out to any number of spectators. Each change is encoded
+ * once, as a {@link TransportEnvelope} event, and that one immutable
+ * {@link Event} is queued for every subscriber of the game, so a popular
+ * game costs one encode per move however many people watch it. Games nobody
+ * watches cost a map lookup.
+ *
+ * Every subscriber has its own bounded queue, drained to its {@link Sink}
+ * on the delivery executor a few events at a time, so subscribers take turns
+ * on the pool. A subscriber that can't keep up loses its
+ * oldest queued events instead of holding up the others or growing without
+ * bound; every event is a whole game state, so a dropped one only means the
+ * spectator jumps ahead. A subscriber never gets an event older than one it
+ * already has.
+ */
+public class SpectatorBroadcaster implements GameStore.Listener {
+    public static final int DEFAULT_QUEUE_CAPACITY = 16;
+
+    // Events one subscriber gets before giving its delivery thread to the next
+    private static final int EVENTS_PER_TURN = 4;
+
+    /**
+     * Takes a subscriber's events, one at a time; throwing ends the
+     * subscription. Runs on the shared delivery pool, so it should not block
+     * for long: a socket write that waits for the peer holds up others.
+     */
+    public interface Sink {
+        void deliver(Event event) throws IOException;
+    }
+
+    /** One encoded game update, shared by every subscriber. */
+    public static final class Event {
+        public final String gameId;
+        public final int sequence;
+        private final byte[] message;
+
+        Event(String gameId, int sequence, byte[] message) {
+            this.gameId = gameId;
+            this.sequence = sequence;
+            this.message = message;
+        }
+
+        public int length() {
+            return message.length;
+        }
+
+        /** The envelope as a read-only view. */
+        public ByteBuffer buffer() {
+            return ByteBuffer.wrap(message).asReadOnlyBuffer();
+        }
+
+        public void writeTo(OutputStream out) throws IOException {
+            out.write(message);
+        }
+    }
+
+    /** One spectator of one game. */
+    public final class Subscription {
+        private final String gameId;
+        private final Sink sink;
+        // Guarded by this
+        private final ArrayDeque<Event> queue = new ArrayDeque<>();
+        private int lastSequence = -1; // newest event queued or delivered
+        private boolean draining;
+        private boolean closed;
+
+        Subscription(String gameId, Sink sink) {
+            this.gameId = gameId;
+            this.sink = sink;
+        }
+
+        public String getGameId() {
+            return gameId;
+        }
+
+        /** Stop delivering; events still queued are discarded. */
+        public void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                queue.clear();
+            }
+            unsubscribe(this);
+        }
+
+        void offer(Event event) {
+            synchronized (this) {
+                if (closed || event.sequence <= lastSequence) {
+                    return;
+                }
+                lastSequence = event.sequence;
+                if (queue.size() >= queueCapacity) {
+                    queue.pollFirst();
+                    dropped.incrementAndGet();
+                }
+                queue.addLast(event);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            deliveryExecutor.execute(this::drain);
+        }
+
+        private void drain() {
+            for (int i = 0; i < EVENTS_PER_TURN; i++) {
+                Event event;
+                synchronized (this) {
+                    event = closed ? null : queue.pollFirst();
+                    if (event == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    sink.deliver(event);
+                    delivered.incrementAndGet();
+                } catch (IOException | RuntimeException e) {
+                    close();
+                    return;
+                }
+            }
+            // More queued: back of the line
+            deliveryExecutor.execute(this::drain);
+        }
+    }
+
+    private static final class Channel {
+        final Set<Subscription> subscribers = ConcurrentHashMap.newKeySet();
+        // The newest event, for subscribers who join later
+        final AtomicReference<Event> latest = new AtomicReference<>();
+    }
+
+    private final Executor deliveryExecutor;
+    private final int queueCapacity;
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final AtomicLong encoded = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /** Delivers on a small pool of daemon threads. */
+    public SpectatorBroadcaster() {
+        this(Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), r -> {
+            Thread thread = new Thread(r, "SpectatorDelivery");
+            thread.setDaemon(true);
+            return thread;
+        }), DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public SpectatorBroadcaster(Executor deliveryExecutor, int queueCapacity) {
+        if (deliveryExecutor == null || queueCapacity < 1) {
+            throw new IllegalArgumentException("Invalid broadcaster settings");
+        }
+        this.deliveryExecutor = deliveryExecutor;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Start sending a game's updates to {@code sink}, beginning with the
+     * newest one broadcast so far, if any.
+     */
+    public Subscription subscribe(String gameId, Sink sink) {
+        if (gameId == null || sink == null) {
+            throw new IllegalArgumentException("Game ID and sink cannot be null");
+        }
+        Subscription subscription = new Subscription(gameId, sink);
+        Channel channel = channels.compute(gameId, (id, existing) -> {
+            Channel target = existing != null ? existing : new Channel();
+            target.subscribers.add(subscription);
+            return target;
+        });
+        subscribers.incrementAndGet();
+        Event latest = channel.latest.get();
+        if (latest != null) {
+            subscription.offer(latest);
+        }
+        return subscription;
+    }
+
+    @Override
+    public void onGameChanged(ServerGameState game) {
+        Channel channel = channels.get(game.getGameId());
+        if (channel == null) {
+            return;
+        }
+        int sequence = TransportEnvelope.eventSequence(game);
+        Event current = channel.latest.get();
+        if (current != null && current.sequence >= sequence) {
+            return;
+        }
+
+        Event event = new Event(game.getGameId(), sequence, TransportEnvelope.encodeEvent(game));
+        encoded.incrementAndGet();
+        while (!channel.latest.compareAndSet(current, event)) {
+            current = channel.latest.get();
+            if (current != null && current.sequence >= sequence) {
+                // A newer change got here first
+                return;
+            }
+        }
+        for (Subscription subscription : channel.subscribers) {
+            subscription.offer(event);
+        }
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        channels.computeIfPresent(subscription.gameId, (id, channel) -> {
+            if (channel.subscribers.remove(subscription)) {
+                subscribers.decrementAndGet();
+            }
+            return channel.subscribers.isEmpty() ? null : channel;
+        });
+    }
+
+    // ===== STATS =====
+
+    public int getSubscriberCount() {
+        return subscribers.get();
+    }
+
+    public int getSpectatedGameCount() {
+        return channels.size();
+    }
+
+    /** Events encoded; one per broadcast change, whatever the audience. */
+    public long getEncodedCount() {
+        return encoded.get();
+    }
+
+    public long getDeliveredCount() {
+        return delivered.get();
+    }
+
+    /** Events dropped from the queues of subscribers that fell behind. */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+}
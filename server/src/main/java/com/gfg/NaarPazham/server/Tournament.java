@@ -0,0 +1,551 @@
+package com.gfg.NaarPazham.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One tournament's bracket: the players in seed order (index 0 is the top
+ * seed), every round's pairings and each game's result. Players are
+ * referred to by seed index throughout.
+ *
+ * Single elimination pads the field to a power of two with byes for the top
+ * seeds and pairs the usual way (1 v 16, 8 v 9, ...); winners meet winners.
+ * Swiss plays a fixed number of rounds, pairing players on equal scores and
+ * avoiding rematches where it can, with the bye (odd fields) going to the
+ * lowest-ranked player who hasn't had one. Scores are in half points: a win
+ * or bye is 2, a draw 1.
+ *
+ * Results of a round may be recorded from any thread, each game once; the
+ * next round is paired by whichever thread the last result hands it to
+ * (see {@link TournamentService}), and only that thread touches the
+ * standings. A round's results are final once {@link Round#isComplete()}.
+ *
+ * {@link #encode()} writes the bracket as players plus two bytes per seed
+ * per game and two bits per result, so a 4096-player bracket is a few tens
+ * of kilobytes. Scores and standings aren't stored; they are replayed from
+ * the results.
+ */
+public final class Tournament {
+
+    public enum Format { SINGLE_ELIMINATION, SWISS }
+
+    // Game results
+    public static final byte PENDING = 0;
+    public static final byte PLAYER_1_WON = 1;
+    public static final byte PLAYER_2_WON = 2;
+    public static final byte DRAWN = 3;
+
+    /** Player 2 of a bye: player 1 sits the round out and is given the win. */
+    public static final int BYE = -1;
+    /** Seeds are stored in two bytes, with 0xFFFF for a bye. */
+    public static final int MAX_PLAYERS = 0xFFFF;
+
+    private static final int MAGIC = 0x4E505442; // "NPTB"
+    private static final byte VERSION = 1;
+    private static final int WIN_POINTS = 2;
+    private static final int DRAW_POINTS = 1;
+
+    /** One round's games. */
+    public static final class Round {
+        public final int number; // From 0
+        private final int[] player1;
+        private final int[] player2;
+        // Written once per game by the thread that recorded it; published by remaining
+        private final byte[] results;
+        private final AtomicInteger remaining;
+
+        Round(int number, int[] player1, int[] player2, byte[] results) {
+            this.number = number;
+            this.player1 = player1;
+            this.player2 = player2;
+            this.results = results;
+            int pending = 0;
+            for (byte result : results) {
+                if (result == PENDING) {
+                    pending++;
+                }
+            }
+            this.remaining = new AtomicInteger(pending);
+        }
+
+        public int gameCount() {
+            return player1.length;
+        }
+
+        public int player1(int game) {
+            return player1[game];
+        }
+
+        /** {@link #BYE} if player 1 has no opponent this round. */
+        public int player2(int game) {
+            return player2[game];
+        }
+
+        public byte result(int game) {
+            return results[game];
+        }
+
+        /** Games still being played. */
+        public int remaining() {
+            return remaining.get();
+        }
+
+        public boolean isComplete() {
+            return remaining.get() == 0;
+        }
+
+        /** Seed who goes through; a drawn elimination game goes to the higher seed. */
+        public int winner(int game) {
+            switch (results[game]) {
+                case PLAYER_1_WON: return player1[game];
+                case PLAYER_2_WON: return player2[game];
+                case DRAWN: return Math.min(player1[game], player2[game]);
+                default: return BYE;
+            }
+        }
+    }
+
+    private final String id;
+    private final Format format;
+    private final String[] players;
+    private final int roundCount;
+    private final List<Round> rounds = new CopyOnWriteArrayList<>();
+
+    // Only the thread pairing the next round touches these
+    private final int[] points;
+    private final int[] firstMoves; // Games each player moved first in, to alternate
+    private final boolean[] hadBye;
+    private final Set<Long> played = new HashSet<>();
+    private int scoredRounds;
+
+    private volatile int[] standings;
+
+    Tournament(String id, Format format, List<String> playerIds, int roundCount) {
+        this(id, format, playerIds.toArray(new String[0]), roundCount);
+    }
+
+    private Tournament(String id, Format format, String[] players, int roundCount) {
+        if (id == null || format == null) {
+            throw new IllegalArgumentException("Tournament ID and format cannot be null");
+        }
+        if (players.length < 2 || players.length > MAX_PLAYERS) {
+            throw new IllegalArgumentException("A tournament needs 2 to " + MAX_PLAYERS + " players");
+        }
+        Set<String> unique = new HashSet<>();
+        for (String player : players) {
+            if (player == null || !unique.add(player)) {
+                throw new IllegalArgumentException("Player IDs must be unique and not null");
+            }
+        }
+        boolean validRounds = format == Format.SINGLE_ELIMINATION
+                ? roundCount == eliminationRounds(players.length)
+                : roundCount >= 1 && roundCount < players.length;
+        if (!validRounds) {
+            throw new IllegalArgumentException("Invalid round count: " + roundCount);
+        }
+
+        this.id = id;
+        this.format = format;
+        this.players = players;
+        this.roundCount = roundCount;
+        this.points = new int[players.length];
+        this.firstMoves = new int[players.length];
+        this.hadBye = new boolean[players.length];
+        this.standings = seedOrder(players.length);
+    }
+
+    /** Rounds a single elimination bracket of this many players takes. */
+    public static int eliminationRounds(int playerCount) {
+        return playerCount < 2 ? 0 : 32 - Integer.numberOfLeadingZeros(playerCount - 1);
+    }
+
+    /** Enough Swiss rounds for one player to be left unbeaten: ceil(log2(players)). */
+    public static int defaultSwissRounds(int playerCount) {
+        return eliminationRounds(playerCount);
+    }
+
+    // ===== BRACKET =====
+
+    public String getId() {
+        return id;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    public int getPlayerCount() {
+        return players.length;
+    }
+
+    public String getPlayer(int seed) {
+        return players[seed];
+    }
+
+    public int getRoundCount() {
+        return roundCount;
+    }
+
+    /** Rounds paired so far. */
+    public int getRoundsStarted() {
+        return rounds.size();
+    }
+
+    public Round getRound(int number) {
+        return rounds.get(number);
+    }
+
+    /** The latest round paired, or null before the first. */
+    public Round getCurrentRound() {
+        int size = rounds.size();
+        return size > 0 ? rounds.get(size - 1) : null;
+    }
+
+    public boolean isFinished() {
+        Round current = getCurrentRound();
+        return current != null && current.number == roundCount - 1 && current.isComplete();
+    }
+
+    /**
+     * Seeds ordered by score, best first, then by seed, as of the last round
+     * paired after; final once the tournament is.
+     */
+    public int[] getStandings() {
+        return standings.clone();
+    }
+
+    /** Score in half points, as of {@link #getStandings()}. */
+    public int getPoints(int seed) {
+        return points[seed];
+    }
+
+    /** The champion's seed, or {@link #BYE} until the tournament is over. */
+    public int getWinner() {
+        if (!isFinished()) {
+            return BYE;
+        }
+        return format == Format.SINGLE_ELIMINATION ? getCurrentRound().winner(0) : standings[0];
+    }
+
+    // ===== ROUNDS =====
+
+    /**
+     * Store a game's result; each game is recorded once. Returns true if it
+     * was the last game of its round.
+     */
+    boolean record(Round round, int game, byte result) {
+        if (result != PLAYER_1_WON && result != PLAYER_2_WON && result != DRAWN) {
+            throw new IllegalArgumentException("Invalid result: " + result);
+        }
+        round.results[game] = result;
+        return round.remaining.decrementAndGet() == 0;
+    }
+
+    /**
+     * Score the rounds just completed and pair the next one, or return null
+     * if the tournament is over. Call once the current round is complete, and
+     * from one thread at a time.
+     */
+    Round startNextRound() {
+        Round current = getCurrentRound();
+        if (current != null && !current.isComplete()) {
+            throw new IllegalStateException("Round " + current.number + " is still being played");
+        }
+        scoreCompletedRounds();
+        if (rounds.size() >= roundCount) {
+            return null;
+        }
+        Round next = format == Format.SINGLE_ELIMINATION ? pairElimination(rounds.size()) : pairSwiss(rounds.size());
+        rounds.add(next);
+        return next;
+    }
+
+    private Round pairElimination(int number) {
+        if (number > 0) {
+            Round previous = rounds.get(number - 1);
+            int games = previous.gameCount() / 2;
+            int[] player1 = new int[games];
+            int[] player2 = new int[games];
+            for (int game = 0; game < games; game++) {
+                int a = previous.winner(2 * game);
+                int b = previous.winner(2 * game + 1);
+                player1[game] = Math.min(a, b);
+                player2[game] = Math.max(a, b);
+            }
+            return new Round(number, player1, player2, new byte[games]);
+        }
+
+        // Bracket positions: the best seed of each pair meets the worst
+        int size = 1 << eliminationRounds(players.length);
+        int[] order = {0};
+        while (order.length < size) {
+            int[] expanded = new int[order.length * 2];
+            for (int i = 0; i < order.length; i++) {
+                expanded[2 * i] = order[i];
+                expanded[2 * i + 1] = order.length * 2 - 1 - order[i];
+            }
+            order = expanded;
+        }
+        int games = size / 2;
+        int[] player1 = new int[games];
+        int[] player2 = new int[games];
+        byte[] results = new byte[games];
+        for (int game = 0; game < games; game++) {
+            player1[game] = order[2 * game];
+            if (order[2 * game + 1] < players.length) {
+                player2[game] = order[2 * game + 1];
+            } else {
+                player2[game] = BYE;
+                results[game] = PLAYER_1_WON;
+            }
+        }
+        return new Round(number, player1, player2, results);
+    }
+
+    private Round pairSwiss(int number) {
+        int[] order = standings;
+        int count = order.length;
+        boolean[] paired = new boolean[count];
+        int games = (count + 1) / 2;
+        int[] player1 = new int[games];
+        int[] player2 = new int[games];
+        byte[] results = new byte[games];
+        int game = 0;
+
+        if (count % 2 != 0) {
+            int bye = order[count - 1];
+            for (int i = count - 1; i >= 0; i--) {
+                if (!hadBye[order[i]]) {
+                    bye = order[i];
+                    break;
+                }
+            }
+            paired[bye] = true;
+            player1[games - 1] = bye;
+            player2[games - 1] = BYE;
+            results[games - 1] = PLAYER_1_WON;
+        }
+
+        // Top down: each player meets the next one down they haven't played,
+        // or simply the next one down if they've played them all
+        for (int i = 0; i < count; i++) {
+            int a = order[i];
+            if (paired[a]) {
+                continue;
+            }
+            paired[a] = true;
+            int fallback = -1;
+            int b = -1;
+            for (int j = i + 1; j < count; j++) {
+                int candidate = order[j];
+                if (paired[candidate]) {
+                    continue;
+                }
+                if (fallback < 0) {
+                    fallback = candidate;
+                }
+                if (!played.contains(pairKey(a, candidate))) {
+                    b = candidate;
+                    break;
+                }
+            }
+            if (b < 0) {
+                b = fallback;
+            }
+            paired[b] = true;
+            // Whoever has moved first less often moves first
+            boolean aFirst = firstMoves[a] <= firstMoves[b];
+            player1[game] = aFirst ? a : b;
+            player2[game] = aFirst ? b : a;
+            game++;
+        }
+        return new Round(number, player1, player2, results);
+    }
+
+    private void scoreCompletedRounds() {
+        boolean changed = false;
+        while (scoredRounds < rounds.size() && rounds.get(scoredRounds).isComplete()) {
+            Round round = rounds.get(scoredRounds++);
+            for (int game = 0; game < round.gameCount(); game++) {
+                int a = round.player1[game];
+                int b = round.player2[game];
+                if (b == BYE) {
+                    points[a] += WIN_POINTS;
+                    hadBye[a] = true;
+                    continue;
+                }
+                played.add(pairKey(a, b));
+                firstMoves[a]++;
+                switch (round.results[game]) {
+                    case PLAYER_1_WON:
+                        points[a] += WIN_POINTS;
+                        break;
+                    case PLAYER_2_WON:
+                        points[b] += WIN_POINTS;
+                        break;
+                    default:
+                        points[a] += DRAW_POINTS;
+                        points[b] += DRAW_POINTS;
+                        break;
+                }
+            }
+            changed = true;
+        }
+        if (changed) {
+            standings = rank(points);
+        }
+    }
+
+    // Points descending, then seed, as one sort of packed longs
+    private static int[] rank(int[] points) {
+        long[] keys = new long[points.length];
+        for (int seed = 0; seed < points.length; seed++) {
+            keys[seed] = ((long) (Integer.MAX_VALUE - points[seed]) << 32) | seed;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+
+    private static int[] seedOrder(int count) {
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        return order;
+    }
+
+    private static long pairKey(int a, int b) {
+        return ((long) Math.min(a, b) << 32) | Math.max(a, b);
+    }
+
+    // ===== ENCODING =====
+
+    /**
+     * The bracket as bytes:
+     * <pre>
+     *   magic, version, format, round count, id, player count, player ids
+     *   rounds paired, then per round: game count,
+     *     seeds as player1/player2 u16 pairs (0xFFFF = bye),
+     *     results, 2 bits each, 4 to a byte
+     * </pre>
+     */
+    public byte[] encode() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + players.length * 16);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeByte(format.ordinal());
+            out.writeShort(roundCount);
+            out.writeUTF(id);
+            out.writeInt(players.length);
+            for (String player : players) {
+                out.writeUTF(player);
+            }
+            Round[] snapshot = rounds.toArray(new Round[0]);
+            out.writeShort(snapshot.length);
+            for (Round round : snapshot) {
+                int games = round.gameCount();
+                out.writeInt(games);
+                for (int game = 0; game < games; game++) {
+                    out.writeShort(round.player1[game]);
+                    out.writeShort(round.player2[game] == BYE ? MAX_PLAYERS : round.player2[game]);
+                }
+                round.remaining.get(); // Pick up results recorded on other threads
+                for (int game = 0; game < games; game += 4) {
+                    int packed = 0;
+                    for (int i = 0; i < 4 && game + i < games; i++) {
+                        packed |= (round.results[game + i] & 0x3) << (2 * i);
+                    }
+                    out.writeByte(packed);
+                }
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Can't happen writing to memory
+        }
+    }
+
+    /** A bracket written by {@link #encode()}, scored up to its last complete round. */
+    public static Tournament decode(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a tournament bracket");
+        }
+        int version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported bracket version " + version);
+        }
+        int formatIndex = in.readByte();
+        if (formatIndex < 0 || formatIndex >= Format.values().length) {
+            throw new IOException("Unknown tournament format " + formatIndex);
+        }
+        int roundCount = in.readUnsignedShort();
+        String id = in.readUTF();
+        int playerCount = in.readInt();
+        if (playerCount < 2 || playerCount > MAX_PLAYERS) {
+            throw new IOException("Bad player count " + playerCount);
+        }
+        String[] players = new String[playerCount];
+        for (int i = 0; i < playerCount; i++) {
+            players[i] = in.readUTF();
+        }
+
+        Tournament tournament;
+        try {
+            tournament = new Tournament(id, Format.values()[formatIndex], players, roundCount);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Bad bracket: " + e.getMessage(), e);
+        }
+
+        int roundsStarted = in.readUnsignedShort();
+        if (roundsStarted > roundCount) {
+            throw new IOException("Bad round count " + roundsStarted);
+        }
+        for (int number = 0; number < roundsStarted; number++) {
+            int games = in.readInt();
+            if (games < 1 || games > playerCount) {
+                throw new IOException("Bad game count " + games);
+            }
+            int[] player1 = new int[games];
+            int[] player2 = new int[games];
+            for (int game = 0; game < games; game++) {
+                player1[game] = in.readUnsignedShort();
+                int b = in.readUnsignedShort();
+                player2[game] = b == MAX_PLAYERS ? BYE : b;
+                if (player1[game] >= playerCount || player2[game] >= playerCount) {
+                    throw new IOException("Bad seed in round " + number);
+                }
+            }
+            byte[] results = new byte[games];
+            for (int game = 0; game < games; game += 4) {
+                int packed = in.readUnsignedByte();
+                for (int i = 0; i < 4 && game + i < games; i++) {
+                    results[game + i] = (byte) ((packed >>> (2 * i)) & 0x3);
+                }
+            }
+            Round round = new Round(number, player1, player2, results);
+            if (number < roundsStarted - 1 && !round.isComplete()) {
+                throw new IOException("Round " + number + " unfinished but followed by another");
+            }
+            tournament.rounds.add(round);
+        }
+        tournament.scoreCompletedRounds();
+        return tournament;
+    }
+}
@@ -0,0 +1,315 @@
+package com.gfg.NaarPazham.server;
+
+import com.gfg.NaarPazham.ServerGameState;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs {@link Tournament}s on the game store.
+ *
+ * All games of a round are created at once and played concurrently, like
+ * any other games. Rounds advance on completions rather than polling: the
+ * store reports each game that ends (this service is a
+ * {@link GameStore.Listener}), its result goes into the bracket, and the
+ * result that completes a round hands the pairing of the next one to the
+ * scheduler. A game that ends without a winner, i.e. abandoned for
+ * inactivity, is a draw.
+ *
+ * Players take part through the ordinary game API: a tournament game is
+ * their active game, so the matchmaking status call finds it as a match. A
+ * pairing whose player is still in another game, e.g. one from matchmaking
+ * or another tournament, waits for that game to end before it starts.
+ *
+ * Given a directory, each bracket is written there (see
+ * {@link Tournament#encode()}) as every round starts and after every result,
+ * and brackets found there are resumed on startup. Saves run on the
+ * scheduler, and results that arrive while one is queued share it. Only the
+ * games of a round that had no result when the server stopped are played
+ * again.
+ */
+public class TournamentService implements GameStore.Listener {
+    private static final Logger LOG = Logger.getLogger(TournamentService.class.getName());
+
+    private static final String FILE_SUFFIX = ".bracket";
+
+    /** Hooks for whoever drives the players, e.g. a simulation. */
+    public interface Observer {
+        /** A tournament game was created and its players can move. */
+        default void onGameStarted(Tournament tournament, ServerGameState game) {}
+
+        default void onRoundStarted(Tournament tournament, Tournament.Round round) {}
+
+        default void onTournamentFinished(Tournament tournament) {}
+    }
+
+    /** Where a game in play sits in its bracket. */
+    private static final class Slot {
+        final Tournament tournament;
+        final Tournament.Round round;
+        final int game;
+
+        Slot(Tournament tournament, Tournament.Round round, int game) {
+            this.tournament = tournament;
+            this.round = round;
+            this.game = game;
+        }
+    }
+
+    private static final Observer NO_OBSERVER = new Observer() {};
+
+    private final GameStore gameStore;
+    private final Path directory;
+    private final Executor scheduler;
+    private final Map<String, Tournament> tournaments = new ConcurrentHashMap<>();
+    private final Map<String, Slot> gamesInPlay = new ConcurrentHashMap<>();
+    // Pairings waiting for a player to finish another game
+    private final Set<Slot> waitingForPlayers = ConcurrentHashMap.newKeySet();
+    // Tournaments with a save waiting on the scheduler
+    private final Set<String> savesQueued = ConcurrentHashMap.newKeySet();
+    private final AtomicLong tournamentCounter = new AtomicLong();
+    private volatile Observer observer = NO_OBSERVER;
+
+    /** Brackets in memory only. */
+    public TournamentService(GameStore gameStore) throws IOException {
+        this(gameStore, null);
+    }
+
+    public TournamentService(GameStore gameStore, Path directory) throws IOException {
+        this(gameStore, directory, Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "TournamentScheduler");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    /**
+     * Pairs rounds on {@code scheduler}; a null directory keeps brackets in
+     * memory only. Listens to {@code gameStore} from construction on, and
+     * resumes any unfinished tournaments found in the directory.
+     */
+    public TournamentService(GameStore gameStore, Path directory, Executor scheduler) throws IOException {
+        if (gameStore == null || scheduler == null) {
+            throw new IllegalArgumentException("GameStore and scheduler cannot be null");
+        }
+        this.gameStore = gameStore;
+        this.directory = directory;
+        this.scheduler = scheduler;
+        List<Tournament> unfinished = directory != null ? load(directory) : Collections.emptyList();
+        gameStore.addListener(this);
+        for (Tournament tournament : unfinished) {
+            scheduler.execute(() -> resume(tournament));
+        }
+    }
+
+    public void setObserver(Observer observer) {
+        this.observer = observer != null ? observer : NO_OBSERVER;
+    }
+
+    // ===== TOURNAMENTS =====
+
+    /** Knockout between the players, best seed first. */
+    public Tournament createSingleElimination(List<String> playerIds) {
+        return create(Tournament.Format.SINGLE_ELIMINATION, playerIds,
+                Tournament.eliminationRounds(playerIds.size()));
+    }
+
+    /** Swiss over {@code rounds} rounds, best seed first; see {@link Tournament#defaultSwissRounds}. */
+    public Tournament createSwiss(List<String> playerIds, int rounds) {
+        return create(Tournament.Format.SWISS, playerIds, rounds);
+    }
+
+    public Tournament getTournament(String tournamentId) {
+        return tournamentId != null ? tournaments.get(tournamentId) : null;
+    }
+
+    public Collection<Tournament> getTournaments() {
+        return Collections.unmodifiableCollection(tournaments.values());
+    }
+
+    /** Tournament games created and not yet finished, across all tournaments. */
+    public int getGamesInPlay() {
+        return gamesInPlay.size();
+    }
+
+    private Tournament create(Tournament.Format format, List<String> playerIds, int rounds) {
+        if (playerIds == null) {
+            throw new IllegalArgumentException("Player IDs cannot be null");
+        }
+        String tournamentId = "TOURNAMENT_" + System.currentTimeMillis() + "_" + tournamentCounter.incrementAndGet();
+        Tournament tournament = new Tournament(tournamentId, format, playerIds, rounds);
+        tournaments.put(tournamentId, tournament);
+        scheduler.execute(() -> advance(tournament));
+        return tournament;
+    }
+
+    // ===== COMPLETIONS =====
+
+    @Override
+    public void onGameChanged(ServerGameState game) {
+        if (!"ACTIVE".equals(game.getGameStatus())) {
+            complete(game);
+            if (!waitingForPlayers.isEmpty()) {
+                startWaiting(game.getPlayer1Id(), game.getPlayer2Id());
+            }
+        }
+    }
+
+    private void complete(ServerGameState game) {
+        // Removing the slot makes sure each game is recorded once
+        Slot slot = gamesInPlay.remove(game.getGameId());
+        if (slot == null) {
+            return;
+        }
+        Tournament tournament = slot.tournament;
+        if (tournament.record(slot.round, slot.game, resultOf(game))) {
+            scheduler.execute(() -> advance(tournament));
+        } else if (directory != null && savesQueued.add(tournament.getId())) {
+            scheduler.execute(() -> {
+                // Cleared first, so a result recorded during the write queues another
+                savesQueued.remove(tournament.getId());
+                persist(tournament);
+            });
+        }
+    }
+
+    private static byte resultOf(ServerGameState game) {
+        if ("PLAYER 1".equals(game.getWinner())) {
+            return Tournament.PLAYER_1_WON;
+        }
+        return "PLAYER 2".equals(game.getWinner()) ? Tournament.PLAYER_2_WON : Tournament.DRAWN;
+    }
+
+    // ===== ROUNDS =====
+
+    /** Pair and start the next round, or finish; runs on the scheduler. */
+    private void advance(Tournament tournament) {
+        try {
+            Tournament.Round round = tournament.startNextRound();
+            persist(tournament);
+            if (round == null) {
+                LOG.info("Tournament " + tournament.getId() + " won by "
+                        + tournament.getPlayer(tournament.getWinner()));
+                observer.onTournamentFinished(tournament);
+                return;
+            }
+            observer.onRoundStarted(tournament, round);
+            play(tournament, round);
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING, "Could not advance tournament " + tournament.getId(), e);
+        }
+    }
+
+    /** Pick up a loaded tournament where it stopped. */
+    private void resume(Tournament tournament) {
+        Tournament.Round round = tournament.getCurrentRound();
+        if (round == null || round.isComplete()) {
+            advance(tournament);
+        } else {
+            observer.onRoundStarted(tournament, round);
+            play(tournament, round);
+        }
+    }
+
+    /** Create a game for every pending pairing of the round. */
+    private void play(Tournament tournament, Tournament.Round round) {
+        for (int game = 0; game < round.gameCount(); game++) {
+            if (round.result(game) != Tournament.PENDING) {
+                continue; // A bye, or a game decided before a restart
+            }
+            start(new Slot(tournament, round, game));
+        }
+    }
+
+    /** Create the pairing's game, or leave it waiting while either player is in another one. */
+    private void start(Slot slot) {
+        Tournament tournament = slot.tournament;
+        String player1Id = tournament.getPlayer(slot.round.player1(slot.game));
+        String player2Id = tournament.getPlayer(slot.round.player2(slot.game));
+        ServerGameState state = gameStore.createGame(player1Id, player2Id);
+        if (state == null) {
+            waitingForPlayers.add(slot);
+            // The other game may have ended before the pairing was parked
+            if (gameStore.findActiveGame(player1Id) == null && gameStore.findActiveGame(player2Id) == null
+                    && waitingForPlayers.remove(slot)) {
+                scheduler.execute(() -> start(slot));
+            }
+            return;
+        }
+        gamesInPlay.put(state.getGameId(), slot);
+        // A game that ended before it was registered went unheard
+        ServerGameState latest = gameStore.getGame(state.getGameId());
+        if (latest != null && !"ACTIVE".equals(latest.getGameStatus())) {
+            complete(latest);
+        } else {
+            observer.onGameStarted(tournament, state);
+        }
+    }
+
+    /** Retry the waiting pairings of players whose game just ended, on the scheduler. */
+    private void startWaiting(String player1Id, String player2Id) {
+        for (Slot slot : waitingForPlayers) {
+            Tournament tournament = slot.tournament;
+            String first = tournament.getPlayer(slot.round.player1(slot.game));
+            String second = tournament.getPlayer(slot.round.player2(slot.game));
+            boolean freed = first.equals(player1Id) || first.equals(player2Id)
+                    || second.equals(player1Id) || second.equals(player2Id);
+            if (freed && waitingForPlayers.remove(slot)) {
+                scheduler.execute(() -> start(slot));
+            }
+        }
+    }
+
+    // ===== PERSISTENCE =====
+
+    private void persist(Tournament tournament) {
+        if (directory == null) {
+            return;
+        }
+        Path file = directory.resolve(tournament.getId() + FILE_SUFFIX);
+        Path temp = directory.resolve(tournament.getId() + FILE_SUFFIX + ".tmp");
+        try {
+            Files.write(temp, tournament.encode());
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Could not save tournament " + tournament.getId(), e);
+        }
+    }
+
+    private List<Tournament> load(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        List<Tournament> unfinished = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                Tournament tournament;
+                try {
+                    tournament = Tournament.decode(Files.readAllBytes(file));
+                } catch (IOException e) {
+                    LOG.log(Level.WARNING, "Skipping unreadable bracket " + file, e);
+                    continue;
+                }
+                tournaments.put(tournament.getId(), tournament);
+                if (!tournament.isFinished()) {
+                    unfinished.add(tournament);
+                }
+            }
+        }
+        LOG.info("Loaded " + tournaments.size() + " tournaments, " + unfinished.size() + " unfinished");
+        return unfinished;
+    }
+}
@@ -0,0 +1,393 @@
+package com.gfg.NaarPazham.server;
+
+import com.gfg.NaarPazham.GameWireCodec;
+import com.gfg.NaarPazham.TransportEnvelope;
+import com.gfg.NaarPazham.TransportResponse;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * WebSocket endpoint for the same API, one {@link TransportEnvelope} per
+ * binary message. The JDK HttpServer cannot upgrade connections, so this
+ * listens on its own port and implements the small part of RFC 6455 the
+ * client needs: the handshake, binary and control frames, fragmentation and
+ * the close handshake. Text messages are refused with close code 1003.
+ *
+ * Each connection has a reader thread; requests on it are handled on the
+ * shared request executor, so a slow call does not hold up the ones behind
+ * it, and responses go back in completion order, matched by envelope id.
+ *
+ * Given a {@link SpectatorBroadcaster}, a connection that calls
+ * GET /api/games/{gameId}/watch is also sent that game's updates as event
+ * messages, until it calls DELETE on the same path or disconnects.
+ */
+public class WebSocketGateway {
+    private static final Logger LOG = Logger.getLogger(WebSocketGateway.class.getName());
+
+    private static final String HANDSHAKE_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+    private static final int MAX_MESSAGE_BYTES = 1024 * 1024;
+    private static final int MAX_HANDSHAKE_BYTES = 8192;
+
+    private static final int OP_CONTINUATION = 0x0;
+    private static final int OP_TEXT = 0x1;
+    private static final int OP_BINARY = 0x2;
+    private static final int OP_CLOSE = 0x8;
+    private static final int OP_PING = 0x9;
+    private static final int OP_PONG = 0xA;
+
+    private static final int CLOSE_NORMAL = 1000;
+    private static final int CLOSE_UNSUPPORTED = 1003;
+    private static final int CLOSE_PROTOCOL_ERROR = 1002;
+    private static final int CLOSE_TOO_BIG = 1009;
+
+    private final GameController controller;
+    private final Executor requestExecutor;
+    private final SpectatorBroadcaster broadcaster;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+
+    private ServerSocket serverSocket;
+    private ExecutorService connectionExecutor;
+
+    public WebSocketGateway(GameController controller, Executor requestExecutor) {
+        this(controller, requestExecutor, null);
+    }
+
+    /** A null broadcaster answers watch calls without pushing updates. */
+    public WebSocketGateway(GameController controller, Executor requestExecutor,
+                            SpectatorBroadcaster broadcaster) {
+        if (controller == null || requestExecutor == null) {
+            throw new IllegalArgumentException("Controller and executor cannot be null");
+        }
+        this.controller = controller;
+        this.requestExecutor = requestExecutor;
+        this.broadcaster = broadcaster;
+    }
+
+    public synchronized void start(int port) throws IOException {
+        if (serverSocket != null) {
+            return;
+        }
+        serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress(port), 1024);
+        connectionExecutor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "WebSocketConnection");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ServerSocket listening = serverSocket;
+        connectionExecutor.execute(() -> acceptLoop(listening));
+    }
+
+    public synchronized void stop() {
+        if (serverSocket == null) {
+            return;
+        }
+        closeQuietly(serverSocket);
+        for (Socket socket : connections) {
+            closeQuietly(socket);
+        }
+        connectionExecutor.shutdownNow();
+        serverSocket = null;
+    }
+
+    public synchronized int getPort() {
+        return serverSocket != null ? serverSocket.getLocalPort() : -1;
+    }
+
+    private void acceptLoop(ServerSocket listening) {
+        while (!listening.isClosed()) {
+            try {
+                Socket socket = listening.accept();
+                socket.setTcpNoDelay(true);
+                connections.add(socket);
+                connectionExecutor.execute(() -> serve(socket));
+            } catch (SocketException e) {
+                // Closed by stop()
+                return;
+            } catch (IOException e) {
+                LOG.log(Level.WARNING, "WebSocket accept failed", e);
+            }
+        }
+    }
+
+    // ===== CONNECTION =====
+
+    private void serve(Socket socket) {
+        // Games this connection watches, by gameId
+        Map<String, SpectatorBroadcaster.Subscription> watching = new ConcurrentHashMap<>();
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+            if (!handshake(in, out)) {
+                return;
+            }
+
+            ByteArrayOutputStream message = new ByteArrayOutputStream();
+            int messageOpcode = -1;
+            while (true) {
+                int first = in.readUnsignedByte();
+                int second = in.readUnsignedByte();
+                boolean fin = (first & 0x80) != 0;
+                int opcode = first & 0x0F;
+                if ((second & 0x80) == 0) {
+                    // Client frames must be masked
+                    sendClose(out, CLOSE_PROTOCOL_ERROR);
+                    return;
+                }
+                long length = second & 0x7F;
+                if (length == 126) {
+                    length = in.readUnsignedShort();
+                } else if (length == 127) {
+                    length = in.readLong();
+                }
+                if (length < 0 || length + message.size() > MAX_MESSAGE_BYTES) {
+                    sendClose(out, CLOSE_TOO_BIG);
+                    return;
+                }
+                byte[] mask = new byte[4];
+                in.readFully(mask);
+                byte[] payload = new byte[(int) length];
+                in.readFully(payload);
+                for (int i = 0; i < payload.length; i++) {
+                    payload[i] ^= mask[i & 3];
+                }
+
+                switch (opcode) {
+                    case OP_PING:
+                        writeFrame(out, OP_PONG, payload);
+                        continue;
+                    case OP_PONG:
+                        continue;
+                    case OP_CLOSE:
+                        sendClose(out, CLOSE_NORMAL);
+                        return;
+                    case OP_TEXT:
+                        sendClose(out, CLOSE_UNSUPPORTED);
+                        return;
+                    case OP_BINARY:
+                        messageOpcode = opcode;
+                        message.reset();
+                        break;
+                    case OP_CONTINUATION:
+                        if (messageOpcode < 0) {
+                            sendClose(out, CLOSE_PROTOCOL_ERROR);
+                            return;
+                        }
+                        break;
+                    default:
+                        sendClose(out, CLOSE_PROTOCOL_ERROR);
+                        return;
+                }
+
+                message.write(payload);
+                if (fin) {
+                    byte[] envelope = message.toByteArray();
+                    message.reset();
+                    messageOpcode = -1;
+                    requestExecutor.execute(() -> handle(envelope, out, watching));
+                }
+            }
+        } catch (EOFException | SocketException e) {
+            // Client went away
+        } catch (IOException e) {
+            LOG.log(Level.FINE, "WebSocket connection failed", e);
+        } finally {
+            closeQuietly(socket);
+            connections.remove(socket);
+            for (SpectatorBroadcaster.Subscription subscription : watching.values()) {
+                subscription.close();
+            }
+        }
+    }
+
+    private void handle(byte[] envelope, OutputStream out,
+                        Map<String, SpectatorBroadcaster.Subscription> watching) {
+        int id;
+        ApiRequest request;
+        try {
+            id = TransportEnvelope.id(envelope);
+            request = LoopbackTransport.toApiRequest(TransportEnvelope.decodeRequest(envelope));
+        } catch (GameWireCodec.WireFormatException e) {
+            LOG.fine("Dropping malformed envelope: " + e.getMessage());
+            return;
+        }
+
+        String watchedGame = broadcaster != null ? watchedGame(request) : null;
+        ApiResponse response;
+        if (watchedGame != null && "GET".equals(request.method)) {
+            // Subscribe before reading the state, so no update falls in between;
+            // the client drops any event older than the state it gets back
+            SpectatorBroadcaster.Subscription subscription =
+                    broadcaster.subscribe(watchedGame, event -> writeEvent(out, event));
+            response = controller.handle(request);
+            SpectatorBroadcaster.Subscription replaced = response.status == 200
+                    ? watching.put(watchedGame, subscription)
+                    : subscription;
+            if (replaced != null) {
+                replaced.close();
+            }
+        } else {
+            response = controller.handle(request);
+            if (watchedGame != null && "DELETE".equals(request.method)) {
+                SpectatorBroadcaster.Subscription subscription = watching.remove(watchedGame);
+                if (subscription != null) {
+                    subscription.close();
+                }
+            }
+        }
+
+        TransportResponse reply = LoopbackTransport.toTransportResponse(response);
+        try {
+            writeFrame(out, OP_BINARY, TransportEnvelope.encodeResponse(id, reply));
+        } catch (IOException e) {
+            LOG.log(Level.FINE, "Could not send WebSocket response", e);
+        }
+    }
+
+    /** The gameId of a /api/games/{gameId}/watch call, or null for any other call. */
+    private static String watchedGame(ApiRequest request) {
+        String suffix = "/watch";
+        if (!"watch".equals(GameController.endpointName(request.method, request.path))
+                || !request.path.endsWith(suffix)) {
+            return null;
+        }
+        return request.path.substring(GameController.API_PREFIX.length() + 1, request.path.length() - suffix.length());
+    }
+
+    // ===== PROTOCOL =====
+
+    /** Read the upgrade request and answer 101; false (after a 400) if it isn't one. */
+    private static boolean handshake(InputStream in, OutputStream out) throws IOException {
+        String key = null;
+        boolean upgrade = false;
+        int total = 0;
+        String line;
+        while (!(line = readLine(in)).isEmpty()) {
+            total += line.length();
+            if (total > MAX_HANDSHAKE_BYTES) {
+                break;
+            }
+            int colon = line.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            String name = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            String value = line.substring(colon + 1).trim();
+            if ("sec-websocket-key".equals(name)) {
+                key = value;
+            } else if ("upgrade".equals(name)) {
+                upgrade = "websocket".equalsIgnoreCase(value);
+            }
+        }
+
+        if (key == null || !upgrade) {
+            out.write("HTTP/1.1 400 Bad Request\r\nConnection: close\r\nContent-Length: 0\r\n\r\n"
+                    .getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            return false;
+        }
+        String response = "HTTP/1.1 101 Switching Protocols\r\n"
+                + "Upgrade: websocket\r\n"
+                + "Connection: Upgrade\r\n"
+                + "Sec-WebSocket-Accept: " + acceptKey(key) + "\r\n\r\n";
+        out.write(response.getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        return true;
+    }
+
+    static String acceptKey(String key) {
+        try {
+            MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+            byte[] digest = sha1.digest((key + HANDSHAKE_GUID).getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM ships SHA-1
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != '\n') {
+            if (c < 0) {
+                throw new EOFException();
+            }
+            if (c != '\r') {
+                line.append((char) c);
+            }
+        }
+        return line.toString();
+    }
+
+    private static void sendClose(OutputStream out, int code) throws IOException {
+        writeFrame(out, OP_CLOSE, new byte[] {(byte) (code >> 8), (byte) code});
+    }
+
+    /** Server frames are unmasked and never fragmented. */
+    private static void writeFrame(OutputStream out, int opcode, byte[] payload) throws IOException {
+        synchronized (out) {
+            writeHeader(out, opcode, payload.length);
+            out.write(payload);
+            out.flush();
+        }
+    }
+
+    /** A broadcast event, written straight from the buffer its subscribers share. */
+    private static void writeEvent(OutputStream out, SpectatorBroadcaster.Event event) throws IOException {
+        synchronized (out) {
+            writeHeader(out, OP_BINARY, event.length());
+            event.writeTo(out);
+            out.flush();
+        }
+    }
+
+    private static void writeHeader(OutputStream out, int opcode, int length) throws IOException {
+        out.write(0x80 | opcode);
+        if (length < 126) {
+            out.write(length);
+        } else if (length <= 0xFFFF) {
+            out.write(126);
+            out.write(length >> 8);
+            out.write(length);
+        } else {
+            out.write(127);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                out.write((int) ((long) length >> shift));
+            }
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            // Already closed
+        }
+    }
+}
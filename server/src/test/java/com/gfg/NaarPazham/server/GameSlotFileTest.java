@@ -0,0 +1,162 @@
+package com.gfg.NaarPazham.server;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Reopening a slot file: a header copy spoiled by a torn write gives way
+ * to the other copy, and slots that were freed, or taken but never
+ * written, are handed out again before the file grows.
+ */
+public class GameSlotFileTest {
+    private static final int HEADER_STRIDE = 64;
+    private static final int STATE_OFFSET = 8;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path path;
+    private final List<GameSlotFile> opened = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        path = folder.getRoot().toPath().resolve("games.slots");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        for (GameSlotFile file : opened) {
+            file.close();
+        }
+    }
+
+    @Test
+    public void spoiledHeaderFallsBackToTheOtherCopy() throws IOException {
+        GameSlotFile file = open();
+        for (int game = 0; game < 3; game++) {
+            int slot = file.allocate("GAME_" + game, "P1_" + game, "P2_" + game);
+            assertEquals(game, slot);
+            file.write(slot, (byte) 0, 100 + game, 1000 + game, 1001 + game, 1002 + game);
+            file.write(slot, (byte) 0, 200 + game, 2000 + game, 2001 + game, 2002 + game);
+        }
+        file.close();
+
+        // The second write of slot 1 went to the first copy and was torn
+        spoil(1, 0);
+
+        file = open();
+        assertEntry(entry(file, 0), "GAME_0", "P1_0", "P2_0", 200, 2000);
+        assertEntry(entry(file, 1), "GAME_1", "P1_1", "P2_1", 101, 1001);
+        assertEntry(entry(file, 2), "GAME_2", "P1_2", "P2_2", 202, 2002);
+
+        // The next write takes the spoiled copy's place and wins again after a reopen
+        file.write(1, (byte) 1, 301, 3001, 3002, 3003);
+        file.close();
+        file = open();
+        assertEntry(entry(file, 1), "GAME_1", "P1_1", "P2_1", 301, 3001);
+        assertEquals(1, entry(file, 1).status);
+        assertEquals(3, file.recovered().size());
+    }
+
+    @Test
+    public void freedAndUnwrittenSlotsAreReusedAfterReopen() throws IOException {
+        GameSlotFile file = open();
+        for (int game = 0; game < 4; game++) {
+            file.allocate("GAME_" + game, "P1_" + game, "P2_" + game);
+        }
+        file.write(0, (byte) 0, 1, 1, 0, 0);
+        file.write(1, (byte) 0, 1, 1, 0, 0);
+        file.write(3, (byte) 0, 1, 1, 0, 0);
+        file.free(1);
+        // Slot 2 was taken but its first write never happened
+        file.close();
+
+        file = open();
+        assertEquals(2, file.recovered().size());
+        assertNull(entry(file, 1));
+        assertNull(entry(file, 2));
+        assertEquals(4, file.capacityUsed());
+
+        List<Integer> reused = new ArrayList<>();
+        reused.add(file.allocate("GAME_4", "P1_4", "P2_4"));
+        reused.add(file.allocate("GAME_5", "P1_5", "P2_5"));
+        reused.sort(null);
+        assertEquals(List.of(1, 2), reused);
+        assertEquals(4, file.allocate("GAME_6", "P1_6", "P2_6"));
+
+        // A reused slot whose new game never wrote must not bring back the old one
+        file.close();
+        file = open();
+        assertEquals(2, file.recovered().size());
+        assertNull(entry(file, 1));
+    }
+
+    @Test
+    public void reusedSlotHoldsItsNewGameAfterReopen() throws IOException {
+        GameSlotFile file = open();
+        int slot = file.allocate("GAME_OLD", "P1_OLD", "P2_OLD");
+        file.write(slot, (byte) 0, 7, 7, 0, 0);
+        file.free(slot);
+        assertEquals(slot, file.allocate("GAME_NEW", "P1", "P2"));
+        file.write(slot, (byte) 0, 8, 8, 0, 0);
+        file.close();
+
+        file = open();
+        assertEntry(entry(file, slot), "GAME_NEW", "P1", "P2", 8, 8);
+        assertEquals(1, file.recovered().size());
+    }
+
+    // ===== HELPERS =====
+
+    private GameSlotFile open() throws IOException {
+        GameSlotFile file = new GameSlotFile(path);
+        opened.add(file);
+        return file;
+    }
+
+    /** Flip a byte of the state in one header copy, as a torn write would leave it. */
+    private void spoil(int slot, int copy) throws IOException {
+        long offset = (long) slot * GameSlotFile.SLOT_SIZE + copy * HEADER_STRIDE + STATE_OFFSET;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer spoiled = ByteBuffer.allocate(1);
+            channel.read(spoiled, offset);
+            spoiled.put(0, (byte) (spoiled.get(0) ^ 0x55));
+            spoiled.rewind();
+            channel.write(spoiled, offset);
+        }
+    }
+
+    private static GameSlotFile.Entry entry(GameSlotFile file, int slot) {
+        for (GameSlotFile.Entry entry : file.recovered()) {
+            if (entry.slot == slot) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private static void assertEntry(GameSlotFile.Entry entry, String gameId, String player1Id, String player2Id,
+                                    long state, long lastActivity) {
+        assertNotNull(gameId + " not recovered", entry);
+        assertEquals(gameId, entry.gameId);
+        assertEquals(player1Id, entry.player1Id);
+        assertEquals(player2Id, entry.player2Id);
+        assertEquals(state, entry.state);
+        assertEquals(lastActivity, entry.lastActivity);
+    }
+}
@@ -0,0 +1,52 @@
+package com.gfg.NaarPazham.server;
+
+import com.gfg.NaarPazham.GameRules;
+import com.gfg.NaarPazham.ServerGameState;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * A player is in at most one active game: createGame refuses a pairing
+ * while either player is still playing, and the active count follows the
+ * games rather than the players.
+ */
+public class GameStoreTest {
+
+    @Test
+    public void busyPlayerCannotStartAnotherGame() {
+        GameStore store = new GameStore();
+        ServerGameState game = store.createGame("A", "B");
+        assertNotNull(game);
+
+        assertNull(store.createGame("A", "C"));
+        assertNull(store.createGame("C", "B"));
+        assertEquals(game.getGameId(), store.findActiveGame("A").getGameId());
+        assertEquals(game.getGameId(), store.findActiveGame("B").getGameId());
+        assertNull(store.findActiveGame("C"));
+        assertEquals(1, store.activeGameCount());
+        assertEquals(1, store.gameCount());
+    }
+
+    @Test
+    public void playerIsFreeOnceTheirGameEnds() {
+        GameStore store = new GameStore();
+        ServerGameState first = store.createGame("A", "B");
+        assertEquals(GameRules.OK, store.leaveGame(first.getGameId(), "B").code);
+        assertEquals(0, store.activeGameCount());
+
+        ServerGameState second = store.createGame("A", "C");
+        assertNotNull(second);
+        assertEquals(second.getGameId(), store.findActiveGame("A").getGameId());
+        assertNull(store.findActiveGame("B"));
+        assertEquals(1, store.activeGameCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void playerCannotPlayThemselves() {
+        new GameStore().createGame("A", "A");
+    }
+}
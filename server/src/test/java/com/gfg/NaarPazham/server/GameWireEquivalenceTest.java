@@ -0,0 +1,181 @@
+package com.gfg.NaarPazham.server;
+
+import com.gfg.NaarPazham.GameRules;
+import com.gfg.NaarPazham.GameWireCodec;
+import com.gfg.NaarPazham.PlayerMove;
+import com.gfg.NaarPazham.ServerGameState;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * The binary format against the JSON one, through the controller: a game
+ * played with moves sent in either format reads back the same in both
+ * after every move, and a refused move carries the same message.
+ */
+public class GameWireEquivalenceTest {
+    private static final String PLAYER_1 = "PLAYER_A";
+    private static final String PLAYER_2 = "PLAYER_B";
+    private static final Map<String, String> BINARY = Map.of(
+            "Accept", GameWireCodec.ACCEPT_HEADER, "Content-Type", GameWireCodec.VERSIONED_CONTENT_TYPE);
+
+    private final GameStore store = new GameStore();
+    private final GameController controller = new GameController(store, new MatchmakingService(store), null,
+            LoadShedder.disabled());
+
+    @Test
+    public void bothFormatsReadTheSameGameAfterEveryMove() throws Exception {
+        String gameId = store.createGame(PLAYER_1, PLAYER_2).getGameId();
+        Random random = new Random(26);
+        ServerGameState game = readBinary(gameId);
+        for (int turn = 0; "ACTIVE".equals(game.getGameStatus()) && turn < TournamentSimulation.MAX_MOVES; turn++) {
+            long state = packed(game);
+            boolean player1 = GameRules.isPlayer1Turn(state);
+            int move = TournamentSimulation.chooseMove(state, player1, 0.5, random);
+            if (move < 0) {
+                break;
+            }
+            int from = move / 16 - 1;
+            int to = move % 16;
+            String playerId = player1 ? PLAYER_1 : PLAYER_2;
+
+            // Alternate the format the move is sent in; its reply comes back in the same one
+            ServerGameState replied;
+            if (turn % 2 == 0) {
+                JSONObject body = new JSONObject();
+                body.put("playerId", playerId);
+                body.put("boardX", GameRules.cellX(to));
+                body.put("boardY", GameRules.cellY(to));
+                if (from != GameRules.NO_CELL) {
+                    body.put("fromX", GameRules.cellX(from));
+                    body.put("fromY", GameRules.cellY(from));
+                }
+                JSONObject reply = json(call("POST", "/api/games/" + gameId + "/moves", Collections.emptyMap(),
+                        body.toString().getBytes(StandardCharsets.UTF_8)));
+                assertEquals(reply.toString(), "success", reply.getString("status"));
+                replied = fromJson(reply.getJSONObject("game"));
+            } else {
+                Integer fromX = from != GameRules.NO_CELL ? GameRules.cellX(from) : null;
+                Integer fromY = from != GameRules.NO_CELL ? GameRules.cellY(from) : null;
+                ApiResponse reply = call("POST", "/api/games/" + gameId + "/moves", BINARY,
+                        GameWireCodec.encodeMove(playerId, GameRules.cellX(to), GameRules.cellY(to), fromX, fromY));
+                assertEquals(GameWireCodec.TYPE_GAME_STATE, GameWireCodec.frameType(reply.body));
+                replied = GameWireCodec.decodeGameState(reply.body);
+            }
+            assertEquals(turn + 1, replied.getTotalMoves());
+
+            game = readBinary(gameId);
+            assertSameGame(replied, game);
+            assertSameGame(readJson(gameId), game);
+        }
+        assertNotEquals("Game never moved", 0, game.getTotalMoves());
+    }
+
+    @Test
+    public void refusedMoveSaysTheSameInBothFormats() throws Exception {
+        String gameId = store.createGame(PLAYER_1, PLAYER_2).getGameId();
+        String path = "/api/games/" + gameId + "/moves";
+
+        JSONObject body = new JSONObject();
+        body.put("playerId", PLAYER_2);
+        body.put("boardX", 1);
+        body.put("boardY", 1);
+        ApiResponse jsonReply = call("POST", path, Collections.emptyMap(), body.toString().getBytes(StandardCharsets.UTF_8));
+        ApiResponse binaryReply = call("POST", path, BINARY, GameWireCodec.encodeMove(PLAYER_2, 1, 1, null, null));
+
+        assertEquals(jsonReply.status, binaryReply.status);
+        assertEquals(GameWireCodec.TYPE_ERROR, GameWireCodec.frameType(binaryReply.body));
+        assertEquals(json(jsonReply).getString("message"), GameWireCodec.decodeError(binaryReply.body));
+        assertEquals(0, readBinary(gameId).getTotalMoves());
+    }
+
+    // ===== HELPERS =====
+
+    private ApiResponse call(String method, String path, Map<String, String> headers, byte[] body) {
+        return controller.handle(ApiRequest.of(method, path, headers, body));
+    }
+
+    private ServerGameState readBinary(String gameId) throws GameWireCodec.WireFormatException {
+        ApiResponse response = call("GET", "/api/games/" + gameId + "?playerId=" + PLAYER_1, BINARY, null);
+        assertEquals(200, response.status);
+        return GameWireCodec.decodeGameState(response.body);
+    }
+
+    private ServerGameState readJson(String gameId) {
+        ApiResponse response = call("GET", "/api/games/" + gameId + "?playerId=" + PLAYER_1, Collections.emptyMap(), null);
+        assertEquals(200, response.status);
+        return fromJson(json(response).getJSONObject("game"));
+    }
+
+    private static JSONObject json(ApiResponse response) {
+        return new JSONObject(new String(response.body, StandardCharsets.UTF_8));
+    }
+
+    /** The fields NetworkService.parseServerGameState reads. */
+    private static ServerGameState fromJson(JSONObject json) {
+        ServerGameState game = new ServerGameState(json.getString("gameId"));
+        game.setPlayer1Id(json.isNull("player1Id") ? null : json.getString("player1Id"));
+        game.setPlayer2Id(json.isNull("player2Id") ? null : json.getString("player2Id"));
+        game.setGameStatus(json.getString("gameStatus"));
+        game.setPlayer1Turn(json.getBoolean("player1Turn"));
+        game.setPlacementPhase(json.getBoolean("placementPhase"));
+        game.setWinner(json.isNull("winner") ? null : json.getString("winner"));
+        game.setGameStarted(json.getBoolean("gameStarted"));
+        game.setPlayer1Assigned(json.getBoolean("player1Assigned"));
+        game.setPlayer2Assigned(json.getBoolean("player2Assigned"));
+        game.setTotalMoves(json.getInt("totalMoves"));
+        game.setLastActivity(json.getLong("lastActivity"));
+        game.setPlayer1Moves(movesFromJson(json.getJSONArray("player1Moves")));
+        game.setPlayer2Moves(movesFromJson(json.getJSONArray("player2Moves")));
+        return game;
+    }
+
+    private static List<PlayerMove> movesFromJson(JSONArray array) {
+        List<PlayerMove> moves = new ArrayList<>();
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject move = array.getJSONObject(i);
+            moves.add(new PlayerMove(move.getInt("boardX"), move.getInt("boardY"), move.getBoolean("player1")));
+        }
+        return moves;
+    }
+
+    private static long packed(ServerGameState game) {
+        return GameRules.pack(GameRules.toMask(game.getPlayer1Moves()), GameRules.toMask(game.getPlayer2Moves()),
+                GameRules.WINNER_NONE, game.getTotalMoves());
+    }
+
+    private static void assertSameGame(ServerGameState expected, ServerGameState actual) {
+        assertEquals(expected.getGameId(), actual.getGameId());
+        assertEquals(expected.getPlayer1Id(), actual.getPlayer1Id());
+        assertEquals(expected.getPlayer2Id(), actual.getPlayer2Id());
+        assertEquals(expected.getGameStatus(), actual.getGameStatus());
+        assertEquals(expected.isPlayer1Turn(), actual.isPlayer1Turn());
+        assertEquals(expected.isPlacementPhase(), actual.isPlacementPhase());
+        assertEquals(expected.getWinner(), actual.getWinner());
+        assertEquals(expected.isGameStarted(), actual.isGameStarted());
+        assertEquals(expected.isPlayer1Assigned(), actual.isPlayer1Assigned());
+        assertEquals(expected.isPlayer2Assigned(), actual.isPlayer2Assigned());
+        assertEquals(expected.getTotalMoves(), actual.getTotalMoves());
+        assertEquals(expected.getLastActivity(), actual.getLastActivity());
+        // The binary format keeps pieces in cell order, JSON in placement order
+        assertEquals(cells(expected.getPlayer1Moves()), cells(actual.getPlayer1Moves()));
+        assertEquals(cells(expected.getPlayer2Moves()), cells(actual.getPlayer2Moves()));
+    }
+
+    private static Set<PlayerMove> cells(List<PlayerMove> moves) {
+        return new HashSet<>(moves);
+    }
+}
@@ -0,0 +1,120 @@
+package com.gfg.NaarPazham.server;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Cancels racing a tick that pairs the same players. Whatever the
+ * interleaving, a cancel that returns false must mean the player got a
+ * game, and one that returns true that they didn't and aren't queued.
+ */
+public class MatchmakingRaceTest {
+    private static final int ROUNDS = 2000;
+    private static final int PLAYERS = 200;
+
+    private final ExecutorService threads = Executors.newFixedThreadPool(3);
+
+    @After
+    public void tearDown() {
+        threads.shutdownNow();
+    }
+
+    @Test
+    public void cancelDuringAFailedPairingStillCancels() throws Exception {
+        GameStore store = new GameStore();
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        MatchmakingService matchmaking = new MatchmakingService(store, null, () -> {
+            claimed.countDown();
+            await(resume);
+        });
+        matchmaking.findMatch("OLDER", "DEVICE_A");
+        matchmaking.findMatch("NEWER", "DEVICE_B");
+
+        // Hold the tick after it has claimed the older ticket; the newer one leaves meanwhile
+        Future<Integer> tick = threads.submit(matchmaking::tick);
+        assertTrue(claimed.await(10, TimeUnit.SECONDS));
+        assertTrue(matchmaking.cancel("NEWER"));
+        Future<Boolean> cancelOlder = threads.submit(() -> matchmaking.cancel("OLDER"));
+        Thread.sleep(50);
+        assertFalse("Cancel gave up on a pairing in progress", cancelOlder.isDone());
+        resume.countDown();
+
+        assertEquals(0, (int) tick.get(10, TimeUnit.SECONDS));
+        assertTrue(cancelOlder.get(10, TimeUnit.SECONDS));
+        assertOutcome(store, matchmaking, "OLDER", true);
+        assertOutcome(store, matchmaking, "NEWER", true);
+        assertEquals(0, matchmaking.queueSize());
+    }
+
+    @Test
+    public void cancelRacingPairingNeverStrandsAPlayer() throws Exception {
+        GameStore store = new GameStore();
+        for (int round = 0; round < ROUNDS; round++) {
+            MatchmakingService matchmaking = new MatchmakingService(store);
+            String[] playerIds = new String[PLAYERS];
+            for (int i = 0; i < PLAYERS; i++) {
+                playerIds[i] = "P_" + round + "_" + i;
+                matchmaking.findMatch(playerIds[i], "DEVICE_" + round + "_" + i);
+            }
+
+            // The tick pairs 0 with 1, 2 with 3 and so on; one thread cancels the
+            // older of each pair and the other the newer, at about the same pace
+            CyclicBarrier start = new CyclicBarrier(3);
+            Future<Integer> tick = threads.submit(() -> {
+                start.await();
+                return matchmaking.tick();
+            });
+            Future<boolean[]> cancelOlder = threads.submit(() -> cancelEvery(matchmaking, playerIds, 0, start));
+            Future<boolean[]> cancelNewer = threads.submit(() -> cancelEvery(matchmaking, playerIds, 1, start));
+
+            tick.get(10, TimeUnit.SECONDS);
+            boolean[] older = cancelOlder.get(10, TimeUnit.SECONDS);
+            boolean[] newer = cancelNewer.get(10, TimeUnit.SECONDS);
+            for (int pair = 0; pair < PLAYERS / 2; pair++) {
+                assertOutcome(store, matchmaking, playerIds[2 * pair], older[pair]);
+                assertOutcome(store, matchmaking, playerIds[2 * pair + 1], newer[pair]);
+            }
+            assertEquals("Round " + round, 0, matchmaking.queueSize());
+        }
+    }
+
+    /** Cancel every other player from {@code first}; whether each cancel succeeded. */
+    private static boolean[] cancelEvery(MatchmakingService matchmaking, String[] playerIds, int first,
+                                         CyclicBarrier start) throws Exception {
+        boolean[] cancelled = new boolean[playerIds.length / 2];
+        start.await();
+        for (int i = first; i < playerIds.length; i += 2) {
+            cancelled[i / 2] = matchmaking.cancel(playerIds[i]);
+        }
+        return cancelled;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void assertOutcome(GameStore store, MatchmakingService matchmaking, String playerId,
+                                      boolean cancelled) {
+        boolean inGame = store.findActiveGame(playerId) != null;
+        assertNotEquals(playerId + " cancelled " + cancelled + " but in a game " + inGame, cancelled, inGame);
+        assertEquals(playerId, inGame ? MatchmakingService.Status.MATCH_FOUND : MatchmakingService.Status.NOT_FOUND,
+                matchmaking.getStatus(playerId).status);
+    }
+}
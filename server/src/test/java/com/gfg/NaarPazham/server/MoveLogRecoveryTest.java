@@ -0,0 +1,176 @@
+package com.gfg.NaarPazham.server;
+
+import com.gfg.NaarPazham.GameRules;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * A log whose last write was torn, reopened: recovery must stop at the last
+ * whole event, and from there replaying to any event must give the board
+ * that event produced, whether it starts from a snapshot or from the first
+ * move. Run against the heap log, handed a copy of its buffer, and the
+ * mapped one, reopened on the same directory.
+ */
+public class MoveLogRecoveryTest {
+    private static final String GAME_ID = "GAME_1";
+    private static final int EVENTS = 3 * MoveLog.SNAPSHOT_INTERVAL + 5;
+    private static final long TIMESTAMP = 1700000000000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /** Opens a log and reopens it with everything from an offset of the game's bytes zeroed. */
+    private interface Storage {
+        AbstractMoveLog open() throws IOException;
+
+        AbstractMoveLog reopenTorn(AbstractMoveLog log, int offset) throws IOException;
+    }
+
+    @Test
+    public void heapLogStopsAtATornEvent() throws Exception {
+        stopsAtATornEvent(heap());
+    }
+
+    @Test
+    public void mappedLogStopsAtATornEvent() throws Exception {
+        stopsAtATornEvent(mapped());
+    }
+
+    @Test
+    public void heapLogRewritesALostSnapshot() throws Exception {
+        rewritesALostSnapshot(heap());
+    }
+
+    @Test
+    public void mappedLogRewritesALostSnapshot() throws Exception {
+        rewritesALostSnapshot(mapped());
+    }
+
+    // ===== HELPERS =====
+
+    private void stopsAtATornEvent(Storage storage) throws IOException {
+        long[] states = new long[EVENTS + 2];
+        Random random = new Random(31);
+        AbstractMoveLog log = storage.open();
+        appendEvents(log, states, 1, EVENTS, random);
+
+        // The payload of the last event made it, its header and check byte didn't
+        int offset = AbstractMoveLog.eventSlot(EVENTS) * MoveRecord.SIZE + 4;
+        AbstractMoveLog reopened = storage.reopenTorn(log, offset);
+        assertMatches(reopened, states, EVENTS - 1);
+
+        // Appending picks up where the whole events end
+        appendEvents(reopened, states, EVENTS, EVENTS + 1, random);
+        assertMatches(reopened, states, EVENTS + 1);
+    }
+
+    private void rewritesALostSnapshot(Storage storage) throws IOException {
+        int snapshotted = 2 * MoveLog.SNAPSHOT_INTERVAL;
+        long[] states = new long[EVENTS + 1];
+        Random random = new Random(37);
+        AbstractMoveLog log = storage.open();
+        appendEvents(log, states, 1, snapshotted, random);
+
+        // The crash came between the event and the snapshot that follows it
+        int offset = AbstractMoveLog.snapshotSlot(2) * MoveRecord.SIZE;
+        AbstractMoveLog reopened = storage.reopenTorn(log, offset);
+        assertMatches(reopened, states, snapshotted);
+
+        // Replays past the event now start from the rewritten snapshot
+        appendEvents(reopened, states, snapshotted + 1, EVENTS, random);
+        assertMatches(reopened, states, EVENTS);
+    }
+
+    /** Append events {@code from..to}, recording the board after each in {@code states}. */
+    private static void appendEvents(MoveLog log, long[] states, int from, int to, Random random) {
+        long state = states[from - 1];
+        for (int sequence = from; sequence <= to; sequence++) {
+            boolean player1 = GameRules.isPlayer1Turn(state);
+            int move = GameRules.isGameOver(state) ? -1 : TournamentSimulation.chooseMove(state, player1, 0.5, random);
+            if (move < 0) {
+                // Over or blocked in: carry on from a fresh board so the log keeps going
+                assertEquals(sequence, log.appendRestore(GAME_ID, GameRules.NEW_GAME));
+                state = GameRules.NEW_GAME;
+            } else {
+                assertEquals(sequence, log.appendMove(GAME_ID, player1, move / 16 - 1, move % 16, TIMESTAMP + sequence));
+                state = GameRules.apply(state, player1, move / 16 - 1, move % 16);
+            }
+            states[sequence] = state;
+        }
+    }
+
+    private static void assertMatches(MoveLog log, long[] states, int lastSequence) {
+        assertEquals(lastSequence, log.lastSequence(GAME_ID));
+        assertEquals(states[lastSequence], log.replay(GAME_ID));
+        for (int sequence = 0; sequence <= lastSequence; sequence++) {
+            assertEquals("Replay to " + sequence, states[sequence], log.replayTo(GAME_ID, sequence));
+        }
+        List<MoveRecord> records = log.read(GAME_ID, 1);
+        assertEquals(lastSequence, records.size());
+        long replayed = GameRules.NEW_GAME;
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(i + 1, records.get(i).sequence);
+            replayed = records.get(i).applyTo(replayed);
+        }
+        assertEquals(states[lastSequence], replayed);
+    }
+
+    private static Storage heap() {
+        return new Storage() {
+            @Override
+            public AbstractMoveLog open() {
+                return new InMemoryMoveLog();
+            }
+
+            @Override
+            public AbstractMoveLog reopenTorn(AbstractMoveLog log, int offset) {
+                ByteBuffer copy = null;
+                for (AbstractMoveLog.PerGameLog open : log.openLogs()) {
+                    if (open.gameId.equals(GAME_ID)) {
+                        ByteBuffer source = open.buffer.duplicate();
+                        source.clear();
+                        copy = ByteBuffer.allocate(source.capacity());
+                        copy.put(source);
+                    }
+                }
+                for (int i = offset; i < copy.capacity(); i++) {
+                    copy.put(i, (byte) 0);
+                }
+                InMemoryMoveLog reopened = new InMemoryMoveLog();
+                reopened.restore(GAME_ID, copy);
+                return reopened;
+            }
+        };
+    }
+
+    private Storage mapped() throws IOException {
+        Path directory = folder.newFolder("moves").toPath();
+        return new Storage() {
+            @Override
+            public AbstractMoveLog open() throws IOException {
+                return new MappedMoveLog(directory);
+            }
+
+            @Override
+            public AbstractMoveLog reopenTorn(AbstractMoveLog log, int offset) throws IOException {
+                log.flush();
+                try (FileChannel file = FileChannel.open(directory.resolve(GAME_ID + ".mlog"), StandardOpenOption.WRITE)) {
+                    file.write(ByteBuffer.allocate((int) file.size() - offset), offset);
+                }
+                return new MappedMoveLog(directory);
+            }
+        };
+    }
+}
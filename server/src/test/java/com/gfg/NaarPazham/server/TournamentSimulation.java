@@ -0,0 +1,390 @@
+package com.gfg.NaarPazham.server;
+
+import com.gfg.NaarPazham.GameRules;
+import com.gfg.NaarPazham.ServerGameState;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tournaments played out by AI players on a game store, shared by
+ * TournamentSimulationTest and TournamentBenchmark: every move goes through
+ * processMove and every round advances on the store's completions, as on
+ * the server.
+ *
+ * Each AI move is its own task on a shared pool, so all games of a round
+ * are in play at once. AIs take a winning move, and avoid handing one
+ * over, with a probability that falls with their seed, so the top seeds
+ * have an edge without deciding the bracket. A player with no legal move,
+ * or to move once a game reaches {@link #MAX_MOVES}, resigns.
+ *
+ * {@link #check} throws IllegalStateException unless the bracket holds up:
+ * every round paired in turn and complete, one game per player per Swiss
+ * round, n - 1 knockout games with exactly one player never beaten, Swiss
+ * points matching the results, and the same result after an encode/decode.
+ */
+final class TournamentSimulation implements AutoCloseable {
+
+    static final int MAX_MOVES = 60;
+    private static final int NO_MOVE = -1;
+
+    final GameStore store;
+    final TournamentService service;
+
+    private final ExecutorService scheduler;
+    private final ExecutorService movePool;
+    private final List<Integer> roundsStarted = new CopyOnWriteArrayList<>();
+    private final AtomicInteger gamesStarted = new AtomicInteger();
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    /** One game being played, one move task at a time. */
+    private static final class Match {
+        final String gameId;
+        final String player1Id;
+        final String player2Id;
+        final double player1Skill;
+        final double player2Skill;
+        long state = GameRules.NEW_GAME;
+
+        Match(ServerGameState game, double player1Skill, double player2Skill) {
+            this.gameId = game.getGameId();
+            this.player1Id = game.getPlayer1Id();
+            this.player2Id = game.getPlayer2Id();
+            this.player1Skill = player1Skill;
+            this.player2Skill = player2Skill;
+        }
+    }
+
+    /**
+     * A fresh store and service; a non-null {@code directory} saves brackets
+     * there and resumes the unfinished ones already in it.
+     */
+    TournamentSimulation(Path directory) throws IOException {
+        scheduler = Executors.newSingleThreadExecutor();
+        movePool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        store = new GameStore();
+        // Resumed tournaments start on the scheduler; hold it until the observer is in place
+        CountDownLatch observing = new CountDownLatch(1);
+        scheduler.execute(() -> awaitQuietly(observing));
+        service = new TournamentService(store, directory, scheduler);
+        service.setObserver(new TournamentService.Observer() {
+            @Override
+            public void onGameStarted(Tournament tournament, ServerGameState game) {
+                gamesStarted.incrementAndGet();
+                int players = tournament.getPlayerCount();
+                Match match = new Match(game, skill(seedOf(game.getPlayer1Id()), players),
+                        skill(seedOf(game.getPlayer2Id()), players));
+                movePool.execute(() -> playTurn(match));
+            }
+
+            @Override
+            public void onRoundStarted(Tournament tournament, Tournament.Round round) {
+                roundsStarted.add(round.number);
+            }
+
+            @Override
+            public void onTournamentFinished(Tournament tournament) {
+                finished.countDown();
+            }
+        });
+        observing.countDown();
+    }
+
+    /** AI_00000, AI_00001 and so on, best seed first. */
+    static List<String> playerIds(int count) {
+        List<String> playerIds = new ArrayList<>(count);
+        for (int seed = 0; seed < count; seed++) {
+            playerIds.add(String.format("AI_%05d", seed));
+        }
+        return playerIds;
+    }
+
+    /** Create the tournament; the AIs play it from here on. */
+    Tournament start(Tournament.Format format, int players) {
+        return format == Tournament.Format.SWISS
+                ? service.createSwiss(playerIds(players), Tournament.defaultSwissRounds(players))
+                : service.createSingleElimination(playerIds(players));
+    }
+
+    /** Wait for the one tournament this simulation is running to finish, then check it. */
+    void finish(Tournament tournament, long timeoutMs) throws InterruptedException, IOException {
+        boolean done = finished.await(timeoutMs, TimeUnit.MILLISECONDS);
+        if (failure.get() != null) {
+            throw new IllegalStateException("AI player failed", failure.get());
+        }
+        if (!done) {
+            throw new IllegalStateException("Tournament stuck in round " + tournament.getRoundsStarted()
+                    + " with " + service.getGamesInPlay() + " games in play");
+        }
+        check(tournament);
+    }
+
+    /** Rounds started while this simulation ran, in order. */
+    List<Integer> roundsStarted() {
+        return roundsStarted;
+    }
+
+    /** Games this simulation's service created. */
+    int gamesStarted() {
+        return gamesStarted.get();
+    }
+
+    @Override
+    public void close() {
+        movePool.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    // ===== AI PLAYERS =====
+
+    /** Play one game to the end on the calling thread. */
+    static void playOut(GameStore store, ServerGameState game, double skill, Random random) {
+        Match match = new Match(game, skill, skill);
+        while (!GameRules.isGameOver(match.state) && moveOnce(store, match, random)) {
+            // One move per pass
+        }
+    }
+
+    private void playTurn(Match match) {
+        try {
+            if (moveOnce(store, match, ThreadLocalRandom.current()) && !GameRules.isGameOver(match.state)) {
+                movePool.execute(() -> playTurn(match));
+            }
+        } catch (RuntimeException e) {
+            if (failure.compareAndSet(null, e)) {
+                finished.countDown();
+            }
+        }
+    }
+
+    /** Make the next move, or resign; false once the game is over by resignation. */
+    private static boolean moveOnce(GameStore store, Match match, Random random) {
+        boolean player1 = GameRules.isPlayer1Turn(match.state);
+        String playerId = player1 ? match.player1Id : match.player2Id;
+        int move = GameRules.moveCount(match.state) < MAX_MOVES
+                ? chooseMove(match.state, player1, player1 ? match.player1Skill : match.player2Skill, random)
+                : NO_MOVE;
+        if (move == NO_MOVE) {
+            store.leaveGame(match.gameId, playerId);
+            return false;
+        }
+        int from = move / 16 - 1;
+        int to = move % 16;
+        GameStore.MoveResult result = store.processMove(match.gameId, playerId, from, to);
+        if (!result.isSuccess()) {
+            throw new IllegalStateException("AI move rejected: " + GameRules.describe(result.code));
+        }
+        match.state = GameRules.apply(match.state, player1, from, to);
+        return true;
+    }
+
+    /**
+     * A legal move as (fromCell + 1) * 16 + toCell, or NO_MOVE if every
+     * piece is blocked in. With probability {@code skill} the AI wins if it
+     * can and otherwise steers clear of moves that let the opponent win
+     * next; else it plays at random.
+     */
+    static int chooseMove(long state, boolean player1, double skill, Random random) {
+        int[] moves = legalMoves(state, player1);
+        if (moves.length == 0) {
+            return NO_MOVE;
+        }
+        if (random.nextDouble() >= skill) {
+            return moves[random.nextInt(moves.length)];
+        }
+        int[] safe = new int[moves.length];
+        int safeCount = 0;
+        for (int move : moves) {
+            long next = GameRules.apply(state, player1, move / 16 - 1, move % 16);
+            if (GameRules.isGameOver(next)) {
+                return move;
+            }
+            if (!canWinNext(next, !player1)) {
+                safe[safeCount++] = move;
+            }
+        }
+        return safeCount > 0 ? safe[random.nextInt(safeCount)] : moves[random.nextInt(moves.length)];
+    }
+
+    private static boolean canWinNext(long state, boolean player1) {
+        for (int move : legalMoves(state, player1)) {
+            if (GameRules.isGameOver(GameRules.apply(state, player1, move / 16 - 1, move % 16))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] legalMoves(long state, boolean player1) {
+        int own = GameRules.playerMask(state, player1);
+        int empty = ~(GameRules.player1Mask(state) | GameRules.player2Mask(state));
+        int[] moves = new int[GameRules.CELL_COUNT * GameRules.PIECES_PER_PLAYER];
+        int count = 0;
+        boolean placing = GameRules.isPlacementPhase(state);
+        for (int to = 0; to < GameRules.CELL_COUNT; to++) {
+            if ((empty & (1 << to)) == 0) {
+                continue;
+            }
+            if (placing) {
+                moves[count++] = to; // From NO_CELL
+                continue;
+            }
+            for (int from = 0; from < GameRules.CELL_COUNT; from++) {
+                if ((own & (1 << from)) != 0 && GameRules.areAdjacent(from, to)) {
+                    moves[count++] = (from + 1) * 16 + to;
+                }
+            }
+        }
+        return Arrays.copyOf(moves, count);
+    }
+
+    private static double skill(int seed, int players) {
+        return 0.95 - 0.6 * seed / players;
+    }
+
+    private static int seedOf(String playerId) {
+        return Integer.parseInt(playerId.substring(3));
+    }
+
+    // ===== CHECKS =====
+
+    void check(Tournament tournament) throws IOException {
+        int players = tournament.getPlayerCount();
+        if (!tournament.isFinished() || tournament.getWinner() == Tournament.BYE) {
+            throw new IllegalStateException("Tournament over without a winner");
+        }
+        if (tournament.getRoundsStarted() != tournament.getRoundCount()) {
+            throw new IllegalStateException(tournament.getRoundsStarted() + " of "
+                    + tournament.getRoundCount() + " rounds started");
+        }
+        // Whatever this simulation saw start (all of it, unless resumed) came in order, up to the last round
+        for (int i = 0; i < roundsStarted.size(); i++) {
+            if (roundsStarted.get(i) != tournament.getRoundCount() - roundsStarted.size() + i) {
+                throw new IllegalStateException("Rounds started out of order: " + roundsStarted);
+            }
+        }
+
+        boolean swiss = tournament.getFormat() == Tournament.Format.SWISS;
+        boolean[] beaten = new boolean[players];
+        boolean[] hadBye = new boolean[players];
+        int[] points = new int[players];
+        int games = 0;
+        int byes = 0;
+        for (int number = 0; number < tournament.getRoundCount(); number++) {
+            Tournament.Round round = tournament.getRound(number);
+            if (!round.isComplete()) {
+                throw new IllegalStateException("Round " + number + " incomplete");
+            }
+            int[] appearances = new int[players];
+            for (int game = 0; game < round.gameCount(); game++) {
+                int player1 = round.player1(game);
+                int player2 = round.player2(game);
+                appearances[player1]++;
+                if (player2 == Tournament.BYE) {
+                    if (swiss && hadBye[player1]) {
+                        throw new IllegalStateException("Seed " + player1 + " had a second bye");
+                    }
+                    hadBye[player1] = true;
+                    points[player1] += 2;
+                    byes++;
+                    continue;
+                }
+                appearances[player2]++;
+                games++;
+                if (!swiss && (beaten[player1] || beaten[player2])) {
+                    throw new IllegalStateException("A beaten player played on in round " + number);
+                }
+                if (round.result(game) == Tournament.DRAWN) {
+                    points[player1]++;
+                    points[player2]++;
+                } else {
+                    int winner = round.winner(game);
+                    points[winner] += 2;
+                    beaten[winner == player1 ? player2 : player1] = true;
+                }
+            }
+            for (int seed = 0; seed < players; seed++) {
+                int expected = swiss || number == 0 ? 1 : appearances[seed];
+                if (appearances[seed] != expected || appearances[seed] > 1) {
+                    throw new IllegalStateException("Seed " + seed + " paired " + appearances[seed]
+                            + " times in round " + number);
+                }
+            }
+        }
+
+        if (swiss) {
+            checkStandings(tournament, points, 2 * (games + byes));
+        } else {
+            if (games != players - 1) {
+                throw new IllegalStateException(games + " knockout games for " + players + " players");
+            }
+            int unbeaten = 0;
+            for (int seed = 0; seed < players; seed++) {
+                unbeaten += beaten[seed] ? 0 : 1;
+            }
+            if (unbeaten != 1 || beaten[tournament.getWinner()]) {
+                throw new IllegalStateException(unbeaten + " unbeaten players, champion seed "
+                        + tournament.getWinner());
+            }
+        }
+        if (service.getGamesInPlay() != 0) {
+            throw new IllegalStateException(service.getGamesInPlay() + " games still in play");
+        }
+
+        Tournament decoded = Tournament.decode(tournament.encode());
+        if (!decoded.isFinished() || decoded.getWinner() != tournament.getWinner()
+                || !Arrays.equals(decoded.getStandings(), tournament.getStandings())) {
+            throw new IllegalStateException("Saved bracket decodes to a different result");
+        }
+    }
+
+    /** Points as the results add them up, in total and per seed, and standings ranked by them. */
+    private static void checkStandings(Tournament tournament, int[] points, int total) {
+        int sum = 0;
+        for (int seed = 0; seed < points.length; seed++) {
+            if (tournament.getPoints(seed) != points[seed]) {
+                throw new IllegalStateException("Seed " + seed + " has " + tournament.getPoints(seed)
+                        + " half points for results worth " + points[seed]);
+            }
+            sum += points[seed];
+        }
+        if (sum != total) {
+            throw new IllegalStateException(sum + " half points handed out for " + total / 2 + " games");
+        }
+        int[] standings = tournament.getStandings();
+        boolean[] ranked = new boolean[points.length];
+        for (int place = 0; place < standings.length; place++) {
+            if (ranked[standings[place]]) {
+                throw new IllegalStateException("Seed " + standings[place] + " ranked twice");
+            }
+            ranked[standings[place]] = true;
+            if (place > 0 && points[standings[place - 1]] < points[standings[place]]) {
+                throw new IllegalStateException("Standings out of order at place " + place);
+            }
+        }
+        if (standings.length != points.length || standings[0] != tournament.getWinner()) {
+            throw new IllegalStateException("Standings don't rank every seed under the winner");
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.gfg.NaarPazham.server;
+
+import com.gfg.NaarPazham.ServerGameState;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Whole tournaments played by the AI players of {@link TournamentSimulation},
+ * which throws if a bracket doesn't hold up: every round starts in turn and
+ * completes, a knockout ends with exactly one unbeaten player, and Swiss
+ * points and standings add up to the results. The 4096-player fields are
+ * the ones TournamentBenchmark times and must finish within
+ * {@link #FULL_FIELD_TIMEOUT_MS}; the odd sizes bring in byes, a restarted
+ * server must replay only the games that had no result, and a pairing must
+ * wait for a player who is still in another game.
+ */
+public class TournamentSimulationTest {
+    private static final int FULL_FIELD = 4096;
+    private static final long FULL_FIELD_TIMEOUT_MS = 30000;
+    private static final long TIMEOUT_MS = 60000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<TournamentSimulation> simulations = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        for (TournamentSimulation simulation : simulations) {
+            simulation.close();
+        }
+    }
+
+    @Test(timeout = FULL_FIELD_TIMEOUT_MS)
+    public void fullKnockoutCrownsOneChampion() throws Exception {
+        play(Tournament.Format.SINGLE_ELIMINATION, FULL_FIELD);
+    }
+
+    @Test(timeout = FULL_FIELD_TIMEOUT_MS)
+    public void fullSwissStandingsAddUp() throws Exception {
+        play(Tournament.Format.SWISS, FULL_FIELD);
+    }
+
+    @Test
+    public void knockoutWithByes() throws Exception {
+        play(Tournament.Format.SINGLE_ELIMINATION, 100); // Not a power of two, so the top seeds get byes
+    }
+
+    @Test
+    public void swissWithByes() throws Exception {
+        play(Tournament.Format.SWISS, 101); // Odd, so every round has a bye
+    }
+
+    @Test
+    public void resumeReplaysOnlyGamesWithoutAResult() throws Exception {
+        Path directory = folder.newFolder("brackets").toPath();
+        GameStore store = new GameStore();
+        TournamentService service = new TournamentService(store, directory);
+        BlockingQueue<ServerGameState> started = new LinkedBlockingQueue<>();
+        service.setObserver(new TournamentService.Observer() {
+            @Override
+            public void onGameStarted(Tournament tournament, ServerGameState game) {
+                started.add(game);
+            }
+        });
+
+        // Decide one game of the first round and let it be saved
+        Tournament tournament = service.createSwiss(TournamentSimulation.playerIds(8), 3);
+        ServerGameState first = started.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        assertNotNull("No game started", first);
+        TournamentSimulation.playOut(store, first, 0.5, new Random(49));
+        Tournament.Round round = tournament.getRound(0);
+        int decided = -1;
+        for (int game = 0; game < round.gameCount(); game++) {
+            if (round.result(game) != Tournament.PENDING) {
+                decided = game;
+            }
+        }
+        assertNotEquals("No result recorded", -1, decided);
+        Path file = directory.resolve(tournament.getId() + ".bracket");
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (savedResult(file, decided) == Tournament.PENDING) {
+            assertTrue("Result never saved", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+
+        // A new server on the same directory plays the rest
+        TournamentSimulation restarted = simulation(directory);
+        Tournament loaded = restarted.service.getTournament(tournament.getId());
+        restarted.finish(loaded, TIMEOUT_MS);
+        assertEquals(round.result(decided), loaded.getRound(0).result(decided));
+        assertEquals(Arrays.asList(0, 1, 2), restarted.roundsStarted());
+        assertEquals(loaded.getRound(0).gameCount() - 1 + gamesAfterRound(loaded, 0), restarted.gamesStarted());
+    }
+
+    @Test
+    public void pairingWaitsForAPlayersOtherGame() throws Exception {
+        GameStore store = new GameStore();
+        TournamentService service = new TournamentService(store);
+        BlockingQueue<ServerGameState> started = new LinkedBlockingQueue<>();
+        service.setObserver(new TournamentService.Observer() {
+            @Override
+            public void onGameStarted(Tournament tournament, ServerGameState game) {
+                started.add(game);
+            }
+        });
+
+        // The top seed is still in a matchmaking game when the knockout starts
+        List<String> playerIds = TournamentSimulation.playerIds(2);
+        ServerGameState casual = store.createGame(playerIds.get(0), "CASUAL_OPPONENT");
+        service.createSingleElimination(playerIds);
+        assertNull("Started over a game in play", started.poll(200, TimeUnit.MILLISECONDS));
+        assertEquals(casual.getGameId(), store.findActiveGame(playerIds.get(0)).getGameId());
+
+        store.leaveGame(casual.getGameId(), "CASUAL_OPPONENT");
+        ServerGameState game = started.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        assertNotNull("Never started once the player was free", game);
+        assertEquals(game.getGameId(), store.findActiveGame(playerIds.get(0)).getGameId());
+        assertEquals(1, service.getGamesInPlay());
+    }
+
+    // ===== HELPERS =====
+
+    private void play(Tournament.Format format, int players) throws Exception {
+        TournamentSimulation simulation = simulation(null);
+        Tournament tournament = simulation.start(format, players);
+        simulation.finish(tournament, TIMEOUT_MS);
+        assertEquals(0, (int) simulation.roundsStarted().get(0));
+    }
+
+    private TournamentSimulation simulation(Path directory) throws IOException {
+        TournamentSimulation simulation = new TournamentSimulation(directory);
+        simulations.add(simulation);
+        return simulation;
+    }
+
+    private static int gamesAfterRound(Tournament tournament, int round) {
+        int games = 0;
+        for (int number = round + 1; number < tournament.getRoundCount(); number++) {
+            Tournament.Round later = tournament.getRound(number);
+            for (int game = 0; game < later.gameCount(); game++) {
+                if (later.player2(game) != Tournament.BYE) {
+                    games++;
+                }
+            }
+        }
+        return games;
+    }
+
+    private static byte savedResult(Path file, int game) throws IOException {
+        if (!Files.exists(file)) {
+            return Tournament.PENDING;
+        }
+        Tournament saved = Tournament.decode(Files.readAllBytes(file));
+        return saved.getRoundsStarted() > 0 ? saved.getRound(0).result(game) : Tournament.PENDING;
+    }
+}